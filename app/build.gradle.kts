@@ -1,6 +1,16 @@
 import java.util.Properties
 import java.io.FileInputStream
 
+buildscript {
+    repositories {
+        mavenCentral()
+    }
+    dependencies {
+        // 빌드 시 카탈로그 DB(assets/catalog/events.db) 생성용
+        classpath("org.xerial:sqlite-jdbc:3.46.1.3")
+    }
+}
+
 plugins {
     alias(libs.plugins.android.application)
 }
@@ -37,6 +47,58 @@ android {
         buildConfigField("String", "OPENAI_API_KEY", "\"$openaiApiKey\"")
         buildConfigField("String", "PICOVOICE_ACCESS_KEY", "\"$picovoiceAccessKey\"")
         buildConfigField("String", "ADMIN_PIN", "\"$adminPin\"")
+
+        // 챗봇 부스 검색(BM25) 사용 여부 - false면 전체 프로그램 목록을 프롬프트에 포함 (비교용)
+        val chatRetrieval = localProperties.getProperty("CHAT_RETRIEVAL") ?: "true"
+        buildConfigField("boolean", "CHAT_RETRIEVAL", chatRetrieval)
+
+        // 챗봇 요청 입력 토큰 예산 (시스템 프롬프트 + 요약 + 최근 대화)
+        val chatInputTokenBudget = localProperties.getProperty("CHAT_INPUT_TOKEN_BUDGET") ?: "6000"
+        buildConfigField("int", "CHAT_INPUT_TOKEN_BUDGET", chatInputTokenBudget)
+
+        // 첫 토큰 마감 시간 (ms) - 넘기면 같은 요청을 한 번 더 보냄, 0이면 헤지 사용 안 함
+        val chatHedgeDelayMs = localProperties.getProperty("CHAT_HEDGE_DELAY_MS") ?: "3000"
+        buildConfigField("long", "CHAT_HEDGE_DELAY_MS", "${chatHedgeDelayMs}L")
+
+        // 자주 묻는 사실 질문(일정/장소/입장료 등) 로컬 답변 사용 여부
+        val chatFastPath = localProperties.getProperty("CHAT_FAST_PATH") ?: "true"
+        buildConfigField("boolean", "CHAT_FAST_PATH", chatFastPath)
+
+        // 챗봇 함수 도구(search_booths/get_event_info) 사용 여부 - false면 프로그램 정보를 프롬프트에 포함
+        val chatTools = localProperties.getProperty("CHAT_TOOLS") ?: "true"
+        buildConfigField("boolean", "CHAT_TOOLS", chatTools)
+
+        // 질문 복잡도별 모델/출력 토큰 선택 (assets/model_routes.json) - false면 모든 질문에 gpt-4o-mini/500
+        val chatModelRouting = localProperties.getProperty("CHAT_MODEL_ROUTING") ?: "true"
+        buildConfigField("boolean", "CHAT_MODEL_ROUTING", chatModelRouting)
+
+        // 챗봇 답변을 문장 단위로 로봇 음성 출력 (스트리밍 중 첫 문장부터)
+        val chatSpeak = localProperties.getProperty("CHAT_SPEAK") ?: "true"
+        buildConfigField("boolean", "CHAT_SPEAK", chatSpeak)
+
+        // 추천 프로그램을 문장 대신 부스 참조([[booths:id,...]])로 받아 로컬 DB 카드로 표시
+        val chatBoothCards = localProperties.getProperty("CHAT_BOOTH_CARDS") ?: "true"
+        buildConfigField("boolean", "CHAT_BOOTH_CARDS", chatBoothCards)
+
+        // 실시간 음성(Realtime 대화 / STT) 마이크 프레임 길이 - 이 간격으로 input_audio_buffer.append 전송
+        val realtimeFrameMs = localProperties.getProperty("REALTIME_FRAME_MS") ?: "20"
+        buildConfigField("int", "REALTIME_FRAME_MS", realtimeFrameMs)
+
+        // 실시간 음성 로컬 VAD - 말소리 구간(+앞뒤 여유)만 전송, false면 연결 중 마이크 전체 전송 (비교용, REALTIME_FULL_DUPLEX=true면 무시)
+        val realtimeLocalVad = localProperties.getProperty("REALTIME_LOCAL_VAD") ?: "true"
+        buildConfigField("boolean", "REALTIME_LOCAL_VAD", realtimeLocalVad)
+
+        // 말이 이 시간(ms) 끊기면 앱이 턴 종료(input_audio_buffer.commit) - 0이면 서버 VAD가 턴 종료 (로컬 VAD 자동 사용)
+        val realtimeLocalCommitMs = localProperties.getProperty("REALTIME_LOCAL_COMMIT_MS") ?: "0"
+        buildConfigField("int", "REALTIME_LOCAL_COMMIT_MS", realtimeLocalCommitMs)
+
+        // 전이중 음성 대화 - AI가 말하는 중에도 마이크를 열어 두고(에코 제거) 끼어들기 허용, false면 응답 중 마이크 중지
+        val realtimeFullDuplex = localProperties.getProperty("REALTIME_FULL_DUPLEX") ?: "true"
+        buildConfigField("boolean", "REALTIME_FULL_DUPLEX", realtimeFullDuplex)
+
+        // 카탈로그 DB 해시 (CSV 내용 + 형식 버전) - 앱은 저장된 해시와 다를 때만 events를 다시 채움
+        val catalogHash = CatalogCsv.hash(file("src/main/assets/booth_program_image.csv"))
+        buildConfigField("String", "CATALOG_DB_HASH", "\"$catalogHash\"")
     }
 
     buildTypes {
@@ -59,9 +121,43 @@ android {
     buildFeatures {
         buildConfig = true
     }
+
+    // JVM 단위 테스트 (녹화 재생 테스트: MockWebServer가 OpenAI 채팅/Realtime 대신 응답)
+    testOptions {
+        // android.* 호출(Log 등)은 예외 대신 기본값 반환
+        unitTests.isReturnDefaultValues = true
+    }
+
+    // 녹화된 SSE 스트림은 core 테스트 리소스를 같이 씀 (sse/*.txt)
+    sourceSets {
+        getByName("test").resources.srcDir("../core/src/test/resources")
+    }
+}
+
+// 프롬프트용 프로그램 목록 생성 (assets CSV -> CatalogPrompt.java, 토큰 비교: build/reports/catalog/catalog-prompt.txt)
+val generateCatalogPrompt = tasks.register<GenerateCatalogPrompt>("generateCatalogPrompt") {
+    csvFile.set(layout.projectDirectory.file("src/main/assets/booth_program_image.csv"))
+    outputDir.set(layout.buildDirectory.dir("generated/source/catalog"))
+    reportFile.set(layout.buildDirectory.file("reports/catalog/catalog-prompt.txt"))
+}
+
+// 카탈로그 DB 생성 (assets CSV -> assets/catalog/events.db)
+val generateCatalogDatabase = tasks.register<GenerateCatalogDatabase>("generateCatalogDatabase") {
+    csvFile.set(layout.projectDirectory.file("src/main/assets/booth_program_image.csv"))
+    outputDir.set(layout.buildDirectory.dir("generated/assets/catalog"))
+}
+
+androidComponents {
+    onVariants { variant ->
+        variant.sources.java?.addGeneratedSourceDirectory(generateCatalogPrompt, GenerateCatalogPrompt::outputDir)
+        variant.sources.assets?.addGeneratedSourceDirectory(generateCatalogDatabase, GenerateCatalogDatabase::outputDir)
+    }
 }
 
 dependencies {
+    // 안드로이드에 의존하지 않는 파서/계산 (JVM 테스트, JMH 벤치마크 대상)
+    implementation(project(":core"))
+
     implementation(libs.appcompat)
     implementation(libs.material)
 
@@ -69,6 +165,9 @@ dependencies {
     implementation(libs.constraintlayout)
 
     testImplementation(libs.junit)
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.9.3")
+    // android.jar의 org.json은 JVM 테스트에서 동작하지 않음 (RealtimeSTTService)
+    testImplementation("org.json:json:20231013")
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 
@@ -88,8 +187,288 @@ dependencies {
 
     // Networking
     implementation("com.squareup.okhttp3:okhttp:4.9.3")
-    implementation("com.google.code.gson:gson:2.10.1")
+    implementation(libs.gson)
 
     // Porcupine Wake Word SDK
     implementation("ai.picovoice:porcupine-android:3.0.0")
-}
\ No newline at end of file
+}
+
+// ===== 프로그램 카탈로그 공통 (CSV 읽기, DB 해시) =====
+
+object CatalogCsv {
+    /** 카탈로그 DB 형식 버전 (열/변환 규칙이 바뀌면 올려서 앱이 다시 가져오게 함, 2: id = CSV 행 순서) */
+    const val FORMAT_VERSION = 2
+
+    fun read(csv: File): List<List<String>> = parse(csv.readText(Charsets.UTF_8).removePrefix("\uFEFF"))
+
+    /** BuildConfig.CATALOG_DB_HASH - CSV 내용 + 형식 버전의 SHA-256 앞 16자리 */
+    fun hash(csv: File): String {
+        val digest = java.security.MessageDigest.getInstance("SHA-256")
+        digest.update(csv.readBytes())
+        digest.update(FORMAT_VERSION.toString().toByteArray())
+        return digest.digest().joinToString("") { "%02x".format(it) }.take(16)
+    }
+
+    /** "5분", "15~30분" -> 분 (범위는 큰 값), 숫자가 없으면 null (core CsvParser.parseMinutes와 같음) */
+    fun minutes(raw: String): Int? {
+        Regex("(\\d+)\\s*~\\s*(\\d+)").find(raw)?.let { return it.groupValues[2].toInt() }
+        return Regex("(\\d+)").find(raw)?.groupValues?.get(1)?.toInt()
+    }
+
+    /** 큰따옴표 안의 쉼표/줄바꿈/"" 처리 */
+    private fun parse(text: String): List<List<String>> {
+        val records = mutableListOf<List<String>>()
+        var record = mutableListOf<String>()
+        val token = StringBuilder()
+        var inQuotes = false
+        var i = 0
+        while (i < text.length) {
+            val c = text[i]
+            when {
+                inQuotes && c == '"' && i + 1 < text.length && text[i + 1] == '"' -> { token.append('"'); i++ }
+                c == '"' -> inQuotes = !inQuotes
+                !inQuotes && c == ',' -> { record.add(token.toString()); token.setLength(0) }
+                !inQuotes && (c == '\n' || c == '\r') -> {
+                    if (c == '\r' && i + 1 < text.length && text[i + 1] == '\n') i++
+                    record.add(token.toString()); token.setLength(0)
+                    if (record.any { it.isNotEmpty() }) records.add(record)
+                    record = mutableListOf()
+                }
+                else -> token.append(c)
+            }
+            i++
+        }
+        record.add(token.toString())
+        if (record.any { it.isNotEmpty() }) records.add(record)
+        return records
+    }
+
+}
+
+/**
+ * booth_program_image.csv를 읽어 프롬프트용 프로그램 목록 상수(CatalogPrompt.PROGRAM_CATALOG) 생성
+ * - 반복되는 범주형 값(참여대상, 접수 방식, 기간, 운영시간)은 범례 코드로 한 번만 적음
+ * - 분야별로 묶어서 분야 이름도 한 번만 적음
+ * - 행마다 모든 값을 반복하는 방식과 비교한 토큰 추정치를 보고서로 남김
+ */
+abstract class GenerateCatalogPrompt : DefaultTask() {
+    @get:InputFile
+    @get:PathSensitive(PathSensitivity.RELATIVE)
+    abstract val csvFile: RegularFileProperty
+
+    @get:OutputDirectory
+    abstract val outputDir: DirectoryProperty
+
+    @get:OutputFile
+    abstract val reportFile: RegularFileProperty
+
+    /** 범례로 바꿀 열 (열 이름, 표시 이름, 코드 접두어, 항상 표기 여부) */
+    private class LegendColumn(val column: String, val label: String, val prefix: String, val alwaysShown: Boolean)
+
+    private val legendColumns = listOf(
+        LegendColumn("참여대상", "대상", "", true),
+        LegendColumn("사전모집여부", "접수", "R", false),
+        LegendColumn("체험기간", "기간", "P", false),
+        LegendColumn("체험시간", "운영시간", "H", false)
+    )
+
+    @TaskAction
+    fun generate() {
+        val csv = csvFile.get().asFile
+        val records = CatalogCsv.read(csv)
+        val header = records.first()
+        fun col(name: String): Int = header.indexOf(name).also {
+            require(it >= 0) { "${csv.name}: '$name' 열이 없습니다" }
+        }
+        val field = col("분야")
+        val title = col("대제목")
+        val intro = col("한줄소개")
+        val minutes = col("소요시간")
+        val rows = records.drop(1).filter { it.size > title && it[title].isNotBlank() }
+
+        // 열마다 값 -> 코드 (빈도순, 표기 생략 열은 가장 많은 값이 기본값)
+        val codes = legendColumns.map { legend ->
+            val index = col(legend.column)
+            val values = rows.groupingBy { it.getOrElse(index) { "" } }.eachCount()
+                .entries.sortedByDescending { it.value }.map { it.key }
+            val start = if (legend.alwaysShown) 0 else 1
+            index to values.mapIndexed { i, value ->
+                value to when {
+                    i < start -> ""
+                    legend.prefix.isEmpty() -> ('A' + i).toString()
+                    else -> legend.prefix + (i - start + 1)
+                }
+            }.toMap(LinkedHashMap())
+        }
+
+        val catalog = StringBuilder()
+        catalog.append("=== 프로그램 목록 (").append(rows.size).append("개, 분야별) ===\n")
+        catalog.append("형식: id|제목|소개|대상|소요시간(분)|기타 코드\n")
+        legendColumns.forEachIndexed { i, legend ->
+            val valueCodes = codes[i].second
+            catalog.append(legend.label).append(": ")
+            if (valueCodes.size == 1) {
+                catalog.append("모두 ").append(valueCodes.keys.first())
+            } else {
+                catalog.append(valueCodes.entries.joinToString(", ") { (value, code) ->
+                    if (code.isEmpty()) "표기 없으면 $value" else "$code=$value"
+                })
+            }
+            catalog.append('\n')
+        }
+
+        // id = events.id (제목 있는 행 순서, 1부터 - GenerateCatalogDatabase)
+        val groups = rows.withIndex().groupBy { it.value[field] }
+        for ((name, groupRows) in groups) {
+            catalog.append("\n[").append(name).append("]\n")
+            for ((index, row) in groupRows) {
+                val titleText = row[title].trim()
+                // 소개가 제목과 같으면 생략
+                val introText = row.getOrElse(intro) { "" }.trim().takeIf { it != titleText } ?: ""
+                catalog.append(index + 1).append('|')
+                    .append(titleText).append('|')
+                    .append(introText).append('|')
+                    .append(codes[0].second[row.getOrElse(codes[0].first) { "" }]).append('|')
+                    .append(row.getOrElse(minutes) { "" }.trim())
+                val extras = codes.drop(1).mapNotNull { (index, valueCodes) ->
+                    valueCodes[row.getOrElse(index) { "" }]?.takeIf { it.isNotEmpty() }
+                }
+                if (extras.isNotEmpty()) {
+                    catalog.append('|').append(extras.joinToString(" "))
+                }
+                catalog.append('\n')
+            }
+        }
+
+        // 비교 기준: 행마다 모든 값을 반복하는 기존 방식
+        val verbose = StringBuilder("=== 프로그램 목록 ===\n")
+        verbose.append(header.joinToString("\t")).append('\n')
+        for (row in rows) {
+            verbose.append(row.joinToString("\t") { it.trim() }).append('\n')
+        }
+
+        val text = catalog.toString()
+        val verboseTokens = estimateTokens(verbose.toString())
+        val catalogTokens = estimateTokens(text)
+
+        val javaFile = outputDir.get().file("com/example/temidummyapp/CatalogPrompt.java").asFile
+        javaFile.parentFile.mkdirs()
+        javaFile.writeText(buildString {
+            append("package com.example.temidummyapp;\n\n")
+            append("/**\n")
+            append(" * 자동 생성 파일 - 직접 수정하지 마세요 (app/build.gradle.kts generateCatalogPrompt)\n")
+            append(" * 원본: src/main/assets/").append(csv.name).append('\n')
+            append(" */\n")
+            append("final class CatalogPrompt {\n\n")
+            append("    /** 프로그램 수 */\n")
+            append("    static final int PROGRAM_COUNT = ").append(rows.size).append(";\n\n")
+            append("    /** 추정 토큰 수 (행마다 모든 값 반복 / 압축 목록) */\n")
+            append("    static final int VERBOSE_TOKENS = ").append(verboseTokens).append(";\n")
+            append("    static final int CATALOG_TOKENS = ").append(catalogTokens).append(";\n\n")
+            append("    /** 시스템 프롬프트용 프로그램 목록 */\n")
+            append("    static final String PROGRAM_CATALOG =\n")
+            val lines = text.split('\n').dropLast(1)
+            lines.forEachIndexed { i, line ->
+                append("            \"").append(javaEscape(line)).append("\\n\"")
+                append(if (i == lines.size - 1) ";\n" else " +\n")
+            }
+            append("\n    private CatalogPrompt() {\n    }\n}\n")
+        }, Charsets.UTF_8)
+
+        val saved = verboseTokens - catalogTokens
+        val report = buildString {
+            append("원본: ").append(csv.name).append(" (").append(rows.size).append("개 프로그램, ")
+                .append(groups.size).append("개 분야)\n")
+            append("행마다 모든 값 반복: ").append(verbose.length).append("자, 약 ").append(verboseTokens).append(" 토큰\n")
+            append("압축 목록: ").append(text.length).append("자, 약 ").append(catalogTokens).append(" 토큰\n")
+            append("절감: 약 ").append(saved).append(" 토큰 (")
+                .append(if (verboseTokens > 0) saved * 100 / verboseTokens else 0).append("%)\n\n")
+            append(text)
+        }
+        reportFile.get().asFile.apply { parentFile.mkdirs() }.writeText(report, Charsets.UTF_8)
+        logger.lifecycle("CatalogPrompt: ${rows.size}개 프로그램, 약 $verboseTokens -> $catalogTokens 토큰 " +
+                "(${reportFile.get().asFile})")
+    }
+
+    /** utils/TokenEstimator와 같은 근사치 (한글 0.75, ASCII 0.25, 그 외 1 토큰) */
+    private fun estimateTokens(text: String): Int {
+        var tokens = 0f
+        for (c in text) {
+            tokens += when {
+                c.code < 0x80 -> 0.25f
+                c.code in 0xAC00..0xD7A3 || c.code in 0x3131..0x318E -> 0.75f
+                c.isLowSurrogate() -> 0f
+                else -> 1f
+            }
+        }
+        return Math.ceil(tokens.toDouble()).toInt()
+    }
+
+    private fun javaEscape(s: String): String =
+        s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\t", "\\t")
+}
+
+/**
+ * booth_program_image.csv를 읽어 events 테이블만 있는 SQLite 파일(assets/catalog/events.db) 생성
+ * 앱은 BuildConfig.CATALOG_DB_HASH가 저장된 값과 다를 때만 이 파일의 행을 옮김 (EventDatabase.ensureCatalog)
+ */
+abstract class GenerateCatalogDatabase : DefaultTask() {
+    @get:InputFile
+    @get:PathSensitive(PathSensitivity.RELATIVE)
+    abstract val csvFile: RegularFileProperty
+
+    @get:OutputDirectory
+    abstract val outputDir: DirectoryProperty
+
+    @TaskAction
+    fun generate() {
+        val csv = csvFile.get().asFile
+        val records = CatalogCsv.read(csv)
+        val header = records.first()
+        val rows = records.drop(1).filter { it.size > 1 && it[1].isNotBlank() }
+        fun value(row: List<String>, column: String): String? =
+            header.indexOf(column).takeIf { it >= 0 }?.let { row.getOrNull(it)?.trim() }
+
+        val dbFile = outputDir.get().file("catalog/events.db").asFile
+        dbFile.parentFile.mkdirs()
+        dbFile.delete()
+
+        // EventDatabase.onCreate와 같은 스키마
+        org.sqlite.JDBC().connect("jdbc:sqlite:" + dbFile.absolutePath, java.util.Properties()).use { conn ->
+            conn.createStatement().use {
+                it.executeUpdate("CREATE TABLE events (" +
+                        "id INTEGER PRIMARY KEY AUTOINCREMENT, 분야 TEXT, 대제목 TEXT, 한줄소개 TEXT, " +
+                        "사전모집여부 TEXT, 참여대상 TEXT, 소요시간 INTEGER, 소요시간_원본 TEXT, " +
+                        "체험기간 TEXT, 체험시간 TEXT, url TEXT, 이미지파일 TEXT)")
+            }
+            conn.autoCommit = false
+            // id는 행 순서로 고정 (CatalogPrompt 목록과 챗봇 부스 참조가 같은 번호를 씀)
+            conn.prepareStatement("INSERT INTO events (id, 분야, 대제목, 한줄소개, 사전모집여부, 참여대상, " +
+                    "소요시간, 소요시간_원본, 체험기간, 체험시간, url, 이미지파일) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)").use { insert ->
+                rows.forEachIndexed { i, row ->
+                    val rawMinutes = value(row, "소요시간") ?: ""
+                    insert.setInt(1, i + 1)
+                    insert.setString(2, value(row, "분야"))
+                    insert.setString(3, value(row, "대제목"))
+                    insert.setString(4, value(row, "한줄소개"))
+                    insert.setString(5, value(row, "사전모집여부"))
+                    insert.setString(6, value(row, "참여대상"))
+                    val minutes = CatalogCsv.minutes(rawMinutes)
+                    if (minutes != null) insert.setInt(7, minutes) else insert.setNull(7, java.sql.Types.INTEGER)
+                    insert.setString(8, rawMinutes)
+                    insert.setString(9, value(row, "체험기간"))
+                    insert.setString(10, value(row, "체험시간"))
+                    insert.setString(11, value(row, "url") ?: "")
+                    insert.setString(12, value(row, "이미지파일"))
+                    insert.addBatch()
+                }
+                insert.executeBatch()
+            }
+            conn.commit()
+            conn.autoCommit = true
+            conn.createStatement().use { it.executeUpdate("VACUUM") }
+        }
+        logger.lifecycle("CatalogDatabase: ${rows.size}행 -> ${dbFile.name} (${dbFile.length()} bytes)")
+    }
+}
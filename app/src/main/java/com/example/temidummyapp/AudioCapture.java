@@ -0,0 +1,170 @@
+package com.example.temidummyapp;
+
+import android.util.Log;
+
+import com.example.temidummyapp.core.AudioFrame;
+import com.example.temidummyapp.core.AudioFramePool;
+import com.example.temidummyapp.core.SpeechGate;
+import com.example.temidummyapp.core.VoiceActivityDetector;
+
+/**
+ * 마이크 -> 고정 길이 프레임 (Realtime 음성 대화 / 실시간 STT 공용 녹음 단계)
+ * - AudioRecord 버퍼 크기(기기마다 다름)와 상관없이 frameMs 단위로 정확히 잘라 보냄
+ * - 프레임은 풀에서 빌려 씀 (받은 쪽이 recycle), 녹음 위치(샘플 수)와 녹음 시각을 같이 기록
+ * - 녹음 스레드 하나에서 마이크 시작 -> 읽기 -> FrameSink 호출
+ */
+final class AudioCapture {
+    private static final String TAG = "AudioCapture";
+
+    // 보관 중인 프레임(발화 앞부분 등)까지 고려한 풀 크기
+    private static final int POOL_FRAMES = 32;
+
+    // 로컬 VAD: 말소리로 판단하기까지 걸리는 시간 / 그 전에 함께 보낼 구간 (말 첫소리 보호)
+    private static final int ONSET_MS = 40;
+    private static final int PRE_ROLL_MS = 300;
+    // AI 음성 재생 중 (에코 보호): 더 오래, 더 크게 들려야 말소리로 판단
+    private static final int ECHO_ONSET_MS = 80;
+    private static final double ECHO_MARGIN_DB = 6;
+
+    interface FrameSink {
+        /**
+         * 마이크 시작 결과 (녹음 스레드)
+         */
+        void onStarted(boolean started);
+
+        /**
+         * 프레임 하나 (녹음 스레드) - 다 쓰면 frame.recycle()
+         */
+        void onFrame(AudioFrame frame);
+
+        /**
+         * 읽기 오류로 녹음이 멈춤 (녹음 스레드)
+         */
+        void onError(String message);
+    }
+
+    private final AudioInput input;
+    private final int sampleRate;
+    private final int frameMs;
+    private final AudioFramePool pool;
+
+    private volatile boolean running = false;
+    private Thread thread;
+
+    AudioCapture(AudioInput input, int sampleRate, int frameMs) {
+        this.input = input;
+        this.sampleRate = sampleRate;
+        this.frameMs = frameMs;
+        this.pool = new AudioFramePool(AudioFramePool.frameBytes(sampleRate, frameMs), POOL_FRAMES);
+    }
+
+    int frameBytes() {
+        return pool.frameBytes();
+    }
+
+    int frameMs() {
+        return frameMs;
+    }
+
+    int sampleRate() {
+        return sampleRate;
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 이 녹음 설정에 맞는 말소리 게이트 (녹음 스레드의 FrameSink 안에서만 사용)
+     *
+     * @param hangoverMs 말이 끊긴 뒤에도 계속 보낼 시간
+     */
+    SpeechGate newSpeechGate(int hangoverMs) {
+        return new SpeechGate(new VoiceActivityDetector(sampleRate), frameMs, PRE_ROLL_MS, hangoverMs, ONSET_MS,
+                ECHO_ONSET_MS, ECHO_MARGIN_DB);
+    }
+
+    /**
+     * 녹음 스레드 시작 (이미 녹음 중이면 무시)
+     */
+    synchronized void start(FrameSink sink) {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(() -> captureLoop(sink), TAG);
+        thread.start();
+    }
+
+    private void captureLoop(FrameSink sink) {
+        if (!input.start()) {
+            running = false;
+            sink.onStarted(false);
+            return;
+        }
+        if (!running) {
+            // 시작하는 사이 stop() 됨
+            input.release();
+            return;
+        }
+        Log.d(TAG, "녹음 시작 (" + frameMs + "ms = " + frameBytes() + " bytes 프레임)");
+        sink.onStarted(true);
+
+        int frameBytes = pool.frameBytes();
+        long position = 0; // 샘플 수
+        try {
+            while (running) {
+                AudioFrame frame = pool.acquire();
+                int filled = 0;
+                while (filled < frameBytes && running) {
+                    int n = input.read(frame.data, filled, frameBytes - filled);
+                    if (n < 0) {
+                        if (running) {
+                            Log.e(TAG, "마이크 읽기 오류: " + n);
+                            running = false;
+                            sink.onError("마이크 읽기 오류 (" + n + ")");
+                        }
+                        break;
+                    }
+                    filled += n;
+                }
+                if (filled < frameBytes) {
+                    frame.recycle();
+                    break;
+                }
+                frame.set(filled, position, input.positionTimeNanos(position));
+                position += frameBytes / 2;
+                sink.onFrame(frame);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "녹음 오류", e);
+            if (running) {
+                running = false;
+                sink.onError("오디오 스트리밍 오류: " + e.getMessage());
+            }
+        }
+        Log.d(TAG, "녹음 스레드 종료 (프레임 생성 " + pool.created() + "개)");
+    }
+
+    /**
+     * 녹음 중지 + 마이크 해제 (녹음 스레드 종료 대기)
+     */
+    void stop() {
+        Thread captureThread;
+        synchronized (this) {
+            running = false;
+            captureThread = thread;
+            thread = null;
+        }
+        // 블로킹 read 깨우기
+        input.release();
+        if (captureThread != null && captureThread != Thread.currentThread()) {
+            try {
+                captureThread.join(1000);
+            } catch (InterruptedException e) {
+                Log.e(TAG, "녹음 스레드 종료 대기 실패", e);
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.temidummyapp;
+
+/**
+ * 실시간 음성 서비스의 마이크 입력 (PCM16 모노)
+ * 앱에서는 MicAudioInput(AudioRecord), JVM 테스트에서는 녹음 데이터를 실시간 속도로 흘려보내는 가짜 입력
+ * 프레임 단위로 자르는 것은 AudioCapture
+ */
+interface AudioInput {
+
+    /**
+     * 녹음 시작 (release 후 다시 호출 가능)
+     *
+     * @return 마이크를 열지 못했으면 false
+     */
+    boolean start();
+
+    /**
+     * PCM 읽기 (데이터가 올 때까지 블로킹)
+     *
+     * @return 읽은 바이트 수, 녹음 중이 아니면 0 이하
+     */
+    int read(byte[] buffer, int offset, int length);
+
+    /**
+     * 녹음 위치(시작부터 샘플 수)의 녹음 시각 (System.nanoTime 기준)
+     */
+    long positionTimeNanos(long position);
+
+    /**
+     * 녹음 중지 + 자원 해제
+     */
+    void release();
+}
@@ -0,0 +1,34 @@
+package com.example.temidummyapp;
+
+/**
+ * 실시간 음성 서비스의 음성 출력 (PCM16 모노)
+ * 앱에서는 AudioTrackOutput, JVM 테스트에서는 받은 바이트를 기록하는 가짜 출력
+ * write / flush는 AudioPlayback 재생 스레드에서만 호출 (write는 막혀도 됨)
+ */
+interface AudioOutput {
+
+    /**
+     * PCM 재생 (처음 호출 시 출력 준비)
+     */
+    void write(byte[] pcm, int offset, int length);
+
+    /**
+     * 재생 위치 - write로 넘긴 샘플 중 스피커로 나간 곳까지 (flush로 버린 샘플은 건너뜀)
+     */
+    long playbackPosition();
+
+    /**
+     * 아직 재생되지 않은 음성 버리기 (사용자가 끼어들 때), 출력은 계속 사용
+     */
+    void flush();
+
+    /**
+     * 즉시 무음 + 남은 버퍼 비우기 (나가기 버튼 등)
+     */
+    void mute();
+
+    /**
+     * 재생 중지 + 자원 해제 (다음 write에서 다시 준비)
+     */
+    void release();
+}
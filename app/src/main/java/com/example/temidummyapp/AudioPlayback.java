@@ -0,0 +1,255 @@
+package com.example.temidummyapp;
+
+import android.os.Process;
+import android.util.Log;
+
+import com.example.temidummyapp.core.AudioRingBuffer;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 수신 음성 -> 스피커 (Realtime 음성 대화 재생 단계, AudioCapture의 반대 방향)
+ * - WebSocket 스레드는 링 버퍼에 넣기만 함 (막히지 않음, 가득 차면 그 델타를 버리고 overrun 기록)
+ * - 재생 스레드(오디오 우선순위) 하나가 CHUNK_MS씩 꺼내 AudioOutput.write (여기서만 블로킹)
+ * - 지터 버퍼: TARGET_MS만큼 모이면 재생 시작, 응답 도중 스피커까지 비면 underrun 기록 후 다시 모음
+ * - 재생 위치는 write로 넣은 샘플 기준 (flush / overrun으로 버린 샘플은 재생된 것으로 봄)
+ */
+final class AudioPlayback {
+    private static final String TAG = "AudioPlayback";
+
+    // 재생 시작 전에 모을 양 (델타 도착 간격 흔들림 흡수) - 덜 모여도 이 시간이 지나면 시작
+    private static final int TARGET_MS = 60;
+    // 재생 스레드가 한 번에 넘기는 양 (flush가 반영되기까지 걸리는 시간의 상한)
+    private static final int CHUNK_MS = 20;
+    // 링 버퍼 크기 - 서버는 실시간보다 빠르게 보내므로 긴 답변 하나가 통째로 들어갈 만큼
+    private static final int BUFFER_MS = 60_000;
+
+    private final AudioOutput output;
+    private final int sampleRate;
+    private final int targetBytes;
+    private final int chunkBytes;
+    private final AudioRingBuffer ring;
+
+    private volatile boolean running = false;
+    private volatile Thread thread;
+
+    // WebSocket 스레드에서만 변경
+    private volatile boolean endOfStream = true;
+    private volatile long droppedSamples = 0;
+    private volatile int overruns = 0;
+
+    // 이 위치(ring.writeIndex)까지 버림 - 아무 스레드에서 요청, 재생 스레드가 처리
+    private volatile long flushTo = 0;
+    // 음소거 후에는 release 전까지 들어오는 음성을 모두 버림 (멈춘 출력에 write하지 않음)
+    private volatile boolean muted = false;
+
+    // 재생 스레드에서만 변경
+    private long flushedTo = 0;
+    private long handedSamples = 0; // output.write로 넘긴 샘플
+    private volatile long flushedSamples = 0;
+    private volatile int underruns = 0;
+
+    AudioPlayback(AudioOutput output, int sampleRate) {
+        this.output = output;
+        this.sampleRate = sampleRate;
+        this.targetBytes = sampleRate * TARGET_MS / 1000 * 2;
+        this.chunkBytes = sampleRate * CHUNK_MS / 1000 * 2;
+        this.ring = new AudioRingBuffer(sampleRate * (BUFFER_MS / 1000) * 2);
+    }
+
+    /**
+     * PCM 넣기 (WebSocket 스레드, 막히지 않음) - 처음 호출 시 재생 스레드 시작
+     */
+    void write(byte[] pcm, int offset, int length) {
+        endOfStream = false;
+        if (!ring.offer(pcm, offset, length)) {
+            overruns++;
+            droppedSamples += length / 2;
+            Log.w(TAG, "⚠️ 재생 버퍼 가득 참 - " + length + " bytes 버림");
+            return;
+        }
+        Thread playbackThread = thread;
+        if (playbackThread == null) {
+            start();
+        } else {
+            LockSupport.unpark(playbackThread);
+        }
+    }
+
+    /**
+     * 응답 음성 끝 (WebSocket 스레드) - 이후 버퍼가 비는 것은 underrun이 아님, 목표만큼 안 모여도 바로 재생
+     */
+    void endOfStream() {
+        endOfStream = true;
+        wake();
+    }
+
+    /**
+     * 재생 위치 (샘플) - 지금까지 write로 넣은 샘플 중 스피커로 나갔거나 버린 곳까지
+     */
+    long playbackPosition() {
+        return droppedSamples + flushedSamples + output.playbackPosition();
+    }
+
+    /**
+     * 아직 재생되지 않은 음성 버리기 (끼어들 때) - 지금까지 넣은 것만, 재생 스레드가 CHUNK_MS 안에 처리
+     */
+    void flush() {
+        flushTo = ring.writeIndex();
+        wake();
+    }
+
+    /**
+     * 즉시 무음 (나가기 버튼 등, 메인 스레드)
+     */
+    void mute() {
+        muted = true;
+        output.mute();
+        wake();
+    }
+
+    int underruns() {
+        return underruns;
+    }
+
+    int overruns() {
+        return overruns;
+    }
+
+    private synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        Thread playbackThread = new Thread(this::playbackLoop, TAG);
+        thread = playbackThread;
+        playbackThread.start();
+    }
+
+    private void wake() {
+        Thread playbackThread = thread;
+        if (playbackThread != null) {
+            LockSupport.unpark(playbackThread);
+        }
+    }
+
+    private void playbackLoop() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_URGENT_AUDIO);
+        Log.d(TAG, "재생 시작 (목표 " + TARGET_MS + "ms, " + CHUNK_MS + "ms 단위)");
+
+        byte[] chunk = new byte[chunkBytes];
+        boolean playing = false;
+        long waitStartNanos = 0;
+        try {
+            while (running) {
+                if (muted) {
+                    long end = ring.writeIndex();
+                    flushedSamples += ring.skipTo(end) / 2;
+                    flushedTo = end;
+                    playing = false;
+                    LockSupport.park(this);
+                    continue;
+                }
+
+                long to = flushTo;
+                if (to > flushedTo) {
+                    flushedSamples += ring.skipTo(to) / 2;
+                    flushedTo = to;
+                    output.flush();
+                    playing = false;
+                    waitStartNanos = 0;
+                    continue;
+                }
+
+                int available = ring.size();
+                if (available == 0) {
+                    if (!playing) {
+                        LockSupport.park(this);
+                        continue;
+                    }
+                    long buffered = handedSamples - output.playbackPosition();
+                    if (endOfStream) {
+                        playing = false;
+                    } else if (buffered <= 0) {
+                        // 응답 도중 스피커까지 비었음 - 소리가 끊김
+                        underruns++;
+                        playing = false;
+                        Log.w(TAG, "⚠️ 재생 underrun (" + underruns + "회)");
+                    } else {
+                        // 스피커에 남은 음성이 끝나기 전에 다음 델타가 오면 그대로 이어서 재생
+                        LockSupport.parkNanos(this, buffered * 1_000_000_000L / sampleRate);
+                    }
+                    continue;
+                }
+
+                if (!playing) {
+                    if (available < targetBytes && !endOfStream) {
+                        long now = System.nanoTime();
+                        if (waitStartNanos == 0) {
+                            waitStartNanos = now;
+                        }
+                        long remaining = TARGET_MS * 1_000_000L - (now - waitStartNanos);
+                        if (remaining > 0) {
+                            LockSupport.parkNanos(this, remaining);
+                            continue;
+                        }
+                    }
+                    waitStartNanos = 0;
+                    playing = true;
+                }
+
+                int n = ring.poll(chunk, 0, chunk.length);
+                output.write(chunk, 0, n);
+                handedSamples += n / 2;
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "재생 오류", e);
+            synchronized (this) {
+                // 다음 write에서 다시 시작
+                running = false;
+                thread = null;
+            }
+        }
+        Log.d(TAG, "재생 스레드 종료 (underrun " + underruns + "회, overrun " + overruns + "회)");
+    }
+
+    /**
+     * 재생 중지 + 출력 해제 (재생 스레드 종료 대기, 남은 음성은 버림) - 다음 write에서 다시 시작
+     */
+    void release() {
+        Thread playbackThread;
+        synchronized (this) {
+            running = false;
+            playbackThread = thread;
+            thread = null;
+        }
+        if (playbackThread != null) {
+            LockSupport.unpark(playbackThread);
+            join(playbackThread, CHUNK_MS * 5);
+        }
+        // 재생 스레드가 출력 write에 막혀 있었다면 여기서 풀림
+        output.release();
+        if (playbackThread != null) {
+            join(playbackThread, 1000);
+        }
+        if (playbackThread == null || !playbackThread.isAlive()) {
+            // 재생 스레드가 없으므로 여기서 소비자 역할
+            flushedSamples += ring.skipTo(ring.writeIndex()) / 2;
+            flushedTo = ring.writeIndex();
+        }
+        endOfStream = true;
+        muted = false;
+    }
+
+    private static void join(Thread playbackThread, long timeoutMs) {
+        if (playbackThread == Thread.currentThread()) {
+            return;
+        }
+        try {
+            playbackThread.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Log.e(TAG, "재생 스레드 종료 대기 실패", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.temidummyapp;
+
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioManager;
+import android.media.AudioTrack;
+import android.util.Log;
+
+/**
+ * 음성 출력 (AudioTrack 스트림 모드, PCM16 모노) - 첫 write 때 생성
+ * 재생 위치 = headOffset + AudioTrack 재생 헤드 (트랙을 새로 만들거나 flush 하면 헤드 기준이 바뀌므로 보정)
+ * 통화 모드: USAGE_VOICE_COMMUNICATION 으로 재생 (마이크 에코 제거가 이 출력을 기준 신호로 씀)
+ */
+class AudioTrackOutput implements AudioOutput {
+    private static final String TAG = "AudioTrackOutput";
+    private static final int AUDIO_FORMAT = AudioFormat.ENCODING_PCM_16BIT;
+
+    private final int sampleRate;
+    private final boolean voiceCommunication;
+    private volatile AudioTrack audioTrack;
+    private final Object positionLock = new Object();
+    private long writtenSamples = 0; // write로 넘긴 샘플 누적
+    private long headOffset = 0;
+
+    AudioTrackOutput(int sampleRate) {
+        this(sampleRate, false);
+    }
+
+    /**
+     * @param voiceCommunication 통화용 출력 (전이중 대화: MicAudioInput 음성 처리 모드와 함께 사용)
+     */
+    AudioTrackOutput(int sampleRate, boolean voiceCommunication) {
+        this.sampleRate = sampleRate;
+        this.voiceCommunication = voiceCommunication;
+    }
+
+    @Override
+    public void write(byte[] pcm, int offset, int length) {
+        AudioTrack track = audioTrack;
+        if (track == null) {
+            int minBufferSize = AudioTrack.getMinBufferSize(sampleRate,
+                    AudioFormat.CHANNEL_OUT_MONO, AUDIO_FORMAT);
+
+            // 버퍼 크기를 4배로 늘려서 끊김 방지
+            int bufferSize = minBufferSize * 4;
+
+            Log.d(TAG, "🎵 AudioTrack 생성 (버퍼: " + bufferSize + " bytes, 통화 모드: " + voiceCommunication + ")");
+
+            if (voiceCommunication) {
+                track = new AudioTrack(
+                        new AudioAttributes.Builder()
+                                .setUsage(AudioAttributes.USAGE_VOICE_COMMUNICATION)
+                                .setContentType(AudioAttributes.CONTENT_TYPE_SPEECH)
+                                .build(),
+                        new AudioFormat.Builder()
+                                .setSampleRate(sampleRate)
+                                .setChannelMask(AudioFormat.CHANNEL_OUT_MONO)
+                                .setEncoding(AUDIO_FORMAT)
+                                .build(),
+                        bufferSize,
+                        AudioTrack.MODE_STREAM,
+                        AudioManager.AUDIO_SESSION_ID_GENERATE);
+            } else {
+                track = new AudioTrack(
+                        AudioManager.STREAM_MUSIC,
+                        sampleRate,
+                        AudioFormat.CHANNEL_OUT_MONO,
+                        AUDIO_FORMAT,
+                        bufferSize,
+                        AudioTrack.MODE_STREAM);
+            }
+
+            track.play();
+            synchronized (positionLock) {
+                headOffset = writtenSamples;
+            }
+            audioTrack = track;
+            Log.d(TAG, "▶️ AudioTrack 재생 시작");
+        }
+
+        synchronized (positionLock) {
+            writtenSamples += length / 2;
+        }
+
+        // 오디오 데이터 쓰기
+        int written = track.write(pcm, offset, length);
+        if (written < 0) {
+            Log.e(TAG, "❌ AudioTrack write 실패: " + written);
+        }
+    }
+
+    @Override
+    public long playbackPosition() {
+        AudioTrack track = audioTrack;
+        synchronized (positionLock) {
+            if (track == null) {
+                return writtenSamples;
+            }
+            long head = track.getPlaybackHeadPosition() & 0xFFFFFFFFL;
+            return Math.min(writtenSamples, headOffset + head);
+        }
+    }
+
+    @Override
+    public void flush() {
+        AudioTrack track = audioTrack;
+        if (track == null) {
+            return;
+        }
+        try {
+            track.pause();
+            track.flush();
+            synchronized (positionLock) {
+                // 버린 샘플은 재생된 것으로 보고 위치를 맞춤
+                headOffset = writtenSamples - (track.getPlaybackHeadPosition() & 0xFFFFFFFFL);
+            }
+            track.play();
+            Log.d(TAG, "⏭️ 남은 음성 버림 (끼어들기)");
+        } catch (IllegalStateException e) {
+            Log.w(TAG, "⚠️ AudioTrack이 이미 정지됨", e);
+        }
+    }
+
+    @Override
+    public void mute() {
+        AudioTrack track = audioTrack;
+        if (track == null) {
+            Log.d(TAG, "ℹ️ AudioTrack이 null (이미 종료됨)");
+            return;
+        }
+        try {
+            // 1. 볼륨을 즉시 0으로
+            track.setStereoVolume(0.0f, 0.0f);
+            Log.d(TAG, "🔇 볼륨 0 설정 완료");
+
+            // 2. 재생 일시 정지
+            track.pause();
+            Log.d(TAG, "⏸️ AudioTrack 일시 정지");
+
+            // 3. 버퍼 비우기 (진행 중인 음성 제거)
+            track.flush();
+            synchronized (positionLock) {
+                headOffset = writtenSamples - (track.getPlaybackHeadPosition() & 0xFFFFFFFFL);
+            }
+            Log.d(TAG, "🗑️ AudioTrack 버퍼 비우기 완료");
+
+        } catch (IllegalStateException e) {
+            Log.w(TAG, "⚠️ AudioTrack이 이미 정지됨", e);
+        } catch (Exception e) {
+            Log.e(TAG, "❌ 오디오 음소거 오류", e);
+        }
+    }
+
+    @Override
+    public void release() {
+        AudioTrack track = audioTrack;
+        if (track == null) {
+            return;
+        }
+        audioTrack = null;
+        try {
+            Log.d(TAG, "AudioTrack 중지 시작");
+
+            // 즉시 볼륨 0으로 설정 (무음)
+            track.setStereoVolume(0.0f, 0.0f);
+
+            // 재생 중인 오디오 즉시 플러시
+            track.pause();
+            track.flush();
+            track.stop();
+            track.release();
+
+            Log.d(TAG, "AudioTrack 중지 완료");
+        } catch (IllegalStateException e) {
+            Log.w(TAG, "AudioTrack이 이미 해제됨", e);
+        } catch (Exception e) {
+            Log.e(TAG, "AudioTrack 중지 오류", e);
+        }
+    }
+}
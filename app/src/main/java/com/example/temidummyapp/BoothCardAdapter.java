@@ -24,9 +24,18 @@ public class BoothCardAdapter extends RecyclerView.Adapter<BoothCardAdapter.View
 
     private List<HashMap<String, String>> boothList;
     private Context context;
+    private final int layoutRes;
 
     public BoothCardAdapter(List<HashMap<String, String>> boothList) {
+        this(boothList, R.layout.item_booth_card);
+    }
+
+    /**
+     * @param layoutRes 카드 레이아웃 (item_booth_card와 같은 뷰 id - 채팅 답변용 작은 카드 등)
+     */
+    public BoothCardAdapter(List<HashMap<String, String>> boothList, int layoutRes) {
         this.boothList = boothList;
+        this.layoutRes = layoutRes;
     }
 
     public void updateData(List<HashMap<String, String>> newList) {
@@ -39,7 +48,7 @@ public class BoothCardAdapter extends RecyclerView.Adapter<BoothCardAdapter.View
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         context = parent.getContext();
         View view = LayoutInflater.from(context)
-                .inflate(R.layout.item_booth_card, parent, false);
+                .inflate(layoutRes, parent, false);
         return new ViewHolder(view);
     }
 
@@ -0,0 +1,135 @@
+package com.example.temidummyapp;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.example.temidummyapp.db.EventSearchHelper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 챗봇 답변의 부스 참조(events.id) -> 카드 데이터 (BoothCardAdapter와 같은 HashMap 형식)
+ * - 화면: getCached()로 바로 그릴 수 있으면 그리고, 없으면 load()로 DB 조회 후 다시 바인딩
+ * - 요청 스레드: titles()로 대화 기록에 제목을 붙일 때 사용 (동기 조회)
+ * - 한 번 읽은 행은 메모리에 보관 (카탈로그는 앱 실행 중 바뀌지 않음)
+ */
+public class BoothCardStore {
+    private static final String TAG = "BoothCardStore";
+
+    private static final int CACHE_SIZE = 64;
+
+    private static final ExecutorService DB_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "BoothCardStore");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static BoothCardStore instance;
+
+    /**
+     * 카드 조회 완료 (메인 스레드)
+     */
+    public interface Callback {
+        void onLoaded();
+    }
+
+    private final EventSearchHelper searchHelper;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final LruCache<Long, HashMap<String, String>> cache = new LruCache<>(CACHE_SIZE);
+
+    // DB에 없는 id (모델이 지어낸 id 등) - 조회가 성공했는데 빠진 id만, 다시 조회하지 않음
+    private final Set<Long> missing = new HashSet<>();
+
+    public static synchronized BoothCardStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new BoothCardStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private BoothCardStore(Context context) {
+        this.searchHelper = new EventSearchHelper(context);
+    }
+
+    /**
+     * 메모리에 있는 카드 (참조 순서, 없는 id는 빠짐)
+     *
+     * @return 아직 조회하지 않은 id가 있으면 null
+     */
+    public List<HashMap<String, String>> getCached(long[] ids) {
+        List<HashMap<String, String>> booths = new ArrayList<>(ids.length);
+        synchronized (missing) {
+            for (long id : ids) {
+                HashMap<String, String> booth = cache.get(id);
+                if (booth != null) {
+                    booths.add(booth);
+                } else if (!missing.contains(id)) {
+                    return null;
+                }
+            }
+        }
+        return booths;
+    }
+
+    /**
+     * DB에서 읽어 메모리에 올림 (백그라운드, 끝나면 메인 스레드에서 callback)
+     */
+    public void load(long[] ids, Callback callback) {
+        DB_EXECUTOR.execute(() -> {
+            fetch(ids);
+            mainHandler.post(callback::onLoaded);
+        });
+    }
+
+    /**
+     * id -> 제목 (요청 실행기 스레드, 필요하면 DB 조회)
+     */
+    public Map<Long, String> titles(long[] ids) {
+        if (getCached(ids) == null) {
+            fetch(ids);
+        }
+        Map<Long, String> titles = new HashMap<>();
+        for (long id : ids) {
+            HashMap<String, String> booth = cache.get(id);
+            if (booth != null) {
+                titles.put(id, booth.get("대제목"));
+            }
+        }
+        return titles;
+    }
+
+    private void fetch(long[] ids) {
+        try {
+            List<HashMap<String, String>> rows = searchHelper.findByIds(ids);
+            synchronized (missing) {
+                Set<Long> found = new HashSet<>();
+                for (HashMap<String, String> row : rows) {
+                    long id = Long.parseLong(row.get("id"));
+                    cache.put(id, row);
+                    found.add(id);
+                }
+                for (long id : ids) {
+                    if (!found.contains(id)) {
+                        missing.add(id);
+                    }
+                }
+            }
+            if (rows.size() < ids.length) {
+                Log.w(TAG, "없는 부스 id 참조: 요청 " + ids.length + "개, 찾음 " + rows.size() + "개");
+            }
+        } catch (Exception e) {
+            // 조회 실패는 없는 id로 기록하지 않음 (다음 바인딩/질문에서 다시 조회)
+            Log.e(TAG, "부스 카드 조회 실패", e);
+        }
+    }
+}
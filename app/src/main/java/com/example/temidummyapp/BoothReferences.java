@@ -0,0 +1,164 @@
+package com.example.temidummyapp;
+
+import java.util.Map;
+
+/**
+ * 답변 속 부스 참조 블록 처리
+ * - 모델은 추천 프로그램을 문장으로 풀어 쓰지 않고 마지막 줄에 [[booths:12,45,7]] 처럼 events.id만 적음
+ * - 화면은 블록을 빼고 표시한 뒤 id로 로컬 DB에서 카드를 만들고, 음성은 블록을 읽지 않음
+ * - 원문(블록 포함)은 그대로 저장 -> 기록을 다시 불러와도 카드가 다시 만들어짐
+ *
+ * 안드로이드 클래스에 의존하지 않음 (JVM 테스트 가능)
+ */
+public final class BoothReferences {
+
+    static final String OPEN = "[[booths:";
+    static final String CLOSE = "]]";
+
+    // 카드 최대 개수 (모델이 더 적어도 앞에서부터 이만큼만)
+    public static final int MAX_CARDS = 5;
+
+    private static final long[] NONE = new long[0];
+
+    private BoothReferences() {
+    }
+
+    /**
+     * 참조 블록이 있는지 (아직 닫히지 않은 블록 포함)
+     */
+    public static boolean contains(CharSequence text) {
+        return text != null && indexOf(text, OPEN, 0) >= 0;
+    }
+
+    /**
+     * 스트리밍 중 표시할 길이 - 참조 블록, 또는 블록의 앞부분일 수 있는 끝부분("[", "[[boo") 앞까지
+     * 블록이 없으면 전체 길이 (앞부분만 잘라 내므로 청크가 이어 붙어도 표시 텍스트는 줄어들지 않음)
+     */
+    public static int displayLength(CharSequence text) {
+        int length = text.length();
+        int open = indexOf(text, OPEN, 0);
+        if (open >= 0) {
+            return open;
+        }
+        int from = Math.max(0, length - OPEN.length() + 1);
+        for (int start = from; start < length; start++) {
+            if (text.charAt(start) == '[' && regionMatches(text, start, OPEN, length - start)) {
+                return start;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 블록을 뺀 표시용 텍스트 (블록 앞뒤 공백/줄바꿈 정리)
+     */
+    public static String strip(String text) {
+        int open = text.indexOf(OPEN);
+        if (open < 0) {
+            return text;
+        }
+        int close = text.indexOf(CLOSE, open + OPEN.length());
+        String before = trimEnd(text.substring(0, open));
+        String after = close >= 0 ? text.substring(close + CLOSE.length()).trim() : "";
+        return after.isEmpty() ? before : before + "\n" + after;
+    }
+
+    /**
+     * 블록의 id 목록 (중복 제외, 최대 MAX_CARDS개, 없으면 빈 배열)
+     */
+    public static long[] parseIds(String text) {
+        if (text == null) {
+            return NONE;
+        }
+        int open = text.indexOf(OPEN);
+        if (open < 0) {
+            return NONE;
+        }
+        int close = text.indexOf(CLOSE, open + OPEN.length());
+        if (close < 0) {
+            return NONE;
+        }
+
+        long[] ids = new long[MAX_CARDS];
+        int count = 0;
+        long value = -1;
+        for (int i = open + OPEN.length(); i <= close && count < MAX_CARDS; i++) {
+            char c = i < close ? text.charAt(i) : ',';
+            if (c >= '0' && c <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+            } else if (c == ',' || c == ' ') {
+                if (value > 0 && !containsId(ids, count, value)) {
+                    ids[count++] = value;
+                }
+                value = -1;
+            }
+            // 그 밖의 글자(#, id= 등)는 무시
+        }
+        long[] result = new long[count];
+        System.arraycopy(ids, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * 대화 기록을 다시 보낼 때 블록 뒤에 제목을 붙임 (다음 질문에서 "첫 번째 거"를 알아듣도록)
+     *
+     * @param titles id -> 제목 (없는 id는 id만 남김)
+     */
+    public static String expandForHistory(String text, long[] ids, Map<Long, String> titles) {
+        int open = text.indexOf(OPEN);
+        int close = open >= 0 ? text.indexOf(CLOSE, open + OPEN.length()) : -1;
+        if (close < 0 || ids.length == 0) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(text.length() + ids.length * 16);
+        sb.append(text, 0, close + CLOSE.length()).append(" (");
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(ids[i]);
+            String title = titles.get(ids[i]);
+            if (title != null) {
+                sb.append('=').append(title);
+            }
+        }
+        sb.append(')').append(text, close + CLOSE.length(), text.length());
+        return sb.toString();
+    }
+
+    private static boolean containsId(long[] ids, int count, long id) {
+        for (int i = 0; i < count; i++) {
+            if (ids[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indexOf(CharSequence text, String target, int from) {
+        int last = text.length() - target.length();
+        for (int i = from; i <= last; i++) {
+            if (text.charAt(i) == target.charAt(0) && regionMatches(text, i, target, target.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(CharSequence text, int start, String target, int length) {
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(start + i) != target.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String trimEnd(String text) {
+        int end = text.length();
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.temidummyapp;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+
+/**
+ * OkHttp 연결 단계 측정 (DNS / TCP+TLS / TLS)
+ * 요청에 LlmCallMetrics 태그가 붙어 있을 때만 동작 (그 외 요청은 EventListener.NONE)
+ */
+public class CallTimingListener extends EventListener {
+
+    public static final EventListener.Factory FACTORY = call -> {
+        LlmCallMetrics metrics = call.request().tag(LlmCallMetrics.class);
+        return metrics != null ? new CallTimingListener(metrics) : EventListener.NONE;
+    };
+
+    private final LlmCallMetrics metrics;
+
+    private CallTimingListener(LlmCallMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        metrics.dnsStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        metrics.dnsMs = elapsedMs(metrics.dnsStartNanos);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        metrics.connectStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        metrics.tlsStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        metrics.tlsMs = elapsedMs(metrics.tlsStartNanos);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        metrics.connectMs = elapsedMs(metrics.connectStartNanos);
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return startNanos > 0 ? (System.nanoTime() - startNanos) / 1_000_000 : 0;
+    }
+}
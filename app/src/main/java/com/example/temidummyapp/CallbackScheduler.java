@@ -0,0 +1,33 @@
+package com.example.temidummyapp;
+
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * 서비스 콜백을 실행할 스레드
+ * 앱에서는 메인 스레드(Handler), JVM 테스트(녹화 재생)에서는 테스트가 만든 스레드
+ */
+interface CallbackScheduler {
+
+    void post(Runnable action);
+
+    void postDelayed(Runnable action, long delayMs);
+
+    /**
+     * 메인 스레드 Handler
+     */
+    static CallbackScheduler mainThread() {
+        Handler handler = new Handler(Looper.getMainLooper());
+        return new CallbackScheduler() {
+            @Override
+            public void post(Runnable action) {
+                handler.post(action);
+            }
+
+            @Override
+            public void postDelayed(Runnable action, long delayMs) {
+                handler.postDelayed(action, delayMs);
+            }
+        };
+    }
+}
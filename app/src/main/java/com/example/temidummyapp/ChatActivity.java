@@ -16,18 +16,27 @@ import android.widget.ImageButton;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.temidummyapp.db.BoothRetriever;
+
 import java.util.List;
 
 public class ChatActivity extends BaseActivity {
     private static final String TAG = "ChatActivity";
     private static final int KEYBOARD_HEIGHT_THRESHOLD = 150;
+    private static final long AUTO_SCROLL_INTERVAL_MS = 200;
+    private static final int HISTORY_PAGE_SIZE = 30;
+    private static final int HISTORY_PREFETCH = 5; // 끝에서 이만큼 남으면 다음 페이지 불러오기
 
     private ChatAdapter chatAdapter;
     private OpenAIService openAIService;
+    private ConversationContextManager contextManager;
+    private IntentRouter intentRouter;
+    private ModelRouter modelRouter;
     private ApiKeyManager apiKeyManager;
     private ChatStorage chatStorage;
     private RecyclerView chatList;
@@ -37,6 +46,21 @@ public class ChatActivity extends BaseActivity {
     private View backButton;
     private boolean isWaitingForResponse = false;
 
+    // 진행 중인 응답 요청 (중지/초기화/화면 종료 시 취소)
+    private OpenAIService.RequestHandle currentRequest;
+    private StreamingTextSink currentSink;
+    private ChatMessage currentBotMessage;
+
+    // 답변 음성 출력 (문장 단위로 말함, 꺼져 있으면 null)
+    private SpeechScheduler speechScheduler;
+    private SpeechScheduler.Reply currentSpeech;
+
+    // 채팅 기록 페이지 (화면 창 밖에 더 있는지)
+    private boolean hasOlderHistory = false;
+    private boolean hasNewerHistory = false;
+    private boolean isLoadingHistory = false;
+    private int historyGeneration = 0; // 초기화 전에 요청한 페이지 결과는 버림
+
     // STT 관련
     private SpeechToTextService sttService; // 배치 방식
     private RealtimeSTTService realtimeSTTService; // 실시간 방식
@@ -55,6 +79,7 @@ public class ChatActivity extends BaseActivity {
     private TextView btnSTTRealtime;
     private TextView btnSTTBatch;
     private StringBuilder realtimeTextBuffer = new StringBuilder(); // 실시간 텍스트 버퍼
+    private long lastAutoScrollTime = 0; // 스트리밍 자동 스크롤 간격 제한
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -139,8 +164,6 @@ public class ChatActivity extends BaseActivity {
                     Toast.makeText(this, "메시지를 받는 중입니다. 잠시만 기다려주세요.", Toast.LENGTH_SHORT).show();
                     return;
                 }
-                // 채팅 기록 저장
-                saveChatHistory();
                 finish();
             });
         }
@@ -170,8 +193,25 @@ public class ChatActivity extends BaseActivity {
         chatList.setLayoutManager(layoutManager);
 
         chatAdapter = new ChatAdapter();
+        if (BuildConfig.CHAT_BOOTH_CARDS) {
+            chatAdapter.setBoothCardStore(BoothCardStore.getInstance(this));
+        }
         chatList.setAdapter(chatAdapter);
 
+        // 끝 근처까지 스크롤하면 다음 기록 페이지 불러오기
+        chatList.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy < 0 && hasOlderHistory
+                        && layoutManager.findFirstVisibleItemPosition() <= HISTORY_PREFETCH) {
+                    loadOlderHistory();
+                } else if (dy > 0 && hasNewerHistory
+                        && layoutManager.findLastVisibleItemPosition() >= chatAdapter.getItemCount() - 1 - HISTORY_PREFETCH) {
+                    loadNewerHistory();
+                }
+            }
+        });
+
         chatList.setOnTouchListener((v, event) -> {
             if (event.getAction() == MotionEvent.ACTION_DOWN) {
                 hideKeyboard();
@@ -199,7 +239,14 @@ public class ChatActivity extends BaseActivity {
         btnMic = findViewById(R.id.btn_mic);
         listeningOverlay = findViewById(R.id.listening_overlay);
 
-        btnSend.setOnClickListener(v -> sendUserMessage());
+        // 응답 중에는 전송 버튼이 "중지" 버튼으로 동작
+        btnSend.setOnClickListener(v -> {
+            if (isWaitingForResponse) {
+                cancelCurrentRequest(true);
+            } else {
+                sendUserMessage();
+            }
+        });
 
         // Enter 키로도 전송 가능
         inputMessage.setOnEditorActionListener((v, actionId, event) -> {
@@ -225,25 +272,35 @@ public class ChatActivity extends BaseActivity {
             return;
         }
 
-        if (isWaitingForResponse) {
-            Toast.makeText(this, "응답을 기다리는 중입니다...", Toast.LENGTH_SHORT).show();
-            return;
-        }
-
         if (!openAIService.hasApiKey()) {
             showApiKeyDialog();
             return;
         }
 
-        // 사용자 메시지 추가
-        ChatMessage userMessage = new ChatMessage(text, ChatMessage.TYPE_USER);
-        chatAdapter.addMessage(userMessage);
-        scrollToBottom();
+        // 이전 응답이 아직 생성 중이면 중단하고 새 질문으로 대체
+        if (isWaitingForResponse) {
+            cancelCurrentRequest(true);
+        }
 
         // 입력창 초기화
         inputMessage.setText("");
         hideKeyboard();
 
+        submitUserMessage(text);
+    }
+
+    private void submitUserMessage(String text) {
+        // 이전 기록을 보느라 최근 메시지가 창에서 빠져 있으면 최근 페이지로 돌아간 뒤 전송
+        if (hasNewerHistory) {
+            showLatestHistory(() -> submitUserMessage(text));
+            return;
+        }
+
+        // 사용자 메시지 추가
+        ChatMessage userMessage = new ChatMessage(text, ChatMessage.TYPE_USER);
+        addAndStoreMessage(userMessage);
+        scrollToBottom();
+
         // GPT 응답 요청
         requestBotResponse();
     }
@@ -253,45 +310,77 @@ public class ChatActivity extends BaseActivity {
         setButtonsEnabled(false);
 
         // 빈 봇 메시지 추가 (스트리밍으로 채워질 예정)
-        ChatMessage botMessage = new ChatMessage("", ChatMessage.TYPE_BOT);
-        chatAdapter.addMessage(botMessage);
-        final int botMessageIndex = chatAdapter.getMessages().size() - 1;
+        // (답변이 끝난 뒤에 저장)
+        final ChatMessage botMessage = new ChatMessage("", ChatMessage.TYPE_BOT);
+        if (chatAdapter.addMessage(botMessage) > 0) {
+            hasOlderHistory = true;
+        }
         scrollToBottom();
 
+        // 청크는 네트워크 스레드에서 버퍼에 쌓고, 화면은 프레임당 한 번만 갱신
+        final StreamingTextSink sink = new StreamingTextSink(text -> {
+            chatAdapter.updateStreamingMessage(botMessage, text);
+            autoScrollWhileStreaming(chatAdapter.indexOf(botMessage));
+        });
+
+        currentSink = sink;
+        currentBotMessage = botMessage;
+
+        // 완성된 문장부터 말하기 시작 (이전 답변의 남은 음성은 취소됨)
+        final SpeechScheduler.Reply speech = speechScheduler != null ? speechScheduler.startReply() : null;
+        currentSpeech = speech;
+
         // 스트리밍 요청
-        openAIService.sendMessageStreaming(chatAdapter.getMessages(), new OpenAIService.StreamCallback() {
+        currentRequest = openAIService.sendMessageStreaming(chatAdapter.getMessages(), new OpenAIService.WorkerStreamCallback() {
             @Override
             public void onStream(String chunk) {
-                // 실시간으로 텍스트 추가
-                ChatMessage currentMessage = chatAdapter.getMessages().get(botMessageIndex);
-                currentMessage.setMessage(currentMessage.getMessage() + chunk);
-                chatAdapter.notifyItemChanged(botMessageIndex);
-                scrollToBottom();
+                sink.append(chunk);
+                if (speech != null) {
+                    speech.append(chunk);
+                }
             }
 
             @Override
             public void onComplete() {
+                sink.flush();
+                if (speech != null) {
+                    speech.finish();
+                }
+                // 대체 답변은 화면에만 (저장하지 않고 다음 요청의 대화 기록에도 넣지 않음)
+                boolean degraded = currentRequest != null && currentRequest.isDegraded();
+                botMessage.setExcludedFromHistory(degraded);
+                chatAdapter.finishStreamingMessage(botMessage);
+                clearCurrentRequest();
                 isWaitingForResponse = false;
                 setButtonsEnabled(true);
                 Log.d(TAG, "스트리밍 완료");
 
                 // 메시지가 비어있으면 에러 처리
-                ChatMessage finalMessage = chatAdapter.getMessages().get(botMessageIndex);
-                if (finalMessage.getMessage().isEmpty()) {
-                    finalMessage.setMessage("응답을 받지 못했습니다.");
-                    chatAdapter.notifyItemChanged(botMessageIndex);
+                if (botMessage.getMessage().isEmpty()) {
+                    botMessage.setMessage("응답을 받지 못했습니다.");
+                    chatAdapter.notifyMessageChanged(botMessage);
                 }
+                if (!degraded) {
+                    chatStorage.appendMessage(botMessage);
+                }
+                scrollToBottom();
             }
 
             @Override
             public void onError(String error) {
+                sink.close();
+                if (speech != null) {
+                    speech.cancel();
+                }
+                chatAdapter.finishStreamingMessage(botMessage);
+                clearCurrentRequest();
                 isWaitingForResponse = false;
                 setButtonsEnabled(true);
 
                 // 에러 메시지로 업데이트
-                ChatMessage errorMessage = chatAdapter.getMessages().get(botMessageIndex);
-                errorMessage.setMessage("죄송합니다. 오류가 발생했습니다: " + error);
-                chatAdapter.notifyItemChanged(botMessageIndex);
+                botMessage.setMessage("죄송합니다. 오류가 발생했습니다: " + error);
+                chatAdapter.notifyMessageChanged(botMessage);
+                chatStorage.appendMessage(botMessage);
                 scrollToBottom();
 
                 Log.e(TAG, "GPT 스트리밍 오류: " + error);
@@ -299,12 +388,87 @@ public class ChatActivity extends BaseActivity {
         });
     }
 
+    /**
+     * 진행 중인 응답 요청 취소 (중지 버튼, 새 질문, 초기화, 화면 종료)
+     *
+     * @param keepPartial true면 지금까지 받은 내용을 말풍선에 남김
+     */
+    private void cancelCurrentRequest(boolean keepPartial) {
+        // 답변이 끝난 뒤에도 아직 말하는 중일 수 있으므로 음성은 먼저 중지
+        stopSpeaking();
+        if (currentRequest == null) {
+            return;
+        }
+        currentRequest.cancel();
+
+        StreamingTextSink sink = currentSink;
+        ChatMessage botMessage = currentBotMessage;
+        clearCurrentRequest();
+
+        if (keepPartial && sink != null) {
+            sink.flush();
+        }
+        if (sink != null) {
+            sink.close();
+        }
+        if (botMessage != null) {
+            chatAdapter.finishStreamingMessage(botMessage);
+        }
+        if (keepPartial && botMessage != null) {
+            if (botMessage.getMessage().isEmpty()) {
+                botMessage.setMessage(getString(R.string.chat_response_stopped));
+                chatAdapter.notifyMessageChanged(botMessage);
+            }
+            chatStorage.appendMessage(botMessage);
+        }
+
+        isWaitingForResponse = false;
+        setButtonsEnabled(true);
+        Log.d(TAG, "응답 생성 중지");
+    }
+
+    /**
+     * 챗봇 답변 음성 중지 (남은 문장 취소)
+     */
+    private void stopSpeaking() {
+        if (currentSpeech != null) {
+            currentSpeech.cancel();
+            currentSpeech = null;
+        }
+    }
+
+    private void clearCurrentRequest() {
+        currentRequest = null;
+        currentSink = null;
+        currentBotMessage = null;
+    }
+
+    /**
+     * 스트리밍 중 자동 스크롤 (일정 간격으로만, 사용자가 위로 스크롤했으면 따라가지 않음)
+     */
+    private void autoScrollWhileStreaming(int streamingIndex) {
+        if (streamingIndex < 0) {
+            return;
+        }
+        long now = android.os.SystemClock.uptimeMillis();
+        if (now - lastAutoScrollTime < AUTO_SCROLL_INTERVAL_MS) {
+            return;
+        }
+        LinearLayoutManager layoutManager = (LinearLayoutManager) chatList.getLayoutManager();
+        if (layoutManager == null || layoutManager.findLastVisibleItemPosition() < streamingIndex) {
+            return;
+        }
+        lastAutoScrollTime = now;
+        // 스트리밍 말풍선이 보이는 상태 - 아래쪽 끝까지 즉시 이동 (smooth 스크롤 애니메이션 누적 방지)
+        chatList.scrollBy(0, chatList.getHeight());
+    }
+
     /**
      * 버튼들의 활성화/비활성화 상태 및 시각적 효과 설정
      */
     private void setButtonsEnabled(boolean enabled) {
-        // 전송 버튼
-        btnSend.setEnabled(enabled);
+        // 전송 버튼 (응답 중에는 중지 버튼으로 전환 - 항상 누를 수 있음)
+        btnSend.setText(enabled ? R.string.chat_send_button : R.string.chat_stop_button);
 
         // 뒤로가기 버튼
         if (backButton != null) {
@@ -351,6 +515,20 @@ public class ChatActivity extends BaseActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        // 진행 중인 응답 스트림 중단 (종료된 화면에 갱신하지 않도록)
+        cancelCurrentRequest(false);
+        Log.d(TAG, "요청 정책 통계: " + openAIService.getRequestPolicy().getStatsSummary());
+        if (intentRouter != null) {
+            Log.d(TAG, "로컬 답변 통계: " + intentRouter.getStatsSummary());
+        }
+        if (modelRouter != null) {
+            Log.d(TAG, "모델 경로 통계: " + modelRouter.getStatsSummary());
+        }
+        Log.d(TAG, "LLM 지표 요약:\n" + LlmMetricsStore.getInstance(this).getSummary());
+        if (speechScheduler != null) {
+            Log.d(TAG, "음성 출력 통계: " + speechScheduler.getStatsSummary());
+        }
+
         // Wake Word는 MainActivity에서만 제어됨 (자동 재시작 안 함)
 
         // STT 서비스 리소스 해제
@@ -408,6 +586,9 @@ public class ChatActivity extends BaseActivity {
     }
 
     private void setupOpenAI() {
+        // 첫 질문 전에 api.openai.com 연결 미리 맺기
+        HttpClientProvider.preconnectOpenAI();
+
         openAIService = new OpenAIService();
         apiKeyManager = new ApiKeyManager(this);
 
@@ -416,6 +597,62 @@ public class ChatActivity extends BaseActivity {
         apiKeyManager.saveApiKey(apiKey);
         openAIService.setApiKey(apiKey);
 
+        // 반복 질문 응답 캐시
+        openAIService.setResponseCache(new ChatResponseCache(this));
+
+        // 요청별 지연시간/토큰 기록 (TTFT, 토큰/초, 캐시 토큰)
+        openAIService.setMetricsStore(LlmMetricsStore.getInstance(this));
+
+        // 대화 창 관리 (토큰 예산 초과분은 요약, 긴 공백 후에는 새 방문객으로 처리)
+        contextManager = new ConversationContextManager(openAIService::summarizeConversation);
+        contextManager.setInputTokenBudget(BuildConfig.CHAT_INPUT_TOKEN_BUDGET);
+        openAIService.setContextManager(contextManager);
+
+        // 느린/실패한 요청 대응 (재시도, 첫 토큰 지연 시 헤지, 회로 차단 시 대체 답변)
+        openAIService.getRequestPolicy().setHedgeDelayMs(BuildConfig.CHAT_HEDGE_DELAY_MS);
+
+        // 부스 검색 색인 (백그라운드에서 생성, 준비 전까지는 전체 목록 사용)
+        openAIService.setRetrievalEnabled(BuildConfig.CHAT_RETRIEVAL);
+        BoothRetriever boothRetriever = new BoothRetriever(this);
+        if (BuildConfig.CHAT_RETRIEVAL) {
+            openAIService.setBoothRetriever(boothRetriever);
+        }
+
+        // 함수 도구 (부스 검색/이벤트 안내) - 켜져 있으면 프로그램 목록 대신 모델이 필요할 때 로컬 DB 조회
+        if (BuildConfig.CHAT_TOOLS) {
+            openAIService.setChatTools(new ChatTools(this));
+        }
+
+        // 자주 묻는 사실 질문은 로컬 답변 (assets/chat_intents.json)
+        IntentRouter router = BuildConfig.CHAT_FAST_PATH ? new IntentRouter(this, boothRetriever) : null;
+        intentRouter = router;
+        openAIService.setIntentRouter(router);
+
+        // 질문 복잡도별 모델/출력 토큰 (assets/model_routes.json)
+        ModelRouter routes = BuildConfig.CHAT_MODEL_ROUTING ? new ModelRouter(this) : null;
+        modelRouter = routes;
+        openAIService.setModelRouter(routes);
+
+        // 추천 프로그램은 부스 참조로 받아 말풍선 아래 카드로 표시
+        if (BuildConfig.CHAT_BOOTH_CARDS) {
+            openAIService.setBoothCardStore(BoothCardStore.getInstance(this));
+        }
+
+        // 답변을 문장 단위로 로봇 음성 출력
+        if (BuildConfig.CHAT_SPEAK) {
+            speechScheduler = SpeechScheduler.getInstance();
+        }
+
+        new Thread(() -> {
+            boothRetriever.buildIndex();
+            if (router != null) {
+                router.load();
+            }
+            if (routes != null) {
+                routes.load();
+            }
+        }).start();
+
         Log.d(TAG, "OpenAI API 키 설정 완료");
     }
 
@@ -512,6 +749,9 @@ public class ChatActivity extends BaseActivity {
             return;
         }
 
+        // 로봇이 말하는 소리가 녹음되지 않도록 남은 답변 음성 중지
+        stopSpeaking();
+
         // 현재 STT 모드에 따라 다른 서비스 사용
         if (currentSTTMode == STTMode.REALTIME) {
             startRealtimeListening();
@@ -720,34 +960,118 @@ public class ChatActivity extends BaseActivity {
                 "안녕하세요! 행사장 안내 챗봇입니다.\n\n" +
                         "행사장 정보, 부스 위치, 이벤트 일정 등 궁금한 점을 물어보세요.",
                 ChatMessage.TYPE_BOT);
-        chatAdapter.addMessage(welcomeMessage);
+        addAndStoreMessage(welcomeMessage);
+    }
+
+    /**
+     * 완성된 메시지를 화면 창에 추가하고 기록에 저장
+     */
+    private void addAndStoreMessage(ChatMessage message) {
+        if (chatAdapter.addMessage(message) > 0) {
+            hasOlderHistory = true;
+        }
+        chatStorage.appendMessage(message);
     }
 
     private void loadOrInitializeChat() {
-        if (chatStorage.hasMessages()) {
-            // 저장된 채팅 기록 불러오기
-            List<ChatMessage> savedMessages = chatStorage.loadMessages();
-            for (ChatMessage message : savedMessages) {
-                chatAdapter.addMessage(message);
+        // 최근 페이지만 불러오고, 이전 기록은 위로 스크롤할 때 불러옴
+        final int generation = historyGeneration;
+        isLoadingHistory = true;
+        chatStorage.loadLatest(HISTORY_PAGE_SIZE, (page, hasMore) -> {
+            isLoadingHistory = false;
+            if (isDestroyed() || generation != historyGeneration) {
+                return;
             }
+            if (page.isEmpty()) {
+                // 첫 실행 시 환영 메시지 표시
+                if (chatAdapter.getItemCount() == 0) {
+                    addWelcomeMessage();
+                }
+                return;
+            }
+            // 불러오는 사이 새 메시지가 추가됐을 수 있으므로 위에 붙임
+            chatAdapter.prependMessages(page);
+            hasOlderHistory = hasMore;
             scrollToBottom();
-            Log.d(TAG, "저장된 채팅 기록 불러옴: " + savedMessages.size() + "개");
-        } else {
-            // 첫 실행 시 환영 메시지 표시
-            addWelcomeMessage();
+            Log.d(TAG, "저장된 채팅 기록 불러옴: " + page.size() + "개" + (hasMore ? " (이전 기록 있음)" : ""));
+        });
+    }
+
+    /**
+     * 위로 스크롤 - 창 맨 위 메시지보다 이전 페이지
+     */
+    private void loadOlderHistory() {
+        if (isLoadingHistory || chatAdapter.getItemCount() == 0) {
+            return;
+        }
+        // 답변 생성 중에는 최근 메시지(스트리밍 말풍선)를 창에서 빼지 않음
+        if (isWaitingForResponse && chatAdapter.getItemCount() + HISTORY_PAGE_SIZE > ChatAdapter.MAX_WINDOW) {
+            return;
+        }
+        final int generation = historyGeneration;
+        isLoadingHistory = true;
+        chatStorage.loadBefore(chatAdapter.getMessages().get(0), HISTORY_PAGE_SIZE, (page, hasMore) -> {
+            isLoadingHistory = false;
+            if (isDestroyed() || generation != historyGeneration) {
+                return;
+            }
+            hasOlderHistory = hasMore;
+            if (chatAdapter.prependMessages(page) > 0) {
+                hasNewerHistory = true;
+            }
+        });
+    }
+
+    /**
+     * 다시 아래로 스크롤 - 창에서 빠졌던 최근 메시지 페이지
+     */
+    private void loadNewerHistory() {
+        if (isLoadingHistory || chatAdapter.getItemCount() == 0) {
+            return;
         }
+        final int generation = historyGeneration;
+        isLoadingHistory = true;
+        List<ChatMessage> window = chatAdapter.getMessages();
+        chatStorage.loadAfter(window.get(window.size() - 1), HISTORY_PAGE_SIZE, (page, hasMore) -> {
+            isLoadingHistory = false;
+            if (isDestroyed() || generation != historyGeneration) {
+                return;
+            }
+            hasNewerHistory = hasMore;
+            if (chatAdapter.appendMessages(page) > 0) {
+                hasOlderHistory = true;
+            }
+        });
     }
 
-    private void saveChatHistory() {
-        List<ChatMessage> messages = chatAdapter.getMessages();
-        chatStorage.saveMessages(messages);
-        Log.d(TAG, "채팅 기록 저장됨: " + messages.size() + "개");
+    /**
+     * 최근 페이지로 창 교체 (이전 기록을 보다가 새 질문을 보낼 때)
+     */
+    private void showLatestHistory(Runnable then) {
+        final int generation = historyGeneration;
+        isLoadingHistory = true;
+        chatStorage.loadLatest(HISTORY_PAGE_SIZE, (page, hasMore) -> {
+            isLoadingHistory = false;
+            if (isDestroyed() || generation != historyGeneration) {
+                return;
+            }
+            chatAdapter.setMessages(page);
+            hasOlderHistory = hasMore;
+            hasNewerHistory = false;
+            then.run();
+        });
     }
 
     private void resetChat() {
         // 채팅 기록 삭제
         chatStorage.clearMessages();
+        cancelCurrentRequest(false);
         chatAdapter.clearMessages();
+        contextManager.reset();
+        historyGeneration++;
+        isLoadingHistory = false;
+        hasOlderHistory = false;
+        hasNewerHistory = false;
 
         // 환영 메시지 다시 표시
         addWelcomeMessage();
@@ -757,13 +1081,6 @@ public class ChatActivity extends BaseActivity {
         Log.d(TAG, "채팅 초기화 완료");
     }
 
-    @Override
-    protected void onPause() {
-        super.onPause();
-        // 앱이 백그라운드로 갈 때 자동 저장
-        saveChatHistory();
-    }
-
     /**
      * 실시간 음성 대화 시작
      */
@@ -783,8 +1100,8 @@ public class ChatActivity extends BaseActivity {
             return;
         }
 
-        // 채팅 기록 저장
-        saveChatHistory();
+        // 음성 대화 화면의 마이크에 답변 음성이 섞이지 않도록 중지
+        stopSpeaking();
 
         // 실시간 음성 대화 Activity 시작
         android.content.Intent intent = new android.content.Intent(this, RealtimeVoiceChatActivity.class);
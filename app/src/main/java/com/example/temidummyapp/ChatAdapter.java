@@ -1,34 +1,75 @@
 package com.example.temidummyapp;
 
 import android.graphics.Typeface;
+import android.text.Spannable;
 import android.text.SpannableString;
+import android.text.SpannableStringBuilder;
 import android.text.Spanned;
+import android.text.SpannedString;
+import android.text.style.RelativeSizeSpan;
 import android.text.style.StrikethroughSpan;
 import android.text.style.StyleSpan;
+import android.util.LruCache;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.temidummyapp.core.MarkdownSpanBuilder;
+
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 /**
  * 채팅 메시지 RecyclerView Adapter
  */
 public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder> {
+
+    // 스트리밍 중인 메시지의 텍스트만 갱신 (전체 아이템 변경 애니메이션 없이)
+    public static final Object PAYLOAD_STREAMING_TEXT = new Object();
+    
+    // 메모리에 올려 두는 최대 메시지 수 (나머지는 ChatStorage에서 페이지 단위로 불러옴)
+    public static final int MAX_WINDOW = 150;
+    
+    // 완성된 메시지 변환 결과 캐시 (ChatMessage는 equals 미구현 -> 객체 기준)
+    private static final int FORMAT_CACHE_SIZE = 100;
     
     private List<ChatMessage> messages;
     
+    private final LruCache<ChatMessage, FormattedText> formatCache = new LruCache<>(FORMAT_CACHE_SIZE);
+    private final MarkdownSpanBuilder spanBuilder = new MarkdownSpanBuilder();
+    
+    // 스트리밍 중인 메시지 (한 번에 하나)
+    private ChatMessage streamingMessage;
+    private final MarkdownSpanBuilder streamingBuilder = new MarkdownSpanBuilder();
+    private final SpannableStringBuilder streamingText = new SpannableStringBuilder();
+    private final List<Object> streamingTailSpans = new ArrayList<>();
+    private int streamingStableText = 0;
+    private int streamingStableSpans = 0;
+    
+    // 답변의 부스 참조([[booths:id,...]]) -> 말풍선 아래 카드 (없으면 참조 블록만 숨김)
+    private BoothCardStore boothCardStore;
+    private final Set<ChatMessage> loadingCards = new HashSet<>();
+    private final RecyclerView.RecycledViewPool cardViewPool = new RecyclerView.RecycledViewPool();
+    
     public ChatAdapter() {
         this.messages = new ArrayList<>();
     }
     
+    /**
+     * 부스 카드 저장소 설정 (null이면 카드 없이 텍스트만 표시)
+     */
+    public void setBoothCardStore(BoothCardStore boothCardStore) {
+        this.boothCardStore = boothCardStore;
+    }
+    
     @Override
     public int getItemViewType(int position) {
         return messages.get(position).getType();
@@ -45,13 +86,24 @@ public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder
             view = LayoutInflater.from(parent.getContext())
                     .inflate(R.layout.item_chat_bot, parent, false);
         }
-        return new ChatViewHolder(view);
+        return new ChatViewHolder(view, cardViewPool);
     }
     
     @Override
     public void onBindViewHolder(@NonNull ChatViewHolder holder, int position) {
         ChatMessage message = messages.get(position);
-        holder.bind(message);
+        holder.bind(format(message));
+        // 카드는 답변이 끝난 뒤에만 (스트리밍 중에는 참조 블록이 아직 완성되지 않음)
+        holder.bindCards(message == streamingMessage ? null : cardsFor(message));
+    }
+    
+    @Override
+    public void onBindViewHolder(@NonNull ChatViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_STREAMING_TEXT)) {
+            holder.bind(format(messages.get(position)));
+            return;
+        }
+        super.onBindViewHolder(holder, position, payloads);
     }
     
     @Override
@@ -60,11 +112,116 @@ public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder
     }
     
     /**
-     * 새 메시지 추가
+     * 새 메시지 추가 (창이 가득 차면 가장 오래된 메시지를 뺌)
+     *
+     * @return 창에서 빠진 오래된 메시지 수
      */
-    public void addMessage(ChatMessage message) {
+    public int addMessage(ChatMessage message) {
         messages.add(message);
         notifyItemInserted(messages.size() - 1);
+        return trimOldest();
+    }
+    
+    /**
+     * 이전 페이지를 위에 붙임 (창이 가득 차면 가장 최근 메시지를 뺌)
+     *
+     * @return 창에서 빠진 최근 메시지 수
+     */
+    public int prependMessages(List<ChatMessage> page) {
+        if (page.isEmpty()) {
+            return 0;
+        }
+        messages.addAll(0, page);
+        notifyItemRangeInserted(0, page.size());
+        return trimNewest();
+    }
+    
+    /**
+     * 이후 페이지를 아래에 붙임 (잘려 나갔던 최근 메시지 다시 불러오기)
+     *
+     * @return 창에서 빠진 오래된 메시지 수
+     */
+    public int appendMessages(List<ChatMessage> page) {
+        if (page.isEmpty()) {
+            return 0;
+        }
+        int start = messages.size();
+        messages.addAll(page);
+        notifyItemRangeInserted(start, page.size());
+        return trimOldest();
+    }
+    
+    /**
+     * 창 전체 교체 (최근 페이지로 돌아갈 때)
+     */
+    public void setMessages(List<ChatMessage> page) {
+        messages.clear();
+        messages.addAll(page);
+        formatCache.evictAll();
+        resetStreamingState();
+        notifyDataSetChanged();
+    }
+    
+    /**
+     * 메시지 위치 (스트리밍 중인 답변은 보통 맨 아래이므로 뒤에서부터 찾음)
+     */
+    public int indexOf(ChatMessage message) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i) == message) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * 메시지 내용이 바뀜 (창에 없으면 무시)
+     */
+    public void notifyMessageChanged(ChatMessage message) {
+        int position = indexOf(message);
+        if (position >= 0) {
+            notifyItemChanged(position);
+        }
+    }
+    
+    /**
+     * 스트리밍 중인 메시지 텍스트 갱신 (해당 말풍선만 다시 바인딩)
+     * 위로 스크롤해서 이전 페이지가 붙어도 위치가 바뀌지 않도록 메시지 객체로 찾음
+     */
+    public void updateStreamingMessage(ChatMessage message, String text) {
+        if (message != streamingMessage) {
+            resetStreamingState();
+            streamingMessage = message;
+        }
+        message.setMessage(text);
+        int position = indexOf(message);
+        if (position >= 0) {
+            notifyItemChanged(position, PAYLOAD_STREAMING_TEXT);
+        }
+    }
+    
+    /**
+     * 스트리밍 종료 - 마지막 변환 결과를 완성된 메시지 캐시로 옮김
+     * 부스 참조가 있으면 블록을 뺀 텍스트로 다시 변환하고 카드까지 바인딩
+     */
+    public void finishStreamingMessage(ChatMessage message) {
+        if (streamingMessage == null || streamingMessage != message) {
+            return;
+        }
+        String source = message.getMessage();
+        int position = indexOf(message);
+        if (source != null && BoothReferences.contains(source)) {
+            resetStreamingState();
+            if (position >= 0) {
+                notifyItemChanged(position);
+            }
+            return;
+        }
+        if (source != null && !source.isEmpty() && position >= 0) {
+            CharSequence text = formatStreaming(source);
+            formatCache.put(message, new FormattedText(source, new SpannedString(text)));
+        }
+        resetStreamingState();
     }
     
     /**
@@ -73,147 +230,241 @@ public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder
     public void clearMessages() {
         int size = messages.size();
         messages.clear();
+        formatCache.evictAll();
+        resetStreamingState();
         notifyItemRangeRemoved(0, size);
     }
     
     /**
-     * 메시지 리스트 가져오기
+     * 메시지 리스트 가져오기 (화면에 올라와 있는 창만)
      */
     public List<ChatMessage> getMessages() {
         return messages;
     }
     
+    private int trimOldest() {
+        int excess = messages.size() - MAX_WINDOW;
+        if (excess <= 0) {
+            return 0;
+        }
+        for (int i = 0; i < excess; i++) {
+            formatCache.remove(messages.get(i));
+        }
+        messages.subList(0, excess).clear();
+        notifyItemRangeRemoved(0, excess);
+        return excess;
+    }
+    
+    private int trimNewest() {
+        int excess = messages.size() - MAX_WINDOW;
+        if (excess <= 0) {
+            return 0;
+        }
+        int start = messages.size() - excess;
+        for (int i = start; i < messages.size(); i++) {
+            formatCache.remove(messages.get(i));
+        }
+        messages.subList(start, messages.size()).clear();
+        notifyItemRangeRemoved(start, excess);
+        return excess;
+    }
+    
+    /**
+     * 메시지 표시용 텍스트 (마크다운 -> Spannable)
+     * - 스트리밍 중인 메시지: 새로 붙은 줄만 처리해서 이어 붙임
+     * - 완성된 메시지: 한 번 변환한 결과를 캐시 (원문이 바뀌면 다시 변환)
+     */
+    private CharSequence format(ChatMessage message) {
+        String source = message.getMessage();
+        if (source == null || source.isEmpty()) {
+            return source;
+        }
+        if (message == streamingMessage) {
+            return formatStreaming(source);
+        }
+
+        FormattedText cached = formatCache.get(message);
+        if (cached != null && cached.source.equals(source)) {
+            return cached.text;
+        }
+        spanBuilder.build(BoothReferences.strip(source));
+        CharSequence text;
+        if (spanBuilder.spanCount() == 0) {
+            text = spanBuilder.text().toString();
+        } else {
+            SpannableString spannable = new SpannableString(spanBuilder.text());
+            applySpans(spannable, spanBuilder, 0, spanBuilder.spanCount(), null);
+            text = spannable;
+        }
+        formatCache.put(message, new FormattedText(source, text));
+        return text;
+    }
+
+    /**
+     * 메시지의 부스 카드 (참조가 없거나 아직 DB에서 읽는 중이면 null)
+     */
+    private List<HashMap<String, String>> cardsFor(ChatMessage message) {
+        BoothCardStore store = boothCardStore;
+        if (store == null || message.isUser() || !BoothReferences.contains(message.getMessage())) {
+            return null;
+        }
+        long[] ids = BoothReferences.parseIds(message.getMessage());
+        if (ids.length == 0) {
+            return null;
+        }
+        List<HashMap<String, String>> cards = store.getCached(ids);
+        if (cards == null && loadingCards.add(message)) {
+            // 읽은 뒤 이 메시지만 다시 바인딩 (그 사이 창에서 빠졌으면 무시)
+            store.load(ids, () -> {
+                loadingCards.remove(message);
+                notifyMessageChanged(message);
+            });
+        }
+        return cards;
+    }
+
+    /**
+     * 스트리밍 메시지 변환 (확정된 줄은 그대로 두고 마지막 미완성 줄만 교체)
+     * TextView.setText()가 Spanned를 복사하므로 같은 SpannableStringBuilder를 계속 고쳐 써도 됨
+     * 부스 참조 블록(또는 블록이 될 수 있는 끝부분)은 표시하지 않음
+     */
+    private CharSequence formatStreaming(String source) {
+        source = source.substring(0, BoothReferences.displayLength(source));
+        if (!streamingBuilder.update(source)) {
+            streamingText.clear();
+            streamingText.clearSpans();
+            streamingTailSpans.clear();
+            streamingStableText = 0;
+            streamingStableSpans = 0;
+        }
+
+        // 지난 프레임의 미완성 줄 제거
+        for (Object span : streamingTailSpans) {
+            streamingText.removeSpan(span);
+        }
+        streamingTailSpans.clear();
+        streamingText.delete(streamingStableText, streamingText.length());
+
+        CharSequence text = streamingBuilder.text();
+        int committedText = streamingBuilder.committedTextLength();
+        int committedSpans = streamingBuilder.committedSpanCount();
+
+        // 새로 완성된 줄 (이후 다시 건드리지 않음)
+        streamingText.append(text, streamingStableText, committedText);
+        applySpans(streamingText, streamingBuilder, streamingStableSpans, committedSpans, null);
+        streamingStableText = committedText;
+        streamingStableSpans = committedSpans;
+
+        // 미완성 줄 (다음 청크에서 교체)
+        streamingText.append(text, committedText, text.length());
+        applySpans(streamingText, streamingBuilder, committedSpans, streamingBuilder.spanCount(), streamingTailSpans);
+        return streamingText;
+    }
+
+    private void resetStreamingState() {
+        streamingMessage = null;
+        streamingBuilder.reset();
+        streamingText.clear();
+        streamingText.clearSpans();
+        streamingTailSpans.clear();
+        streamingStableText = 0;
+        streamingStableSpans = 0;
+    }
+
+    /**
+     * 스팬 범위 -> 안드로이드 스팬
+     *
+     * @param created null이 아니면 만든 스팬 객체를 담음 (나중에 제거용)
+     */
+    private static void applySpans(Spannable target, MarkdownSpanBuilder builder, int from, int to,
+                                   List<Object> created) {
+        for (int i = from; i < to; i++) {
+            int start = builder.spanStart(i);
+            int end = builder.spanEnd(i);
+            switch (builder.spanType(i)) {
+                case MarkdownSpanBuilder.TYPE_BOLD:
+                    setSpan(target, new StyleSpan(Typeface.BOLD), start, end, created);
+                    break;
+                case MarkdownSpanBuilder.TYPE_STRIKE:
+                    setSpan(target, new StrikethroughSpan(), start, end, created);
+                    break;
+                case MarkdownSpanBuilder.TYPE_ITALIC:
+                    setSpan(target, new StyleSpan(Typeface.ITALIC), start, end, created);
+                    break;
+                case MarkdownSpanBuilder.TYPE_HEADING_1:
+                case MarkdownSpanBuilder.TYPE_HEADING_2:
+                case MarkdownSpanBuilder.TYPE_HEADING_3:
+                    setSpan(target, new StyleSpan(Typeface.BOLD), start, end, created);
+                    setSpan(target, new RelativeSizeSpan(headingScale(builder.spanType(i))), start, end, created);
+                    break;
+            }
+        }
+    }
+
+    private static void setSpan(Spannable target, Object span, int start, int end, List<Object> created) {
+        target.setSpan(span, start, end, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        if (created != null) {
+            created.add(span);
+        }
+    }
+
+    private static float headingScale(int type) {
+        switch (type) {
+            case MarkdownSpanBuilder.TYPE_HEADING_1:
+                return 1.3f;
+            case MarkdownSpanBuilder.TYPE_HEADING_2:
+                return 1.2f;
+            default:
+                return 1.1f;
+        }
+    }
+
+    /**
+     * 캐시된 변환 결과 (원문과 함께 저장해서 메시지가 바뀌었는지 확인)
+     */
+    private static class FormattedText {
+        final String source;
+        final CharSequence text;
+
+        FormattedText(String source, CharSequence text) {
+            this.source = source;
+            this.text = text;
+        }
+    }
+
     static class ChatViewHolder extends RecyclerView.ViewHolder {
         private TextView tvMessage;
+        // 봇 메시지에만 있음 (사용자 메시지는 null)
+        private RecyclerView rvCards;
+        private BoothCardAdapter cardAdapter;
         
-        public ChatViewHolder(@NonNull View itemView) {
+        public ChatViewHolder(@NonNull View itemView, RecyclerView.RecycledViewPool cardViewPool) {
             super(itemView);
             tvMessage = itemView.findViewById(R.id.tv_message);
+            rvCards = itemView.findViewById(R.id.rv_booth_cards);
+            if (rvCards != null) {
+                rvCards.setLayoutManager(new LinearLayoutManager(
+                        itemView.getContext(), LinearLayoutManager.HORIZONTAL, false));
+                rvCards.setRecycledViewPool(cardViewPool);
+                cardAdapter = new BoothCardAdapter(new ArrayList<>(), R.layout.item_chat_booth_card);
+                rvCards.setAdapter(cardAdapter);
+            }
         }
         
-        public void bind(ChatMessage message) {
-            // 마크다운 볼드 처리 적용
-            CharSequence formattedText = applyMarkdownFormatting(message.getMessage());
+        public void bind(CharSequence formattedText) {
             tvMessage.setText(formattedText);
         }
         
-        /**
-         * 마크다운 스타일 포맷팅 적용
-         * **텍스트** -> 볼드 처리
-         * *텍스트* -> 이탤릭 처리
-         * ~~텍스트~~ -> 취소선 처리
-         */
-        private CharSequence applyMarkdownFormatting(String text) {
-            if (text == null || text.isEmpty()) {
-                return text;
-            }
-            
-            // 마크다운 패턴들 (순서 중요: 볼드 -> 취소선 -> 이탤릭)
-            String[] patterns = {
-                "\\*\\*(.+?)\\*\\*",  // 볼드: **텍스트**
-                "~~(.+?)~~",          // 취소선: ~~텍스트~~
-                "(?<!\\*)\\*(?!\\*)(.+?)(?<!\\*)\\*(?!\\*)"  // 이탤릭: *텍스트* (단, **는 제외)
-            };
-            
-            String workingText = text;
-            List<FormatSpan> formatSpans = new ArrayList<>();
-            
-            // 각 패턴별로 처리
-            for (int patternType = 0; patternType < patterns.length; patternType++) {
-                Pattern pattern = Pattern.compile(patterns[patternType]);
-                Matcher matcher = pattern.matcher(workingText);
-                
-                StringBuilder newText = new StringBuilder();
-                int lastEnd = 0;
-                List<FormatSpan> currentSpans = new ArrayList<>();
-                
-                while (matcher.find()) {
-                    // 마크 앞의 텍스트 추가
-                    newText.append(workingText.substring(lastEnd, matcher.start()));
-                    
-                    // 스타일 처리할 텍스트의 시작 위치 저장
-                    int spanStart = newText.length();
-                    
-                    // 마크 없이 내용만 추가
-                    String content = matcher.group(1);
-                    newText.append(content);
-                    
-                    // 스타일 처리할 텍스트의 끝 위치 저장
-                    int spanEnd = newText.length();
-                    
-                    currentSpans.add(new FormatSpan(spanStart, spanEnd, patternType));
-                    
-                    lastEnd = matcher.end();
-                }
-                
-                // 매칭이 하나라도 있었다면
-                if (!currentSpans.isEmpty()) {
-                    // 나머지 텍스트 추가
-                    newText.append(workingText.substring(lastEnd));
-                    
-                    // 다음 반복을 위해 텍스트 업데이트
-                    workingText = newText.toString();
-                    
-                    // 스팬 정보 저장
-                    formatSpans.addAll(currentSpans);
-                }
+        public void bindCards(List<HashMap<String, String>> cards) {
+            if (rvCards == null) {
+                return;
             }
-            
-            // 포맷팅할 것이 없으면 원본 반환
-            if (formatSpans.isEmpty()) {
-                return text;
-            }
-            
-            // 최종 SpannableString 생성
-            SpannableString result = new SpannableString(workingText);
-            
-            // 스타일 적용
-            for (FormatSpan span : formatSpans) {
-                switch (span.type) {
-                    case 0: // 볼드
-                        result.setSpan(
-                            new StyleSpan(Typeface.BOLD),
-                            span.start,
-                            span.end,
-                            Spanned.SPAN_EXCLUSIVE_EXCLUSIVE
-                        );
-                        break;
-                    case 1: // 취소선
-                        result.setSpan(
-                            new StrikethroughSpan(),
-                            span.start,
-                            span.end,
-                            Spanned.SPAN_EXCLUSIVE_EXCLUSIVE
-                        );
-                        break;
-                    case 2: // 이탤릭
-                        result.setSpan(
-                            new StyleSpan(Typeface.ITALIC),
-                            span.start,
-                            span.end,
-                            Spanned.SPAN_EXCLUSIVE_EXCLUSIVE
-                        );
-                        break;
-                }
-            }
-            
-            return result;
-        }
-        
-        /**
-         * 포맷 스팬 위치 및 타입 저장용 헬퍼 클래스
-         */
-        private static class FormatSpan {
-            int start;
-            int end;
-            int type; // 0: 볼드, 1: 취소선, 2: 이탤릭
-            
-            FormatSpan(int start, int end, int type) {
-                this.start = start;
-                this.end = end;
-                this.type = type;
+            if (cards == null || cards.isEmpty()) {
+                rvCards.setVisibility(View.GONE);
+                return;
             }
+            cardAdapter.updateData(cards);
+            rvCards.setVisibility(View.VISIBLE);
         }
     }
 }
-
@@ -7,9 +7,12 @@ public class ChatMessage {
     public static final int TYPE_USER = 0;
     public static final int TYPE_BOT = 1;
     
+    private long id; // 채팅 기록 DB 행 id (저장 전 0)
     private String message;
     private int type;
     private long timestamp;
+    // 대체 답변 등 모델이 하지 않은 말 - 화면에만 표시 (저장/대화 기록 제외)
+    private transient boolean excludedFromHistory;
     
     public ChatMessage(String message, int type) {
         this.message = message;
@@ -17,6 +20,14 @@ public class ChatMessage {
         this.timestamp = System.currentTimeMillis();
     }
     
+    public long getId() {
+        return id;
+    }
+    
+    public void setId(long id) {
+        this.id = id;
+    }
+    
     public String getMessage() {
         return message;
     }
@@ -41,6 +52,14 @@ public class ChatMessage {
         this.timestamp = timestamp;
     }
     
+    public boolean isExcludedFromHistory() {
+        return excludedFromHistory;
+    }
+    
+    public void setExcludedFromHistory(boolean excludedFromHistory) {
+        this.excludedFromHistory = excludedFromHistory;
+    }
+    
     public boolean isUser() {
         return type == TYPE_USER;
     }
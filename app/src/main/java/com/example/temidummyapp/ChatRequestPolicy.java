@@ -0,0 +1,230 @@
+package com.example.temidummyapp;
+
+import android.util.Log;
+
+import java.util.Random;
+
+/**
+ * 채팅 API 요청 정책 (재시도 / 헤지 / 회로 차단기) + 지표
+ * - 재시도: 연결 실패, 429, 5xx 에 대해 지터가 들어간 지수 백오프 (첫 토큰 이전에만)
+ * - 헤지: 마감 시간 안에 첫 토큰이 없으면 같은 요청을 한 번 더 보내고 먼저 도착한 쪽 사용
+ * - 회로 차단기: 연속 실패가 쌓이면 일정 시간 API 호출 없이 바로 대체 답변
+ *
+ * 네트워크 호출은 하지 않고 판단과 집계만 담당 (실행은 OpenAIService)
+ */
+public class ChatRequestPolicy {
+    private static final String TAG = "ChatRequestPolicy";
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final long DEFAULT_BACKOFF_BASE_MS = 400;
+    public static final long DEFAULT_BACKOFF_CAP_MS = 4000;
+    public static final long DEFAULT_HEDGE_DELAY_MS = 3000;
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_OPEN_DURATION_MS = 30 * 1000L;
+
+    // Retry-After 헤더를 따르더라도 이 이상은 기다리지 않음 (방문객이 기다리는 중)
+    private static final long MAX_RETRY_AFTER_MS = 8000;
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final Random random = new Random();
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private long backoffBaseMs = DEFAULT_BACKOFF_BASE_MS;
+    private long backoffCapMs = DEFAULT_BACKOFF_CAP_MS;
+    private long hedgeDelayMs = DEFAULT_HEDGE_DELAY_MS;
+    private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+    private long openDurationMs = DEFAULT_OPEN_DURATION_MS;
+
+    // 회로 차단기 상태
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private boolean trialInFlight = false;
+
+    // 지표
+    private int requests = 0;
+    private int attempts = 0;
+    private int retries = 0;
+    private int failures = 0;
+    private int hedgesFired = 0;
+    private int hedgeWins = 0;
+    private int breakerOpens = 0;
+    private int shortCircuits = 0;
+    private int degradedAnswers = 0;
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    public void setBackoff(long baseMs, long capMs) {
+        this.backoffBaseMs = baseMs;
+        this.backoffCapMs = capMs;
+    }
+
+    /**
+     * 첫 토큰 마감 시간 (0이면 헤지 사용 안 함)
+     */
+    public void setHedgeDelayMs(long hedgeDelayMs) {
+        this.hedgeDelayMs = hedgeDelayMs;
+    }
+
+    public void setCircuitBreaker(int failureThreshold, long openDurationMs) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getHedgeDelayMs() {
+        return hedgeDelayMs;
+    }
+
+    // ========== 회로 차단기 ==========
+
+    /**
+     * 새 요청 허용 여부 (false면 호출하지 말고 대체 답변)
+     */
+    public synchronized boolean allowRequest() {
+        requests++;
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openDurationMs) {
+                shortCircuits++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+            Log.d(TAG, "회로 차단기 HALF_OPEN - 시험 요청 허용");
+        }
+        if (state == State.HALF_OPEN) {
+            // 시험 요청은 한 번에 하나만
+            if (trialInFlight) {
+                shortCircuits++;
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    /**
+     * 차단 중인지 (재시도 중에 다른 요청이 차단기를 열었으면 더 기다리지 않고 대체 답변)
+     */
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && System.currentTimeMillis() - openedAt < openDurationMs;
+    }
+
+    /**
+     * 응답 스트림 정상 완료
+     */
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        if (state != State.CLOSED) {
+            Log.d(TAG, "회로 차단기 CLOSED - API 정상화");
+            state = State.CLOSED;
+        }
+    }
+
+    /**
+     * 재시도 대상 실패 (연결 실패, 429, 5xx, 스트림 끊김) - 재시도를 모두 마친 요청 하나당 한 번
+     */
+    public synchronized void recordFailure() {
+        failures++;
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN
+                || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+            breakerOpens++;
+            Log.w(TAG, "회로 차단기 OPEN - " + (openDurationMs / 1000) + "초간 대체 답변 (연속 실패 "
+                    + consecutiveFailures + "회)");
+        }
+    }
+
+    /**
+     * 실패도 성공도 아닌 종료 (취소, 4xx 등) - 시험 요청 자리만 반납
+     */
+    public synchronized void recordAbandoned() {
+        trialInFlight = false;
+    }
+
+    // ========== 재시도 ==========
+
+    /**
+     * 재시도 대기 시간 (full jitter: 0 ~ min(cap, base * 2^retry))
+     *
+     * @param retry        이번이 몇 번째 재시도인지 (0부터)
+     * @param retryAfterMs 서버가 준 Retry-After (없으면 0)
+     */
+    public synchronized long backoffMs(int retry, long retryAfterMs) {
+        long ceiling = Math.min(backoffCapMs, backoffBaseMs << Math.min(retry, 16));
+        long delay = (long) (random.nextDouble() * ceiling);
+        if (retryAfterMs > 0) {
+            delay = Math.max(delay, Math.min(retryAfterMs, MAX_RETRY_AFTER_MS));
+        }
+        return delay;
+    }
+
+    /**
+     * 재시도 대상 HTTP 상태 코드
+     */
+    public static boolean isRetryableStatus(int code) {
+        return code == 429 || code >= 500;
+    }
+
+    // ========== 지표 ==========
+
+    public synchronized void recordAttempt(boolean retry) {
+        attempts++;
+        if (retry) {
+            retries++;
+        }
+    }
+
+    public synchronized void recordHedge() {
+        hedgesFired++;
+    }
+
+    public synchronized void recordHedgeWin() {
+        hedgeWins++;
+    }
+
+    public synchronized void recordDegraded() {
+        degradedAnswers++;
+    }
+
+    public synchronized int getRetries() {
+        return retries;
+    }
+
+    public synchronized int getHedgesFired() {
+        return hedgesFired;
+    }
+
+    public synchronized int getHedgeWins() {
+        return hedgeWins;
+    }
+
+    public synchronized int getShortCircuits() {
+        return shortCircuits;
+    }
+
+    public synchronized int getDegradedAnswers() {
+        return degradedAnswers;
+    }
+
+    public synchronized String getStatsSummary() {
+        return "상태 " + state
+                + ", 요청 " + requests
+                + ", 시도 " + attempts
+                + ", 재시도 " + retries
+                + ", 실패 " + failures
+                + ", 헤지 " + hedgesFired + "(승 " + hedgeWins + ")"
+                + ", 차단 " + breakerOpens + "회/" + shortCircuits + "건"
+                + ", 대체답변 " + degradedAnswers;
+    }
+}
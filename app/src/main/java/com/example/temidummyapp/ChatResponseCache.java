@@ -0,0 +1,286 @@
+package com.example.temidummyapp;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 반복 질문용 챗봇 응답 캐시
+ * - 키: 대화 깊이(이전 사용자 질문 수) + 정규화된 이전 질문들 + 정규화된 질문
+ *   (같은 후속 질문도 앞 질문이 다르면 다른 답이므로 앞 질문까지 키에 포함)
+ * - LRU + TTL, SharedPreferences에 저장되어 앱 재시작 후에도 유지
+ *   (불러오기는 백그라운드 스레드, 저장은 전체를 JSON으로 쓰므로 PERSIST_DELAY_MS 동안 모아서 한 번)
+ * - 답변에 부스 카드([[booths:…]])가 들어가므로 저장할 때 카탈로그 해시(BuildConfig.CATALOG_DB_HASH)도 같이 저장,
+ *   불러올 때 해시가 다르면 (카탈로그가 바뀌면) 저장된 항목은 버림
+ * - 적중/미스 횟수와 절약된 지연시간/응답 글자 수 집계
+ */
+public class ChatResponseCache {
+    private static final String TAG = "ChatResponseCache";
+    private static final String PREFS_NAME = "chat_response_cache";
+    private static final String KEY_ENTRIES = "entries";
+    private static final String KEY_CATALOG_HASH = "catalog_hash";
+
+    private static final int DEFAULT_MAX_ENTRIES = 100;
+    private static final long DEFAULT_TTL_MS = 6 * 60 * 60 * 1000L; // 6시간
+    private static final long PERSIST_DELAY_MS = 3000;
+
+    // 이 깊이까지의 질문만 캐시 (대화가 길어지면 문맥 의존도가 높아짐)
+    private static final int MAX_CACHEABLE_DEPTH = 2;
+
+    // 정규화 시 단어 끝에서 제거할 조사/어미 (긴 것부터)
+    private static final String[] SUFFIXES = {
+            "인가요", "이에요", "이예요", "입니까", "습니까", "합니까", "에서는", "으로는",
+            "예요", "에요", "나요", "가요", "까요", "에서", "으로", "이랑", "한테", "에게", "부터", "까지",
+            "은", "는", "이", "가", "을", "를", "에", "도", "요", "로", "랑", "와", "과", "의"
+    };
+
+    private static final ScheduledExecutorService IO_EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ChatResponseCache");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final SharedPreferences prefs;
+    private final Gson gson;
+    private final int maxEntries;
+    private final long ttlMs;
+    private final String catalogHash;
+    private final LinkedHashMap<String, Entry> entries;
+    private boolean persistScheduled = false;
+
+    private int hits = 0;
+    private int misses = 0;
+    private long savedLatencyMs = 0;
+    private long savedChars = 0;
+
+    public ChatResponseCache(Context context) {
+        this(context, DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MS);
+    }
+
+    public ChatResponseCache(Context context, int maxEntries, long ttlMs) {
+        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.gson = new Gson();
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.catalogHash = BuildConfig.CATALOG_DB_HASH;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true); // 접근 순서 (LRU)
+        // 불러오기 전까지는 전부 미스, 저장도 같은 스레드라 항상 불러온 뒤에 실행됨
+        IO_EXECUTOR.execute(this::load);
+    }
+
+    /**
+     * 대화 기록으로 캐시 키 생성 (캐시 대상이 아니면 null)
+     */
+    public static String keyFor(List<ChatMessage> messages) {
+        int lastUser = -1;
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i).isUser()) {
+                lastUser = i;
+                break;
+            }
+        }
+        if (lastUser < 0) {
+            return null;
+        }
+
+        int depth = 0;
+        StringBuilder earlier = new StringBuilder();
+        for (int i = 0; i < lastUser; i++) {
+            if (messages.get(i).isUser()) {
+                depth++;
+                if (depth > MAX_CACHEABLE_DEPTH) {
+                    return null;
+                }
+                // 정규화된 질문에는 글자/숫자만 남으므로 '|'로 구분
+                earlier.append(normalize(messages.get(i).getMessage())).append('|');
+            }
+        }
+
+        String normalized = normalize(messages.get(lastUser).getMessage());
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        return depth + ":" + earlier + normalized;
+    }
+
+    /**
+     * 질문 정규화: 소문자, 문장부호 제거, 단어 끝 조사/어미 제거, 띄어쓰기 제거
+     * 예: "화장실은 어디예요?" / "화장실 어디에요" -> "화장실어디"
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String cleaned = text.toLowerCase().replaceAll("[^\\p{L}\\p{N}\\s]", " ").trim();
+        if (cleaned.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (String word : cleaned.split("\\s+")) {
+            sb.append(stripSuffix(word));
+        }
+        return sb.toString();
+    }
+
+    private static String stripSuffix(String word) {
+        for (String suffix : SUFFIXES) {
+            // 한 글자 조사는 단어가 너무 짧아지지 않을 때만 제거 (예: "아이" 보호)
+            int minRemain = suffix.length() == 1 ? 2 : 1;
+            if (word.length() - suffix.length() >= minRemain && word.endsWith(suffix)) {
+                return word.substring(0, word.length() - suffix.length());
+            }
+        }
+        return word;
+    }
+
+    /**
+     * 캐시 조회 (만료된 항목은 제거)
+     */
+    public synchronized String get(String key) {
+        if (key == null) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null || isExpired(entry)) {
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses++;
+            return null;
+        }
+        hits++;
+        savedLatencyMs += entry.latencyMs;
+        savedChars += entry.answer.length();
+        return entry.answer;
+    }
+
+    /**
+     * 응답 저장
+     *
+     * @param latencyMs 원래 요청에 걸린 시간 (절약량 집계용)
+     */
+    public synchronized void put(String key, String answer, long latencyMs) {
+        if (key == null || answer == null || answer.isEmpty()) {
+            return;
+        }
+        entries.put(key, new Entry(key, answer, System.currentTimeMillis(), latencyMs));
+        evict();
+        schedulePersist();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        prefs.edit().remove(KEY_ENTRIES).remove(KEY_CATALOG_HASH).apply();
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    /**
+     * 통계 요약 (로그용)
+     */
+    public synchronized String getStatsSummary() {
+        int total = hits + misses;
+        int hitRate = total > 0 ? hits * 100 / total : 0;
+        return "hit=" + hits + ", miss=" + misses + " (" + hitRate + "%), "
+                + "절약 지연=" + savedLatencyMs + "ms, 절약 응답=" + savedChars + "자, 항목=" + entries.size();
+    }
+
+    private boolean isExpired(Entry entry) {
+        return System.currentTimeMillis() - entry.createdAt > ttlMs;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next().getValue();
+            if (isExpired(entry) || entries.size() > maxEntries) {
+                it.remove();
+            }
+        }
+    }
+
+    private void schedulePersist() {
+        if (!persistScheduled) {
+            persistScheduled = true;
+            IO_EXECUTOR.schedule(this::persist, PERSIST_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void persist() {
+        String json;
+        synchronized (this) {
+            persistScheduled = false;
+            json = gson.toJson(new ArrayList<>(entries.values()));
+        }
+        prefs.edit().putString(KEY_ENTRIES, json).putString(KEY_CATALOG_HASH, catalogHash).apply();
+    }
+
+    private void load() {
+        String json = prefs.getString(KEY_ENTRIES, null);
+        if (json == null) {
+            return;
+        }
+        if (!catalogHash.equals(prefs.getString(KEY_CATALOG_HASH, null))) {
+            // 카탈로그가 바뀌면 답변 속 부스 카드/설명이 틀릴 수 있음
+            prefs.edit().remove(KEY_ENTRIES).remove(KEY_CATALOG_HASH).apply();
+            Log.d(TAG, "카탈로그가 바뀌어 응답 캐시 비움");
+            return;
+        }
+        try {
+            Type listType = new TypeToken<ArrayList<Entry>>() {}.getType();
+            List<Entry> list = gson.fromJson(json, listType);
+            if (list == null) {
+                return;
+            }
+            synchronized (this) {
+                // 저장 순서 = LRU 순서 (오래된 것부터), 불러오는 동안 새로 저장된 항목이 더 최근이므로 뒤에 둠
+                LinkedHashMap<String, Entry> added = new LinkedHashMap<>(entries);
+                entries.clear();
+                for (Entry entry : list) {
+                    if (entry != null && entry.key != null && entry.answer != null && !isExpired(entry)) {
+                        entries.put(entry.key, entry);
+                    }
+                }
+                entries.putAll(added);
+                evict();
+                Log.d(TAG, "응답 캐시 불러옴: " + entries.size() + "개");
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "응답 캐시 불러오기 실패", e);
+        }
+    }
+
+    private static class Entry {
+        String key;
+        String answer;
+        long createdAt;
+        long latencyMs;
+
+        Entry(String key, String answer, long createdAt, long latencyMs) {
+            this.key = key;
+            this.answer = answer;
+            this.createdAt = createdAt;
+            this.latencyMs = latencyMs;
+        }
+    }
+}
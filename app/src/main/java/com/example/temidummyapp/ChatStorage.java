@@ -2,64 +2,214 @@ package com.example.temidummyapp;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 
+import com.example.temidummyapp.db.ChatHistoryDatabase;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * 채팅 기록 저장 및 불러오기 클래스
+ * - 완성된 메시지를 하나씩 SQLite에 추가만 함 (전체 목록을 다시 쓰지 않음)
+ * - 불러오기는 페이지 단위 (최근 페이지 먼저, 위로 스크롤하면 이전 페이지)
+ * - 모든 DB 작업은 전용 스레드 하나에서 순서대로 실행, 결과는 메인 스레드로 전달
+ *   (앞서 요청한 추가가 끝난 뒤에 조회가 실행되므로 id가 항상 채워진 상태)
  */
 public class ChatStorage {
+    private static final String TAG = "ChatStorage";
+
+    // 이전 형식 (SharedPreferences에 Gson 목록 통째로) - 처음 한 번 DB로 옮긴 뒤 삭제
     private static final String PREFS_NAME = "chat_storage";
     private static final String KEY_MESSAGES = "messages";
-    
-    private final SharedPreferences prefs;
-    private final Gson gson;
-    
+
+    private static final ExecutorService DB_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ChatStorage");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 페이지 조회 결과 (메인 스레드)
+     */
+    public interface PageCallback {
+        /**
+         * @param messages 오래된 것부터 정렬된 메시지
+         * @param hasMore  같은 방향으로 더 불러올 메시지가 있는지
+         */
+        void onPage(List<ChatMessage> messages, boolean hasMore);
+    }
+
+    private final ChatHistoryDatabase dbHelper;
+    private final SharedPreferences legacyPrefs;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // DB 스레드에서만 사용
+    private SQLiteStatement insertStatement;
+
     public ChatStorage(Context context) {
-        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        this.gson = new Gson();
+        this.dbHelper = ChatHistoryDatabase.getInstance(context);
+        this.legacyPrefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        DB_EXECUTOR.execute(this::migrateLegacyMessages);
     }
-    
+
     /**
-     * 채팅 기록 저장
+     * 완성된 메시지 추가 (비동기, 추가 후 message.getId()가 채워짐)
      */
-    public void saveMessages(List<ChatMessage> messages) {
-        String json = gson.toJson(messages);
-        prefs.edit().putString(KEY_MESSAGES, json).apply();
+    public void appendMessage(ChatMessage message) {
+        DB_EXECUTOR.execute(() -> {
+            try {
+                insert(message);
+            } catch (Exception e) {
+                Log.e(TAG, "메시지 저장 실패", e);
+            }
+        });
     }
-    
+
     /**
-     * 채팅 기록 불러오기
+     * 가장 최근 페이지
      */
-    public List<ChatMessage> loadMessages() {
-        String json = prefs.getString(KEY_MESSAGES, null);
-        if (json == null) {
-            return new ArrayList<>();
-        }
-        
-        Type listType = new TypeToken<ArrayList<ChatMessage>>(){}.getType();
-        List<ChatMessage> messages = gson.fromJson(json, listType);
-        return messages != null ? messages : new ArrayList<>();
+    public void loadLatest(int limit, PageCallback callback) {
+        DB_EXECUTOR.execute(() -> deliver(
+                query("SELECT id, type, message, timestamp FROM " + ChatHistoryDatabase.TABLE_MESSAGES
+                        + " ORDER BY id DESC LIMIT " + (limit + 1), null),
+                limit, true, callback));
     }
-    
+
     /**
-     * 채팅 기록 삭제
+     * anchor보다 이전 페이지 (위로 스크롤)
      */
-    public void clearMessages() {
-        prefs.edit().remove(KEY_MESSAGES).apply();
+    public void loadBefore(ChatMessage anchor, int limit, PageCallback callback) {
+        DB_EXECUTOR.execute(() -> {
+            if (anchor.getId() <= 0) {
+                deliver(new ArrayList<>(), limit, true, callback);
+                return;
+            }
+            deliver(query("SELECT id, type, message, timestamp FROM " + ChatHistoryDatabase.TABLE_MESSAGES
+                            + " WHERE id < ? ORDER BY id DESC LIMIT " + (limit + 1),
+                    new String[]{String.valueOf(anchor.getId())}), limit, true, callback);
+        });
     }
-    
+
     /**
-     * 저장된 채팅이 있는지 확인
+     * anchor보다 이후 페이지 (창에서 잘려 나간 최근 메시지를 다시 불러올 때)
      */
-    public boolean hasMessages() {
-        return prefs.contains(KEY_MESSAGES);
+    public void loadAfter(ChatMessage anchor, int limit, PageCallback callback) {
+        DB_EXECUTOR.execute(() -> {
+            if (anchor.getId() <= 0) {
+                deliver(new ArrayList<>(), limit, false, callback);
+                return;
+            }
+            deliver(query("SELECT id, type, message, timestamp FROM " + ChatHistoryDatabase.TABLE_MESSAGES
+                            + " WHERE id > ? ORDER BY id ASC LIMIT " + (limit + 1),
+                    new String[]{String.valueOf(anchor.getId())}), limit, false, callback);
+        });
     }
-}
 
+    /**
+     * 채팅 기록 삭제 (비동기, 이후 추가되는 메시지보다 먼저 실행됨)
+     */
+    public void clearMessages() {
+        DB_EXECUTOR.execute(() -> {
+            try {
+                dbHelper.getWritableDatabase().delete(ChatHistoryDatabase.TABLE_MESSAGES, null, null);
+            } catch (Exception e) {
+                Log.e(TAG, "채팅 기록 삭제 실패", e);
+            }
+        });
+    }
 
+    // ===== DB 스레드 =====
+
+    private void insert(ChatMessage message) {
+        if (insertStatement == null) {
+            insertStatement = dbHelper.getWritableDatabase().compileStatement(
+                    "INSERT INTO " + ChatHistoryDatabase.TABLE_MESSAGES + " (type, message, timestamp) VALUES (?, ?, ?)");
+        }
+        insertStatement.clearBindings();
+        insertStatement.bindLong(1, message.getType());
+        if (message.getMessage() != null) {
+            insertStatement.bindString(2, message.getMessage());
+        } else {
+            insertStatement.bindNull(2);
+        }
+        insertStatement.bindLong(3, message.getTimestamp());
+        message.setId(insertStatement.executeInsert());
+    }
+
+    private List<ChatMessage> query(String sql, String[] args) {
+        List<ChatMessage> messages = new ArrayList<>();
+        Cursor cursor = null;
+        try {
+            cursor = dbHelper.getReadableDatabase().rawQuery(sql, args);
+            while (cursor.moveToNext()) {
+                ChatMessage message = new ChatMessage(cursor.getString(2), cursor.getInt(1));
+                message.setId(cursor.getLong(0));
+                message.setTimestamp(cursor.getLong(3));
+                messages.add(message);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "채팅 기록 조회 실패", e);
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * limit + 1개를 조회해서 더 있는지 판단, 오래된 것부터 정렬해서 전달
+     */
+    private void deliver(List<ChatMessage> rows, int limit, boolean descending, PageCallback callback) {
+        boolean hasMore = rows.size() > limit;
+        List<ChatMessage> page = hasMore ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        if (descending) {
+            Collections.reverse(page);
+        }
+        mainHandler.post(() -> callback.onPage(page, hasMore));
+    }
+
+    /**
+     * 이전 형식 기록을 DB로 옮김 (한 번만)
+     */
+    private void migrateLegacyMessages() {
+        String json = legacyPrefs.getString(KEY_MESSAGES, null);
+        if (json == null) {
+            return;
+        }
+        try {
+            Type listType = new TypeToken<ArrayList<ChatMessage>>(){}.getType();
+            List<ChatMessage> messages = new Gson().fromJson(json, listType);
+            if (messages != null && !messages.isEmpty()) {
+                SQLiteDatabase db = dbHelper.getWritableDatabase();
+                db.beginTransaction();
+                try {
+                    for (ChatMessage message : messages) {
+                        if (message != null) {
+                            insert(message);
+                        }
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+                Log.d(TAG, "이전 채팅 기록 옮김: " + messages.size() + "개");
+            }
+            legacyPrefs.edit().remove(KEY_MESSAGES).apply();
+        } catch (Exception e) {
+            Log.e(TAG, "이전 채팅 기록 옮기기 실패", e);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.temidummyapp;
+
+import android.content.Context;
+import android.database.SQLException;
+import android.util.Log;
+
+import com.example.temidummyapp.db.EventSearchHelper;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * 텍스트 챗봇 함수 도구 (Chat Completions tools)
+ * - search_booths: events 테이블에서 조건에 맞는 체험 프로그램 검색
+ * - get_event_info: 행사 기본 정보 / 수험생 이벤트 / 스탬프투어 안내
+ * 프로그램 목록 전체를 시스템 프롬프트에 넣는 대신 모델이 필요할 때만 조회
+ *
+ * execute()는 요청 실행기 스레드에서 호출됨 (DB 조회 포함, 메인 스레드 금지)
+ */
+public class ChatTools {
+    private static final String TAG = "ChatTools";
+
+    public static final String SEARCH_BOOTHS = "search_booths";
+    public static final String GET_EVENT_INFO = "get_event_info";
+
+    // 검색 결과 최대 개수 (도구 결과도 입력 토큰이므로 적게)
+    private static final int MAX_RESULTS = 8;
+
+    // 방문객 구분 -> 참여 가능한 참여대상 값
+    private static final String[] VISITORS = {"초등학생 저학년", "초등학생 고학년", "중학생", "고등학생", "성인"};
+    private static final String[][] ALLOWED_TARGETS = {
+            {"누구나", "초등학생 이상"},
+            {"누구나", "초등학생 이상", "초등학생(고학년)이상"},
+            {"누구나", "초등학생 이상", "초등학생(고학년)이상", "중학생 이상"},
+            {"누구나", "초등학생 이상", "초등학생(고학년)이상", "중학생 이상", "고등학생 이상"},
+            {"누구나", "초등학생 이상", "초등학생(고학년)이상", "중학생 이상", "고등학생 이상"},
+    };
+
+    private static final String[] TOPICS = {"overview", "exam_event", "stamp_tour"};
+
+    private final EventSearchHelper searchHelper;
+    private final JsonArray definitions = buildDefinitions();
+
+    // 분야 목록 (처음 사용할 때 DB에서 한 번 읽음)
+    private volatile List<String> fields;
+
+    public ChatTools(Context context) {
+        this.searchHelper = new EventSearchHelper(context.getApplicationContext());
+    }
+
+    /**
+     * 요청 본문 "tools" 배열 (매 요청마다 같은 객체 - 복사하지 않고 추가만 함)
+     */
+    public JsonArray definitions() {
+        return definitions;
+    }
+
+    /**
+     * 시스템 프롬프트용 분야 목록 (쉼표 구분)
+     */
+    public String getFieldSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (String field : fields()) {
+            if (summary.length() > 0) {
+                summary.append(", ");
+            }
+            summary.append(field);
+        }
+        return summary.toString();
+    }
+
+    /**
+     * 도구 실행 (실패해도 예외 대신 오류 내용을 결과로 돌려줌 - 모델이 다시 묻거나 사과하도록)
+     *
+     * @param name      함수 이름
+     * @param arguments 모델이 만든 인자 JSON
+     * @return tool 메시지 content
+     */
+    public String execute(String name, String arguments) {
+        long start = System.currentTimeMillis();
+        String result;
+        try {
+            JsonObject args = arguments == null || arguments.trim().isEmpty()
+                    ? new JsonObject()
+                    : JsonParser.parseString(arguments).getAsJsonObject();
+            if (SEARCH_BOOTHS.equals(name)) {
+                result = searchBooths(args);
+            } else if (GET_EVENT_INFO.equals(name)) {
+                result = getEventInfo(args);
+            } else {
+                result = error("알 수 없는 도구: " + name);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "도구 실행 실패: " + name + " " + arguments, e);
+            result = error("인자를 이해하지 못했습니다");
+        }
+        Log.d(TAG, name + " " + arguments + " -> " + result.length() + "자, "
+                + (System.currentTimeMillis() - start) + "ms");
+        return result;
+    }
+
+    // ========== search_booths ==========
+
+    private String searchBooths(JsonObject args) {
+        String field = optString(args, "field");
+        String visitor = optString(args, "target");
+        String keyword = optString(args, "keyword");
+        int maxMinutes = args.has("max_minutes") && !args.get("max_minutes").isJsonNull()
+                ? args.get("max_minutes").getAsInt() : 0;
+
+        // 분야는 목록의 이름과 정확히 맞지 않을 수 있으므로 (예: "로봇" -> "지능형로봇") 부분 일치로 찾고,
+        // 없으면 키워드 검색으로 넘김
+        List<String> fieldFilter = null;
+        if (field != null) {
+            fieldFilter = matchFields(field);
+            if (fieldFilter.isEmpty()) {
+                fieldFilter = null;
+                keyword = keyword == null ? field : keyword;
+            }
+        }
+
+        List<String> targetFilter = null;
+        if (visitor != null) {
+            int index = Arrays.asList(VISITORS).indexOf(visitor);
+            if (index >= 0) {
+                targetFilter = Arrays.asList(ALLOWED_TARGETS[index]);
+            }
+        }
+
+        ArrayList<HashMap<String, String>> rows;
+        try {
+            rows = searchHelper.searchForChat(fieldFilter, targetFilter, maxMinutes, keyword, MAX_RESULTS);
+        } catch (SQLException | IllegalStateException e) {
+            // 검색 결과 없음(count 0)과 구분 - 조건을 줄이라고 안내하면 안 됨
+            Log.e(TAG, "부스 검색 실패", e);
+            return error("부스 정보를 불러오지 못했습니다. 방문객에게 양해를 구하고 잠시 후 다시 물어봐 달라고 안내하세요");
+        }
+
+        JsonArray booths = new JsonArray();
+        for (HashMap<String, String> row : rows) {
+            JsonObject booth = new JsonObject();
+            // 답변 마지막 줄의 부스 참조([[booths:id,...]])에 쓰는 번호
+            booth.addProperty("id", Long.parseLong(row.get("id")));
+            booth.addProperty("title", row.get("대제목"));
+            booth.addProperty("field", row.get("분야"));
+            booth.addProperty("intro", row.get("한줄소개"));
+            booth.addProperty("target", row.get("참여대상"));
+            booth.addProperty("minutes", row.get("소요시간"));
+            booth.addProperty("signup", row.get("사전모집여부"));
+            booth.addProperty("hours", row.get("체험시간"));
+            booths.add(booth);
+        }
+
+        JsonObject result = new JsonObject();
+        result.addProperty("count", booths.size());
+        result.add("booths", booths);
+        if (booths.size() == 0) {
+            result.addProperty("hint", "조건을 줄여서 다시 검색하거나 방문객에게 다른 관심 분야를 물어보세요");
+        }
+        return result.toString();
+    }
+
+    private List<String> matchFields(String field) {
+        String wanted = field.replace(" ", "");
+        List<String> matched = new ArrayList<>();
+        for (String candidate : fields()) {
+            String normalized = candidate.replace(" ", "");
+            if (normalized.contains(wanted) || wanted.contains(normalized)) {
+                matched.add(candidate);
+            }
+        }
+        return matched;
+    }
+
+    private List<String> fields() {
+        List<String> current = fields;
+        if (current == null || current.isEmpty()) {
+            current = searchHelper.getFields();
+            fields = current;
+        }
+        return current;
+    }
+
+    // ========== get_event_info ==========
+
+    private String getEventInfo(JsonObject args) {
+        String topic = optString(args, "topic");
+        if ("exam_event".equals(topic)) {
+            return OpenAIService.EXAM_EVENT_DETAILS;
+        }
+        if ("stamp_tour".equals(topic)) {
+            return OpenAIService.STAMP_TOUR_DETAILS;
+        }
+        return OpenAIService.EVENT_INFO;
+    }
+
+    // ========== 도구 정의 ==========
+
+    private static JsonArray buildDefinitions() {
+        JsonArray tools = new JsonArray();
+
+        JsonObject searchProps = new JsonObject();
+        searchProps.add("field", stringProperty("관심 분야 (시스템 프롬프트의 분야 목록 중 하나)", null));
+        searchProps.add("target", stringProperty("방문객 구분", VISITORS));
+        JsonObject minutes = new JsonObject();
+        minutes.addProperty("type", "integer");
+        minutes.addProperty("description", "체험 한 개에 쓸 수 있는 최대 시간 (분)");
+        searchProps.add("max_minutes", minutes);
+        searchProps.add("keyword", stringProperty("제목/소개에서 찾을 단어 (예: 드론, VR, 게임)", null));
+        tools.add(function(SEARCH_BOOTHS,
+                "조건에 맞는 체험 프로그램(부스)을 검색합니다. 모든 인자는 선택이며 아는 조건만 넣습니다.",
+                searchProps, new String[0]));
+
+        JsonObject infoProps = new JsonObject();
+        infoProps.add("topic", stringProperty(
+                "overview: 일정/장소/입장료, exam_event: 수험생 이벤트, stamp_tour: 스탬프투어와 경품", TOPICS));
+        tools.add(function(GET_EVENT_INFO,
+                "행사 기본 정보와 이벤트(수험생 이벤트, 스탬프투어, 경품) 안내를 가져옵니다.",
+                infoProps, new String[]{"topic"}));
+        return tools;
+    }
+
+    private static JsonObject function(String name, String description, JsonObject properties, String[] required) {
+        JsonObject parameters = new JsonObject();
+        parameters.addProperty("type", "object");
+        parameters.add("properties", properties);
+        JsonArray requiredArray = new JsonArray();
+        for (String key : required) {
+            requiredArray.add(key);
+        }
+        parameters.add("required", requiredArray);
+
+        JsonObject function = new JsonObject();
+        function.addProperty("name", name);
+        function.addProperty("description", description);
+        function.add("parameters", parameters);
+
+        JsonObject tool = new JsonObject();
+        tool.addProperty("type", "function");
+        tool.add("function", function);
+        return tool;
+    }
+
+    private static JsonObject stringProperty(String description, String[] values) {
+        JsonObject property = new JsonObject();
+        property.addProperty("type", "string");
+        property.addProperty("description", description);
+        if (values != null) {
+            JsonArray enumValues = new JsonArray();
+            for (String value : values) {
+                enumValues.add(value);
+            }
+            property.add("enum", enumValues);
+        }
+        return property;
+    }
+
+    private static String optString(JsonObject args, String key) {
+        if (!args.has(key) || args.get(key).isJsonNull()) {
+            return null;
+        }
+        String value = args.get(key).getAsString().trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String error(String message) {
+        JsonObject result = new JsonObject();
+        result.addProperty("error", message);
+        return result.toString();
+    }
+}
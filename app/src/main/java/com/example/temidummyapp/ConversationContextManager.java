@@ -0,0 +1,254 @@
+package com.example.temidummyapp;
+
+import android.util.Log;
+
+import com.example.temidummyapp.utils.TokenEstimator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 챗봇 요청용 대화 창 관리
+ * - 입력 토큰 예산 안에서 최근 N턴은 원문 그대로 유지
+ * - 그보다 오래된 대화는 요약으로 접어서 전송 (요약은 백그라운드에서 갱신)
+ * - 일정 시간 대화가 없다가 새 질문이 오면 새 방문객으로 보고 문맥을 새로 시작
+ */
+public class ConversationContextManager {
+    private static final String TAG = "ConversationContext";
+
+    public static final int DEFAULT_INPUT_TOKEN_BUDGET = 6000;
+    public static final int DEFAULT_RECENT_TURNS = 3;
+    public static final long DEFAULT_IDLE_GAP_MS = 3 * 60 * 1000L; // 3분
+
+    // 요약이 준비되기 전 임시 요약에서 메시지당 최대 글자 수
+    private static final int FALLBACK_SUMMARY_CHARS = 60;
+
+    /**
+     * 오래된 대화 요약기 (블로킹 호출, 백그라운드 스레드에서 실행됨)
+     */
+    public interface Summarizer {
+        String summarize(String previousSummary, List<ChatMessage> messages) throws Exception;
+    }
+
+    /**
+     * 요청에 실제로 넣을 대화 창
+     */
+    public static class Window {
+        public final String summary; // 없으면 null
+        public final List<ChatMessage> messages;
+
+        Window(String summary, List<ChatMessage> messages) {
+            this.summary = summary;
+            this.messages = messages;
+        }
+    }
+
+    private final Summarizer summarizer;
+    private final AtomicBoolean summarizing = new AtomicBoolean(false);
+
+    private int inputTokenBudget = DEFAULT_INPUT_TOKEN_BUDGET;
+    private int recentTurns = DEFAULT_RECENT_TURNS;
+    private long idleGapMs = DEFAULT_IDLE_GAP_MS;
+
+    // 요약 상태 (timestamp 기준)
+    private long sessionStart = 0;       // 현재 방문객 대화의 첫 메시지 시각
+    private String summary = null;       // 요약 내용
+    private long summarizedUpTo = 0;     // 이 시각까지의 메시지가 요약에 포함됨
+
+    public ConversationContextManager(Summarizer summarizer) {
+        this.summarizer = summarizer;
+    }
+
+    public void setInputTokenBudget(int inputTokenBudget) {
+        this.inputTokenBudget = inputTokenBudget;
+    }
+
+    public void setRecentTurns(int recentTurns) {
+        this.recentTurns = recentTurns;
+    }
+
+    public void setIdleGapMs(long idleGapMs) {
+        this.idleGapMs = idleGapMs;
+    }
+
+    /**
+     * 대화 초기화 (채팅 리셋 시)
+     */
+    public synchronized void reset() {
+        sessionStart = 0;
+        summary = null;
+        summarizedUpTo = 0;
+    }
+
+    /**
+     * 요청용 대화 창 계산
+     *
+     * @param messages           화면의 전체 메시지 (환영 메시지, 빈 스트리밍 메시지 포함)
+     * @param systemPromptTokens 시스템 프롬프트 예상 토큰 수
+     */
+    public synchronized Window buildWindow(List<ChatMessage> messages, int systemPromptTokens) {
+        List<ChatMessage> conversation = currentVisitorMessages(messages);
+        if (conversation.isEmpty()) {
+            return new Window(null, conversation);
+        }
+
+        // 최근 N턴 (사용자 메시지 N개 기준) 시작 위치
+        int recentStart = conversation.size();
+        int userCount = 0;
+        for (int i = conversation.size() - 1; i >= 0; i--) {
+            if (conversation.get(i).isUser()) {
+                userCount++;
+                if (userCount > recentTurns) {
+                    break;
+                }
+            }
+            recentStart = i;
+        }
+
+        // 예산 안에서 최근 메시지를 뒤에서부터 채움 (최신 질문은 항상 포함)
+        int budget = inputTokenBudget - systemPromptTokens - estimateSummaryTokens();
+        List<ChatMessage> kept = new ArrayList<>();
+        int used = 0;
+        int keptStart = conversation.size();
+        for (int i = conversation.size() - 1; i >= recentStart; i--) {
+            ChatMessage message = conversation.get(i);
+            int tokens = TokenEstimator.estimateMessage(message.getMessage());
+            if (!kept.isEmpty() && used + tokens > budget) {
+                break;
+            }
+            kept.add(message);
+            used += tokens;
+            keptStart = i;
+        }
+        Collections.reverse(kept);
+
+        // 창 밖으로 밀려난 오래된 메시지 -> 요약
+        List<ChatMessage> folded = conversation.subList(0, keptStart);
+        String windowSummary = null;
+        if (!folded.isEmpty()) {
+            long lastFolded = folded.get(folded.size() - 1).getTimestamp();
+            List<ChatMessage> unsummarized = new ArrayList<>();
+            for (ChatMessage message : folded) {
+                if (message.getTimestamp() > summarizedUpTo) {
+                    unsummarized.add(message);
+                }
+            }
+
+            if (unsummarized.isEmpty()) {
+                windowSummary = summary;
+            } else {
+                // 요약 갱신 전까지는 기존 요약 + 간단한 발췌로 대신함
+                windowSummary = appendFallback(summary, unsummarized);
+                refreshSummaryAsync(new ArrayList<>(unsummarized), lastFolded);
+            }
+        }
+
+        Log.d(TAG, "대화 창: 전체 " + conversation.size() + "개 중 " + kept.size() + "개 유지, "
+                + folded.size() + "개 요약 (예상 " + (systemPromptTokens + used + estimate(windowSummary)) + " 토큰)");
+        return new Window(windowSummary, kept);
+    }
+
+    /**
+     * 현재 방문객의 대화 (응답 캐시 키 계산용 - 새 방문객의 첫 질문도 캐시 대상이 되도록)
+     */
+    public synchronized List<ChatMessage> visitorMessages(List<ChatMessage> messages) {
+        return currentVisitorMessages(messages);
+    }
+
+    /**
+     * 현재 방문객의 대화만 추출
+     * - 비어있는 메시지(스트리밍 대기 중) 제외
+     * - 첫 사용자 질문 앞의 봇 메시지(환영 메시지) 제외
+     * - 최신 질문 직전에 긴 공백이 있으면 새 방문객으로 보고 이전 대화를 버림
+     */
+    private List<ChatMessage> currentVisitorMessages(List<ChatMessage> messages) {
+        List<ChatMessage> result = new ArrayList<>();
+        ChatMessage previous = null;
+
+        for (ChatMessage message : messages) {
+            String text = message.getMessage();
+            if (text == null || text.isEmpty()) {
+                continue;
+            }
+            if (previous != null && message.isUser()
+                    && message.getTimestamp() - previous.getTimestamp() > idleGapMs) {
+                result.clear();
+            }
+            if (result.isEmpty() && !message.isUser()) {
+                previous = message;
+                continue;
+            }
+            result.add(message);
+            previous = message;
+        }
+
+        if (!result.isEmpty()) {
+            long start = result.get(0).getTimestamp();
+            if (start != sessionStart) {
+                // 새 방문객 (또는 리셋) - 이전 요약 폐기
+                if (sessionStart != 0) {
+                    Log.d(TAG, "새 방문객 감지 - 대화 문맥 초기화");
+                }
+                sessionStart = start;
+                summary = null;
+                summarizedUpTo = 0;
+            }
+        }
+        return result;
+    }
+
+    private void refreshSummaryAsync(List<ChatMessage> unsummarized, long upTo) {
+        if (summarizer == null || !summarizing.compareAndSet(false, true)) {
+            return;
+        }
+        final String previousSummary;
+        final long session;
+        synchronized (this) {
+            previousSummary = summary;
+            session = sessionStart;
+        }
+
+        new Thread(() -> {
+            try {
+                String newSummary = summarizer.summarize(previousSummary, unsummarized);
+                synchronized (ConversationContextManager.this) {
+                    // 요약 중에 방문객이 바뀌었으면 버림
+                    if (session == sessionStart && newSummary != null && !newSummary.isEmpty()) {
+                        summary = newSummary.trim();
+                        summarizedUpTo = Math.max(summarizedUpTo, upTo);
+                        Log.d(TAG, "대화 요약 갱신 (" + estimate(summary) + " 토큰)");
+                    }
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "대화 요약 실패: " + e.getMessage());
+            } finally {
+                summarizing.set(false);
+            }
+        }).start();
+    }
+
+    private static String appendFallback(String baseSummary, List<ChatMessage> messages) {
+        StringBuilder sb = new StringBuilder();
+        if (baseSummary != null) {
+            sb.append(baseSummary).append('\n');
+        }
+        for (ChatMessage message : messages) {
+            String text = message.getMessage().replace('\n', ' ');
+            if (text.length() > FALLBACK_SUMMARY_CHARS) {
+                text = text.substring(0, FALLBACK_SUMMARY_CHARS) + "…";
+            }
+            sb.append(message.isUser() ? "- 방문객: " : "- 코쓰봇: ").append(text).append('\n');
+        }
+        return sb.toString().trim();
+    }
+
+    private int estimateSummaryTokens() {
+        return summary != null ? TokenEstimator.estimateMessage(summary) : 0;
+    }
+
+    private static int estimate(String text) {
+        return text != null ? TokenEstimator.estimate(text) : 0;
+    }
+}
@@ -8,7 +8,6 @@ import android.widget.Toast;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import com.robotemi.sdk.Robot;
-import com.robotemi.sdk.TtsRequest;
 import com.robotemi.sdk.listeners.OnGoToLocationStatusChangedListener;
 import com.robotemi.sdk.listeners.OnRobotDragStateChangedListener;
 import android.content.DialogInterface;
@@ -83,8 +82,7 @@ public class DirectionsActivity extends BaseActivity implements OnGoToLocationSt
                     Toast.makeText(DirectionsActivity.this, getString(R.string.admin_location_not_set), Toast.LENGTH_SHORT).show();
                     return;
                 }
-                TtsRequest tts = TtsRequest.create(getString(R.string.navigation_start), false);
-                robot.speak(tts);
+                SpeechScheduler.getInstance().speak(getString(R.string.navigation_start));
                 startNavigation(location);
             }
         };
@@ -189,8 +187,7 @@ public class DirectionsActivity extends BaseActivity implements OnGoToLocationSt
         // 기존 다이얼로그 대신 NavigatingActivity로 이동
         startNavigatingActivity(target);
         // 화면 안내 멘트 + 음성 안내
-        TtsRequest tts = TtsRequest.create(getString(R.string.navigation_guiding), false);
-        robot.speak(tts);
+        SpeechScheduler.getInstance().speak(getString(R.string.navigation_guiding));
         robot.goTo(target);
     }
     
@@ -274,8 +271,7 @@ public class DirectionsActivity extends BaseActivity implements OnGoToLocationSt
             // 재시도 - NavigatingActivity로 다시 이동
             runOnUiThread(() -> {
                 startNavigatingActivity(currentDestination);
-                TtsRequest tts = TtsRequest.create(getString(R.string.navigation_restart), false);
-                robot.speak(tts);
+                SpeechScheduler.getInstance().speak(getString(R.string.navigation_restart));
                 robot.goTo(currentDestination);
             });
         }
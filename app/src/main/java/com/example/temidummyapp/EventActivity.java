@@ -11,8 +11,8 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.temidummyapp.db.EventDatabase;
 import com.example.temidummyapp.db.EventSearchHelper;
-import com.example.temidummyapp.utils.CSVLoader;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -216,19 +216,20 @@ public class EventActivity extends BaseActivity {
         // 초기 버튼 tint 제거
         initializeButtons();
 
-        // ✅ CSV → SQLite 로드 (한 번만 실행)
+        // ✅ 카탈로그 확인 (해시가 같으면 바로 끝남, 바뀐 경우에만 한 트랜잭션으로 교체)
         new Thread(new Runnable() {
             @Override
             public void run() {
                 try {
-                    CSVLoader.loadCSVToDB(EventActivity.this);
-                    // CSV 로드 완료 후 초기 버튼 텍스트 업데이트
-                    mainHandler.post(new Runnable() {
-                        @Override
-                        public void run() {
-                            updateSearchButtonText();
-                        }
-                    });
+                    if (EventDatabase.ensureCatalog(EventActivity.this)) {
+                        // 새 카탈로그 반영 후 버튼 텍스트 다시 계산
+                        mainHandler.post(new Runnable() {
+                            @Override
+                            public void run() {
+                                updateSearchButtonText();
+                            }
+                        });
+                    }
                 } catch (Exception e) {
                     e.printStackTrace();
                 }
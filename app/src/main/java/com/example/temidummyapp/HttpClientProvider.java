@@ -0,0 +1,173 @@
+package com.example.temidummyapp;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.X509TrustManager;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 앱 전체 공용 OkHttp 클라이언트
+ * - ConnectionPool / Dispatcher 하나를 모든 클라이언트가 공유 (DNS/TLS/스레드 재사용)
+ * - 용도별 클라이언트는 공용 클라이언트에서 newBuilder()로 파생 (타임아웃 등만 다름)
+ * - preconnect*(): 화면 진입 시 api.openai.com 연결을 미리 맺어 첫 요청의 핸드셰이크 생략
+ */
+public final class HttpClientProvider {
+    private static final String TAG = "HttpClientProvider";
+
+    private static final String OPENAI_WARMUP_URL = "https://api.openai.com/v1/models";
+    private static final long PRECONNECT_INTERVAL_MS = 60 * 1000L; // 풀 유지시간(5분)보다 충분히 짧게
+
+    private static OkHttpClient shared;
+    private static OkHttpClient chat;
+    private static OkHttpClient realtime;
+    private static OkHttpClient upload;
+    private static OkHttpClient http1;
+
+    private static long lastPreconnect = 0;
+    private static long lastRealtimePreconnect = 0;
+
+    private HttpClientProvider() {}
+
+    /**
+     * 공용 기본 클라이언트
+     */
+    public static synchronized OkHttpClient shared() {
+        if (shared == null) {
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequestsPerHost(8);
+            shared = new OkHttpClient.Builder()
+                    .connectionPool(new ConnectionPool(5, 5, TimeUnit.MINUTES))
+                    .dispatcher(dispatcher)
+                    .connectTimeout(15, TimeUnit.SECONDS)
+                    .readTimeout(30, TimeUnit.SECONDS)
+                    .writeTimeout(30, TimeUnit.SECONDS)
+                    .build();
+        }
+        return shared;
+    }
+
+    /**
+     * 채팅 완료 (SSE 스트리밍 - 토큰 사이 간격만 제한, 연결 단계 측정)
+     */
+    public static synchronized OkHttpClient chat() {
+        if (chat == null) {
+            chat = shared().newBuilder()
+                    .readTimeout(60, TimeUnit.SECONDS)
+                    .eventListenerFactory(CallTimingListener.FACTORY)
+                    .build();
+        }
+        return chat;
+    }
+
+    /**
+     * Realtime WebSocket (읽기 타임아웃 없음, ping으로 끊긴 연결 감지)
+     */
+    public static synchronized OkHttpClient realtime() {
+        if (realtime == null) {
+            realtime = shared().newBuilder()
+                    .readTimeout(0, TimeUnit.MILLISECONDS)
+                    .pingInterval(20, TimeUnit.SECONDS)
+                    .build();
+        }
+        return realtime;
+    }
+
+    /**
+     * 음성 파일 업로드 (Whisper 등)
+     */
+    public static synchronized OkHttpClient upload() {
+        if (upload == null) {
+            upload = shared().newBuilder()
+                    .connectTimeout(30, TimeUnit.SECONDS)
+                    .readTimeout(30, TimeUnit.SECONDS)
+                    .writeTimeout(30, TimeUnit.SECONDS)
+                    .build();
+        }
+        return upload;
+    }
+
+    /**
+     * 인증서 검증을 끈 클라이언트 (사내 사진 서버 전용, 풀/디스패처는 공유)
+     */
+    public static OkHttpClient insecure(SSLSocketFactory sslSocketFactory, X509TrustManager trustManager,
+                                        HostnameVerifier hostnameVerifier) {
+        return shared().newBuilder()
+                .sslSocketFactory(sslSocketFactory, trustManager)
+                .hostnameVerifier(hostnameVerifier)
+                .build();
+    }
+
+    /**
+     * 채팅 화면 진입 시 api.openai.com 연결 미리 맺기 (HTTP/2)
+     */
+    public static void preconnectOpenAI() {
+        synchronized (HttpClientProvider.class) {
+            long now = System.currentTimeMillis();
+            if (now - lastPreconnect < PRECONNECT_INTERVAL_MS) {
+                return;
+            }
+            lastPreconnect = now;
+        }
+        preconnect(chat(), "chat");
+    }
+
+    /**
+     * 음성 대화 화면 진입 시 연결 미리 맺기
+     * WebSocket은 HTTP/1.1 연결만 사용하므로 HTTP/1.1 전용 클라이언트로 미리 맺어야 풀에서 재사용됨
+     */
+    public static void preconnectOpenAIRealtime() {
+        OkHttpClient client;
+        synchronized (HttpClientProvider.class) {
+            long now = System.currentTimeMillis();
+            if (now - lastRealtimePreconnect < PRECONNECT_INTERVAL_MS) {
+                return;
+            }
+            lastRealtimePreconnect = now;
+            if (http1 == null) {
+                http1 = shared().newBuilder()
+                        .protocols(Collections.singletonList(Protocol.HTTP_1_1))
+                        .build();
+            }
+            client = http1;
+        }
+        preconnect(client, "realtime");
+    }
+
+    /**
+     * 인증 없는 HEAD 요청으로 DNS + TCP + TLS만 완료 (401 응답은 무시, 연결은 풀에 남음)
+     */
+    private static void preconnect(OkHttpClient client, String label) {
+        long start = System.currentTimeMillis();
+        Request request = new Request.Builder()
+                .url(OPENAI_WARMUP_URL)
+                .head()
+                .build();
+
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                Log.d(TAG, "사전 연결 실패 (" + label + "): " + e.getMessage());
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                response.close();
+                Log.d(TAG, "사전 연결 완료 (" + label + "): " + (System.currentTimeMillis() - start) + "ms");
+            }
+        });
+    }
+}
@@ -0,0 +1,451 @@
+package com.example.temidummyapp;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.temidummyapp.db.BoothRetriever;
+import com.example.temidummyapp.utils.KoreanBigramTokenizer;
+import com.google.gson.Gson;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 로컬 의도 분류기 (자주 묻는 사실 질문은 LLM 없이 바로 답변)
+ * - assets/chat_intents.json 의 예문으로 학습 (예문/답변/임계값은 파일만 고치면 됨)
+ * - 답변의 일정/장소/이벤트 내용은 {키}로만 쓰고 OpenAIService의 행사 정보 상수로 채움 (프롬프트와 같은 값)
+ * - 문자 바이그램 TF-IDF + 예문별 코사인 유사도 (가장 가까운 예문의 의도)
+ * - 확신도가 임계값 이상이고 2순위 의도와 차이가 충분할 때만 로컬 답변
+ * - "open" 의도(추천 등 열린 질문)나 애매한 질문은 LLM으로 넘김
+ */
+public class IntentRouter {
+    private static final String TAG = "IntentRouter";
+
+    private static final String ASSET_FILE = "chat_intents.json";
+    private static final String INTENT_OPEN = "open";
+    private static final String HANDLER_BOOTH = "booth";
+    private static final Pattern FACT_KEY = Pattern.compile("\\{([a-z_]+)\\}");
+
+    /**
+     * 로컬 답변 결과
+     */
+    public static class Match {
+        public final String intent;
+        public final String answer;
+        public final float confidence;
+
+        Match(String intent, String answer, float confidence) {
+            this.intent = intent;
+            this.answer = answer;
+            this.confidence = confidence;
+        }
+    }
+
+    // chat_intents.json 형식
+    private static class IntentFile {
+        float threshold;
+        float margin;
+        List<IntentSpec> intents;
+    }
+
+    private static class IntentSpec {
+        String id;
+        String answer;
+        String handler;
+        List<String> examples;
+    }
+
+    // 분류 결과 (상위 1, 2위)
+    private static class Scored {
+        IntentSpec intent;
+        float score;
+        float secondScore;
+    }
+
+    private final Context context;
+    private final BoothRetriever boothRetriever;
+
+    private volatile boolean ready = false;
+    private volatile float threshold = 0.5f;
+    private volatile float margin = 0.08f;
+
+    // 학습 데이터 (예문별 정규화된 TF-IDF 벡터)
+    private List<IntentSpec> intents = new ArrayList<>();
+    private List<Map<String, Float>> exampleVectors = new ArrayList<>();
+    private List<IntentSpec> exampleIntents = new ArrayList<>();
+    private Map<String, Float> idf = new HashMap<>();
+
+    // 지표
+    private final Map<String, Integer> hitsByIntent = new LinkedHashMap<>();
+    private int routed = 0;
+    private int fallthrough = 0;
+    private long totalMicros = 0;
+
+    public IntentRouter(Context context, BoothRetriever boothRetriever) {
+        this.context = context.getApplicationContext();
+        this.boothRetriever = boothRetriever;
+    }
+
+    /**
+     * 예문 파일을 읽어 분류기 학습 (백그라운드 스레드에서 호출)
+     */
+    public void load() {
+        try (InputStream is = context.getAssets().open(ASSET_FILE)) {
+            IntentFile file = new Gson().fromJson(
+                    new InputStreamReader(is, StandardCharsets.UTF_8), IntentFile.class);
+            train(file);
+        } catch (Exception e) {
+            Log.e(TAG, "의도 예문 로드 실패: " + e.getMessage(), e);
+        }
+    }
+
+    private synchronized void train(IntentFile file) {
+        List<IntentSpec> newIntents = file.intents != null ? file.intents : new ArrayList<>();
+        Map<String, String> facts = eventFacts();
+        for (IntentSpec intent : newIntents) {
+            if (intent.answer != null) {
+                intent.answer = fillFacts(intent, facts);
+            }
+        }
+
+        // 문서 빈도 (예문 하나 = 문서 하나)
+        List<Map<String, Float>> termFrequencies = new ArrayList<>();
+        List<IntentSpec> owners = new ArrayList<>();
+        Map<String, Integer> documentFrequency = new HashMap<>();
+        for (IntentSpec intent : newIntents) {
+            if (intent.examples == null) {
+                continue;
+            }
+            for (String example : intent.examples) {
+                Map<String, Float> tf = termFrequency(example);
+                if (tf.isEmpty()) {
+                    continue;
+                }
+                for (String term : tf.keySet()) {
+                    Integer df = documentFrequency.get(term);
+                    documentFrequency.put(term, df == null ? 1 : df + 1);
+                }
+                termFrequencies.add(tf);
+                owners.add(intent);
+            }
+        }
+
+        Map<String, Float> newIdf = new HashMap<>();
+        int n = termFrequencies.size();
+        for (Map.Entry<String, Integer> entry : documentFrequency.entrySet()) {
+            newIdf.put(entry.getKey(), (float) Math.log(1.0 + (double) n / entry.getValue()));
+        }
+
+        List<Map<String, Float>> vectors = new ArrayList<>();
+        for (Map<String, Float> tf : termFrequencies) {
+            vectors.add(weigh(tf, newIdf));
+        }
+
+        intents = newIntents;
+        idf = newIdf;
+        exampleVectors = vectors;
+        exampleIntents = owners;
+        if (file.threshold > 0) {
+            threshold = file.threshold;
+        }
+        if (file.margin > 0) {
+            margin = file.margin;
+        }
+        ready = !vectors.isEmpty();
+        Log.d(TAG, "의도 분류기 학습 완료: 의도 " + newIntents.size() + "개, 예문 " + n + "개, 임계값 " + threshold);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 로컬 답변 임계값 (0~1, 높을수록 LLM으로 더 많이 넘김)
+     */
+    public void setThreshold(float threshold) {
+        this.threshold = threshold;
+    }
+
+    public float getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * 질문 분류 후 로컬로 답할 수 있으면 답변 반환
+     *
+     * @return 로컬 답변, LLM으로 넘겨야 하면 null
+     */
+    public Match route(String question) {
+        if (!ready || question == null || question.trim().isEmpty()) {
+            return null;
+        }
+        long start = System.nanoTime();
+        Match match = null;
+        Scored scored;
+
+        // 프로그램 제목이 언급되면 제목을 뺀 나머지로 분류 (예: "OO 체험 몇 분 걸려?")
+        BoothRetriever.Booth booth = boothRetriever != null ? boothRetriever.findMentionedBooth(question) : null;
+        if (booth != null) {
+            String remainder = removeIgnoringSpaces(question, booth.대제목);
+            scored = classify(remainder);
+            boolean onlyTitle = KoreanBigramTokenizer.tokenize(remainder).isEmpty();
+            if (onlyTitle || (scored != null && isConfident(scored) && HANDLER_BOOTH.equals(scored.intent.handler))) {
+                match = new Match("booth_info", describeBooth(booth), scored != null ? scored.score : 1f);
+            }
+        } else {
+            scored = classify(question);
+            if (scored != null && isConfident(scored) && !INTENT_OPEN.equals(scored.intent.id)
+                    && scored.intent.answer != null) {
+                match = new Match(scored.intent.id, scored.intent.answer, scored.score);
+            }
+        }
+
+        long micros = (System.nanoTime() - start) / 1000;
+        record(match, micros);
+        if (scored != null) {
+            Log.d(TAG, "의도 분류: " + scored.intent.id + " (" + String.format("%.2f", scored.score)
+                    + ", 2위 " + String.format("%.2f", scored.secondScore) + ") -> "
+                    + (match != null ? "로컬 답변" : "LLM") + ", " + micros + "us");
+        }
+        return match;
+    }
+
+    private boolean isConfident(Scored scored) {
+        return scored.score >= threshold && scored.score - scored.secondScore >= margin;
+    }
+
+    private synchronized Scored classify(String text) {
+        Map<String, Float> query = weigh(termFrequency(text), idf);
+        if (query.isEmpty()) {
+            return null;
+        }
+
+        // 의도별 최고 유사도
+        Map<IntentSpec, Float> best = new HashMap<>();
+        for (int i = 0; i < exampleVectors.size(); i++) {
+            float similarity = dot(query, exampleVectors.get(i));
+            IntentSpec intent = exampleIntents.get(i);
+            Float prev = best.get(intent);
+            if (prev == null || similarity > prev) {
+                best.put(intent, similarity);
+            }
+        }
+
+        Scored result = new Scored();
+        for (Map.Entry<IntentSpec, Float> entry : best.entrySet()) {
+            float score = entry.getValue();
+            if (result.intent == null || score > result.score) {
+                result.secondScore = result.intent != null ? result.score : 0f;
+                result.intent = entry.getKey();
+                result.score = score;
+            } else if (score > result.secondScore) {
+                result.secondScore = score;
+            }
+        }
+        return result.intent != null ? result : null;
+    }
+
+    /**
+     * 답변에 쓸 수 있는 행사 사실 ({키} -> 값)
+     */
+    private static Map<String, String> eventFacts() {
+        Map<String, String> facts = new HashMap<>();
+        facts.put("event_name", OpenAIService.EVENT_NAME);
+        facts.put("event_dates", OpenAIService.EVENT_DATES);
+        facts.put("event_length", OpenAIService.EVENT_LENGTH);
+        facts.put("event_venue", OpenAIService.EVENT_VENUE);
+        facts.put("event_audience", OpenAIService.EVENT_AUDIENCE);
+        facts.put("event_fee", OpenAIService.EVENT_FEE);
+        facts.put("exam_event_target", OpenAIService.EXAM_EVENT_TARGET);
+        facts.put("exam_event_benefit", OpenAIService.EXAM_EVENT_BENEFIT);
+        facts.put("exam_event_location", OpenAIService.EXAM_EVENT_LOCATION);
+        facts.put("exam_event_limit", OpenAIService.EXAM_EVENT_LIMIT);
+        facts.put("exam_event_steps", numbered(OpenAIService.EXAM_EVENT_STEPS));
+        facts.put("exam_event_notes", bullets(OpenAIService.EXAM_EVENT_NOTES));
+        facts.put("stamp_tour_min_stamps", String.valueOf(OpenAIService.STAMP_TOUR_MIN_STAMPS));
+        facts.put("stamp_tour_limit", OpenAIService.STAMP_TOUR_LIMIT);
+        facts.put("stamp_tour_locations", bullets(OpenAIService.STAMP_TOUR_LOCATIONS));
+        facts.put("stamp_tour_steps", numbered(OpenAIService.STAMP_TOUR_STEPS));
+        facts.put("stamp_tour_prizes", bullets(OpenAIService.STAMP_TOUR_PRIZES));
+        return facts;
+    }
+
+    /**
+     * {키}를 행사 사실로 바꿈 - 모르는 키가 있으면 null (잘못된 답변 대신 LLM으로 넘김)
+     */
+    private static String fillFacts(IntentSpec intent, Map<String, String> facts) {
+        Matcher matcher = FACT_KEY.matcher(intent.answer);
+        StringBuffer filled = new StringBuffer();
+        while (matcher.find()) {
+            String value = facts.get(matcher.group(1));
+            if (value == null) {
+                Log.e(TAG, "답변에 모르는 키: " + intent.id + " {" + matcher.group(1) + "}");
+                return null;
+            }
+            matcher.appendReplacement(filled, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(filled);
+        return filled.toString();
+    }
+
+    private static String bullets(String[] items) {
+        StringBuilder sb = new StringBuilder();
+        for (String item : items) {
+            if (sb.length() > 0) {
+                sb.append('\n');
+            }
+            sb.append("• ").append(item);
+        }
+        return sb.toString();
+    }
+
+    private static String numbered(String[] steps) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < steps.length; i++) {
+            if (i > 0) {
+                sb.append('\n');
+            }
+            sb.append(i + 1).append(") ").append(steps[i]);
+        }
+        return sb.toString();
+    }
+
+    private static String describeBooth(BoothRetriever.Booth booth) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("**").append(booth.대제목).append("**");
+        if (!booth.분야.isEmpty()) {
+            sb.append(" (").append(booth.분야).append(")");
+        }
+        sb.append('\n');
+        if (!booth.한줄소개.isEmpty()) {
+            sb.append(booth.한줄소개).append("\n\n");
+        }
+        if (!booth.참여대상.isEmpty()) {
+            sb.append("• 참여 대상: ").append(booth.참여대상).append('\n');
+        }
+        if (!booth.소요시간.isEmpty()) {
+            sb.append("• 소요 시간: ").append(booth.소요시간).append('\n');
+        }
+        if (!booth.사전모집여부.isEmpty()) {
+            sb.append("• 참여 방법: ").append(booth.사전모집여부).append('\n');
+        }
+        return sb.toString().trim();
+    }
+
+    private static Map<String, Float> termFrequency(String text) {
+        Map<String, Float> tf = new HashMap<>();
+        for (String token : KoreanBigramTokenizer.tokenize(text)) {
+            Float prev = tf.get(token);
+            tf.put(token, prev == null ? 1f : prev + 1f);
+        }
+        return tf;
+    }
+
+    /**
+     * TF-IDF 가중치 적용 후 길이 1로 정규화 (모르는 단어는 제외)
+     */
+    private static Map<String, Float> weigh(Map<String, Float> tf, Map<String, Float> idf) {
+        Map<String, Float> vector = new HashMap<>();
+        double norm = 0;
+        for (Map.Entry<String, Float> entry : tf.entrySet()) {
+            Float weight = idf.get(entry.getKey());
+            if (weight == null) {
+                continue;
+            }
+            float value = entry.getValue() * weight;
+            vector.put(entry.getKey(), value);
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float inv = (float) (1.0 / Math.sqrt(norm));
+            for (Map.Entry<String, Float> entry : vector.entrySet()) {
+                entry.setValue(entry.getValue() * inv);
+            }
+        }
+        return vector;
+    }
+
+    private static float dot(Map<String, Float> a, Map<String, Float> b) {
+        if (a.size() > b.size()) {
+            Map<String, Float> t = a;
+            a = b;
+            b = t;
+        }
+        float sum = 0f;
+        for (Map.Entry<String, Float> entry : a.entrySet()) {
+            Float other = b.get(entry.getKey());
+            if (other != null) {
+                sum += entry.getValue() * other;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * 공백 차이를 무시하고 제목 부분을 제거
+     */
+    private static String removeIgnoringSpaces(String text, String title) {
+        String compactTitle = title.replaceAll("\\s+", "").toLowerCase();
+        StringBuilder compact = new StringBuilder();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                compact.append(Character.toLowerCase(c));
+                positions.add(i);
+            }
+        }
+        int found = compact.indexOf(compactTitle);
+        if (found < 0 || compactTitle.isEmpty()) {
+            return text;
+        }
+        int from = positions.get(found);
+        int to = positions.get(found + compactTitle.length() - 1) + 1;
+        return text.substring(0, from) + " " + text.substring(to);
+    }
+
+    // ========== 지표 ==========
+
+    private synchronized void record(Match match, long micros) {
+        routed++;
+        totalMicros += micros;
+        if (match == null) {
+            fallthrough++;
+            return;
+        }
+        Integer hits = hitsByIntent.get(match.intent);
+        hitsByIntent.put(match.intent, hits == null ? 1 : hits + 1);
+    }
+
+    /**
+     * 의도별 로컬 답변 비율
+     */
+    public synchronized Map<String, Float> getHitRates() {
+        Map<String, Float> rates = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : hitsByIntent.entrySet()) {
+            rates.put(entry.getKey(), routed > 0 ? (float) entry.getValue() / routed : 0f);
+        }
+        return rates;
+    }
+
+    public synchronized String getStatsSummary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("질문 ").append(routed)
+                .append(", 로컬 ").append(routed - fallthrough)
+                .append(", LLM ").append(fallthrough)
+                .append(", 임계값 ").append(threshold)
+                .append(", 평균 ").append(routed > 0 ? totalMicros / routed : 0).append("us");
+        for (Map.Entry<String, Integer> entry : hitsByIntent.entrySet()) {
+            sb.append(", ").append(entry.getKey()).append(' ').append(entry.getValue());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.temidummyapp;
+
+/**
+ * LLM 요청 하나의 지연시간 / 토큰 기록
+ * - 연결 단계(DNS/TCP/TLS)는 CallTimingListener가 채움 (재사용된 연결이면 0)
+ * - 첫 토큰, 토큰 간격, 전체 시간은 스트림을 읽는 쪽에서 mark*() 호출
+ * - 토큰 수는 응답의 usage 값 (없으면 -1)
+ * - 실패/취소된 요청도 기록 (outcome) - 빠지면 느린 요청일수록 통계에서 사라짐
+ *
+ * LlmMetricsStore에 Gson으로 저장되므로 필드는 단순 타입만 사용
+ */
+public class LlmCallMetrics {
+    public static final String OUTCOME_OK = "ok";
+    public static final String OUTCOME_FAILED = "failed";
+    public static final String OUTCOME_CANCELLED = "cancelled";
+
+    public long timestamp;
+    public String model;
+    public String variant; // 프롬프트 종류 (예: rag-6, full, realtime)
+    public String route;   // ModelRouter 경로 (예: quick, reasoning - 없으면 null)
+    public boolean hedged;
+    public String outcome = OUTCOME_OK; // 이전 기록은 null (= ok)
+
+    public long dnsMs = 0;
+    public long connectMs = 0; // TCP + TLS
+    public long tlsMs = 0;
+    public long ttftMs = -1;   // 요청 시작 ~ 첫 토큰 (재시도 대기, 헤지 대기 포함)
+    public long totalMs = -1;
+    public long avgGapMs = 0;  // 토큰(청크) 사이 평균 간격
+    public long maxGapMs = 0;
+    public int chunks = 0;
+
+    public int promptTokens = -1;
+    public int completionTokens = -1;
+    public int cachedTokens = -1;
+
+    // 답변 품질 (경로별 출력 예산 조정용)
+    public int maxTokens = -1;       // 요청한 출력 상한
+    public boolean truncated = false; // finish_reason=length (상한에 걸려 잘림)
+    public int toolRounds = 0;        // 함수 호출 라운드 수
+
+    // 측정 중 상태 (저장하지 않음)
+    private transient long startNanos;
+    private transient long lastChunkNanos;
+    private transient long gapSumNanos;
+    transient long dnsStartNanos;
+    transient long connectStartNanos;
+    transient long tlsStartNanos;
+
+    public LlmCallMetrics(String model, String variant) {
+        this.model = model;
+        this.variant = variant;
+    }
+
+    /**
+     * 요청 시작
+     */
+    public void markStart() {
+        markStart(System.nanoTime());
+    }
+
+    /**
+     * 요청 시작 시각 지정 (재시도/헤지 시도도 처음 요청한 시각부터 잼)
+     */
+    public void markStart(long startNanos) {
+        this.startNanos = startNanos;
+        timestamp = System.currentTimeMillis() - (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * 토큰(청크) 수신 - 첫 호출이 TTFT
+     */
+    public void markChunk() {
+        long now = System.nanoTime();
+        if (chunks == 0) {
+            ttftMs = (now - startNanos) / 1_000_000;
+        } else {
+            long gap = now - lastChunkNanos;
+            gapSumNanos += gap;
+            maxGapMs = Math.max(maxGapMs, gap / 1_000_000);
+        }
+        lastChunkNanos = now;
+        chunks++;
+    }
+
+    /**
+     * 응답 완료
+     */
+    public void markEnd(int promptTokens, int completionTokens, int cachedTokens) {
+        totalMs = (System.nanoTime() - startNanos) / 1_000_000;
+        avgGapMs = chunks > 1 ? gapSumNanos / (chunks - 1) / 1_000_000 : 0;
+        this.promptTokens = promptTokens;
+        this.completionTokens = completionTokens;
+        this.cachedTokens = cachedTokens;
+    }
+
+    /**
+     * 실패/취소로 끝남 (토큰 수 모름)
+     */
+    public void markEnd(String outcome) {
+        markEnd(-1, -1, -1);
+        this.outcome = outcome;
+    }
+
+    public boolean isOk() {
+        return outcome == null || OUTCOME_OK.equals(outcome);
+    }
+
+    /**
+     * 첫 토큰 이후 생성 속도 (토큰/초, 알 수 없으면 -1)
+     */
+    public float tokensPerSecond() {
+        if (completionTokens <= 0 || ttftMs < 0 || totalMs <= ttftMs) {
+            return -1f;
+        }
+        return completionTokens * 1000f / (totalMs - ttftMs);
+    }
+
+    @Override
+    public String toString() {
+        return model + "/" + variant + (route != null ? "/" + route : "") + (hedged ? "(헤지)" : "")
+                + (isOk() ? "" : " [" + outcome + "]")
+                + " 연결 " + connectMs + "ms(DNS " + dnsMs + ", TLS " + tlsMs + ")"
+                + ", TTFT " + ttftMs + "ms"
+                + ", 전체 " + totalMs + "ms"
+                + ", 간격 평균 " + avgGapMs + "/최대 " + maxGapMs + "ms"
+                + ", 토큰 " + promptTokens + "+" + completionTokens + "/" + maxTokens + " (캐시 " + cachedTokens + ")"
+                + (truncated ? ", 잘림" : "") + (toolRounds > 0 ? ", 도구 " + toolRounds + "회" : "")
+                + ", " + String.format("%.1f", tokensPerSecond()) + " tok/s";
+    }
+}
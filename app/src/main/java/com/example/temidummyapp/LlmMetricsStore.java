@@ -0,0 +1,232 @@
+package com.example.temidummyapp;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LLM 요청 지표 저장소 (링 버퍼)
+ * - 최근 MAX_RECORDS개만 유지, SharedPreferences에 저장되어 앱 재시작 후에도 유지
+ *   (링 전체를 JSON으로 쓰므로 기록마다 쓰지 않고 PERSIST_DELAY_MS 동안 모아서 한 번)
+ * - 모델/프롬프트 종류별 p50/p95/p99 요약 (어떤 최적화가 실제로 효과 있는지 비교용)
+ */
+public class LlmMetricsStore {
+    private static final String TAG = "LlmMetrics";
+    private static final String PREFS_NAME = "llm_metrics";
+    private static final String KEY_RECORDS = "records";
+
+    private static final int MAX_RECORDS = 300;
+    private static final long PERSIST_DELAY_MS = 5000;
+
+    private static final ScheduledExecutorService PERSIST_EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "LlmMetricsStore");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static LlmMetricsStore instance;
+
+    private final SharedPreferences prefs;
+    private final Gson gson = new Gson();
+    private final LlmCallMetrics[] ring = new LlmCallMetrics[MAX_RECORDS];
+    private int next = 0;
+    private int size = 0;
+    private boolean persistScheduled = false;
+
+    public static synchronized LlmMetricsStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new LlmMetricsStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private LlmMetricsStore(Context context) {
+        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        load();
+    }
+
+    /**
+     * 완료된 요청 기록 (어느 스레드에서든 호출 가능)
+     */
+    public void record(LlmCallMetrics metrics) {
+        synchronized (this) {
+            ring[next] = metrics;
+            next = (next + 1) % MAX_RECORDS;
+            size = Math.min(size + 1, MAX_RECORDS);
+            if (!persistScheduled) {
+                persistScheduled = true;
+                PERSIST_EXECUTOR.schedule(this::persist, PERSIST_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+        Log.d(TAG, metrics.toString());
+    }
+
+    public synchronized List<LlmCallMetrics> getRecords() {
+        List<LlmCallMetrics> list = new ArrayList<>(size);
+        int start = (next - size + MAX_RECORDS) % MAX_RECORDS;
+        for (int i = 0; i < size; i++) {
+            list.add(ring[(start + i) % MAX_RECORDS]);
+        }
+        return list;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(ring, null);
+        next = 0;
+        size = 0;
+        prefs.edit().remove(KEY_RECORDS).apply();
+    }
+
+    /**
+     * 모델/프롬프트 종류/경로별 백분위 요약
+     * 예) gpt-4o-mini/rag-6/quick n=42 TTFT p50/p95/p99=820/1900/2600ms, ..., 잘림 2%, 실패 5%, 취소 2%
+     * TTFT는 첫 토큰을 받은 요청 전부, 나머지 지연/토큰 값은 정상 완료된 요청만
+     */
+    public String getSummary() {
+        Map<String, List<LlmCallMetrics>> groups = new LinkedHashMap<>();
+        for (LlmCallMetrics m : getRecords()) {
+            String key = m.model + "/" + m.variant + (m.route != null ? "/" + m.route : "");
+            List<LlmCallMetrics> group = groups.get(key);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(key, group);
+            }
+            group.add(m);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, List<LlmCallMetrics>> entry : groups.entrySet()) {
+            List<LlmCallMetrics> group = entry.getValue();
+            long[] ttft = new long[group.size()];
+            long[] total = new long[group.size()];
+            long[] gap = new long[group.size()];
+            long[] tokensPerSec = new long[group.size()];
+            long[] connect = new long[group.size()];
+            int newConnections = 0;
+            long promptTokens = 0;
+            long cachedTokens = 0;
+            long[] outputTokens = new long[group.size()];
+            int truncated = 0;
+            int failed = 0;
+            int cancelled = 0;
+
+            for (int i = 0; i < group.size(); i++) {
+                LlmCallMetrics m = group.get(i);
+                ttft[i] = m.ttftMs;
+                if (!m.isOk()) {
+                    if (LlmCallMetrics.OUTCOME_CANCELLED.equals(m.outcome)) {
+                        cancelled++;
+                    } else {
+                        failed++;
+                    }
+                    total[i] = gap[i] = tokensPerSec[i] = connect[i] = outputTokens[i] = -1;
+                    continue;
+                }
+                total[i] = m.totalMs;
+                gap[i] = m.avgGapMs;
+                tokensPerSec[i] = (long) m.tokensPerSecond();
+                connect[i] = m.connectMs;
+                outputTokens[i] = m.completionTokens;
+                if (m.truncated) {
+                    truncated++;
+                }
+                if (m.connectMs > 0) {
+                    newConnections++;
+                }
+                if (m.promptTokens > 0) {
+                    promptTokens += m.promptTokens;
+                    cachedTokens += Math.max(0, m.cachedTokens);
+                }
+            }
+
+            if (sb.length() > 0) {
+                sb.append('\n');
+            }
+            sb.append(entry.getKey()).append(" n=").append(group.size())
+                    .append(" TTFT ").append(percentiles(ttft)).append("ms")
+                    .append(", 전체 ").append(percentiles(total)).append("ms")
+                    .append(", 토큰 간격 ").append(percentiles(gap)).append("ms")
+                    .append(", tok/s ").append(percentiles(tokensPerSec))
+                    .append(", 연결 ").append(percentiles(connect)).append("ms (새 연결 ")
+                    .append(newConnections).append("/").append(group.size()).append(")")
+                    .append(", 캐시 토큰 ").append(promptTokens > 0 ? cachedTokens * 100 / promptTokens : 0).append("%")
+                    .append(", 출력 토큰 ").append(percentiles(outputTokens))
+                    .append(", 잘림 ").append(truncated * 100 / group.size()).append("%")
+                    .append(", 실패 ").append(failed * 100 / group.size()).append("%")
+                    .append(", 취소 ").append(cancelled * 100 / group.size()).append("%");
+        }
+        return sb.length() > 0 ? sb.toString() : "기록 없음";
+    }
+
+    /**
+     * p50/p95/p99 (음수 = 측정값 없음, 제외)
+     */
+    private static String percentiles(long[] values) {
+        long[] valid = new long[values.length];
+        int n = 0;
+        for (long v : values) {
+            if (v >= 0) {
+                valid[n++] = v;
+            }
+        }
+        if (n == 0) {
+            return "-";
+        }
+        Arrays.sort(valid, 0, n);
+        return percentile(valid, n, 50) + "/" + percentile(valid, n, 95) + "/" + percentile(valid, n, 99);
+    }
+
+    // nearest-rank 방식
+    private static long percentile(long[] sorted, int n, int p) {
+        int rank = (int) Math.ceil(p / 100.0 * n);
+        return sorted[Math.max(0, Math.min(n - 1, rank - 1))];
+    }
+
+    /**
+     * 저장 스레드에서 실행 (그 사이 쌓인 기록을 한 번에)
+     */
+    private void persist() {
+        String json;
+        synchronized (this) {
+            persistScheduled = false;
+            json = gson.toJson(getRecords());
+        }
+        prefs.edit().putString(KEY_RECORDS, json).apply();
+    }
+
+    private void load() {
+        String json = prefs.getString(KEY_RECORDS, null);
+        if (json == null) {
+            return;
+        }
+        try {
+            Type listType = new TypeToken<ArrayList<LlmCallMetrics>>() {}.getType();
+            List<LlmCallMetrics> list = gson.fromJson(json, listType);
+            if (list != null) {
+                for (LlmCallMetrics m : list) {
+                    if (m != null) {
+                        ring[next] = m;
+                        next = (next + 1) % MAX_RECORDS;
+                        size = Math.min(size + 1, MAX_RECORDS);
+                    }
+                }
+            }
+            Log.d(TAG, "지표 불러옴: " + size + "개");
+        } catch (Exception e) {
+            Log.e(TAG, "지표 불러오기 실패", e);
+        }
+    }
+}
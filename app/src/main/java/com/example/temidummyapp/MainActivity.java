@@ -18,7 +18,6 @@ import androidx.cardview.widget.CardView;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 import com.robotemi.sdk.Robot;
-import com.robotemi.sdk.TtsRequest;
 import com.robotemi.sdk.listeners.OnGoToLocationStatusChangedListener;
 import com.robotemi.sdk.listeners.OnRobotDragStateChangedListener;
 import java.util.List;
@@ -298,8 +297,7 @@ public class MainActivity extends BaseActivity implements OnGoToLocationStatusCh
         // 기존 다이얼로그 대신 NavigatingActivity로 이동
         startNavigatingActivity(target);
         // 화면 안내 멘트 + 음성 안내
-        TtsRequest tts = TtsRequest.create(getString(R.string.navigation_guiding), false);
-        robot.speak(tts);
+        SpeechScheduler.getInstance().speak(getString(R.string.navigation_guiding));
         robot.goTo(target);
     }
     
@@ -384,8 +382,7 @@ public class MainActivity extends BaseActivity implements OnGoToLocationStatusCh
             // 재시도 - NavigatingActivity로 다시 이동
             runOnUiThread(() -> {
                 startNavigatingActivity(currentDestination);
-                TtsRequest tts = TtsRequest.create(getString(R.string.navigation_restart), false);
-                robot.speak(tts);
+                SpeechScheduler.getInstance().speak(getString(R.string.navigation_restart));
                 robot.goTo(currentDestination);
             });
         }
@@ -9,9 +9,6 @@ import android.widget.TextView;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import com.robotemi.sdk.Robot;
-import com.robotemi.sdk.TtsRequest;
-
 import java.util.Random;
 
 public class MenuActivity extends BaseActivity {
@@ -38,8 +35,6 @@ public class MenuActivity extends BaseActivity {
     private final Handler handler = new Handler();
     private final Random random = new Random();
 
-    private Robot robot;
-
     private boolean isSpinning = false;
     private boolean stopRequested = false;
     private int currentIndex = 0;
@@ -74,8 +69,6 @@ public class MenuActivity extends BaseActivity {
         setContentView(R.layout.activity_menu);
 
         bindViews();
-        robot = Robot.getInstance();
-
         updateMenuSlot();
         resultText.setText(getString(R.string.menu_result_placeholder));
 
@@ -136,8 +129,7 @@ public class MenuActivity extends BaseActivity {
 
         recommendButton.setEnabled(true);
 
-        TtsRequest ttsRequest = TtsRequest.create(message, false);
-        robot.speak(ttsRequest);
+        SpeechScheduler.getInstance().speak(message);
     }
 
     private void stepForward() {
@@ -0,0 +1,149 @@
+package com.example.temidummyapp;
+
+import android.media.AudioFormat;
+import android.media.AudioRecord;
+import android.media.AudioTimestamp;
+import android.media.MediaRecorder;
+import android.media.audiofx.AcousticEchoCanceler;
+import android.media.audiofx.NoiseSuppressor;
+import android.os.Build;
+import android.util.Log;
+
+/**
+ * 마이크 입력 (AudioRecord, PCM16 모노)
+ * 녹음 시각: API 24+는 AudioRecord 타임스탬프(프레임 위치 <-> 시각), 그 전에는 시작 시각 + 위치
+ * 음성 처리 모드: 통화용 입력(VOICE_COMMUNICATION) + 에코 제거 / 잡음 억제 (기기에 있을 때만)
+ */
+class MicAudioInput implements AudioInput {
+    private static final String TAG = "MicAudioInput";
+    private static final int CHANNEL_CONFIG = AudioFormat.CHANNEL_IN_MONO;
+    private static final int AUDIO_FORMAT = AudioFormat.ENCODING_PCM_16BIT;
+
+    private final int sampleRate;
+    private final int bufferSize;
+    private final boolean voiceProcessing;
+    private volatile AudioRecord audioRecord;
+    private volatile long startNanos;
+    // getTimestamp 결과를 받는 객체 (녹음 스레드만 사용)
+    private AudioTimestamp timestamp;
+    // 녹음 세션에 붙인 효과 (start/release 에서만 변경)
+    private AcousticEchoCanceler echoCanceler;
+    private NoiseSuppressor noiseSuppressor;
+
+    /**
+     * @param bufferMultiplier 최소 버퍼 크기의 배수 (AudioRecord 내부 버퍼, 읽기 단위는 AudioCapture 프레임)
+     */
+    MicAudioInput(int sampleRate, int bufferMultiplier) {
+        this(sampleRate, bufferMultiplier, false);
+    }
+
+    /**
+     * @param voiceProcessing AI 음성이 나오는 중에도 듣는 전이중 대화용 (스피커 소리를 마이크에서 빼 줌)
+     */
+    MicAudioInput(int sampleRate, int bufferMultiplier, boolean voiceProcessing) {
+        this.sampleRate = sampleRate;
+        this.bufferSize = AudioRecord.getMinBufferSize(sampleRate, CHANNEL_CONFIG, AUDIO_FORMAT) * bufferMultiplier;
+        this.voiceProcessing = voiceProcessing;
+    }
+
+    @Override
+    public synchronized boolean start() {
+        if (audioRecord != null) {
+            return true;
+        }
+        int source = voiceProcessing ? MediaRecorder.AudioSource.VOICE_COMMUNICATION : MediaRecorder.AudioSource.MIC;
+        AudioRecord record = new AudioRecord(source, sampleRate, CHANNEL_CONFIG, AUDIO_FORMAT, bufferSize);
+        if (record.getState() != AudioRecord.STATE_INITIALIZED) {
+            Log.e(TAG, "AudioRecord 초기화 실패");
+            record.release();
+            return false;
+        }
+        if (voiceProcessing) {
+            attachEffects(record.getAudioSessionId());
+        }
+        record.startRecording();
+        startNanos = System.nanoTime();
+        audioRecord = record;
+        return true;
+    }
+
+    /**
+     * 에코 제거 / 잡음 억제 연결 (없거나 실패하면 그대로 녹음)
+     */
+    private void attachEffects(int audioSessionId) {
+        try {
+            if (AcousticEchoCanceler.isAvailable()) {
+                echoCanceler = AcousticEchoCanceler.create(audioSessionId);
+                if (echoCanceler != null) {
+                    echoCanceler.setEnabled(true);
+                }
+            }
+            if (NoiseSuppressor.isAvailable()) {
+                noiseSuppressor = NoiseSuppressor.create(audioSessionId);
+                if (noiseSuppressor != null) {
+                    noiseSuppressor.setEnabled(true);
+                }
+            }
+        } catch (RuntimeException e) {
+            Log.w(TAG, "오디오 효과 연결 실패", e);
+        }
+        Log.d(TAG, "🎧 에코 제거 " + (echoCanceler != null ? "사용" : "없음")
+                + ", 잡음 억제 " + (noiseSuppressor != null ? "사용" : "없음"));
+    }
+
+    private void releaseEffects() {
+        if (echoCanceler != null) {
+            echoCanceler.release();
+            echoCanceler = null;
+        }
+        if (noiseSuppressor != null) {
+            noiseSuppressor.release();
+            noiseSuppressor = null;
+        }
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        AudioRecord record = audioRecord;
+        return record != null ? record.read(buffer, offset, length) : -1;
+    }
+
+    @Override
+    public long positionTimeNanos(long position) {
+        AudioRecord record = audioRecord;
+        if (record != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            if (timestamp == null) {
+                timestamp = new AudioTimestamp();
+            }
+            if (record.getTimestamp(timestamp, AudioTimestamp.TIMEBASE_MONOTONIC) == AudioRecord.SUCCESS) {
+                return timestamp.nanoTime + (position - timestamp.framePosition) * 1_000_000_000L / sampleRate;
+            }
+        }
+        return startNanos + position * 1_000_000_000L / sampleRate;
+    }
+
+    @Override
+    public synchronized void release() {
+        AudioRecord record = audioRecord;
+        if (record == null) {
+            return;
+        }
+        audioRecord = null;
+        try {
+            Log.d(TAG, "AudioRecord 중지 시작");
+
+            // 녹음 상태 확인 후 중지
+            if (record.getRecordingState() == AudioRecord.RECORDSTATE_RECORDING) {
+                record.stop();
+            }
+            releaseEffects();
+            record.release();
+
+            Log.d(TAG, "AudioRecord 중지 완료");
+        } catch (IllegalStateException e) {
+            Log.w(TAG, "AudioRecord가 이미 해제됨", e);
+        } catch (Exception e) {
+            Log.e(TAG, "AudioRecord 중지 오류", e);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.temidummyapp;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.google.gson.annotations.SerializedName;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 질문 복잡도에 따른 모델 / 출력 토큰 선택
+ * - 점수 = 질문 길이(0~2) + 추천/비교 같은 추론 필요 여부(reasoning_weight) + 이전 대화 깊이(0~2)
+ * - assets/model_routes.json 의 경로 표에서 점수가 max_score 이하인 첫 경로 사용
+ *   (짧은 사실 질문은 작은 모델 + 짧은 답변, 여러 턴의 추천 대화는 큰 출력 예산)
+ * - 경로별 결과(지연시간, 잘린 답변 비율)는 LlmMetricsStore 요약에서 route별로 확인해 표를 조정
+ *
+ * 표를 읽기 전이나 읽지 못했으면 기본 경로(예전 고정 설정)를 사용
+ */
+public class ModelRouter {
+    private static final String TAG = "ModelRouter";
+
+    private static final String ASSET_FILE = "model_routes.json";
+
+    /**
+     * 표를 쓰지 않을 때의 설정 (gpt-4o-mini, 500 토큰, 0.7)
+     */
+    public static final Route DEFAULT_ROUTE = new Route("default", Integer.MAX_VALUE, "gpt-4o-mini", 500, 0.7f);
+
+    /**
+     * 경로 하나 (요청 본문의 model / max_tokens / temperature)
+     */
+    public static class Route {
+        public final String name;
+        public final int maxScore;
+        public final String model;
+        public final int maxTokens;
+        public final float temperature;
+
+        Route(String name, int maxScore, String model, int maxTokens, float temperature) {
+            this.name = name;
+            this.maxScore = maxScore;
+            this.model = model;
+            this.maxTokens = maxTokens;
+            this.temperature = temperature;
+        }
+    }
+
+    // model_routes.json 형식
+    private static class RouteFile {
+        @SerializedName("short_chars")
+        int shortChars;
+        @SerializedName("long_chars")
+        int longChars;
+        @SerializedName("deep_history_turns")
+        int deepHistoryTurns;
+        @SerializedName("reasoning_weight")
+        int reasoningWeight;
+        @SerializedName("reasoning_keywords")
+        List<String> reasoningKeywords;
+        List<RouteSpec> routes;
+    }
+
+    private static class RouteSpec {
+        String name;
+        @SerializedName("max_score")
+        int maxScore;
+        String model;
+        @SerializedName("max_tokens")
+        int maxTokens;
+        float temperature;
+    }
+
+    private final Context context;
+
+    // 표 (load()에서 경로 목록, 점수 기준 순서로 교체 - table이 보이면 routes도 준비된 상태)
+    private volatile RouteFile table;
+    private volatile List<Route> routes;
+
+    // 지표
+    private final Map<String, Integer> hitsByRoute = new LinkedHashMap<>();
+    private int routed = 0;
+
+    public ModelRouter(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * 경로 표 읽기 (백그라운드 스레드에서 호출)
+     */
+    public void load() {
+        try (InputStream is = context.getAssets().open(ASSET_FILE)) {
+            RouteFile file = new Gson().fromJson(
+                    new InputStreamReader(is, StandardCharsets.UTF_8), RouteFile.class);
+            if (file == null || file.routes == null || file.routes.isEmpty()) {
+                Log.w(TAG, "경로 표가 비어 있음 - 기본 경로 사용");
+                return;
+            }
+            List<Route> loaded = new ArrayList<>();
+            for (RouteSpec spec : file.routes) {
+                loaded.add(new Route(spec.name, spec.maxScore, spec.model, spec.maxTokens, spec.temperature));
+            }
+            if (file.reasoningKeywords == null) {
+                file.reasoningKeywords = new ArrayList<>();
+            }
+            routes = loaded;
+            table = file;
+            Log.d(TAG, "경로 표 로드: " + loaded.size() + "개");
+        } catch (Exception e) {
+            Log.e(TAG, "경로 표 로드 실패: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 요청 하나의 경로 선택 (요청 실행기 스레드)
+     *
+     * @param visitorMessages 현재 방문객의 대화 (마지막이 이번 질문)
+     */
+    public Route route(List<ChatMessage> visitorMessages) {
+        RouteFile file = table;
+        List<Route> current = routes;
+        if (file == null || current == null) {
+            record(DEFAULT_ROUTE);
+            return DEFAULT_ROUTE;
+        }
+
+        // 이번 질문 + 그 전의 사용자 질문 수
+        String question = null;
+        int earlierTurns = 0;
+        for (int i = visitorMessages.size() - 1; i >= 0; i--) {
+            ChatMessage message = visitorMessages.get(i);
+            if (!message.isUser()) {
+                continue;
+            }
+            if (question == null) {
+                question = message.getMessage() != null ? message.getMessage().trim() : "";
+            } else {
+                earlierTurns++;
+            }
+        }
+        if (question == null) {
+            question = "";
+        }
+
+        int length = question.length();
+        int lengthScore = length <= file.shortChars ? 0 : length <= file.longChars ? 1 : 2;
+        int reasoningScore = needsReasoning(question, file.reasoningKeywords) ? file.reasoningWeight : 0;
+        int historyScore = earlierTurns == 0 ? 0 : earlierTurns < file.deepHistoryTurns ? 1 : 2;
+        int score = lengthScore + reasoningScore + historyScore;
+
+        Route chosen = current.get(current.size() - 1);
+        for (int i = 0; i < current.size(); i++) {
+            if (score <= current.get(i).maxScore) {
+                chosen = current.get(i);
+                break;
+            }
+        }
+        record(chosen);
+        Log.d(TAG, "경로 " + chosen.name + " (점수 " + score + ": 길이 " + lengthScore
+                + ", 추론 " + reasoningScore + ", 대화 " + historyScore + ") -> "
+                + chosen.model + "/" + chosen.maxTokens);
+        return chosen;
+    }
+
+    private static boolean needsReasoning(String question, List<String> keywords) {
+        for (String keyword : keywords) {
+            if (question.contains(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void record(Route route) {
+        routed++;
+        Integer hits = hitsByRoute.get(route.name);
+        hitsByRoute.put(route.name, hits == null ? 1 : hits + 1);
+    }
+
+    /**
+     * 경로별 선택 횟수 (결과 지표는 LlmMetricsStore.getSummary())
+     */
+    public synchronized String getStatsSummary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("요청 ").append(routed);
+        for (Map.Entry<String, Integer> entry : hitsByRoute.entrySet()) {
+            sb.append(", ").append(entry.getKey()).append(' ').append(entry.getValue());
+        }
+        return sb.toString();
+    }
+}
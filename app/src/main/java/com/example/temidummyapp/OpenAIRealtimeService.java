@@ -1,21 +1,19 @@
 package com.example.temidummyapp;
 
-import android.media.AudioFormat;
-import android.media.AudioRecord;
-import android.media.AudioTrack;
-import android.media.MediaRecorder;
-import android.os.Handler;
-import android.os.Looper;
-import android.util.Base64;
 import android.util.Log;
 
+import com.example.temidummyapp.core.AudioAppendEncoder;
+import com.example.temidummyapp.core.AudioFrame;
+import com.example.temidummyapp.core.PcmLevel;
+import com.example.temidummyapp.core.SpeechGate;
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.concurrent.TimeUnit;
 
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -30,25 +28,51 @@ import okio.ByteString;
  */
 public class OpenAIRealtimeService {
     private static final String TAG = "OpenAIRealtimeService";
-    private static final String REALTIME_API_URL = "wss://api.openai.com/v1/realtime?model=gpt-4o-realtime-preview-2024-10-01";
+    private static final String REALTIME_MODEL = "gpt-4o-realtime-preview-2024-10-01";
+    private static final String REALTIME_API_URL = "wss://api.openai.com/v1/realtime?model=" + REALTIME_MODEL;
 
     // 오디오 설정
     private static final int SAMPLE_RATE = 24000; // OpenAI Realtime API 요구사항
-    private static final int CHANNEL_CONFIG = AudioFormat.CHANNEL_IN_MONO;
-    private static final int AUDIO_FORMAT = AudioFormat.ENCODING_PCM_16BIT;
+
+    // 서버 VAD 턴 종료 침묵 길이 - 로컬 VAD는 이보다 조금 더 보내야 서버가 턴 종료를 감지
+    private static final int SILENCE_DURATION_MS = 3000;
+    private static final int SERVER_VAD_MARGIN_MS = 200;
 
     private final OkHttpClient client;
+    private final String url;
     private final Gson gson;
-    private final Handler mainHandler;
+    private final CallbackScheduler callbacks;
     private final String apiKey;
 
-    private WebSocket webSocket;
-    private AudioRecord audioRecord;
-    private AudioTrack audioTrack;
-    private boolean isStreaming = false;
-    private boolean isMicrophonePaused = false; // 마이크 일시 중지 상태
+    // 마이크(고정 길이 프레임) / 스피커 (앱: AudioRecord / AudioTrack)
+    private final AudioCapture audioCapture;
+    private final AudioPlayback audioPlayback;
+
+    // 로컬 VAD (말소리 구간만 전송) / 로컬 턴 종료 (0이면 서버 VAD가 턴 종료)
+    private boolean localVad = false;
+    private int localCommitMs = 0;
+    private volatile SpeechGate speechGate; // 녹음 스레드에서 사용, 중지 후 통계 기록
+
+    // 끼어들기: AI가 말하는 중에 사용자 말소리가 감지되면 응답 취소 + 남은 음성 버림 + 들려준 곳까지 자르기
+    private final Object bargeInLock = new Object();
+    private volatile String activeResponseId;      // response.created ~ response.done
+    private volatile String interruptedResponseId; // 취소한 응답 (남은 델타는 버림)
+    private volatile String audioItemId;           // 스피커로 보내는 중인 AI 음성 항목
+    private volatile long itemStartSamples = 0;    // 그 항목 첫 샘플의 출력 위치
+    private volatile long writtenSamples = 0;      // 재생 단계에 넘긴 샘플 누적 (WebSocket 스레드에서 증가)
+
+    // 녹음 스레드와 메인 스레드가 함께 봄
+    private volatile WebSocket webSocket;
+    private volatile boolean isStreaming = false;
+    private volatile boolean isMicrophonePaused = false; // 마이크 일시 중지 상태
     private RealtimeCallback callback;
 
+    // 응답별 지연시간/토큰 기록 (WebSocket 스레드에서만 접근)
+    private LlmMetricsStore metricsStore;
+    private LlmCallMetrics currentMetrics;
+    private long connectStartMs = 0;
+    private long handshakeMs = -1; // 첫 응답 기록에만 포함
+
     // 음압 감지
     private float currentAudioLevel = 0.0f;
 
@@ -65,44 +89,85 @@ public class OpenAIRealtimeService {
 
         void onResponseComplete();
 
+        void onResponseInterrupted(); // 사용자가 끼어들어 AI 음성 중단
+
         void onError(String error);
 
         void onDisconnected();
     }
 
     public OpenAIRealtimeService(String apiKey) {
+        this(apiKey, HttpClientProvider.realtime(), REALTIME_API_URL, CallbackScheduler.mainThread(),
+                new AudioCapture(new MicAudioInput(SAMPLE_RATE, 1, BuildConfig.REALTIME_FULL_DUPLEX), SAMPLE_RATE, BuildConfig.REALTIME_FRAME_MS),
+                new AudioPlayback(new AudioTrackOutput(SAMPLE_RATE, BuildConfig.REALTIME_FULL_DUPLEX), SAMPLE_RATE));
+        setLocalVad(BuildConfig.REALTIME_LOCAL_VAD, BuildConfig.REALTIME_LOCAL_COMMIT_MS);
+    }
+
+    /**
+     * 연결 주소 / 콜백 스레드 / 오디오 입출력 지정 (JVM 테스트: 녹화 재생 서버 + 가짜 마이크/스피커)
+     */
+    OpenAIRealtimeService(String apiKey, OkHttpClient client, String url, CallbackScheduler callbacks,
+                          AudioCapture audioCapture, AudioPlayback audioPlayback) {
         this.apiKey = apiKey;
-        this.client = new OkHttpClient.Builder()
-                .readTimeout(0, TimeUnit.MILLISECONDS)
-                .build();
-        this.gson = new Gson();
-        this.mainHandler = new Handler(Looper.getMainLooper());
+        this.client = client;
+        this.url = url;
+        // turn_detection: null (로컬 턴 종료)을 빼지 않고 보냄
+        this.gson = new GsonBuilder().serializeNulls().create();
+        this.callbacks = callbacks;
+        this.audioCapture = audioCapture;
+        this.audioPlayback = audioPlayback;
+    }
+
+    /**
+     * 로컬 VAD 설정 (connect 전에 호출)
+     *
+     * 전이중(REALTIME_FULL_DUPLEX)이면 localVad=false여도 로컬 VAD 사용
+     * (AI 음성 중에도 마이크가 열려 있어 전부 보내면 서버 VAD가 에코를 말소리로 보고 응답을 끊음 - 에코 가드는 로컬 VAD에만 있음)
+     *
+     * @param localCommitMs 0보다 크면 말이 이 시간만큼 끊겼을 때 앱이 턴 종료 (서버 VAD 끔, 로컬 VAD 사용)
+     */
+    void setLocalVad(boolean localVad, int localCommitMs) {
+        if (!localVad && BuildConfig.REALTIME_FULL_DUPLEX) {
+            Log.w(TAG, "⚠️ 전이중 모드에서는 로컬 VAD를 끌 수 없음 - 로컬 VAD 사용");
+            localVad = true;
+        }
+        this.localCommitMs = Math.max(0, localCommitMs);
+        this.localVad = localVad || this.localCommitMs > 0;
     }
 
     public void setCallback(RealtimeCallback callback) {
         this.callback = callback;
     }
 
+    /**
+     * 지표 저장소 설정 (발화 종료 ~ 첫 음성, 전체 응답 시간, 토큰 수)
+     */
+    public void setMetricsStore(LlmMetricsStore metricsStore) {
+        this.metricsStore = metricsStore;
+    }
+
     /**
      * Realtime API 연결
      */
     public void connect() {
         Request request = new Request.Builder()
-                .url(REALTIME_API_URL)
+                .url(url)
                 .addHeader("Authorization", "Bearer " + apiKey)
                 .addHeader("OpenAI-Beta", "realtime=v1")
                 .build();
 
+        connectStartMs = System.currentTimeMillis();
         webSocket = client.newWebSocket(request, new WebSocketListener() {
             @Override
             public void onOpen(WebSocket webSocket, Response response) {
-                Log.d(TAG, "WebSocket 연결됨");
+                handshakeMs = System.currentTimeMillis() - connectStartMs;
+                Log.d(TAG, "WebSocket 연결됨 (" + handshakeMs + "ms)");
 
                 // 세션 설정 전송
                 sendSessionUpdate();
 
                 if (callback != null) {
-                    mainHandler.post(callback::onConnected);
+                    callbacks.post(callback::onConnected);
                 }
             }
 
@@ -120,7 +185,7 @@ public class OpenAIRealtimeService {
             public void onFailure(WebSocket webSocket, Throwable t, Response response) {
                 Log.e(TAG, "WebSocket 오류", t);
                 if (callback != null) {
-                    mainHandler.post(() -> callback.onError(t.getMessage()));
+                    callbacks.post(() -> callback.onError(t.getMessage()));
                 }
             }
 
@@ -128,7 +193,7 @@ public class OpenAIRealtimeService {
             public void onClosed(WebSocket webSocket, int code, String reason) {
                 Log.d(TAG, "WebSocket 종료됨: " + reason);
                 if (callback != null) {
-                    mainHandler.post(callback::onDisconnected);
+                    callbacks.post(callback::onDisconnected);
                 }
             }
         });
@@ -176,13 +241,18 @@ public class OpenAIRealtimeService {
         session.addProperty("temperature", 0.6);
 
         // VAD (Voice Activity Detection) 설정
-        // 행사장 환경에 최적화 (시끄러운 환경 + 적절한 대기 시간)
-        JsonObject turnDetection = new JsonObject();
-        turnDetection.addProperty("type", "server_vad");
-        turnDetection.addProperty("threshold", 0.75); // 높은 민감도 (소음 필터링 강화)
-        turnDetection.addProperty("prefix_padding_ms", 800); // 발화 시작 전 800ms 패딩 (말 시작 보호)
-        turnDetection.addProperty("silence_duration_ms", 3000); // 3초 침묵 후 턴 종료 (적절한 응답 속도)
-        session.add("turn_detection", turnDetection);
+        if (localCommitMs > 0) {
+            // 로컬 턴 종료: 앱이 input_audio_buffer.commit + response.create
+            session.add("turn_detection", JsonNull.INSTANCE);
+        } else {
+            // 행사장 환경에 최적화 (시끄러운 환경 + 적절한 대기 시간)
+            JsonObject turnDetection = new JsonObject();
+            turnDetection.addProperty("type", "server_vad");
+            turnDetection.addProperty("threshold", 0.75); // 높은 민감도 (소음 필터링 강화)
+            turnDetection.addProperty("prefix_padding_ms", 800); // 발화 시작 전 800ms 패딩 (말 시작 보호)
+            turnDetection.addProperty("silence_duration_ms", SILENCE_DURATION_MS); // 3초 침묵 후 턴 종료
+            session.add("turn_detection", turnDetection);
+        }
 
         sessionUpdate.add("session", session);
 
@@ -195,9 +265,8 @@ public class OpenAIRealtimeService {
      * OpenAIService의 AUDIO_SYSTEM_PROMPT 가져오기 (음성 대화용)
      */
     private String getAudioSystemPrompt() {
-        // OpenAIService 인스턴스를 통해 음성 대화용 프롬프트 가져오기
-        OpenAIService openAIService = new OpenAIService();
-        return openAIService.getAudioSystemPrompt();
+        // 상수만 필요하므로 OpenAIService 인스턴스(및 HTTP 클라이언트)를 만들지 않음
+        return OpenAIService.AUDIO_SYSTEM_PROMPT;
     }
 
     /**
@@ -216,13 +285,30 @@ public class OpenAIRealtimeService {
                     Log.d(TAG, "✅ 세션 준비됨");
                     break;
 
+                case "input_audio_buffer.speech_started":
+                    // 사용자 발화 시작 (server VAD) - AI가 말하는 중이면 끼어들기
+                    onUserSpeechStarted("서버 VAD");
+                    break;
+
+                case "input_audio_buffer.speech_stopped":
+                    // 사용자 발화 종료 (server VAD) - 응답 지연 측정 시작
+                    startResponseMetrics();
+                    break;
+
+                case "input_audio_buffer.committed":
+                    // 로컬 턴 종료 - 서버가 받은 시점부터 응답 지연 측정
+                    if (localCommitMs > 0 && currentMetrics == null) {
+                        startResponseMetrics();
+                    }
+                    break;
+
                 case "conversation.item.input_audio_transcription.completed":
                     // 사용자 음성 인식 결과
                     if (json.has("transcript")) {
                         String transcript = json.get("transcript").getAsString();
                         Log.d(TAG, "📝 사용자 음성 인식: " + transcript);
                         if (callback != null) {
-                            mainHandler.post(() -> callback.onTranscriptReceived(transcript));
+                            callbacks.post(() -> callback.onTranscriptReceived(transcript));
                         }
                     }
                     break;
@@ -230,18 +316,24 @@ public class OpenAIRealtimeService {
                 case "response.created":
                     // AI 응답 생성 시작
                     Log.d(TAG, "🎯 AI 응답 생성 시작");
+                    if (json.has("response") && json.getAsJsonObject("response").has("id")) {
+                        activeResponseId = json.getAsJsonObject("response").get("id").getAsString();
+                    }
+                    if (currentMetrics == null) {
+                        startResponseMetrics();
+                    }
                     if (callback != null) {
-                        mainHandler.post(callback::onResponseStarted);
+                        callbacks.post(callback::onResponseStarted);
                     }
                     break;
 
                 case "response.audio_transcript.delta":
-                    // AI 응답 텍스트 스트림
-                    if (json.has("delta")) {
+                    // AI 응답 텍스트 스트림 (끼어들어 취소한 응답은 버림)
+                    if (json.has("delta") && !isInterrupted(json)) {
                         String delta = json.get("delta").getAsString();
                         Log.d(TAG, "📤 AI 텍스트 델타: " + delta);
                         if (callback != null) {
-                            mainHandler.post(() -> callback.onResponseReceived(delta));
+                            callbacks.post(() -> callback.onResponseReceived(delta));
                         }
                     }
                     break;
@@ -252,32 +344,44 @@ public class OpenAIRealtimeService {
                     break;
 
                 case "response.audio.delta":
-                    // AI 음성 스트림 (Base64 인코딩된 PCM16 데이터)
-                    if (json.has("delta")) {
-                        String audioBase64 = json.get("delta").getAsString();
-                        playAudioChunk(audioBase64);
+                    // AI 음성 스트림 (Base64 인코딩된 PCM16 데이터, 끼어들어 취소한 응답은 버림)
+                    if (json.has("delta") && !isInterrupted(json)) {
+                        if (currentMetrics != null) {
+                            currentMetrics.markChunk();
+                        }
+                        playAudioChunk(json);
                     }
                     break;
 
                 case "response.audio.done":
                     // AI 음성 스트리밍 완료
                     Log.d(TAG, "🔊 AI 음성 스트리밍 완료");
+                    audioPlayback.endOfStream();
                     break;
 
                 case "response.done":
                     // AI 응답 완전 완료 (텍스트 + 음성 모두)
                     Log.d(TAG, "✅ AI 응답 완전 완료");
+                    activeResponseId = null;
+                    // 취소된 응답은 response.audio.done 없이 끝남
+                    audioPlayback.endOfStream();
+                    finishResponseMetrics(json);
                     if (callback != null) {
-                        mainHandler.post(callback::onResponseComplete);
+                        callbacks.post(callback::onResponseComplete);
                     }
                     break;
 
                 case "error":
                     // 오류 발생
+                    if (isCancelNotActive(json)) {
+                        // 서버 VAD가 먼저 응답을 끊은 경우 - 끼어들기는 이미 처리됨
+                        Log.d(TAG, "ℹ️ 취소할 응답 없음 (이미 종료)");
+                        break;
+                    }
                     String error = json.has("error") ? json.get("error").toString() : "Unknown error";
                     Log.e(TAG, "❌ 오류 발생: " + error);
                     if (callback != null) {
-                        mainHandler.post(() -> callback.onError(error));
+                        callbacks.post(() -> callback.onError(error));
                     }
                     break;
 
@@ -290,6 +394,125 @@ public class OpenAIRealtimeService {
         }
     }
 
+    private boolean isInterrupted(JsonObject json) {
+        String interrupted = interruptedResponseId;
+        return interrupted != null && json.has("response_id")
+                && interrupted.equals(json.get("response_id").getAsString());
+    }
+
+    /**
+     * AI가 응답을 만들거나 스피커로 말하는 중 (녹음 스레드에서 에코 보호 판단)
+     */
+    private boolean isAssistantSpeaking() {
+        String responseId = activeResponseId;
+        if (responseId != null && !responseId.equals(interruptedResponseId)) {
+            return true;
+        }
+        return audioPlayback.playbackPosition() < writtenSamples;
+    }
+
+    private static boolean isCancelNotActive(JsonObject json) {
+        if (!json.has("error") || !json.get("error").isJsonObject()) {
+            return false;
+        }
+        JsonObject error = json.getAsJsonObject("error");
+        return error.has("code") && "response_cancel_not_active".equals(error.get("code").getAsString());
+    }
+
+    /**
+     * 사용자 말소리 시작 (로컬 VAD: 녹음 스레드, 서버 VAD: WebSocket 스레드)
+     * AI가 응답을 만들거나 말하는 중이면 끼어들기:
+     * 1. response.cancel 2. 스피커에 남은 음성 버림 3. conversation.item.truncate (들려준 곳까지만 대화 기록에 남김)
+     */
+    private void onUserSpeechStarted(String source) {
+        long playedMs;
+        synchronized (bargeInLock) {
+            String responseId = activeResponseId;
+            boolean responding = responseId != null && !responseId.equals(interruptedResponseId);
+            long written = writtenSamples;
+            long position = Math.min(audioPlayback.playbackPosition(), written);
+            if (!responding && position >= written) {
+                return;
+            }
+            WebSocket socket = webSocket;
+            if (socket == null) {
+                return;
+            }
+
+            if (responding) {
+                JsonObject cancel = new JsonObject();
+                cancel.addProperty("type", "response.cancel");
+                socket.send(gson.toJson(cancel));
+                interruptedResponseId = responseId;
+            }
+
+            audioPlayback.flush();
+
+            String itemId = audioItemId;
+            audioItemId = null;
+            playedMs = Math.max(0, position - itemStartSamples) * 1000 / SAMPLE_RATE;
+            if (itemId != null) {
+                JsonObject truncate = new JsonObject();
+                truncate.addProperty("type", "conversation.item.truncate");
+                truncate.addProperty("item_id", itemId);
+                truncate.addProperty("content_index", 0);
+                truncate.addProperty("audio_end_ms", playedMs);
+                socket.send(gson.toJson(truncate));
+            }
+        }
+        Log.d(TAG, "✋ 끼어들기 (" + source + ") - AI 음성 " + playedMs + "ms 에서 중단");
+        if (callback != null) {
+            callbacks.post(callback::onResponseInterrupted);
+        }
+    }
+
+    private void startResponseMetrics() {
+        if (metricsStore == null) {
+            return;
+        }
+        currentMetrics = new LlmCallMetrics(REALTIME_MODEL, "realtime");
+        currentMetrics.markStart();
+        if (handshakeMs >= 0) {
+            currentMetrics.connectMs = handshakeMs;
+            handshakeMs = -1;
+        }
+    }
+
+    /**
+     * response.done 의 usage 로 기록 완료
+     */
+    private void finishResponseMetrics(JsonObject json) {
+        LlmCallMetrics metrics = currentMetrics;
+        currentMetrics = null;
+        if (metrics == null || metricsStore == null) {
+            return;
+        }
+
+        int inputTokens = -1;
+        int outputTokens = -1;
+        int cachedTokens = -1;
+        JsonObject response = json.has("response") ? json.getAsJsonObject("response") : null;
+        if (response != null && response.has("usage") && response.get("usage").isJsonObject()) {
+            JsonObject usage = response.getAsJsonObject("usage");
+            inputTokens = usage.has("input_tokens") ? usage.get("input_tokens").getAsInt() : -1;
+            outputTokens = usage.has("output_tokens") ? usage.get("output_tokens").getAsInt() : -1;
+            if (usage.has("input_token_details") && usage.get("input_token_details").isJsonObject()) {
+                JsonObject details = usage.getAsJsonObject("input_token_details");
+                cachedTokens = details.has("cached_tokens") ? details.get("cached_tokens").getAsInt() : -1;
+            }
+        }
+        metrics.markEnd(inputTokens, outputTokens, cachedTokens);
+        // 끼어들기로 중단된 응답도 기록 (status: cancelled / failed / incomplete)
+        String status = response != null && response.has("status") && !response.get("status").isJsonNull()
+                ? response.get("status").getAsString() : "completed";
+        if ("cancelled".equals(status)) {
+            metrics.outcome = LlmCallMetrics.OUTCOME_CANCELLED;
+        } else if ("failed".equals(status)) {
+            metrics.outcome = LlmCallMetrics.OUTCOME_FAILED;
+        }
+        metricsStore.record(metrics);
+    }
+
     /**
      * 바이너리 메시지 처리
      */
@@ -299,7 +522,7 @@ public class OpenAIRealtimeService {
     }
 
     /**
-     * 오디오 스트리밍 시작
+     * 오디오 스트리밍 시작 (REALTIME_FRAME_MS 프레임마다 전송, 로컬 VAD면 말소리 구간만)
      */
     public void startAudioStreaming() {
         if (isStreaming) {
@@ -308,49 +531,111 @@ public class OpenAIRealtimeService {
 
         isStreaming = true;
 
-        new Thread(() -> {
-            try {
-                int bufferSize = AudioRecord.getMinBufferSize(SAMPLE_RATE, CHANNEL_CONFIG, AUDIO_FORMAT);
-                audioRecord = new AudioRecord(MediaRecorder.AudioSource.MIC, SAMPLE_RATE, CHANNEL_CONFIG,
-                        AUDIO_FORMAT, bufferSize);
-
-                audioRecord.startRecording();
-                Log.d(TAG, "오디오 녹음 시작");
-
-                byte[] buffer = new byte[bufferSize];
+        // append 이벤트를 매번 새로 만들지 않고 녹음 스레드의 버퍼에 씀
+        AudioAppendEncoder encoder = new AudioAppendEncoder(audioCapture.frameBytes());
+        // 서버 VAD면 서버가 턴 종료를 감지할 만큼 말 끝 뒤 침묵을 더 보냄
+        int hangoverMs = localCommitMs > 0 ? localCommitMs : SILENCE_DURATION_MS + SERVER_VAD_MARGIN_MS;
+        SpeechGate gate = localVad ? audioCapture.newSpeechGate(hangoverMs) : null;
+        speechGate = gate;
+        SpeechGate.Listener speech = new SpeechGate.Listener() {
+            @Override
+            public void onSpeechStart() {
+                Log.d(TAG, "🗣️ 로컬 VAD: 말소리 시작");
+                onUserSpeechStarted("로컬 VAD");
+            }
 
-                while (isStreaming) {
-                    // 마이크가 일시 중지 상태면 데이터 읽지만 전송하지 않음
-                    int bytesRead = audioRecord.read(buffer, 0, buffer.length);
+            @Override
+            public void onSpeechFrame(AudioFrame frame) {
+                sendAudioFrame(encoder, frame);
+            }
 
-                    if (bytesRead > 0 && !isMicrophonePaused) {
-                        // 음압 계산
-                        calculateAudioLevel(buffer, bytesRead);
+            @Override
+            public void onSpeechEnd() {
+                Log.d(TAG, "🤫 로컬 VAD: 말소리 끝");
+                if (localCommitMs > 0) {
+                    commitTurn();
+                }
+            }
+        };
+        audioCapture.start(new AudioCapture.FrameSink() {
+            @Override
+            public void onStarted(boolean started) {
+                if (!started) {
+                    isStreaming = false;
+                    if (callback != null) {
+                        callbacks.post(() -> callback.onError("마이크를 시작할 수 없습니다"));
+                    }
+                    return;
+                }
+                Log.d(TAG, "오디오 녹음 시작");
+            }
 
-                        // Base64 인코딩
-                        String audioBase64 = Base64.encodeToString(buffer, 0, bytesRead, Base64.NO_WRAP);
+            @Override
+            public void onFrame(AudioFrame frame) {
+                // 마이크가 일시 중지 상태면 데이터 읽지만 전송하지 않음
+                if (isMicrophonePaused) {
+                    frame.recycle();
+                    // 일시 중지 중에는 음압 레벨 0으로 설정
+                    currentAudioLevel = 0.0f;
+                    if (callback != null) {
+                        callbacks.post(() -> callback.onAudioLevelChanged(0.0f));
+                    }
+                    return;
+                }
 
-                        // WebSocket으로 전송 (마이크 일시 중지 상태가 아닐 때만)
-                        JsonObject audioAppend = new JsonObject();
-                        audioAppend.addProperty("type", "input_audio_buffer.append");
-                        audioAppend.addProperty("audio", audioBase64);
+                // 음압 계산
+                calculateAudioLevel(frame.data, frame.length());
 
-                        webSocket.send(gson.toJson(audioAppend));
-                    } else if (isMicrophonePaused) {
-                        // 일시 중지 중에는 음압 레벨 0으로 설정
-                        currentAudioLevel = 0.0f;
-                        if (callback != null) {
-                            mainHandler.post(() -> callback.onAudioLevelChanged(0.0f));
-                        }
-                    }
+                if (gate != null) {
+                    // 말소리 구간만 전송 (게이트가 pre-roll 프레임을 보관했다가 반납)
+                    // AI 음성이 나오는 동안은 에코 제거 후 남은 소리로 끼어들지 않게 더 엄격히 판단
+                    gate.setEchoGuard(isAssistantSpeaking());
+                    gate.offer(frame, speech);
+                    return;
                 }
-            } catch (Exception e) {
-                Log.e(TAG, "오디오 스트리밍 오류", e);
+                try {
+                    sendAudioFrame(encoder, frame);
+                } finally {
+                    frame.recycle();
+                }
+            }
+
+            @Override
+            public void onError(String message) {
+                Log.e(TAG, "오디오 스트리밍 오류: " + message);
                 if (callback != null) {
-                    mainHandler.post(() -> callback.onError("오디오 스트리밍 오류: " + e.getMessage()));
+                    callbacks.post(() -> callback.onError(message));
                 }
             }
-        }).start();
+        });
+    }
+
+    /**
+     * WebSocket으로 전송 (연결 종료와 겹치면 보내지 않음)
+     */
+    private void sendAudioFrame(AudioAppendEncoder encoder, AudioFrame frame) {
+        WebSocket socket = webSocket;
+        if (socket != null) {
+            socket.send(encoder.encodeToString(frame.data, 0, frame.length()));
+        }
+    }
+
+    /**
+     * 로컬 턴 종료 - 지금까지 보낸 음성을 사용자 메시지로 확정하고 응답 요청 (녹음 스레드)
+     */
+    private void commitTurn() {
+        WebSocket socket = webSocket;
+        if (socket == null) {
+            return;
+        }
+        JsonObject commit = new JsonObject();
+        commit.addProperty("type", "input_audio_buffer.commit");
+        socket.send(gson.toJson(commit));
+
+        JsonObject responseCreate = new JsonObject();
+        responseCreate.addProperty("type", "response.create");
+        socket.send(gson.toJson(responseCreate));
+        Log.d(TAG, "✅ 로컬 턴 종료 (" + localCommitMs + "ms 침묵)");
     }
 
     /**
@@ -362,62 +647,44 @@ public class OpenAIRealtimeService {
             return;
         }
 
-        // PCM16 데이터를 short로 변환하여 RMS 계산
-        long sum = 0;
-        int sampleCount = length / 2;
-
-        for (int i = 0; i < length - 1; i += 2) {
-            short sample = (short) ((buffer[i + 1] << 8) | (buffer[i] & 0xFF));
-            sum += sample * sample;
-        }
-
-        double rms = Math.sqrt((double) sum / sampleCount);
-        double db = 20 * Math.log10(rms / 32768.0); // -60dB ~ 0dB 범위
-
-        // 0.0 ~ 1.0으로 정규화 (-60dB ~ 0dB -> 0.0 ~ 1.0)
-        float normalizedLevel = (float) Math.max(0.0, Math.min(1.0, (db + 60) / 60));
+        // PCM16 RMS -> 0.0 ~ 1.0 (-60dB ~ 0dB)
+        float normalizedLevel = PcmLevel.level(buffer, length);
 
         // 부드러운 전환
         currentAudioLevel = currentAudioLevel * 0.7f + normalizedLevel * 0.3f;
 
         if (callback != null) {
-            mainHandler.post(() -> callback.onAudioLevelChanged(currentAudioLevel));
+            callbacks.post(() -> callback.onAudioLevelChanged(currentAudioLevel));
         }
     }
 
     /**
-     * AI 음성 재생
+     * AI 음성 재생 (항목별 시작 위치 기록 - 끼어들 때 들려준 길이 계산)
+     * 디코딩은 락 밖에서, 취소 확인 ~ 재생 단계에 넣기는 끼어들기와 같은 락 안에서
+     * (flush 직후 취소된 응답의 델타가 들어가거나 항목이 되살아나지 않게)
      */
-    private void playAudioChunk(String audioBase64) {
+    private void playAudioChunk(JsonObject json) {
         try {
-            byte[] audioData = Base64.decode(audioBase64, Base64.NO_WRAP);
-            Log.d(TAG, "🔊 오디오 청크 수신: " + audioData.length + " bytes");
-
-            if (audioTrack == null) {
-                int minBufferSize = AudioTrack.getMinBufferSize(SAMPLE_RATE,
-                        AudioFormat.CHANNEL_OUT_MONO, AUDIO_FORMAT);
-                
-                // 버퍼 크기를 4배로 늘려서 끊김 방지
-                int bufferSize = minBufferSize * 4;
-                
-                Log.d(TAG, "🎵 AudioTrack 생성 (버퍼: " + bufferSize + " bytes)");
-
-                audioTrack = new AudioTrack(
-                        android.media.AudioManager.STREAM_MUSIC,
-                        SAMPLE_RATE,
-                        AudioFormat.CHANNEL_OUT_MONO,
-                        AUDIO_FORMAT,
-                        bufferSize,
-                        AudioTrack.MODE_STREAM);
-
-                audioTrack.play();
-                Log.d(TAG, "▶️ AudioTrack 재생 시작");
+            String itemId = json.has("item_id") ? json.get("item_id").getAsString() : null;
+            ByteString decoded = ByteString.decodeBase64(json.get("delta").getAsString());
+            if (decoded == null) {
+                Log.e(TAG, "❌ 오디오 청크 Base64 오류");
+                return;
             }
+            byte[] audioData = decoded.toByteArray();
+            Log.d(TAG, "🔊 오디오 청크 수신: " + audioData.length + " bytes");
 
-            // 오디오 데이터 쓰기
-            int written = audioTrack.write(audioData, 0, audioData.length);
-            if (written < 0) {
-                Log.e(TAG, "❌ AudioTrack write 실패: " + written);
+            synchronized (bargeInLock) {
+                if (isInterrupted(json)) {
+                    return;
+                }
+                if (itemId != null && !itemId.equals(audioItemId)) {
+                    audioItemId = itemId;
+                    itemStartSamples = writtenSamples;
+                }
+                writtenSamples += audioData.length / 2;
+                // 링 버퍼에 넣기만 함 (재생 스레드가 스피커로 보냄, WebSocket 스레드는 막히지 않음)
+                audioPlayback.write(audioData, 0, audioData.length);
             }
         } catch (Exception e) {
             Log.e(TAG, "❌ 오디오 재생 오류", e);
@@ -433,47 +700,18 @@ public class OpenAIRealtimeService {
         // 1. 스트리밍 플래그 끄기 (녹음 루프 중단)
         isStreaming = false;
 
-        // 2. 오디오 재생 중지 (진행 중인 출력 즉시 중단)
-        if (audioTrack != null) {
-            try {
-                Log.d(TAG, "AudioTrack 중지 시작");
-                
-                // 즉시 볼륨 0으로 설정 (무음)
-                audioTrack.setStereoVolume(0.0f, 0.0f);
-                
-                // 재생 중인 오디오 즉시 플러시
-                audioTrack.pause();
-                audioTrack.flush();
-                audioTrack.stop();
-                audioTrack.release();
-                audioTrack = null;
-                
-                Log.d(TAG, "AudioTrack 중지 완료");
-            } catch (IllegalStateException e) {
-                Log.w(TAG, "AudioTrack이 이미 해제됨", e);
-            } catch (Exception e) {
-                Log.e(TAG, "AudioTrack 중지 오류", e);
-            }
-        }
-
-        // 3. 오디오 녹음 중지
-        if (audioRecord != null) {
-            try {
-                Log.d(TAG, "AudioRecord 중지 시작");
-                
-                // 녹음 상태 확인 후 중지
-                if (audioRecord.getRecordingState() == AudioRecord.RECORDSTATE_RECORDING) {
-                    audioRecord.stop();
-                }
-                audioRecord.release();
-                audioRecord = null;
-                
-                Log.d(TAG, "AudioRecord 중지 완료");
-            } catch (IllegalStateException e) {
-                Log.w(TAG, "AudioRecord가 이미 해제됨", e);
-            } catch (Exception e) {
-                Log.e(TAG, "AudioRecord 중지 오류", e);
-            }
+        // 2. 오디오 재생 중지 (진행 중인 출력 즉시 중단, 재생 스레드 종료 대기)
+        audioPlayback.release();
+        Log.d(TAG, "📉 재생 underrun " + audioPlayback.underruns() + "회, overrun " + audioPlayback.overruns() + "회");
+
+        // 3. 오디오 녹음 중지 (녹음 스레드 종료 대기)
+        audioCapture.stop();
+        SpeechGate gate = speechGate;
+        speechGate = null;
+        if (gate != null) {
+            Log.d(TAG, "📉 업링크 " + gate.sentBytesPerMinute() + " bytes/분 (로컬 VAD 없으면 "
+                    + gate.inputBytesPerMinute() + " bytes/분, 말소리 구간 " + gate.segments() + "개)");
+            gate.reset();
         }
 
         // 4. 음압 레벨 초기화
@@ -504,19 +742,13 @@ public class OpenAIRealtimeService {
             }
         }
 
-        // 3. OkHttp 리소스 정리
-        try {
-            client.dispatcher().executorService().shutdown();
-            Log.d(TAG, "OkHttp 리소스 정리 완료");
-        } catch (Exception e) {
-            Log.e(TAG, "OkHttp 리소스 정리 오류", e);
-        }
-        
+        // 3. OkHttp 클라이언트는 앱 전체 공용이므로 종료하지 않음 (HttpClientProvider)
+
         Log.d(TAG, "WebSocket 연결 종료 완료");
     }
 
     /**
-     * 마이크 일시 중지 (AI가 말할 때 - 에코 방지)
+     * 마이크 일시 중지 (반이중 모드: AI가 말할 때 - 에코 방지, 끼어들기 불가)
      */
     public void pauseMicrophone() {
         if (!isMicrophonePaused && isStreaming) {
@@ -541,29 +773,7 @@ public class OpenAIRealtimeService {
      */
     public void muteAudioImmediately() {
         Log.d(TAG, "🔇 오디오 출력 즉시 음소거 요청");
-        
-        if (audioTrack != null) {
-            try {
-                // 1. 볼륨을 즉시 0으로
-                audioTrack.setStereoVolume(0.0f, 0.0f);
-                Log.d(TAG, "🔇 볼륨 0 설정 완료");
-                
-                // 2. 재생 일시 정지
-                audioTrack.pause();
-                Log.d(TAG, "⏸️ AudioTrack 일시 정지");
-                
-                // 3. 버퍼 비우기 (진행 중인 음성 제거)
-                audioTrack.flush();
-                Log.d(TAG, "🗑️ AudioTrack 버퍼 비우기 완료");
-                
-            } catch (IllegalStateException e) {
-                Log.w(TAG, "⚠️ AudioTrack이 이미 정지됨", e);
-            } catch (Exception e) {
-                Log.e(TAG, "❌ 오디오 음소거 오류", e);
-            }
-        } else {
-            Log.d(TAG, "ℹ️ AudioTrack이 null (이미 종료됨)");
-        }
+        audioPlayback.mute();
     }
 }
 
@@ -1,23 +1,34 @@
 package com.example.temidummyapp;
 
-import android.os.Handler;
-import android.os.Looper;
 import android.util.Log;
 
+import com.example.temidummyapp.core.ChatStreamParser;
+import com.example.temidummyapp.db.BoothRetriever;
+import com.example.temidummyapp.utils.TokenEstimator;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import okhttp3.Call;
-import okhttp3.Callback;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 /**
  * OpenAI API 통신 서비스
@@ -29,169 +40,198 @@ public class OpenAIService {
     private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
 
     private final OkHttpClient client;
+    private final String apiUrl;
     private final Gson gson;
-    private final Handler mainHandler;
+    private final CallbackScheduler callbacks;
     private String apiKey;
 
+    // 요청 실행기 (동시 요청 수 제한, 앱 전체 공용)
+    private static final int MAX_CONCURRENT_REQUESTS = 2;
+    private static final int MAX_QUEUED_REQUESTS = 4;
+    private static final ThreadPoolExecutor REQUEST_EXECUTOR = createRequestExecutor();
+
+    // 진행 중인 스트리밍 요청 (새 요청이 오면 이전 요청 취소)
+    private RequestHandle activeStream;
+
+    // 재시도 / 헤지 / 회로 차단기 (앱 전체 공용 - 엔드포인트 상태는 하나)
+    private static final ChatRequestPolicy DEFAULT_POLICY = new ChatRequestPolicy();
+    private ChatRequestPolicy requestPolicy = DEFAULT_POLICY;
+
+    // 부스 검색 (BM25) - 켜져 있으면 전체 PROGRAM_LIST 대신 관련 행만 전송
+    private BoothRetriever boothRetriever;
+    private boolean retrievalEnabled = true;
+    private int retrievalTopK = BoothRetriever.DEFAULT_TOP_K;
+    private static final int RETRIEVAL_HISTORY_MESSAGES = 4;
+
+    // 함수 도구 (search_booths / get_event_info) - 켜져 있으면 프로그램 목록 대신 규칙만 전송
+    private ChatTools chatTools;
+    private static final int MAX_TOOL_ROUNDS = 2; // 이후 라운드는 tool_choice=none (답변 강제)
+
+    // 반복 질문 응답 캐시 (없으면 항상 API 호출)
+    private ChatResponseCache responseCache;
+
+    // 로컬 의도 분류 (자주 묻는 사실 질문은 API 호출 없이 답변)
+    private IntentRouter intentRouter;
+
+    // 대화 창 관리 (없으면 전체 대화 기록 전송)
+    private ConversationContextManager contextManager;
+    private static final String SUMMARY_MODEL = "gpt-4o-mini";
+
+    // 질문 복잡도별 모델/출력 토큰 (없으면 ModelRouter.DEFAULT_ROUTE - gpt-4o-mini, 500 토큰)
+    private ModelRouter modelRouter;
+
+    // 부스 카드 (있으면 추천 프로그램을 문장 대신 [[booths:id,...]] 참조로 받고 화면이 카드로 표시)
+    private BoothCardStore boothCardStore;
+
+    // 요청별 지연시간/토큰 기록 (없으면 기록 안 함)
+    private LlmMetricsStore metricsStore;
+    private static final int SUMMARY_MAX_TOKENS = 200;
+
     // ========== RAG 공통 데이터 (CHATBOT & AUDIO 공유) ==========
 
+    /**
+     * 행사 기본 사실 (프롬프트, 대체 답변, 로컬 답변(chat_intents.json의 {키})이 모두 여기서 가져감)
+     */
+    static final String EVENT_NAME = "2025 CO-SHOW";
+    static final String EVENT_DATES = "2025년 11월 26일(수) ~ 11월 29일(토)";
+    static final String EVENT_LENGTH = "4일간";
+    static final String EVENT_VENUE = "부산 BEXCO 제1전시장 2홀, 3A홀";
+    static final String EVENT_AUDIENCE = "초·중·고등학생, 대학생, 전 국민 누구나";
+    static final String EVENT_FEE = "무료";
+
+    /**
+     * API를 쓸 수 없을 때 대체 답변 (회로 차단 중이거나 재시도 모두 실패)
+     */
+    private static final String DEGRADED_ANSWER = "지금은 인터넷 연결이 불안정해서 자세한 답변을 드리기 어려워요. 😥\n\n" +
+            "**" + EVENT_NAME + " 기본 안내**\n" +
+            "• 일정: " + EVENT_DATES + "\n" +
+            "• 장소: " + EVENT_VENUE + "\n" +
+            "• 입장료: " + EVENT_FEE + "\n\n" +
+            "체험 프로그램은 메인 화면의 '주요 부스'에서도 찾아보실 수 있어요. 잠시 후 다시 질문해 주세요!";
+
     /**
      * 행사 기본 정보
      */
-    private static final String EVENT_INFO = "=== 행사 정보 ===\n" +
-            "행사명: 2025 CO-SHOW (코쇼)\n" +
-            "일정: 2025년 11월 26일(수) ~ 11월 29일(토), 4일간\n" +
-            "장소: 부산 BEXCO 제1전시장 2홀, 3A홀\n" +
-            "대상: 초·중·고등학생, 대학생, 전 국민 누구나\n" +
-            "입장료: 무료\n\n";
+    static final String EVENT_INFO = "=== 행사 정보 ===\n" +
+            "행사명: " + EVENT_NAME + " (코쇼)\n" +
+            "일정: " + EVENT_DATES + ", " + EVENT_LENGTH + "\n" +
+            "장소: " + EVENT_VENUE + "\n" +
+            "대상: " + EVENT_AUDIENCE + "\n" +
+            "입장료: " + EVENT_FEE + "\n\n";
 
     /**
-     * 프로그램 목록 (55개 프로그램)
+     * 프로그램 목록 (빌드 시 assets/booth_program_image.csv에서 생성 - generateCatalogPrompt)
      */
-    private static final String PROGRAM_LIST = "=== 프로그램 데이터 형식 ===\n" +
-            "booth_no\tstage\ttags\ttitle\tintroduction\ttime_max\tmethod\n\n" +
-            "=== 프로그램 목록 ===\n" +
-            "B04\t중학생 이상\t인공지능\tAICOSS 캠퍼스 탐구생활\tAI 전공-특화 교과목(20-20)을 메타버스 캠퍼스에서 페험하고 숨겨진 미션을 해결하고 보상받자!\t10분\t현장접수\n" +
-            "B04\t초등학생 고학년 이상\t인공지능\t3분 아티스트 - 나만의 AI 아트 팝업 갤러리\t카메라에 찍힌 내 얼굴이 단 3분만에 영화 스타일의 미디어 아트로 변신!\t10분\t현장접수\n"
-            +
-            "B04\t초등학생 고학년 이상\t인공지능\t우리동네 AI 안전교실 체험\t아이들의 행동을 AI가 즉시 분석하고 안전리포트를 만들어주는 실시간 체험\t10분\t현장접수\n" +
-            "B07\t고등학생 이상\t데이터보안 활용융합\tDrone Under Attack: 하늘 위의 드론 위협\t하늘 위에서 벌어지는 사이버 위협의 실체를 직접 체험해보세요!\t15분\t현장접수 / 사전접수\n"
-            +
-            "B07\t중학생 이상\t데이터보안 활용융합\t우리의 친절한 로봇의 반란\t해커의 손에 넘어가 멈추고 조작되는 순간, 로봇 해킹의 실체를 체험!\t15분\t현장접수 / 사전접수\n" +
-            "B07\t중학생 이상\t데이터보안 활용융합\t탈출하라, 사이버 보안 위기속 탈출기\t주변 단서를 조합해 사이버 위기 속 위협을 탈출하는 방탈출 게임!\t30분\t현장접수 / 사전접수\n" +
-            "B07\t중학생 이상\t데이터보안 활용융합\t해킹이 부른 의료 사고\t실제 의료기기 해킹 시연으로 환자 생명에 미치는 치명적 위험을 확인!\t10분\t현장접수 / 사전접수\n" +
-            "B07\t초등학생 이상\t데이터보안 활용융합\tAI가 만든 가짜를 잡아라\t숨은 단서를 찾아 AI가 만든 가짜와 사람의 진짜를 구분해보세요.\t10분\t현장접수 / 사전접수\n" +
-            "B07\t초등학생 이상\t데이터보안 활용융합\t스마트홈 캠 해킹, 누군가 지켜보고 있다.\t스마트홈 해킹 시연을 통해 사생활 침해의 실체를 확인하세요.\t10분\t현장접수 / 사전접수\n" +
-            "A04\t고등학생 이상\t차세대 디스플레이\t차세대디스플레이 공정 XR 체험\t디스플레이 6.5G 공정 프로세스(증착기 내부, 실제 크기 등)을 체험\t10분\t현장접수\n" +
-            "A04\t초등학생 이상\t차세대 디스플레이\tT-OLED 액자\t투명 OLED를 사용하여 원하는 이미지를 액자로 찰칵!\t5분\t현장접수\n" +
-            "A04\t초등학생 이상\t차세대 디스플레이\t키네틱LED Interactive\t실시간 동작 감지로 키네틱LED를 체험\t10분\t현장접수\n" +
-            "B02\t누구나\t반도체 소부장\t반도체 장비를 분해해보자\t반도체를 만드는 장비 내부를 보고, 뜯고, 조립해보는 VR 체험\t15~30분\t현장접수 / 사전접수\n" +
-            "B09\t누구나\t에코업\t세종기후환경 네트워크 체험1 · 대기전력과 에너지소비효율등급\t가전제품 대기전력과 에너지소비효율등급 알아보기\t10분\t현장접수 / 사전접수\n" +
-            "B09\t초등학생 고학년 이상\t에코업\t에코업 6대 과제 탈출놀이\t에코업 6대 과제를 통해 탈출하는 프로그램\t15분\t현장접수 / 사전접수\n" +
-            "B09\t초등학생 고학년 이상\t에코업\t세종기후환경네트워크 체험2 LED로 그리는 탄소 중립\t탄소중립 조명 만들기(아크릴 LED등 만들기)\t20분\t현장접수 / 사전접수\n" +
-            "B01\t누구나\t사물 인터넷\t센서가 듣고, AI가 생각한다\t센서가 내 목소리와 심장 소리를 읽고, AI가 판단하면 로봇이 곧바로 움직인다. 센서와 AI가 만드는 연결된 세상의 실험실.\t5분\t현장접수\n"
-            +
-            "B01\t중학생 이상\t사물 인터넷\t스마트음식 디지털 트윈 체험\t모바일 로봇과 수질센서를 활용한 자율 환경 관리 체험\t30분\t현장접수\n" +
-            "B01\t초등학생 고학년 이상\t사물 인터넷\tAI IoT 스마트 조명\t경량 AI와 IoT로 만드는 나만의 스마트 조명\t10분\t현장접수\n" +
-            "A06\t누구나\t이차전지\t이차전지 제조공정 VR체험\tHMD를 착용하고, 이차전지 제조과정에 대한 VR영상을 통한 체험\t30분\t사전접수\n" +
-            "A06\t중학생 이상\t이차전지\t보조배터리 제작 체험 (보조배터리 만들어 봤어? 안 만들어 봤으면 말을 하지마!)\t보조배터리 툴킷(Toolkit)을 활용한 제작 체험\t1시간\t사전접수\n"
-            +
-            "B06\t누구나\t에너지 신산업\t플러스에너지 빌딩\t건물 자체에서 소비하는 에너지보다 더 많은 에너지를 생산하여 순에너지 이익을 창출하는 차세대 친환경 건물을 직접 체험\t10분\t현장접수\n"
-            +
-            "B06\t중학생 이상\t에너지 신산업\t수소자동차 롱롱\t수소자동차의 원리를 이해하고 직접 만들어보는 체험형 프로그램\t40분\t사전접수\n" +
-            "B06\t중학생 이상\t에너지 신산업\t수소연료전지 자동차 만들기\t수소연료전자의 원리를 이해하고 친환경 자동차를 직접 만들어보는 체험형 교육 프로그램\t40분\t사전접수\n" +
-            "B06\t중학생 이상\t에너지 신산업\t작은발전기\t친환경에너지를 이해하고 내손으로 만들어보는 발전기\t40분\t사전접수\n" +
-            "B06\t중학생 이상\t에너지 신산업\t태양광 강아지 로봇 만들기\t태양광의 원리를 배우고 직접 전지판 실험 및 강아지로봇 제작을 통해 친환경 에너지를 체험\t60분\t현장접수 / 사전접수\n"
-            +
-            "B05\t초등학생 이상\t지능형 로봇\tAI 드론 및 로봇·오목 로봇 체험\t로봇과의 오목두기·로봇이 그려주는 캐리커쳐 체험을 선택하여 진행\t10분\t현장접수\n" +
-            "B05\t초등학생 이상\t지능형 로봇\tROBO SHOW\t4족 보행로봇·모바일로봇 등을 활용한 로봇쇼\t상시\t현장접수\n" +
-            "B05\t초등학생 이상\t지능형 로봇\t경주로봇 만들기\t경주로봇을 만들어 트랙에서 다른 사람과 경기를 해본다\t60분\t현장접수\n" +
-            "B05\t초등학생 고학년 이상\t지능형 로봇\t청소로봇 만들기\t로봇청소기의 원리를 배울 수 있는 자율주행청소로봇 만들기!\t60분\t사전접수\n" +
-            "B05\t초등학생 고학년 이상\t지능형 로봇\t자이로 외발주행로봇 만들기\t신기방기한 자이로 레일카의 원리에 빠져보아요\t60분\t사전접수\n" +
-            "B05\t초등학생 고학년 이상\t지능형 로봇\t유선 스파이더로봇 만들기\t유선으로 조종이 가능한 다족로봇을 만들어 보아요\t60분\t사전접수\n" +
-            "B05\t초등학생 고학년 이상\t지능형 로봇\t로봇아 멍멍해봐\t4족보행로봇의 원리를 학습하고 트랙 운행을 통해 로봇의 움직임을 직접 체험하는 프로그램\t60분\t현장접수\n" +
-            "B05\t중학생 이상\t지능형 로봇\t휴머노이드 이론교육 및 미션수행\t4족보행로봇의 원리를 학습하고 트랙 운행을 통해 로봇의 움직임을 직접 체험하는 프로그램\t90분\t사전접수\n" +
-            "A07\t초등학생 고학년 이상\t실감 미디어\t꿈의 학교 속으로! 메타버스 캠퍼스 & 콘텐츠 여행\t실감 미디어 메타버스 플랫폼을 활용한 대학 캠퍼스 투어 및 우수작품 쇼케이스\t10분\t현장접수\n"
-            +
-            "A07\t초등학생 고학년 이상\t실감 미디어\t디지털숲 영상 오디세이\t가상현실로 구현된 숲 숲속 기상 변화 등을 배경으로 시각과 청각을 활용해 정신과 신체의 이완을 돕는 명상 프로그램\t30분\t사전접수\n"
-            +
-            "A07\t초등학생 고학년 이상\t실감 미디어\t진짜처럼 짜릿! 햅틱 손맛 체험존(VR 기반의 햅틱 디바이스 체험)\t햅틱 디바이스(슈트와 장갑)를 착용한 후 복싱과 롤러코스터 체험\t10분\t현장접수\n"
-            +
-            "A07\t초등학생 고학년 이상\t실감 미디어\t톡톡 튀는 콘텐츠! 실감 팡팡 체험존\t실감미디어 학생들의 독창성 있는 우수 작품들을 직접 체험\t10분\t현장접수\n" +
-            "B08\t초등학생 고학년 이상\t미래 자동차\tAWS DeepRacer 자율주행 체험\t자율주행 AI VS 인간 운전 대결 승자는?!\t10분\t현장접수 / 사전접수\n" +
-            "B11\t초등학생 고학년 이상\t항공드론\tUAM 조종 시뮬레이터 체험\t블록코딩을 활용한 드론 실습 및 체험교육\t30분 이내\t현장접수 / 사전접수\n" +
-            "B11\t초등학생 고학년 이상\t항공드론\t드론 장애물 경주 체험\t드론을 수동으로 조종하여 다양한 미션을 수행하는 체험 프로그램\t30분 이내\t현장접수\n" +
-            "B11\t초등학생 고학년 이상\t항공드론\t블록코딩을 활용한 드론제어\t블록코딩을 활용한 드론 실습 및 체험교육\t90분 이내\t현장접수 / 사전접수\n" +
-            "A02\t초등학생 고학년 이상\t차세대 반도체\t어서와, 반도체 회로제작은 처음이지?\t내 손으로 만들어보는 반도체 PCB자 미니 게임기\t30분\t현장접수\n" +
-            "B10\t초등학생 고학년 이상\t첨단소재 나노융합\t첨단소재워터랩: 모래의 비밀\t모래가 씨앗의 수분 공급과 싹틔움에 미치는 원리를 통해 첨단소재의 개념 체험\t40분\t사전접수\n" +
-            "B10\t초등학생 이상\t첨단소재 나노융합\t3D펜으로 만드는 첨단소재 창의공작소\t3D펜과 첨단소재로 상상을 입체로 구현하는 창의 체험 프로그램\t30분\t현장접수\n" +
-            "B10\t초등학생 이상\t첨단소재 나노융합\t손끝에서 펼쳐지는 스트레처블 첨단연구소재\t쭈욱 늘어나는 스트레처블(유연 고분자) 소재 과학 체험\t40분\t사전접수\n" +
-            "A01\t초등학생 이상\t그린 바이오\tSpace Green 우주 농부 인증 미션을 위한 탑승을 시작합니다!\t애그테크(Ag-Tech) 접목 우주 농사 체험! 상추 생장 환경을 제어해 우주 농부 인증 받기\t25분\t현장접수\n"
-            +
-            "A05\t초등학생 이상\t바이오 헬스\t기술로 되찾는 움직임, 로봇이 전하는 회복의 미래\t첨단 로봇 재활 기기가 만들어가는 새로운 걸음과 삶의 가능성\t10분\t현장접수 / 사전접수\n" +
-            "A05\t초등학생 이상\t바이오 헬스\t생명의 코드, 우리 몸과 DNA\t코끼리 치약부터 DNA추출까지 실험으로 배우는 유전자 과학\t60분\t사전접수\n" +
-            "A05\t초등학생 이상\t바이오 헬스\t이동의 경계를 넘어, 게임으로 확장된 세상\t휠체어와 게임이 만드는 새로운 경험과 가능성\t4분\t현장접수 / 사전접수\n" +
-            "A05\t초등학생 이상\t바이오 헬스\t피부 위의 예술, 인체 속의 과학\t바디페인팅으로 경험하는 인체과학과 예술\t15분\t현장접수 / 사전접수\n" +
-            "B06\t초등학생 이상\t에너지 신산업\t수소밸류체인 VR 체험 프로그램\tVR을 통해 수소 생산부터 활용까지 수소벨류체인의 전 과정을 생생하게 체험\t10분\t사전접수\n" +
-            "B06\t초등학생 이상\t에너지 신산업\t업사이클링 카드지갑 만들기\t친환경 소재로 만들어보는 나만의 카드지갑\t30분\t사전접수\n" +
-            "B03\t초등학생 이상\t차세대 통신\t인공위성 통신 체험관\t인공위성 발사부터 통신까지! 위성 통신 체험하기!\t15분\t현장접수 / 사전접수\n" +
-            "A03\t초등학생 이상\t빅데이터\tScent Memory\t나의 취향을 입력하면 데이터가 향수 레시피를 추천해준다구?!\t5분\t현장접수\n" +
-            "A03\t초등학생 이상\t빅데이터\t기택이의 대모험\t오류 속에 숨은 진실 기택이와 데이터 디버깅 체험\t5~10분\t현장접수\n" +
-            "A03\t초등학생 이상\t빅데이터\t나는 누구일까?\t빅데이터가 랜덤키워드 5개를 줄게 정답은 누가 맞출래?\t5~10분\t현장접수\n" +
-            "A03\t초등학생 이상\t빅데이터\t나의 왕자님, 공주님을 찾아라!\t이상형과 관련된 단어만 알려줘! AI가 이상형을 그려줄게!\t5~10분\t현장접수\n" +
-            "A03\t초등학생 이상\t빅데이터\t너 내 동료가 되라!\t데이터분석? 시각화? 빅데이터 전공이 궁금하면 따라와! 전공체험 해보자\t5분\t현장접수\n" +
-            "A03\t초등학생 이상\t빅데이터\t빅데이터 어워즈\t챗봇과 함께하는 빅데이터 컨소시엄 학생들이 만든 우수 성과 체험\t5분\t현장접수\n\n\n";
+    private static final String PROGRAM_LIST = CatalogPrompt.PROGRAM_CATALOG + "\n";
+
+    // 수험생 이벤트
+    static final String EXAM_EVENT_TARGET = "수험표 지참 수험생";
+    static final String EXAM_EVENT_BENEFIT = "도장 2개 즉시 지급 및 모든 도장 획득시 경품 뽑기 진행";
+    static final String EXAM_EVENT_LOCATION = "전시장 내 이벤트 운영부스 (등록데스크 리플렛 수령 후 진행)";
+    static final String EXAM_EVENT_LIMIT = "1인 1회 참여 가능";
+    static final String[] EXAM_EVENT_STEPS = {
+            "등록데스크에서 CO-SHOW 리플렛 수령",
+            "이벤트 운영부스에서 수험표 인증 및 도장 2개 지급",
+            "체험·교육 프로그램 참여 후 도장 추가 획득",
+            "도장 완성 후 스탬프 용지 제출",
+            "경품 뽑기 진행 (랜덤)",
+    };
+    static final String[] EXAM_EVENT_NOTES = {
+            "수험표는 반드시 실물 지참",
+            "현장 방문 인증 필수",
+            "도장은 행사 기간 내 상시 운영",
+    };
 
     /**
-     * 이벤트 상세 정보
+     * 수험생 이벤트 상세 (get_event_info 도구에서도 사용)
      */
-    private static final String EVENT_DETAILS = "=== CO-SHOW 이벤트 안내 ===\n\n" +
-            "=== 1) 수험생 특별 이벤트 ===\n" +
+    static final String EXAM_EVENT_DETAILS = "=== 1) 수험생 특별 이벤트 ===\n" +
             "이벤트명: 2025 CO-SHOW 수험생 이벤트\n" +
-            "대상: 수험표 지참 수험생\n" +
-            "혜택: 도장 2개 즉시 지급 및 모든 도장 획득시 경품 뽑기 진행\n" +
+            "대상: " + EXAM_EVENT_TARGET + "\n" +
+            "혜택: " + EXAM_EVENT_BENEFIT + "\n" +
             "조건: CO-SHOW 방문 당일 실물 수험표 소지 필수, 모든 도장 획득 필요\n\n" +
-            "운영 기간: 2025년 11월 26일(수) ~ 11월 29일(토) 상시 운영\n" +
-            "참여 위치: 전시장 내 이벤트 운영부스 (등록데스크 리플렛 수령 후 진행)\n\n" +
+            "운영 기간: " + EVENT_DATES + " 상시 운영\n" +
+            "참여 위치: " + EXAM_EVENT_LOCATION + "\n\n" +
             "참여 방법:\n" +
-            "1) 등록데스크에서 CO-SHOW 리플렛 수령\n" +
-            "2) 이벤트 운영부스에서 수험표 인증 및 도장 2개 지급\n" +
-            "3) 체험·교육 프로그램 참여 후 도장 추가 획득\n" +
-            "4) 도장 완성 후 스탬프 용지 제출\n" +
-            "5) 경품 뽑기 진행 (랜덤)\n" +
-            "※ 1인 1회 참여 가능\n\n" +
+            numbered(EXAM_EVENT_STEPS) +
+            "※ " + EXAM_EVENT_LIMIT + "\n\n" +
             "스페셜 경품:\n" +
-            "- 갤럭시 워치 8\n" +
-            "- 갤럭시 버즈 3 프로\n" +
-            "- 키크론 V10 Pro Max 키보드\n" +
-            "- 키크론 B6 Pro 저소음 블루투스 키보드\n" +
-            "- COSS-BALL 키링\n\n" +
+            bullets(new String[]{
+                    "갤럭시 워치 8",
+                    "갤럭시 버즈 3 프로",
+                    "키크론 V10 Pro Max 키보드",
+                    "키크론 B6 Pro 저소음 블루투스 키보드",
+                    "COSS-BALL 키링",
+            }) + "\n" +
             "유의 사항:\n" +
-            "- 수험표는 반드시 실물 지참\n" +
-            "- 현장 방문 인증 필수\n" +
-            "- 도장은 행사 기간 내 상시 운영\n\n" +
+            bullets(EXAM_EVENT_NOTES) + "\n" +
             "홍보 문구 예시:\n" +
             "수험표 들고 CO-SHOW로 출발!\n" +
             "수능 끝! 이제 SHOW 보러 가자!\n" +
-            "스탬프투어 참여하고 선물까지 GET!\n\n" +
-            "=== 2) CO-SHOW 스탬프투어 이벤트 ===\n" +
+            "스탬프투어 참여하고 선물까지 GET!\n\n";
+
+    // 스탬프투어 이벤트
+    static final int STAMP_TOUR_MIN_STAMPS = 8;
+    static final String STAMP_TOUR_LIMIT = "1일 선착순 1,000명 / 1인 1회 참여 가능";
+    static final String[] STAMP_TOUR_LOCATIONS = {
+            "전시장 내 스탬프 투어 이벤트 부스",
+            "부산 BEXCO 메인무대 앞",
+    };
+    static final String[] STAMP_TOUR_STEPS = {
+            "등록데스크에서 리플렛 수령",
+            "원하는 프로그램 참여 후 스탬프 획득",
+            "스탬프 " + STAMP_TOUR_MIN_STAMPS + "개 이상 모으면 이벤트 부스 방문",
+            "리플렛 제출 후 경품 뽑기 진행",
+    };
+    static final String[] STAMP_TOUR_PRIZES = {
+            "갤럭시 워치 8",
+            "갤럭시 버즈 프로 3",
+            "애플워치 SE 3",
+            "에어팟 프로 3",
+            "키크론 V10 MAX",
+            "키크론 B6",
+            "COSS-BALL 키링",
+    };
+
+    /**
+     * 스탬프투어 이벤트 상세 (get_event_info 도구에서도 사용)
+     */
+    static final String STAMP_TOUR_DETAILS = "=== 2) CO-SHOW 스탬프투어 이벤트 ===\n" +
             "이벤트명: 2025 CO-SHOW 스탬프투어 이벤트\n" +
-            "설명: 전시장 체험 프로그램 참여 후 스탬프를 8개 이상 모아 경품에 참여하는 프로그램\n\n" +
-            "운영 기간: 2025년 11월 26일(수) ~ 11월 29일(토) 상시 운영\n" +
-            "참여 제한: 1일 선착순 1,000명 / 1인 1회 참여 가능\n\n" +
+            "설명: 전시장 체험 프로그램 참여 후 스탬프를 " + STAMP_TOUR_MIN_STAMPS
+            + "개 이상 모아 경품에 참여하는 프로그램\n\n" +
+            "운영 기간: " + EVENT_DATES + " 상시 운영\n" +
+            "참여 제한: " + STAMP_TOUR_LIMIT + "\n\n" +
             "참여 위치:\n" +
-            "- 전시장 내 스탬프 투어 이벤트 부스\n" +
-            "- 부산 BEXCO 메인무대 앞\n\n" +
+            bullets(STAMP_TOUR_LOCATIONS) + "\n" +
             "참여 방법:\n" +
-            "1) 등록데스크에서 리플렛 수령\n" +
-            "2) 원하는 프로그램 참여 후 스탬프 획득\n" +
-            "3) 스탬프 8개 이상 모으면 이벤트 부스 방문\n" +
-            "4) 리플렛 제출 후 경품 뽑기 진행\n\n" +
+            numbered(STAMP_TOUR_STEPS) + "\n" +
             "수험생 추가 혜택:\n" +
             "- 수험표 인증 시 스탬프 2개 즉시 지급\n" +
             "- 현장 운영부스 방문 필수\n\n" +
             "경품 라인업:\n" +
-            "- 갤럭시 워치 8\n" +
-            "- 갤럭시 버즈 프로 3\n" +
-            "- 애플워치 SE 3\n" +
-            "- 에어팟 프로 3\n" +
-            "- 키크론 V10 MAX\n" +
-            "- 키크론 B6\n" +
-            "- COSS-BALL 키링\n\n" +
+            bullets(STAMP_TOUR_PRIZES) + "\n" +
             "홍보 문구 예시:\n" +
             "CO-SHOW 즐기고 스탬프 찍고 선물까지 받자!\n" +
-            "스탬프 8개 모으면 경품 쏟아진다!\n" +
+            "스탬프 " + STAMP_TOUR_MIN_STAMPS + "개 모으면 경품 쏟아진다!\n" +
             "놓치면 아쉬운 선착순 1,000명 이벤트!\n\n" +
             "관련 해시태그:\n" +
             "#코쇼 #2025코쇼 #COSHOW #2025COSHOW #COSS사업 #2025COSS\n" +
             "#첨단교육 #스탬프투어 #수험생이벤트 #부산 #BEXCO\n";
 
+    /**
+     * 이벤트 상세 정보
+     */
+    private static final String EVENT_DETAILS = "=== CO-SHOW 이벤트 안내 ===\n\n" +
+            EXAM_EVENT_DETAILS +
+            STAMP_TOUR_DETAILS;
+
     // ========== 챗봇용 시스템 프롬프트 (텍스트 대화) ==========
 
     /**
-     * 텍스트 챗봇용 시스템 프롬프트 (상세한 버전)
+     * 텍스트 챗봇용 프롬프트 머리말 (역할 + 행사 정보 + 안내 규칙)
      */
-    private static final String CHATBOT_SYSTEM_PROMPT = "당신은 2025 CO-SHOW 행사 안내 도우미, 이름은 코쓰봇(COSS-bot)입니다. 방문객에게 친절하고 정확하게 정보를 제공해야 합니다.\n\n"
+    private static final String CHATBOT_PROMPT_HEADER = "당신은 2025 CO-SHOW 행사 안내 도우미, 이름은 코쓰봇(COSS-bot)입니다. 방문객에게 친절하고 정확하게 정보를 제공해야 합니다.\n\n"
             +
             EVENT_INFO +
             "=== 안내 규칙 ===\n" +
@@ -203,7 +243,31 @@ public class OpenAIService {
             "- 추측하거나 만들어내지 않고, 정보가 없으면 모른다고 답합니다.\n" +
             "- 사용자가 한국어로 질문하면 한국어로, 영어로 질문하면 영어로 답변합니다.\n" +
             "- 이벤트 관련 문의가 들어오면 제공된 이벤트 정보를 기반으로 정확하게 안내합니다.\n" +
-            "- 항상 친절하고 부드럽고 간결하게 응답합니다.\n\n" +
+            "- 항상 친절하고 부드럽고 간결하게 응답합니다.\n\n";
+
+    /**
+     * 도구 사용 시 추가 규칙 (프로그램/이벤트 내용은 도구 결과로만 받음)
+     */
+    private static final String CHATBOT_TOOL_RULES = "=== 도구 사용 규칙 ===\n" +
+            "- 프로그램(부스) 정보는 search_booths 도구 결과만 사용하고, 결과에 없는 프로그램은 언급하지 않습니다.\n" +
+            "- 대상(학년), 관심 분야, 체험 시간 중 하나라도 알게 되면 search_booths를 호출합니다.\n" +
+            "- 검색 결과가 없으면 조건을 줄여 한 번 더 검색하거나 다른 관심 분야를 물어봅니다.\n" +
+            "- 수험생 이벤트, 스탬프투어, 경품 문의는 get_event_info로 확인한 뒤 답합니다.\n\n";
+
+    /**
+     * 부스 카드 사용 시 추가 규칙 (프로그램 상세는 앱이 로컬 DB로 카드에 표시 - 출력 토큰 절약)
+     */
+    private static final String BOOTH_CARD_RULES = "=== 프로그램 추천 형식 ===\n" +
+            "- 추천하는 프로그램의 제목, 대상, 소요시간, 소개는 문장으로 쓰지 않습니다 (화면에 카드로 표시됨).\n" +
+            "- 왜 추천하는지 1~2문장으로만 말합니다.\n" +
+            "- 답변 마지막 줄에 추천 프로그램 id를 [[booths:12,45,7]] 형식으로 적습니다.\n" +
+            "- id는 프로그램 목록이나 search_booths 결과에 있는 값만 쓰고, 최대 3개입니다.\n" +
+            "- 프로그램을 추천하지 않는 답변에는 이 줄을 쓰지 않습니다.\n\n";
+
+    /**
+     * 텍스트 챗봇용 시스템 프롬프트 (상세한 버전 - 전체 프로그램 목록 포함)
+     */
+    private static final String CHATBOT_SYSTEM_PROMPT = CHATBOT_PROMPT_HEADER +
             PROGRAM_LIST +
             EVENT_DETAILS;
 
@@ -212,7 +276,7 @@ public class OpenAIService {
     /**
      * 음성 대화용 시스템 프롬프트 (간결한 버전)
      */
-    private static final String AUDIO_SYSTEM_PROMPT = "당신은 2025 CO-SHOW 행사 안내 도우미, 이름은 코쓰봇(COSS-bot)입니다. 음성 대화이므로 매우 짧고 간결하게 답변해야 합니다.\n\n"
+    static final String AUDIO_SYSTEM_PROMPT = "당신은 2025 CO-SHOW 행사 안내 도우미, 이름은 코쓰봇(COSS-bot)입니다. 음성 대화이므로 매우 짧고 간결하게 답변해야 합니다.\n\n"
             +
             EVENT_INFO +
             "=== 대화 규칙 (반드시 준수!) ===\n" +
@@ -239,10 +303,78 @@ public class OpenAIService {
         void onError(String error);
     }
 
+    /**
+     * 진행 중인 요청 핸들
+     * cancel() 이후에는 어떤 콜백도 호출되지 않음 (화면 쪽에서 직접 정리)
+     */
+    public static final class RequestHandle {
+        private final AtomicBoolean cancelled = new AtomicBoolean(false);
+        // 헤지 요청이 있으면 Call이 둘일 수 있음
+        private final List<Call> calls = new CopyOnWriteArrayList<>();
+        private final List<Future<?>> futures = new CopyOnWriteArrayList<>();
+        private volatile boolean degraded = false;
+
+        /**
+         * 요청 즉시 중단 (HTTP 연결까지 끊음)
+         */
+        public void cancel() {
+            if (!cancelled.compareAndSet(false, true)) {
+                return;
+            }
+            for (Call c : calls) {
+                c.cancel();
+            }
+            for (Future<?> f : futures) {
+                f.cancel(true);
+            }
+            Log.d(TAG, "요청 취소됨");
+        }
+
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        /**
+         * 모델 답변 대신 대체 답변을 보냄 (onComplete 시점에 확인 - 저장/대화 기록에서 뺄 것)
+         */
+        public boolean isDegraded() {
+            return degraded;
+        }
+
+        void attach(Call call) {
+            calls.add(call);
+            if (cancelled.get()) {
+                call.cancel();
+            }
+        }
+
+        void attach(Future<?> future) {
+            futures.add(future);
+            if (cancelled.get()) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * onStream을 메인 스레드로 넘기지 않고 네트워크 스레드에서 바로 받는 콜백
+     * (화면 반영 시점은 구현체가 직접 조절. onComplete/onError는 메인 스레드)
+     */
+    public interface WorkerStreamCallback extends StreamCallback {
+    }
+
     public OpenAIService() {
-        this.client = new OkHttpClient();
+        this(HttpClientProvider.chat(), API_URL, CallbackScheduler.mainThread());
+    }
+
+    /**
+     * 엔드포인트 / 콜백 스레드 지정 (JVM 테스트: 녹화 재생 서버)
+     */
+    OpenAIService(OkHttpClient client, String apiUrl, CallbackScheduler callbacks) {
+        this.client = client;
+        this.apiUrl = apiUrl;
         this.gson = new Gson();
-        this.mainHandler = new Handler(Looper.getMainLooper());
+        this.callbacks = callbacks;
     }
 
     /**
@@ -252,6 +384,84 @@ public class OpenAIService {
         this.apiKey = apiKey;
     }
 
+    /**
+     * 부스 검색기 설정 (색인이 준비되기 전까지는 전체 목록 사용)
+     */
+    public void setBoothRetriever(BoothRetriever boothRetriever) {
+        this.boothRetriever = boothRetriever;
+    }
+
+    /**
+     * 검색 기반 프롬프트 사용 여부 (false면 전체 PROGRAM_LIST 전송 - 지연시간/품질 비교용)
+     */
+    public void setRetrievalEnabled(boolean retrievalEnabled) {
+        this.retrievalEnabled = retrievalEnabled;
+    }
+
+    public void setRetrievalTopK(int retrievalTopK) {
+        this.retrievalTopK = retrievalTopK;
+    }
+
+    /**
+     * 함수 도구 설정 (null이면 기존 프롬프트 방식 - 검색 결과 또는 전체 목록)
+     */
+    public void setChatTools(ChatTools chatTools) {
+        this.chatTools = chatTools;
+    }
+
+    /**
+     * 응답 캐시 설정
+     */
+    public void setResponseCache(ChatResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * 로컬 빠른 답변 분류기 설정 (학습 전까지는 모든 질문을 API로 보냄)
+     */
+    public void setIntentRouter(IntentRouter intentRouter) {
+        this.intentRouter = intentRouter;
+    }
+
+    /**
+     * 모델 경로 선택기 설정 (null이면 모든 질문에 기본 경로)
+     */
+    public void setModelRouter(ModelRouter modelRouter) {
+        this.modelRouter = modelRouter;
+    }
+
+    /**
+     * 부스 카드 저장소 설정 (null이면 기존처럼 프로그램을 문장으로 안내)
+     */
+    public void setBoothCardStore(BoothCardStore boothCardStore) {
+        this.boothCardStore = boothCardStore;
+    }
+
+    /**
+     * 지표 저장소 설정 (TTFT, 토큰/초, 캐시 토큰 등)
+     */
+    public void setMetricsStore(LlmMetricsStore metricsStore) {
+        this.metricsStore = metricsStore;
+    }
+
+    /**
+     * 대화 창 관리자 설정 (토큰 예산 + 오래된 대화 요약)
+     */
+    public void setContextManager(ConversationContextManager contextManager) {
+        this.contextManager = contextManager;
+    }
+
+    /**
+     * 요청 정책 설정 (재시도/헤지/회로 차단기)
+     */
+    public void setRequestPolicy(ChatRequestPolicy requestPolicy) {
+        this.requestPolicy = requestPolicy;
+    }
+
+    public ChatRequestPolicy getRequestPolicy() {
+        return requestPolicy;
+    }
+
     /**
      * API 키가 설정되어 있는지 확인
      */
@@ -261,183 +471,973 @@ public class OpenAIService {
 
     /**
      * 채팅 완료 요청 (스트리밍 방식)
+     * 이전 스트리밍 요청이 아직 진행 중이면 취소하고 새 요청으로 대체
      * 
-     * @param messages 대화 기록
+     * @param history 대화 기록 (화면 목록 그대로 넘겨도 됨 - 여기서 복사)
      * @param callback 스트림 콜백
+     * @return 요청 핸들 (중지/화면 종료 시 cancel)
      */
-    public void sendMessageStreaming(List<ChatMessage> messages, StreamCallback callback) {
+    public RequestHandle sendMessageStreaming(List<ChatMessage> history, StreamCallback callback) {
+        // 호출 스레드(메인)에서 복사 - 요청 스레드가 읽는 동안 어댑터 목록이 바뀌어도 안전
+        List<ChatMessage> messages = copyHistory(history);
+        RequestHandle handle = new RequestHandle();
+        synchronized (this) {
+            if (activeStream != null) {
+                activeStream.cancel();
+            }
+            activeStream = handle;
+        }
+
+        // 고정된 답이 있는 질문은 로컬 데이터로 바로 답변 (같은 콜백 경로)
+        IntentRouter router = intentRouter;
+        if (router != null && router.isReady()) {
+            IntentRouter.Match match = router.route(latestUserMessage(messages));
+            if (match != null) {
+                postUnlessCancelled(handle, () -> {
+                    callback.onStream(match.answer);
+                    callback.onComplete();
+                });
+                return handle;
+            }
+        }
+
         if (!hasApiKey()) {
             callback.onError("API 키가 설정되지 않았습니다.");
-            return;
+            return handle;
         }
 
-        new Thread(() -> {
-            try {
-                JsonObject requestBody = buildRequestBody(messages, true);
-                RequestBody body = RequestBody.create(requestBody.toString(), JSON);
+        // 캐시 적중 시 같은 콜백 경로로 바로 재생
+        ChatResponseCache cache = responseCache;
+        ConversationContextManager context = contextManager;
+        String cacheKey = cache != null
+                ? ChatResponseCache.keyFor(context != null ? context.visitorMessages(messages) : messages)
+                : null;
+        if (cacheKey != null) {
+            String cached = cache.get(cacheKey);
+            if (cached != null) {
+                Log.d(TAG, "응답 캐시 적중 (" + cache.getStatsSummary() + ")");
+                postUnlessCancelled(handle, () -> {
+                    callback.onStream(cached);
+                    callback.onComplete();
+                });
+                return handle;
+            }
+        }
 
-                Request request = new Request.Builder()
-                        .url(API_URL)
-                        .addHeader("Authorization", "Bearer " + apiKey)
-                        .addHeader("Content-Type", "application/json")
-                        .post(body)
-                        .build();
+        // API 상태가 나쁘면 호출하지 않고 바로 대체 답변
+        ChatRequestPolicy policy = requestPolicy;
+        if (!policy.allowRequest()) {
+            Log.w(TAG, "회로 차단 중 - 대체 답변 (" + policy.getStatsSummary() + ")");
+            deliverDegradedAnswer(handle, callback, policy);
+            return handle;
+        }
+
+        StreamRequest stream = new StreamRequest(handle, messages, callback, policy, cacheKey, cache);
+        if (!submitAttempt(stream, StreamRequest.PRIMARY)) {
+            return handle;
+        }
+
+        // 첫 토큰이 마감 시간 안에 오지 않으면 같은 요청을 한 번 더 보내고 먼저 오는 쪽 사용
+        long hedgeDelay = policy.getHedgeDelayMs();
+        if (hedgeDelay > 0) {
+            callbacks.postDelayed(() -> {
+                if (stream.shouldHedge()) {
+                    policy.recordHedge();
+                    Log.d(TAG, "첫 토큰 " + hedgeDelay + "ms 초과 - 헤지 요청 전송");
+                    submitAttempt(stream, StreamRequest.HEDGE);
+                }
+            }, hedgeDelay);
+        }
+        return handle;
+    }
+
+    /**
+     * 스트리밍 요청 하나의 상태 (기본 요청 + 헤지 요청이 공유)
+     */
+    private final class StreamRequest {
+        static final int PRIMARY = 0;
+        static final int HEDGE = 1;
+
+        final RequestHandle handle;
+        final List<ChatMessage> messages;
+        final StreamCallback callback;
+        final ChatRequestPolicy policy;
+        final String cacheKey;
+        final ChatResponseCache cache;
+        final long startTime = System.currentTimeMillis();
+        final long startNanos = System.nanoTime();
+
+        private final Call[] calls = new Call[2];
+        // 시도별 지표 (재시도하면 교체) - 요청이 끝날 때 하나만 기록
+        private final LlmCallMetrics[] attemptMetrics = new LlmCallMetrics[2];
+        private boolean metricsRecorded = false;
+        private int winner = -1;      // 첫 토큰을 먼저 받은 시도
+        private int running = 0;      // 실행 중인 시도 수
+        private boolean finished = false;
+        private AttemptFailure lastFailure;
+        private JsonObject requestBody;
+        private ChatTools tools;
+        private String requestJson;
+        private String promptVariant;
+        private ModelRouter.Route route;
+
+        StreamRequest(RequestHandle handle, List<ChatMessage> messages, StreamCallback callback,
+                      ChatRequestPolicy policy, String cacheKey, ChatResponseCache cache) {
+            this.handle = handle;
+            this.messages = messages;
+            this.callback = callback;
+            this.policy = policy;
+            this.cacheKey = cacheKey;
+            this.cache = cache;
+        }
+
+        /**
+         * 요청 본문 (검색/대화 창 계산은 한 번만, 헤지 요청도 같은 본문 사용)
+         */
+        synchronized String requestJson() {
+            if (requestJson == null) {
+                promptVariant = currentPromptVariant();
+                tools = chatTools;
+                route = routeFor(messages);
+                requestBody = buildRequestBody(messages, true, tools, route);
+                requestJson = requestBody.toString();
+            }
+            return requestJson;
+        }
+
+        /**
+         * 도구 결과를 붙인 다음 라운드 본문 (시도마다 자기 도구 메시지를 따로 가짐)
+         *
+         * @param toolMessages assistant(tool_calls) + tool 메시지들
+         * @param finalRound   true면 더 이상 도구를 부르지 않고 답변하도록 함
+         */
+        synchronized String continuationJson(JsonArray toolMessages, boolean finalRound) {
+            JsonObject body = requestBody.deepCopy();
+            body.getAsJsonArray("messages").addAll(toolMessages);
+            if (finalRound) {
+                body.addProperty("tool_choice", "none");
+            }
+            return body.toString();
+        }
+
+        synchronized String promptVariant() {
+            return promptVariant;
+        }
+
+        /** 요청 본문에 쓴 모델 경로 (requestJson() 이후) */
+        synchronized ModelRouter.Route route() {
+            return route;
+        }
+
+        /** 요청 본문에 넣은 도구 (없으면 null) */
+        synchronized ChatTools tools() {
+            return tools;
+        }
+
+        synchronized void track(int attempt, LlmCallMetrics metrics) {
+            attemptMetrics[attempt] = metrics;
+        }
+
+        /**
+         * 기록할 지표 (응답한 시도, 없으면 기본 요청) - 이미 기록했으면 null
+         */
+        synchronized LlmCallMetrics takeMetrics() {
+            if (metricsRecorded) {
+                return null;
+            }
+            metricsRecorded = true;
+            LlmCallMetrics metrics = winner >= 0 ? attemptMetrics[winner] : attemptMetrics[PRIMARY];
+            return metrics != null ? metrics : attemptMetrics[HEDGE];
+        }
 
-                Response response = client.newCall(request).execute();
+        synchronized boolean shouldHedge() {
+            return winner < 0 && !finished && running > 0 && !handle.isCancelled();
+        }
+
+        synchronized void started() {
+            running++;
+        }
+
+        /**
+         * 이 시도는 더 진행할 필요가 없음 (취소, 완료, 다른 시도가 먼저 응답)
+         */
+        synchronized boolean isOver(int attempt) {
+            return handle.isCancelled() || finished || (winner >= 0 && winner != attempt);
+        }
+
+        synchronized boolean register(int attempt, Call call) {
+            calls[attempt] = call;
+            handle.attach(call);
+            if (isOver(attempt)) {
+                call.cancel();
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * 첫 토큰 도착 - 먼저 도착한 시도만 사용하고 나머지는 취소
+         */
+        synchronized boolean claim(int attempt) {
+            if (winner < 0 && !finished && !handle.isCancelled()) {
+                winner = attempt;
+                Call other = calls[1 - attempt];
+                if (other != null) {
+                    other.cancel();
+                }
+                if (attempt == HEDGE) {
+                    policy.recordHedgeWin();
+                }
+                return true;
+            }
+            return winner == attempt;
+        }
+
+        synchronized boolean hasWon(int attempt) {
+            return winner == attempt;
+        }
+
+        synchronized boolean finish() {
+            if (finished) {
+                return false;
+            }
+            finished = true;
+            return true;
+        }
+
+        /**
+         * 시도 종료 - 마지막 시도까지 실패했으면 최종 실패 처리
+         */
+        void ended(AttemptFailure failure) {
+            AttemptFailure finalFailure = null;
+            boolean allEnded;
+            synchronized (this) {
+                running--;
+                allEnded = running == 0;
+                if (failure != null) {
+                    lastFailure = failure;
+                }
+                if (running == 0 && winner < 0 && !finished) {
+                    finished = true;
+                    finalFailure = lastFailure;
+                }
+                if (allEnded) {
+                    synchronized (OpenAIService.this) {
+                        if (activeStream == handle) {
+                            activeStream = null;
+                        }
+                    }
+                }
+            }
+            if (finalFailure != null && !handle.isCancelled()) {
+                deliverFailure(this, finalFailure);
+            } else if (allEnded && handle.isCancelled()) {
+                policy.recordAbandoned();
+                recordUnfinishedMetrics(this, LlmCallMetrics.OUTCOME_CANCELLED);
+            }
+        }
+    }
+
+    /**
+     * 시도 하나의 실패 정보
+     */
+    private static final class AttemptFailure {
+        final String message;
+        final boolean retryable;
+        final boolean afterFirstToken;
+        final long retryAfterMs;
+
+        AttemptFailure(String message, boolean retryable, boolean afterFirstToken, long retryAfterMs) {
+            this.message = message;
+            this.retryable = retryable;
+            this.afterFirstToken = afterFirstToken;
+            this.retryAfterMs = retryAfterMs;
+        }
+    }
+
+    private boolean submitAttempt(StreamRequest stream, int attempt) {
+        stream.started();
+        try {
+            stream.handle.attach(REQUEST_EXECUTOR.submit(() -> runAttempt(stream, attempt)));
+            return true;
+        } catch (RejectedExecutionException e) {
+            Log.e(TAG, "요청 대기열 초과 (동시 " + MAX_CONCURRENT_REQUESTS + "개, 대기 " + MAX_QUEUED_REQUESTS + "개)");
+            stream.ended(attempt == StreamRequest.PRIMARY
+                    ? new AttemptFailure("요청이 많습니다. 잠시 후 다시 시도해주세요.", false, false, 0)
+                    : null);
+            return false;
+        }
+    }
 
+    /**
+     * 시도 하나 실행 (첫 토큰 전 실패는 백오프 후 재시도)
+     */
+    private void runAttempt(StreamRequest stream, int attempt) {
+        AttemptFailure failure = null;
+        try {
+            for (int retry = 0; ; retry++) {
+                if (stream.isOver(attempt)) {
+                    failure = null;
+                    return;
+                }
+                // 기다리는 동안 차단기가 열렸으면 마지막 실패로 끝냄 (대체 답변)
+                if (retry > 0 && stream.policy.isOpen()) {
+                    Log.w(TAG, "회로 차단기 OPEN - 재시도 중단");
+                    return;
+                }
+                stream.policy.recordAttempt(retry > 0);
+                failure = streamOnce(stream, attempt);
+                if (failure == null || stream.isOver(attempt)) {
+                    failure = null;
+                    return;
+                }
+
+                // 이미 답변이 나가기 시작했으면 재시도하지 않음 (중복 출력 방지)
+                if (failure.afterFirstToken) {
+                    String message = failure.message;
+                    if (stream.finish()) {
+                        // 차단기에는 요청당 결과 하나만 (재시도마다 세지 않음)
+                        if (failure.retryable) {
+                            stream.policy.recordFailure();
+                        } else {
+                            stream.policy.recordAbandoned();
+                        }
+                        recordUnfinishedMetrics(stream, LlmCallMetrics.OUTCOME_FAILED);
+                        postUnlessCancelled(stream.handle, () -> stream.callback.onError(message));
+                    }
+                    failure = null;
+                    return;
+                }
+                if (!failure.retryable || retry + 1 >= stream.policy.getMaxAttempts()) {
+                    return;
+                }
+
+                long delay = stream.policy.backoffMs(retry, failure.retryAfterMs);
+                Log.d(TAG, "재시도 " + (retry + 1) + "/" + (stream.policy.getMaxAttempts() - 1)
+                        + " (" + failure.message + ", " + delay + "ms 후)");
+                Thread.sleep(delay);
+            }
+        } catch (InterruptedException e) {
+            failure = null;
+        } catch (Exception e) {
+            Log.e(TAG, "요청 생성 오류", e);
+            failure = new AttemptFailure("요청 생성 오류: " + e.getMessage(), false, false, 0);
+        } finally {
+            stream.ended(failure);
+        }
+    }
+
+    /**
+     * HTTP 요청 + SSE 스트림 읽기
+     * 모델이 함수 도구를 호출하면 이 스레드에서 로컬 조회 후 결과를 붙여 다시 요청 (최대 MAX_TOOL_ROUNDS번)
+     *
+     * @return 실패 정보 (정상 완료, 취소, 다른 시도가 응답 중이면 null)
+     */
+    private AttemptFailure streamOnce(StreamRequest stream, int attempt) {
+        String json = stream.requestJson();
+        ChatTools tools = stream.tools();
+        ModelRouter.Route route = stream.route();
+        LlmCallMetrics metrics = new LlmCallMetrics(route.model, stream.promptVariant());
+        metrics.route = route.name;
+        metrics.maxTokens = route.maxTokens;
+        metrics.hedged = attempt == StreamRequest.HEDGE;
+        stream.track(attempt, metrics);
+
+        // 화면에 나간 답변 (도구 라운드 전후 합계) - 있으면 실패해도 재시도하지 않음
+        StringBuilder fullResponse = new StringBuilder();
+        StreamCallback callback = stream.callback;
+        JsonArray toolMessages = null;
+        // 라운드별 토큰 사용량 합계 (받지 못했으면 -1)
+        int promptTokens = -1;
+        int completionTokens = -1;
+        int cachedTokens = -1;
+        // 마지막 finish_reason ("length"면 출력 예산에 걸려 잘린 답변)
+        String finishReason = null;
+
+        // TTFT/전체 시간은 요청 시작부터 (재시도 백오프, 헤지 대기 포함)
+        metrics.markStart(stream.startNanos);
+        for (int round = 0; ; round++) {
+            Request request = new Request.Builder()
+                    .url(apiUrl)
+                    .addHeader("Authorization", "Bearer " + apiKey)
+                    .addHeader("Content-Type", "application/json")
+                    .post(RequestBody.create(json, JSON))
+                    .tag(LlmCallMetrics.class, metrics)
+                    .build();
+
+            Call call = client.newCall(request);
+            if (!stream.register(attempt, call)) {
+                return null;
+            }
+
+            boolean nextRound = false;
+            try (Response response = call.execute()) {
                 if (!response.isSuccessful()) {
                     String errorBody = response.body() != null ? response.body().string() : "";
                     Log.e(TAG, "API 오류 응답: " + errorBody);
-                    mainHandler.post(() -> callback.onError("API 오류 (코드: " + response.code() + ")"));
-                    return;
+                    int code = response.code();
+                    return new AttemptFailure("API 오류 (코드: " + code + ")",
+                            ChatRequestPolicy.isRetryableStatus(code), fullResponse.length() > 0,
+                            parseRetryAfterMs(response.header("Retry-After")));
                 }
 
-                // SSE 스트림 읽기
-                java.io.BufferedReader reader = new java.io.BufferedReader(
-                        new java.io.InputStreamReader(response.body().byteStream()));
+                // SSE 스트림 읽기 (BufferedSource에서 직접 파싱)
+                ResponseBody responseBody = response.body();
+                ChatStreamParser parser = new ChatStreamParser(responseBody.source());
+                StringBuilder roundContent = new StringBuilder();
 
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.startsWith("data: ")) {
-                        String data = line.substring(6);
+                int event;
+                while (!stream.isOver(attempt) && (event = parser.next()) != ChatStreamParser.EVENT_EOF) {
+                    // 스트림 종료 신호
+                    if (event == ChatStreamParser.EVENT_DONE) {
+                        promptTokens = addTokens(promptTokens, parser.promptTokens());
+                        completionTokens = addTokens(completionTokens, parser.completionTokens());
+                        cachedTokens = addTokens(cachedTokens, parser.cachedTokens());
 
-                        // 스트림 종료 신호
-                        if (data.equals("[DONE]")) {
-                            mainHandler.post(callback::onComplete);
+                        // 함수 호출 - 로컬 조회 후 다음 라운드
+                        if (tools != null && parser.hasToolCalls()) {
+                            if (!stream.claim(attempt)) {
+                                return null;
+                            }
+                            if (toolMessages == null) {
+                                toolMessages = new JsonArray();
+                            }
+                            appendToolRound(toolMessages, roundContent, parser.toolCalls(), tools);
+                            json = stream.continuationJson(toolMessages, round + 1 >= MAX_TOOL_ROUNDS);
+                            nextRound = true;
                             break;
                         }
 
-                        try {
-                            // 청크 파싱
-                            String chunk = parseStreamChunk(data);
-                            if (chunk != null && !chunk.isEmpty()) {
-                                mainHandler.post(() -> callback.onStream(chunk));
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "청크 파싱 오류: " + e.getMessage());
+                        if (!stream.claim(attempt) || !stream.finish()) {
+                            return null;
+                        }
+                        stream.policy.recordSuccess();
+                        LlmMetricsStore store = metricsStore;
+                        if (store != null && stream.takeMetrics() == metrics) {
+                            metrics.markEnd(promptTokens, completionTokens, cachedTokens);
+                            metrics.truncated = "length".equals(finishReason);
+                            metrics.toolRounds = round;
+                            store.record(metrics);
+                        }
+                        if (stream.cacheKey != null) {
+                            stream.cache.put(stream.cacheKey, fullResponse.toString(),
+                                    System.currentTimeMillis() - stream.startTime);
+                            Log.d(TAG, "응답 캐시 저장 (" + stream.cache.getStatsSummary() + ")");
+                        }
+                        postUnlessCancelled(stream.handle, callback::onComplete);
+                        break;
+                    }
+
+                    // 함수 호출 조각도 첫 응답으로 봄 (헤지 요청 정리)
+                    if (parser.hasToolCalls() && !stream.claim(attempt)) {
+                        return null;
+                    }
+                    if (parser.finishReason() != null) {
+                        finishReason = parser.finishReason();
+                    }
+
+                    String chunk = parser.content();
+                    if (chunk != null && !chunk.isEmpty()) {
+                        if (!stream.claim(attempt)) {
+                            return null;
+                        }
+                        metrics.markChunk();
+                        fullResponse.append(chunk);
+                        roundContent.append(chunk);
+                        if (callback instanceof WorkerStreamCallback) {
+                            callback.onStream(chunk);
+                        } else {
+                            postUnlessCancelled(stream.handle, () -> callback.onStream(chunk));
                         }
                     }
                 }
 
-                reader.close();
+                if (parser.malformedChunks() > 0) {
+                    Log.e(TAG, "청크 파싱 실패: " + parser.malformedChunks() + "개");
+                }
+                if (nextRound) {
+                    continue;
+                }
+                if (!stream.isOver(attempt)) {
+                    // [DONE] 없이 끊긴 스트림
+                    return new AttemptFailure("스트리밍 연결이 끊겼습니다.", true, fullResponse.length() > 0, 0);
+                }
+                return null;
 
-            } catch (Exception e) {
+            } catch (IOException e) {
+                if (stream.isOver(attempt)) {
+                    Log.d(TAG, "스트리밍 중단 (취소 또는 다른 시도가 응답)");
+                    return null;
+                }
                 Log.e(TAG, "스트리밍 오류", e);
-                mainHandler.post(() -> callback.onError("스트리밍 오류: " + e.getMessage()));
+                return new AttemptFailure("스트리밍 오류: " + e.getMessage(), true, fullResponse.length() > 0, 0);
             }
-        }).start();
+        }
+    }
+
+    /**
+     * 함수 호출 한 라운드를 대화에 추가 (assistant tool_calls 메시지 + 호출별 tool 결과)
+     */
+    private static void appendToolRound(JsonArray toolMessages, CharSequence content,
+                                        List<ChatStreamParser.ToolCall> toolCalls, ChatTools tools) {
+        JsonArray calls = new JsonArray();
+        for (ChatStreamParser.ToolCall toolCall : toolCalls) {
+            JsonObject function = new JsonObject();
+            function.addProperty("name", toolCall.name());
+            function.addProperty("arguments", toolCall.arguments());
+            JsonObject call = new JsonObject();
+            call.addProperty("id", toolCall.id());
+            call.addProperty("type", "function");
+            call.add("function", function);
+            calls.add(call);
+        }
+        JsonObject assistant = new JsonObject();
+        assistant.addProperty("role", "assistant");
+        assistant.addProperty("content", content.length() > 0 ? content.toString() : null);
+        assistant.add("tool_calls", calls);
+        toolMessages.add(assistant);
+
+        for (ChatStreamParser.ToolCall toolCall : toolCalls) {
+            JsonObject result = new JsonObject();
+            result.addProperty("role", "tool");
+            result.addProperty("tool_call_id", toolCall.id());
+            result.addProperty("content", tools.execute(toolCall.name(), toolCall.arguments()));
+            toolMessages.add(result);
+        }
+    }
+
+    private static int addTokens(int total, int tokens) {
+        if (tokens < 0) {
+            return total;
+        }
+        return total < 0 ? tokens : total + tokens;
+    }
+
+    /**
+     * 모든 시도가 실패 - 네트워크/서버 문제면 대체 답변, 그 외(인증 등)는 오류
+     */
+    private void deliverFailure(StreamRequest stream, AttemptFailure failure) {
+        if (failure == null) {
+            return;
+        }
+        recordUnfinishedMetrics(stream, LlmCallMetrics.OUTCOME_FAILED);
+        if (failure.retryable) {
+            stream.policy.recordFailure();
+            Log.w(TAG, "재시도 실패 - 대체 답변 (" + stream.policy.getStatsSummary() + ")");
+            deliverDegradedAnswer(stream.handle, stream.callback, stream.policy);
+        } else {
+            stream.policy.recordAbandoned();
+            postUnlessCancelled(stream.handle, () -> stream.callback.onError(failure.message));
+        }
+    }
+
+    /**
+     * 실패/취소로 끝난 요청의 지표 (정상 완료는 streamOnce에서 토큰 수와 함께 기록)
+     */
+    private void recordUnfinishedMetrics(StreamRequest stream, String outcome) {
+        LlmMetricsStore store = metricsStore;
+        if (store == null) {
+            return;
+        }
+        LlmCallMetrics metrics = stream.takeMetrics();
+        if (metrics != null) {
+            metrics.markEnd(outcome);
+            store.record(metrics);
+        }
+    }
+
+    private void deliverDegradedAnswer(RequestHandle handle, StreamCallback callback, ChatRequestPolicy policy) {
+        policy.recordDegraded();
+        handle.degraded = true;
+        postUnlessCancelled(handle, () -> {
+            callback.onStream(DEGRADED_ANSWER);
+            callback.onComplete();
+        });
+    }
+
+    private static long parseRetryAfterMs(String retryAfter) {
+        if (retryAfter == null) {
+            return 0;
+        }
+        try {
+            return (long) (Double.parseDouble(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            return 0; // HTTP 날짜 형식은 무시
+        }
+    }
+
+    /**
+     * 지표 구분용 프롬프트 종류 (도구 / 검색 결과 k개 / 전체 목록)
+     */
+    private String currentPromptVariant() {
+        if (chatTools != null) {
+            return "tools";
+        }
+        BoothRetriever retriever = boothRetriever;
+        if (retrievalEnabled && retriever != null && retriever.isReady()) {
+            return "rag-" + retrievalTopK;
+        }
+        return "full";
+    }
+
+    /**
+     * 이번 질문의 모델 경로 (현재 방문객의 대화 기준으로 점수 계산)
+     */
+    private ModelRouter.Route routeFor(List<ChatMessage> messages) {
+        ModelRouter router = modelRouter;
+        if (router == null) {
+            return ModelRouter.DEFAULT_ROUTE;
+        }
+        ConversationContextManager context = contextManager;
+        return router.route(context != null ? context.visitorMessages(messages) : messages);
+    }
+
+    // "- 항목" 줄 목록 (행사 정보 표 형식)
+    static String bullets(String[] items) {
+        StringBuilder sb = new StringBuilder();
+        for (String item : items) {
+            sb.append("- ").append(item).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // "1) 단계" 줄 목록
+    static String numbered(String[] steps) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < steps.length; i++) {
+            sb.append(i + 1).append(") ").append(steps[i]).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 요청에 쓸 대화 기록 복사본 (대체 답변처럼 모델이 하지 않은 말은 뺌)
+     */
+    private static List<ChatMessage> copyHistory(List<ChatMessage> history) {
+        List<ChatMessage> messages = new ArrayList<>(history.size());
+        for (ChatMessage message : history) {
+            if (!message.isExcludedFromHistory()) {
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+
+    private static String latestUserMessage(List<ChatMessage> messages) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i).isUser()) {
+                return messages.get(i).getMessage();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 진행 중인 스트리밍 요청 취소 (없으면 무시)
+     */
+    public synchronized void cancelActiveStream() {
+        if (activeStream != null) {
+            activeStream.cancel();
+            activeStream = null;
+        }
     }
 
     /**
      * 채팅 완료 요청 (일반 방식 - 호환성 유지)
      * 
-     * @param messages 대화 기록
+     * @param history 대화 기록 (화면 목록 그대로 넘겨도 됨 - 여기서 복사)
      * @param callback 응답 콜백
+     * @return 요청 핸들
      */
-    public void sendMessage(List<ChatMessage> messages, ChatCallback callback) {
+    public RequestHandle sendMessage(List<ChatMessage> history, ChatCallback callback) {
+        // 호출 스레드(메인)에서 복사 - 요청 스레드가 읽는 동안 어댑터 목록이 바뀌어도 안전
+        List<ChatMessage> messages = copyHistory(history);
+        RequestHandle handle = new RequestHandle();
         if (!hasApiKey()) {
             callback.onError("API 키가 설정되지 않았습니다.");
-            return;
+            return handle;
         }
 
-        try {
-            JsonObject requestBody = buildRequestBody(messages, false);
-            RequestBody body = RequestBody.create(requestBody.toString(), JSON);
+        submit(handle, callback::onError, () -> {
+            try {
+                JsonObject requestBody = buildRequestBody(messages, false, null, routeFor(messages));
+                RequestBody body = RequestBody.create(requestBody.toString(), JSON);
 
-            Request request = new Request.Builder()
-                    .url(API_URL)
-                    .addHeader("Authorization", "Bearer " + apiKey)
-                    .addHeader("Content-Type", "application/json")
-                    .post(body)
-                    .build();
+                Request request = new Request.Builder()
+                        .url(apiUrl)
+                        .addHeader("Authorization", "Bearer " + apiKey)
+                        .addHeader("Content-Type", "application/json")
+                        .post(body)
+                        .build();
 
-            client.newCall(request).enqueue(new Callback() {
-                @Override
-                public void onFailure(Call call, IOException e) {
-                    Log.e(TAG, "API 호출 실패", e);
-                    mainHandler.post(() -> callback.onError("네트워크 오류: " + e.getMessage()));
+                Call call = client.newCall(request);
+                handle.attach(call);
+                if (handle.isCancelled()) {
+                    return;
                 }
 
-                @Override
-                public void onResponse(Call call, Response response) {
-                    try {
-                        String responseBody = response.body().string();
+                try (Response response = call.execute()) {
+                    String responseBody = response.body().string();
 
-                        if (!response.isSuccessful()) {
-                            Log.e(TAG, "API 오류 응답: " + responseBody);
-                            mainHandler.post(() -> callback.onError("API 오류 (코드: " + response.code() + ")"));
-                            return;
-                        }
+                    if (!response.isSuccessful()) {
+                        Log.e(TAG, "API 오류 응답: " + responseBody);
+                        postUnlessCancelled(handle, () -> callback.onError("API 오류 (코드: " + response.code() + ")"));
+                        return;
+                    }
 
-                        String botMessage = parseResponse(responseBody);
-                        mainHandler.post(() -> callback.onSuccess(botMessage));
+                    String botMessage = parseResponse(responseBody);
+                    postUnlessCancelled(handle, () -> callback.onSuccess(botMessage));
+                }
 
-                    } catch (Exception e) {
-                        Log.e(TAG, "응답 파싱 오류", e);
-                        mainHandler.post(() -> callback.onError("응답 처리 오류: " + e.getMessage()));
-                    }
+            } catch (IOException e) {
+                if (handle.isCancelled()) {
+                    return;
                 }
-            });
+                Log.e(TAG, "API 호출 실패", e);
+                postUnlessCancelled(handle, () -> callback.onError("네트워크 오류: " + e.getMessage()));
+            } catch (Exception e) {
+                Log.e(TAG, "응답 파싱 오류", e);
+                postUnlessCancelled(handle, () -> callback.onError("응답 처리 오류: " + e.getMessage()));
+            }
+        });
+        return handle;
+    }
 
-        } catch (Exception e) {
-            Log.e(TAG, "요청 생성 오류", e);
-            callback.onError("요청 생성 오류: " + e.getMessage());
+    /**
+     * 요청 실행기에 작업 등록 (대기열이 가득 차면 즉시 오류)
+     */
+    private void submit(RequestHandle handle, ErrorSink onError, Runnable task) {
+        try {
+            handle.attach(REQUEST_EXECUTOR.submit(task));
+        } catch (RejectedExecutionException e) {
+            Log.e(TAG, "요청 대기열 초과 (동시 " + MAX_CONCURRENT_REQUESTS + "개, 대기 " + MAX_QUEUED_REQUESTS + "개)");
+            postUnlessCancelled(handle, () -> onError.onError("요청이 많습니다. 잠시 후 다시 시도해주세요."));
         }
     }
 
+    private interface ErrorSink {
+        void onError(String error);
+    }
+
+    /**
+     * 메인 스레드에서 실행 (그 사이 취소되었으면 실행하지 않음)
+     */
+    private void postUnlessCancelled(RequestHandle handle, Runnable action) {
+        callbacks.post(() -> {
+            if (!handle.isCancelled()) {
+                action.run();
+            }
+        });
+    }
+
+    private static ThreadPoolExecutor createRequestExecutor() {
+        ThreadFactory threadFactory = new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "OpenAI-request-" + count.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                MAX_CONCURRENT_REQUESTS, MAX_CONCURRENT_REQUESTS,
+                30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(MAX_QUEUED_REQUESTS),
+                threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * OpenAI API 요청 본문 생성
+     *
+     * @param tools 함수 도구 (null이면 도구 없이 프롬프트에 프로그램 정보 포함)
+     * @param route 모델 / 출력 토큰 / temperature
      */
-    private JsonObject buildRequestBody(List<ChatMessage> messages, boolean stream) {
+    private JsonObject buildRequestBody(List<ChatMessage> messages, boolean stream, ChatTools tools,
+                                        ModelRouter.Route route) {
         JsonObject requestBody = new JsonObject();
-        requestBody.addProperty("model", "gpt-4o-mini"); // 비용 효율적인 모델
-        requestBody.addProperty("temperature", 0.7); // 챗봇은 친절하게 (0.7)
-        requestBody.addProperty("max_tokens", 500); // 텍스트 챗봇은 상세하게
+        requestBody.addProperty("model", route.model);
+        requestBody.addProperty("temperature", route.temperature);
+        requestBody.addProperty("max_tokens", route.maxTokens);
         requestBody.addProperty("stream", stream); // 스트리밍 여부
+        if (stream) {
+            // 마지막 청크에 토큰 사용량(usage) 포함 요청
+            JsonObject streamOptions = new JsonObject();
+            streamOptions.addProperty("include_usage", true);
+            requestBody.add("stream_options", streamOptions);
+        }
 
         JsonArray messagesArray = new JsonArray();
 
-        // 시스템 프롬프트 추가 (RAG - 챗봇용)
+        // 시스템 프롬프트 추가 (도구 사용 시 규칙만, 아니면 RAG)
+        String systemPrompt = tools != null ? buildToolsSystemPrompt(tools) : buildChatbotSystemPrompt(messages);
+        BoothCardStore cards = boothCardStore;
+        if (cards != null) {
+            systemPrompt += BOOTH_CARD_RULES;
+        }
         JsonObject systemMessage = new JsonObject();
         systemMessage.addProperty("role", "system");
-        systemMessage.addProperty("content", CHATBOT_SYSTEM_PROMPT);
+        systemMessage.addProperty("content", systemPrompt);
         messagesArray.add(systemMessage);
 
+        // 대화 창 (토큰 예산 안의 최근 대화 + 이전 대화 요약)
+        List<ChatMessage> history = messages;
+        ConversationContextManager context = contextManager;
+        if (context != null) {
+            ConversationContextManager.Window window =
+                    context.buildWindow(messages, TokenEstimator.estimateMessage(systemPrompt));
+            if (window.summary != null) {
+                JsonObject summaryMessage = new JsonObject();
+                summaryMessage.addProperty("role", "system");
+                summaryMessage.addProperty("content", "=== 이전 대화 요약 ===\n" + window.summary);
+                messagesArray.add(summaryMessage);
+            }
+            history = window.messages;
+        }
+
         // 대화 기록 추가
-        for (ChatMessage message : messages) {
+        for (ChatMessage message : history) {
             JsonObject msgObj = new JsonObject();
             msgObj.addProperty("role", message.isUser() ? "user" : "assistant");
-            msgObj.addProperty("content", message.getMessage());
+            msgObj.addProperty("content", historyContent(message, cards));
             messagesArray.add(msgObj);
         }
 
         requestBody.add("messages", messagesArray);
+        if (tools != null) {
+            requestBody.add("tools", tools.definitions());
+        }
         return requestBody;
     }
 
     /**
-     * 스트림 청크 파싱
+     * 대화 기록 한 개의 내용 - 이전 답변의 부스 참조에는 제목을 붙여 보냄
+     * (프로그램 목록이 검색 결과로 바뀌어도 "첫 번째 거" 같은 후속 질문을 알아듣도록)
      */
-    private String parseStreamChunk(String chunkData) {
-        try {
-            JsonObject json = gson.fromJson(chunkData, JsonObject.class);
+    private static String historyContent(ChatMessage message, BoothCardStore cards) {
+        String text = message.getMessage();
+        if (cards == null || message.isUser() || !BoothReferences.contains(text)) {
+            return text;
+        }
+        long[] ids = BoothReferences.parseIds(text);
+        return BoothReferences.expandForHistory(text, ids, cards.titles(ids));
+    }
 
-            if (json.has("choices") && json.getAsJsonArray("choices").size() > 0) {
-                JsonObject choice = json.getAsJsonArray("choices").get(0).getAsJsonObject();
+    /**
+     * 도구 사용 시 시스템 프롬프트 (역할 + 규칙 + 분야 이름만, 프로그램/이벤트 상세는 도구로 조회)
+     */
+    private static String buildToolsSystemPrompt(ChatTools tools) {
+        return CHATBOT_PROMPT_HEADER +
+                CHATBOT_TOOL_RULES +
+                "=== 전체 분야 ===\n" +
+                tools.getFieldSummary() + "\n";
+    }
 
-                if (choice.has("delta")) {
-                    JsonObject delta = choice.getAsJsonObject("delta");
+    /**
+     * 챗봇 시스템 프롬프트 생성
+     * 검색이 켜져 있고 색인이 준비되어 있으면 최신 질문과 최근 대화에 관련된 프로그램만 포함
+     */
+    private String buildChatbotSystemPrompt(List<ChatMessage> messages) {
+        BoothRetriever retriever = boothRetriever;
+        if (!retrievalEnabled || retriever == null || !retriever.isReady()) {
+            return CHATBOT_SYSTEM_PROMPT;
+        }
 
-                    if (delta.has("content")) {
-                        return delta.get("content").getAsString();
-                    }
-                }
+        // 최신 사용자 메시지 + 그 이전 대화 몇 개를 질의로 사용
+        String latestQuery = null;
+        List<String> history = new ArrayList<>();
+        for (int i = messages.size() - 1; i >= 0 && history.size() < RETRIEVAL_HISTORY_MESSAGES; i--) {
+            ChatMessage message = messages.get(i);
+            String text = message.getMessage();
+            if (text == null || text.isEmpty()) {
+                continue;
             }
-        } catch (Exception e) {
-            Log.e(TAG, "청크 파싱 실패: " + e.getMessage());
+            if (latestQuery == null && message.isUser()) {
+                latestQuery = text;
+            } else if (latestQuery != null) {
+                history.add(text);
+            }
+        }
+        if (latestQuery == null) {
+            return CHATBOT_SYSTEM_PROMPT;
         }
 
-        return null;
+        List<String> rows = retriever.retrieve(latestQuery, history, retrievalTopK);
+
+        StringBuilder prompt = new StringBuilder(CHATBOT_PROMPT_HEADER);
+        prompt.append("=== 프로그램 데이터 형식 ===\n")
+                .append("id\tstage\ttags\ttitle\tintroduction\ttime_max\tmethod\n\n")
+                .append("=== 전체 분야 ===\n")
+                .append(retriever.getFieldSummary()).append("\n\n")
+                .append("=== 질문과 관련된 프로그램 (검색 결과) ===\n");
+        if (rows.isEmpty()) {
+            prompt.append("(관련 프로그램 없음 - 관심 분야나 대상을 먼저 물어봅니다)\n");
+        } else {
+            for (String row : rows) {
+                prompt.append(row).append('\n');
+            }
+        }
+        prompt.append("\n\n").append(EVENT_DETAILS);
+        return prompt.toString();
+    }
+
+    /**
+     * 오래된 대화 요약 (블로킹 - 백그라운드 스레드에서 호출)
+     *
+     * @param previousSummary 기존 요약 (없으면 null)
+     * @param messages        새로 요약에 포함할 대화
+     */
+    public String summarizeConversation(String previousSummary, List<ChatMessage> messages) throws Exception {
+        if (!hasApiKey()) {
+            throw new Exception("API 키가 설정되지 않았습니다.");
+        }
+
+        StringBuilder transcript = new StringBuilder();
+        if (previousSummary != null) {
+            transcript.append("[기존 요약]\n").append(previousSummary).append("\n\n");
+        }
+        transcript.append("[새 대화]\n");
+        BoothCardStore cards = boothCardStore;
+        for (ChatMessage message : messages) {
+            transcript.append(message.isUser() ? "방문객: " : "코쓰봇: ")
+                    .append(historyContent(message, cards)).append('\n');
+        }
+
+        JsonObject requestBody = new JsonObject();
+        requestBody.addProperty("model", SUMMARY_MODEL);
+        requestBody.addProperty("temperature", 0.2);
+        requestBody.addProperty("max_tokens", SUMMARY_MAX_TOKENS);
+
+        JsonArray messagesArray = new JsonArray();
+        JsonObject systemMessage = new JsonObject();
+        systemMessage.addProperty("role", "system");
+        systemMessage.addProperty("content", "행사 안내 챗봇과 방문객의 대화를 요약합니다. "
+                + "방문객의 관심 분야, 참여 대상(학년), 가능한 시간, 이미 추천받은 프로그램 이름만 "
+                + "한국어 개조식으로 5줄 이내로 정리하세요. 기존 요약이 있으면 합쳐서 다시 작성합니다.");
+        messagesArray.add(systemMessage);
+        JsonObject userMessage = new JsonObject();
+        userMessage.addProperty("role", "user");
+        userMessage.addProperty("content", transcript.toString());
+        messagesArray.add(userMessage);
+        requestBody.add("messages", messagesArray);
+
+        Request request = new Request.Builder()
+                .url(apiUrl)
+                .addHeader("Authorization", "Bearer " + apiKey)
+                .addHeader("Content-Type", "application/json")
+                .post(RequestBody.create(requestBody.toString(), JSON))
+                .build();
+
+        try (Response response = client.newCall(request).execute()) {
+            String responseBody = response.body() != null ? response.body().string() : "";
+            if (!response.isSuccessful()) {
+                throw new Exception("API 오류 (코드: " + response.code() + ")");
+            }
+            return parseResponse(responseBody);
+        }
     }
 
     /**
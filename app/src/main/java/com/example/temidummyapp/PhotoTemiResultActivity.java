@@ -270,11 +270,8 @@ public class PhotoTemiResultActivity extends BaseActivity {
 
             final SSLSocketFactory sslSocketFactory = sslContext.getSocketFactory();
 
-            OkHttpClient.Builder builder = new OkHttpClient.Builder();
-            builder.sslSocketFactory(sslSocketFactory, (X509TrustManager) trustAllCerts[0]);
-            builder.hostnameVerifier((hostname, session) -> true);
-
-            return builder.build();
+            return HttpClientProvider.insecure(sslSocketFactory, (X509TrustManager) trustAllCerts[0],
+                    (hostname, session) -> true);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
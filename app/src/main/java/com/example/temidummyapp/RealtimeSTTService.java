@@ -1,14 +1,12 @@
 package com.example.temidummyapp;
 
 import android.content.Context;
-import android.media.AudioFormat;
-import android.media.AudioRecord;
-import android.media.MediaRecorder;
-import android.os.Handler;
-import android.os.Looper;
-import android.util.Base64;
 import android.util.Log;
 
+import com.example.temidummyapp.core.AudioAppendEncoder;
+import com.example.temidummyapp.core.AudioFrame;
+import com.example.temidummyapp.core.SpeechGate;
+
 import org.json.JSONObject;
 
 import java.nio.ByteBuffer;
@@ -30,19 +28,26 @@ public class RealtimeSTTService {
     
     // 오디오 설정
     private static final int SAMPLE_RATE = 24000; // 24kHz (Realtime API 요구사항)
-    private static final int CHANNEL_CONFIG = AudioFormat.CHANNEL_IN_MONO;
-    private static final int AUDIO_FORMAT = AudioFormat.ENCODING_PCM_16BIT;
     private static final int BUFFER_SIZE_MULTIPLIER = 4;
     
+    // 서버 VAD 턴 종료 침묵 길이 - 로컬 VAD는 이보다 조금 더 보내야 서버가 턴 종료를 감지
+    private static final int SILENCE_DURATION_MS = 500;
+    private static final int SERVER_VAD_MARGIN_MS = 200;
+    
     private final Context context;
     private final OkHttpClient client;
-    private final Handler mainHandler;
+    private final String url;
+    private final CallbackScheduler callbacks;
+    private final AudioCapture audioCapture; // 앱: AudioRecord, 고정 길이 프레임
     private String apiKey;
     
+    // 로컬 VAD (말소리 구간만 전송) / 로컬 턴 종료 (0이면 서버 VAD가 턴 종료)
+    private boolean localVad = false;
+    private int localCommitMs = 0;
+    private volatile SpeechGate speechGate; // 녹음 스레드에서 사용, 중지 후 통계 기록
+    
     private WebSocket webSocket;
-    private AudioRecord audioRecord;
-    private Thread recordingThread;
-    private boolean isRecording = false;
+    private volatile boolean isRecording = false; // 녹음 스레드와 함께 봄
     
     private RealtimeCallback callback;
     
@@ -54,15 +59,38 @@ public class RealtimeSTTService {
     }
     
     public RealtimeSTTService(Context context) {
-        this.context = context.getApplicationContext();
-        this.client = new OkHttpClient.Builder().build();
-        this.mainHandler = new Handler(Looper.getMainLooper());
+        this(context.getApplicationContext(), HttpClientProvider.realtime(), WS_URL, CallbackScheduler.mainThread(),
+                new AudioCapture(new MicAudioInput(SAMPLE_RATE, BUFFER_SIZE_MULTIPLIER), SAMPLE_RATE,
+                        BuildConfig.REALTIME_FRAME_MS));
+        setLocalVad(BuildConfig.REALTIME_LOCAL_VAD, BuildConfig.REALTIME_LOCAL_COMMIT_MS);
+    }
+    
+    /**
+     * 연결 주소 / 콜백 스레드 / 마이크 지정 (JVM 테스트: 녹화 재생 서버 + 가짜 마이크, context는 null)
+     */
+    RealtimeSTTService(Context context, OkHttpClient client, String url, CallbackScheduler callbacks,
+                       AudioCapture audioCapture) {
+        this.context = context;
+        this.client = client;
+        this.url = url;
+        this.callbacks = callbacks;
+        this.audioCapture = audioCapture;
     }
     
     public void setApiKey(String apiKey) {
         this.apiKey = apiKey;
     }
     
+    /**
+     * 로컬 VAD 설정 (startRealtimeSTT 전에 호출)
+     *
+     * @param localCommitMs 0보다 크면 말이 이 시간만큼 끊겼을 때 앱이 전사 요청 (서버 VAD 끔, 로컬 VAD 사용)
+     */
+    void setLocalVad(boolean localVad, int localCommitMs) {
+        this.localCommitMs = Math.max(0, localCommitMs);
+        this.localVad = localVad || this.localCommitMs > 0;
+    }
+    
     /**
      * WebSocket 연결 시작 및 실시간 녹음 시작
      */
@@ -78,7 +106,7 @@ public class RealtimeSTTService {
         
         // WebSocket 연결
         Request request = new Request.Builder()
-                .url(WS_URL)
+                .url(url)
                 .addHeader("Authorization", "Bearer " + apiKey)
                 .addHeader("OpenAI-Beta", "realtime=v1")
                 .build();
@@ -101,7 +129,7 @@ public class RealtimeSTTService {
             @Override
             public void onFailure(WebSocket webSocket, Throwable t, Response response) {
                 Log.e(TAG, "WebSocket 실패", t);
-                mainHandler.post(() -> {
+                callbacks.post(() -> {
                     if (callback != null) {
                         callback.onError("연결 실패: " + t.getMessage());
                     }
@@ -131,11 +159,16 @@ public class RealtimeSTTService {
                     .put("model", "whisper-1"));
             
             // VAD (Voice Activity Detection) 설정
-            session.put("turn_detection", new JSONObject()
-                    .put("type", "server_vad")
-                    .put("threshold", 0.5)
-                    .put("prefix_padding_ms", 300)
-                    .put("silence_duration_ms", 500));
+            if (localCommitMs > 0) {
+                // 로컬 턴 종료: 앱이 input_audio_buffer.commit
+                session.put("turn_detection", JSONObject.NULL);
+            } else {
+                session.put("turn_detection", new JSONObject()
+                        .put("type", "server_vad")
+                        .put("threshold", 0.5)
+                        .put("prefix_padding_ms", 300)
+                        .put("silence_duration_ms", SILENCE_DURATION_MS));
+            }
             
             config.put("session", session);
             
@@ -148,7 +181,7 @@ public class RealtimeSTTService {
             
         } catch (Exception e) {
             Log.e(TAG, "세션 설정 생성 실패", e);
-            mainHandler.post(() -> {
+            callbacks.post(() -> {
                 if (callback != null) {
                     callback.onError("설정 실패: " + e.getMessage());
                 }
@@ -157,80 +190,86 @@ public class RealtimeSTTService {
     }
     
     /**
-     * 오디오 녹음 시작 및 WebSocket으로 스트리밍
+     * 오디오 녹음 시작 및 WebSocket으로 스트리밍 (REALTIME_FRAME_MS 프레임마다 전송, 로컬 VAD면 말소리 구간만)
      */
     private void startAudioRecording(WebSocket webSocket) {
-        try {
-            int bufferSize = AudioRecord.getMinBufferSize(SAMPLE_RATE, CHANNEL_CONFIG, AUDIO_FORMAT) 
-                    * BUFFER_SIZE_MULTIPLIER;
+        // append 이벤트 (JSON + PCM16 Base64)를 녹음 스레드의 버퍼에 씀
+        AudioAppendEncoder encoder = new AudioAppendEncoder(audioCapture.frameBytes());
+        // 서버 VAD면 서버가 턴 종료를 감지할 만큼 말 끝 뒤 침묵을 더 보냄
+        int hangoverMs = localCommitMs > 0 ? localCommitMs : SILENCE_DURATION_MS + SERVER_VAD_MARGIN_MS;
+        SpeechGate gate = localVad ? audioCapture.newSpeechGate(hangoverMs) : null;
+        speechGate = gate;
+        SpeechGate.Listener speech = new SpeechGate.Listener() {
+            @Override
+            public void onSpeechStart() {
+                Log.d(TAG, "로컬 VAD: 말소리 시작");
+            }
             
-            audioRecord = new AudioRecord(
-                    MediaRecorder.AudioSource.MIC,
-                    SAMPLE_RATE,
-                    CHANNEL_CONFIG,
-                    AUDIO_FORMAT,
-                    bufferSize
-            );
+            @Override
+            public void onSpeechFrame(AudioFrame frame) {
+                webSocket.send(encoder.encodeToString(frame.data, 0, frame.length()));
+            }
             
-            if (audioRecord.getState() != AudioRecord.STATE_INITIALIZED) {
-                mainHandler.post(() -> {
+            @Override
+            public void onSpeechEnd() {
+                Log.d(TAG, "로컬 VAD: 말소리 끝");
+                if (localCommitMs > 0) {
+                    // 지금까지 보낸 음성 전사 요청
+                    webSocket.send("{\"type\":\"input_audio_buffer.commit\"}");
+                }
+            }
+        };
+        audioCapture.start(new AudioCapture.FrameSink() {
+            @Override
+            public void onStarted(boolean started) {
+                if (!started) {
+                    callbacks.post(() -> {
+                        if (callback != null) {
+                            callback.onError("오디오 녹음을 초기화할 수 없습니다");
+                        }
+                    });
+                    return;
+                }
+                
+                isRecording = true;
+                
+                Log.d(TAG, "오디오 녹음 시작됨");
+                
+                // 연결 준비 완료 알림
+                callbacks.post(() -> {
                     if (callback != null) {
-                        callback.onError("오디오 녹음을 초기화할 수 없습니다");
+                        callback.onConnectionReady();
                     }
                 });
-                return;
             }
             
-            audioRecord.startRecording();
-            isRecording = true;
-            
-            Log.d(TAG, "오디오 녹음 시작됨");
-            
-            // 연결 준비 완료 알림
-            mainHandler.post(() -> {
-                if (callback != null) {
-                    callback.onConnectionReady();
+            @Override
+            public void onFrame(AudioFrame frame) {
+                if (isRecording && gate != null) {
+                    // 말소리 구간만 전송 (게이트가 pre-roll 프레임을 보관했다가 반납)
+                    gate.offer(frame, speech);
+                    return;
                 }
-            });
-            
-            // 녹음 스레드 시작
-            recordingThread = new Thread(() -> {
-                byte[] buffer = new byte[bufferSize];
-                
-                while (isRecording) {
-                    int bytesRead = audioRecord.read(buffer, 0, buffer.length);
-                    
-                    if (bytesRead > 0) {
-                        // PCM16 데이터를 Base64로 인코딩
-                        String base64Audio = Base64.encodeToString(buffer, 0, bytesRead, Base64.NO_WRAP);
-                        
+                try {
+                    if (isRecording) {
                         // WebSocket으로 오디오 전송
-                        try {
-                            JSONObject audioMessage = new JSONObject();
-                            audioMessage.put("type", "input_audio_buffer.append");
-                            audioMessage.put("audio", base64Audio);
-                            
-                            webSocket.send(audioMessage.toString());
-                            
-                        } catch (Exception e) {
-                            Log.e(TAG, "오디오 전송 실패", e);
-                        }
+                        webSocket.send(encoder.encodeToString(frame.data, 0, frame.length()));
                     }
+                } finally {
+                    frame.recycle();
                 }
-                
-                Log.d(TAG, "녹음 스레드 종료");
-            });
-            
-            recordingThread.start();
+            }
             
-        } catch (Exception e) {
-            Log.e(TAG, "오디오 녹음 시작 실패", e);
-            mainHandler.post(() -> {
-                if (callback != null) {
-                    callback.onError("녹음 시작 실패: " + e.getMessage());
-                }
-            });
-        }
+            @Override
+            public void onError(String message) {
+                Log.e(TAG, "오디오 녹음 오류: " + message);
+                callbacks.post(() -> {
+                    if (callback != null) {
+                        callback.onError("녹음 실패: " + message);
+                    }
+                });
+            }
+        });
     }
     
     /**
@@ -261,7 +300,7 @@ public class RealtimeSTTService {
                     // 전체 텍스트 완성
                     String fullText = message.optString("transcript", "");
                     Log.d(TAG, "전체 텍스트 완성: " + fullText);
-                    mainHandler.post(() -> {
+                    callbacks.post(() -> {
                         if (callback != null) {
                             callback.onTextComplete(fullText);
                         }
@@ -272,7 +311,7 @@ public class RealtimeSTTService {
                     // 실시간 텍스트 조각
                     String delta = message.optString("delta", "");
                     Log.d(TAG, "텍스트 델타: " + delta);
-                    mainHandler.post(() -> {
+                    callbacks.post(() -> {
                         if (callback != null) {
                             callback.onTextDelta(delta);
                         }
@@ -282,7 +321,7 @@ public class RealtimeSTTService {
                 case "error":
                     String error = message.optJSONObject("error").optString("message", "알 수 없는 오류");
                     Log.e(TAG, "서버 오류: " + error);
-                    mainHandler.post(() -> {
+                    callbacks.post(() -> {
                         if (callback != null) {
                             callback.onError(error);
                         }
@@ -303,27 +342,14 @@ public class RealtimeSTTService {
         
         isRecording = false;
         
-        // AudioRecord 중지
-        if (audioRecord != null) {
-            try {
-                if (audioRecord.getState() == AudioRecord.STATE_INITIALIZED) {
-                    audioRecord.stop();
-                }
-                audioRecord.release();
-            } catch (Exception e) {
-                Log.e(TAG, "AudioRecord 중지 실패", e);
-            }
-            audioRecord = null;
-        }
-        
-        // 녹음 스레드 종료 대기
-        if (recordingThread != null) {
-            try {
-                recordingThread.join(1000);
-            } catch (InterruptedException e) {
-                Log.e(TAG, "녹음 스레드 종료 대기 실패", e);
-            }
-            recordingThread = null;
+        // AudioRecord 중지 + 녹음 스레드 종료 대기
+        audioCapture.stop();
+        SpeechGate gate = speechGate;
+        speechGate = null;
+        if (gate != null) {
+            Log.d(TAG, "업링크 " + gate.sentBytesPerMinute() + " bytes/분 (로컬 VAD 없으면 "
+                    + gate.inputBytesPerMinute() + " bytes/분, 말소리 구간 " + gate.segments() + "개)");
+            gate.reset();
         }
         
         // WebSocket 종료
@@ -1,6 +1,8 @@
 package com.example.temidummyapp;
 
+import android.content.Context;
 import android.content.pm.PackageManager;
+import android.media.AudioManager;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.View;
@@ -34,6 +36,10 @@ public class RealtimeVoiceChatActivity extends BaseActivity {
     private VoiceChatMessage currentUserMessage = null;
     private VoiceChatMessage currentAIMessage = null;
 
+    // 전이중 대화 중 통화 오디오 모드 (에코 제거) - 나갈 때 원래 모드로 복원
+    private AudioManager audioManager;
+    private int previousAudioMode = AudioManager.MODE_NORMAL;
+
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -45,6 +51,12 @@ public class RealtimeVoiceChatActivity extends BaseActivity {
         // UI 초기화
         initializeViews();
 
+        // WebSocket 연결 전에 api.openai.com 연결 미리 맺기
+        HttpClientProvider.preconnectOpenAIRealtime();
+
+        // 전이중이면 통화 모드 (마이크 에코 제거가 스피커 출력을 기준으로 동작)
+        enterCommunicationMode();
+
         // Realtime 서비스 초기화
         setupRealtimeService();
 
@@ -95,6 +107,7 @@ public class RealtimeVoiceChatActivity extends BaseActivity {
     private void setupRealtimeService() {
         String apiKey = BuildConfig.OPENAI_API_KEY;
         realtimeService = new OpenAIRealtimeService(apiKey);
+        realtimeService.setMetricsStore(LlmMetricsStore.getInstance(this));
 
         realtimeService.setCallback(new OpenAIRealtimeService.RealtimeCallback() {
             @Override
@@ -157,8 +170,10 @@ public class RealtimeVoiceChatActivity extends BaseActivity {
                 // AI 응답 중 플래그 설정
                 isAIResponding = true;
                 
-                // 🔇 마이크 일시 중지 (에코 방지)
-                realtimeService.pauseMicrophone();
+                // 🔇 마이크 일시 중지 (에코 방지) - 전이중 모드는 에코 제거 후 계속 들음 (끼어들기)
+                if (!BuildConfig.REALTIME_FULL_DUPLEX) {
+                    realtimeService.pauseMicrophone();
+                }
                 
                 runOnUiThread(() -> {
                     // 사용자 메시지 비활성화
@@ -216,6 +231,12 @@ public class RealtimeVoiceChatActivity extends BaseActivity {
                     }
                     
                     animatedCircle.setListeningMode();
+                    if (BuildConfig.REALTIME_FULL_DUPLEX) {
+                        // 마이크를 멈추지 않았으므로 바로 다음 말을 받음
+                        isAIResponding = false;
+                        instructionText.setText("말씀해주세요");
+                        return;
+                    }
                     instructionText.setText("잠시 후 말씀해주세요...");
                     
                     // 🎤 1초 후에 마이크 재개 (AI 응답 여운 + 에코 방지)
@@ -230,6 +251,20 @@ public class RealtimeVoiceChatActivity extends BaseActivity {
                 });
             }
 
+            @Override
+            public void onResponseInterrupted() {
+                Log.d(TAG, "✋ 사용자가 끼어듦 - AI 응답 중단");
+                isAIResponding = false;
+                runOnUiThread(() -> {
+                    if (currentAIMessage != null) {
+                        conversationAdapter.clearActiveMessage();
+                        currentAIMessage = null;
+                    }
+                    animatedCircle.setListeningMode();
+                    instructionText.setText("듣고 있습니다...");
+                });
+            }
+
             @Override
             public void onError(String error) {
                 Log.e(TAG, "오류: " + error);
@@ -349,6 +384,32 @@ public class RealtimeVoiceChatActivity extends BaseActivity {
         super.onDestroy();
         Log.d(TAG, "onDestroy 호출됨");
         stopVoiceChat();
+        exitCommunicationMode();
+    }
+
+    private void enterCommunicationMode() {
+        if (!BuildConfig.REALTIME_FULL_DUPLEX) {
+            return;
+        }
+        audioManager = (AudioManager) getSystemService(Context.AUDIO_SERVICE);
+        if (audioManager == null) {
+            return;
+        }
+        previousAudioMode = audioManager.getMode();
+        audioManager.setMode(AudioManager.MODE_IN_COMMUNICATION);
+        // 통화 모드 기본 출력(수화부) 대신 스피커로
+        audioManager.setSpeakerphoneOn(true);
+        Log.d(TAG, "📞 통화 오디오 모드 시작");
+    }
+
+    private void exitCommunicationMode() {
+        if (audioManager == null) {
+            return;
+        }
+        audioManager.setSpeakerphoneOn(false);
+        audioManager.setMode(previousAudioMode);
+        audioManager = null;
+        Log.d(TAG, "📞 통화 오디오 모드 종료");
     }
 
     @Override
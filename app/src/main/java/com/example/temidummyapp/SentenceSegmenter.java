@@ -0,0 +1,221 @@
+package com.example.temidummyapp;
+
+import java.util.List;
+
+/**
+ * 스트리밍 답변을 음성 출력용 문장으로 자르는 분할기 (한국어 기준)
+ * - 문장 끝: . ? ! 。 … 뒤에 공백/줄바꿈이 올 때, 줄바꿈, 한글 바로 뒤의 ~
+ * - 소수점(3.5), 번호 목록(1. ) 은 문장 끝으로 보지 않음
+ * - 너무 짧은 조각("네.", 제목 한 줄)은 다음 문장과 합쳐서 말함
+ * - 마침표 없이 길어지면 쉼표/공백에서 잘라 첫 음성이 늦어지지 않게 함
+ * - 마크다운 기호(**, #, 글머리표 등), 이모지, 부스 참조 블록([[booths:...]])은 읽지 않도록 제거
+ *
+ * 안드로이드 클래스에 의존하지 않음, 스레드 안전하지 않음 (호출하는 쪽에서 동기화)
+ */
+public class SentenceSegmenter {
+
+    // 이보다 짧은 문장은 다음 문장과 합침
+    static final int MIN_SENTENCE = 6;
+    // 문장 끝이 없어도 이 길이를 넘으면 자름
+    static final int MAX_SENTENCE = 120;
+
+    // 아직 말하지 않은 원문 (청크가 이어 붙음)
+    private final StringBuilder pending = new StringBuilder(256);
+    // 다음 문장이 시작되는 위치, 문장 끝을 찾기 시작할 위치
+    private int sentenceStart;
+    private int scanFrom;
+
+    /**
+     * 청크 추가 후 완성된 문장을 out에 추가
+     *
+     * @return 추가한 문장 수
+     */
+    public int append(CharSequence chunk, List<String> out) {
+        pending.append(chunk);
+        int added = 0;
+        int length = pending.length();
+        int i = scanFrom;
+        // 문장 끝 판단에 다음 글자가 필요하므로 마지막 글자는 다음 청크까지 보류
+        while (i < length) {
+            int end = boundaryAfter(i);
+            if (end == -2) {
+                break;
+            }
+            if (end < 0 && i - sentenceStart >= MAX_SENTENCE) {
+                end = softBoundary(i);
+            }
+            if (end > 0 && emit(end, out)) {
+                added++;
+            }
+            i++;
+        }
+        scanFrom = i;
+        compact();
+        return added;
+    }
+
+    /**
+     * 답변이 끝났을 때 남은 텍스트 (없으면 null)
+     */
+    public String flush() {
+        String rest = clean(pending, sentenceStart, pending.length());
+        reset();
+        return rest.isEmpty() ? null : rest;
+    }
+
+    public void reset() {
+        pending.setLength(0);
+        sentenceStart = 0;
+        scanFrom = 0;
+    }
+
+    /**
+     * i 위치 글자가 문장을 끝내면 문장 끝(제외) 위치
+     *
+     * @return 끝 위치, 문장 끝이 아니면 -1, 다음 글자가 아직 없으면 -2
+     */
+    private int boundaryAfter(int i) {
+        char c = pending.charAt(i);
+        if (c == '\n') {
+            return i + 1;
+        }
+        if (!isTerminal(c)) {
+            return -1;
+        }
+        if (i + 1 >= pending.length()) {
+            return -2;
+        }
+        char next = pending.charAt(i + 1);
+        if (isTerminal(next) || next == '"' || next == '\'' || next == ')' || next == '”' || next == '’') {
+            // ?! ... 처럼 이어지는 기호, 닫는 따옴표는 끝까지 포함
+            return -1;
+        }
+        if (!Character.isWhitespace(next)) {
+            return -1;
+        }
+        if (c == '~' && (i == 0 || !isHangul(pending.charAt(i - 1)))) {
+            // "10:00 ~ 17:00" 의 물결표
+            return -1;
+        }
+        if (c == '.' && isListNumber(i)) {
+            return -1;
+        }
+        return i + 1;
+    }
+
+    private static boolean isTerminal(char c) {
+        return c == '.' || c == '?' || c == '!' || c == '。' || c == '…' || c == '~';
+    }
+
+    /**
+     * 줄 시작의 "1." 처럼 숫자만 있는 조각인지
+     */
+    private boolean isListNumber(int dot) {
+        int p = dot - 1;
+        while (p >= sentenceStart && Character.isDigit(pending.charAt(p))) {
+            p--;
+        }
+        if (p == dot - 1) {
+            return false;
+        }
+        return p < sentenceStart || pending.charAt(p) == '\n'
+                || (Character.isWhitespace(pending.charAt(p)) && clean(pending, sentenceStart, p + 1).isEmpty());
+    }
+
+    /**
+     * 긴 문장을 마지막 쉼표, 없으면 마지막 공백에서 자름
+     */
+    private int softBoundary(int i) {
+        int space = -1;
+        for (int p = i; p > sentenceStart + MIN_SENTENCE; p--) {
+            char c = pending.charAt(p);
+            if (c == ',' || c == '，') {
+                return p + 1;
+            }
+            if (space < 0 && c == ' ') {
+                space = p + 1;
+            }
+        }
+        return space;
+    }
+
+    private boolean emit(int end, List<String> out) {
+        String sentence = clean(pending, sentenceStart, end);
+        if (sentence.length() < MIN_SENTENCE) {
+            // 짧은 조각은 버리지 않고 다음 문장 앞에 붙임
+            return false;
+        }
+        out.add(sentence);
+        sentenceStart = end;
+        return true;
+    }
+
+    private void compact() {
+        if (sentenceStart > 0) {
+            pending.delete(0, sentenceStart);
+            scanFrom -= sentenceStart;
+            sentenceStart = 0;
+        }
+    }
+
+    /**
+     * 말할 텍스트만 남김 (마크다운 기호/이모지 제거, 줄바꿈과 연속 공백은 공백 하나로)
+     */
+    static String clean(CharSequence src, int start, int end) {
+        StringBuilder out = new StringBuilder(end - start);
+        boolean lineStart = true;
+        for (int i = start; i < end; i++) {
+            char c = src.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\t' || c == ' ') {
+                if (c == '\n') {
+                    lineStart = true;
+                }
+                if (out.length() > 0 && out.charAt(out.length() - 1) != ' ') {
+                    out.append(' ');
+                }
+                continue;
+            }
+            if (lineStart) {
+                // 제목(#), 글머리표(- * + •)
+                if (c == '#' || c == '•') {
+                    continue;
+                }
+                if ((c == '-' || c == '*' || c == '+') && i + 1 < end && src.charAt(i + 1) == ' ') {
+                    continue;
+                }
+            }
+            lineStart = false;
+            if (c == '[' && i + 1 < end && src.charAt(i + 1) == '[') {
+                // 부스 참조 블록 [[booths:...]] (화면 카드용) - 닫히지 않았으면 끝까지
+                int close = i + 2;
+                while (close + 1 < end && !(src.charAt(close) == ']' && src.charAt(close + 1) == ']')) {
+                    close++;
+                }
+                i = close + 1 < end ? close + 1 : end;
+                continue;
+            }
+            if (c == '*' || c == '`' || c == '#') {
+                continue;
+            }
+            if (c == '~' && i + 1 < end && src.charAt(i + 1) == '~') {
+                i++;
+                continue;
+            }
+            if (Character.isSurrogate(c) || c == '\uFE0F' || c == '\u200D' || (c >= '\u2600' && c <= '\u27BF')) {
+                // 이모지
+                continue;
+            }
+            out.append(c);
+        }
+        int length = out.length();
+        while (length > 0 && out.charAt(length - 1) == ' ') {
+            length--;
+        }
+        out.setLength(length);
+        return out.toString();
+    }
+
+    private static boolean isHangul(char c) {
+        return c >= '가' && c <= '힣';
+    }
+}
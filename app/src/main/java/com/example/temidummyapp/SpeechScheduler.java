@@ -0,0 +1,344 @@
+package com.example.temidummyapp;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.robotemi.sdk.Robot;
+import com.robotemi.sdk.TtsRequest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 테미 음성 출력 스케줄러 (앱 전체에서 하나)
+ * - 챗봇 답변: 스트리밍 중 문장이 끝날 때마다 큐에 넣어 답변 생성 중에도 첫 문장부터 말함
+ * - 다른 화면의 안내 음성(speak)도 같은 큐로 순서대로 출력, 같은 문장이 겹치면 한 번만 말함
+ * - 로봇에는 한 번에 한 문장만 보내고 완료 상태를 받으면 다음 문장을 보냄
+ *   (새 질문이 오면 남은 문장은 큐에서 지우고, 말하는 중인 한 문장만 로봇에서 취소)
+ * - 질문부터 첫 음성 시작(TTS STARTED)까지 시간 기록
+ *
+ * 큐는 메인 스레드에서만 다룸, Reply.append()만 네트워크 스레드에서 호출 가능
+ */
+public class SpeechScheduler implements Robot.TtsListener {
+    private static final String TAG = "SpeechScheduler";
+
+    // 같은 문장을 이 시간 안에 다시 요청하면 생략 (여러 화면에서 같은 안내를 겹쳐 부를 때)
+    private static final long DEDUPE_WINDOW_MS = 3000;
+
+    // 상태 콜백이 오지 않으면(로봇 연결 끊김 등) 이 시간 뒤 다음 문장으로 넘어감
+    private static final long WATCHDOG_BASE_MS = 3000;
+    private static final long WATCHDOG_PER_CHAR_MS = 250;
+
+    // 첫 음성까지 시간 최근 기록 개수 (p50 계산용)
+    private static final int MAX_TTFA_SAMPLES = 50;
+
+    private static SpeechScheduler instance;
+
+    private final Robot robot;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // ===== 메인 스레드에서만 사용 =====
+    private final ArrayDeque<Utterance> queue = new ArrayDeque<>();
+    private Utterance speaking;
+    private Reply currentReply;
+    private String lastSpokenText;
+    private long lastSpokenAt;
+
+    // 통계
+    private final long[] ttfaSamples = new long[MAX_TTFA_SAMPLES];
+    private int ttfaCount = 0;
+    private int ttfaNext = 0;
+    private int audibleReplies = 0;
+    private long ttfaTotal = 0;
+    private long ttfaMax = 0;
+    private int replies = 0;
+    private int sentences = 0;
+    private int deduped = 0;
+
+    public static synchronized SpeechScheduler getInstance() {
+        if (instance == null) {
+            instance = new SpeechScheduler(Robot.getInstance());
+        }
+        return instance;
+    }
+
+    private SpeechScheduler(Robot robot) {
+        this.robot = robot;
+        if (robot != null) {
+            robot.addTtsListener(this);
+        }
+    }
+
+    /**
+     * 말할 문장 하나
+     */
+    private static class Utterance {
+        final String text;
+        final Reply reply; // 챗봇 답변이 아니면 null
+        TtsRequest request;
+        Runnable watchdog;
+
+        Utterance(String text, Reply reply) {
+            this.text = text;
+            this.reply = reply;
+        }
+    }
+
+    /**
+     * 스트리밍 중인 챗봇 답변 하나의 음성 출력
+     */
+    public final class Reply {
+        private final SentenceSegmenter segmenter = new SentenceSegmenter();
+        private final List<String> ready = new ArrayList<>();
+        private final long startNanos = System.nanoTime();
+        private volatile long firstTokenNanos = 0;
+        private volatile boolean cancelled = false;
+        private boolean audible = false;
+
+        private Reply() {
+        }
+
+        /**
+         * 스트리밍 청크 추가 (네트워크 스레드) - 완성된 문장만 큐에 들어감
+         */
+        public void append(String chunk) {
+            if (cancelled || chunk == null || chunk.isEmpty()) {
+                return;
+            }
+            if (firstTokenNanos == 0) {
+                firstTokenNanos = System.nanoTime();
+            }
+            String[] sentences;
+            synchronized (segmenter) {
+                if (segmenter.append(chunk, ready) == 0) {
+                    return;
+                }
+                sentences = ready.toArray(new String[0]);
+                ready.clear();
+            }
+            mainHandler.post(() -> {
+                for (String sentence : sentences) {
+                    enqueue(sentence, this);
+                }
+            });
+        }
+
+        /**
+         * 답변 완료 - 마지막 문장 끝에 마침표가 없어도 남은 텍스트를 말함
+         */
+        public void finish() {
+            String rest;
+            synchronized (segmenter) {
+                rest = segmenter.flush();
+            }
+            if (rest != null) {
+                mainHandler.post(() -> enqueue(rest, this));
+            }
+        }
+
+        /**
+         * 남은 문장 취소 (중지 버튼, 오류, 화면 종료) - 메인 스레드
+         */
+        public void cancel() {
+            cancelReply(this);
+        }
+    }
+
+    /**
+     * 새 챗봇 답변 시작 - 이전 답변의 남은 음성은 취소 (메인 스레드)
+     */
+    public Reply startReply() {
+        if (currentReply != null) {
+            cancelReply(currentReply);
+        }
+        currentReply = new Reply();
+        replies++;
+        return currentReply;
+    }
+
+    /**
+     * 완성된 안내 문장 말하기 (다른 화면용, 메인 스레드)
+     * 같은 문장이 말하는 중/대기 중이거나 방금 말했으면 생략
+     */
+    public void speak(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return;
+        }
+        if (isDuplicate(text)) {
+            deduped++;
+            Log.d(TAG, "중복 음성 생략: " + text);
+            return;
+        }
+        enqueue(text, null);
+    }
+
+    /**
+     * 모든 음성 중지 (대기 중인 문장 삭제 + 말하는 중인 문장 취소)
+     */
+    public void stopAll() {
+        if (currentReply != null) {
+            currentReply.cancelled = true;
+            currentReply = null;
+        }
+        queue.clear();
+        cancelSpeaking();
+    }
+
+    private boolean isDuplicate(String text) {
+        if (speaking != null && speaking.text.equals(text)) {
+            return true;
+        }
+        for (Utterance queued : queue) {
+            if (queued.text.equals(text)) {
+                return true;
+            }
+        }
+        return text.equals(lastSpokenText) && System.currentTimeMillis() - lastSpokenAt < DEDUPE_WINDOW_MS;
+    }
+
+    private void enqueue(String text, Reply reply) {
+        if (reply != null && reply.cancelled) {
+            return;
+        }
+        queue.add(new Utterance(text, reply));
+        speakNext();
+    }
+
+    private void cancelReply(Reply reply) {
+        reply.cancelled = true;
+        if (currentReply == reply) {
+            currentReply = null;
+        }
+        Iterator<Utterance> it = queue.iterator();
+        while (it.hasNext()) {
+            if (it.next().reply == reply) {
+                it.remove();
+            }
+        }
+        if (speaking != null && speaking.reply == reply) {
+            cancelSpeaking();
+            speakNext();
+        }
+    }
+
+    private void cancelSpeaking() {
+        if (speaking == null) {
+            return;
+        }
+        mainHandler.removeCallbacks(speaking.watchdog);
+        speaking = null;
+        if (robot != null) {
+            // 로봇에는 한 문장만 보냈으므로 취소되는 것은 말하는 중인 이 문장뿐
+            robot.cancelAllTtsRequests();
+        }
+    }
+
+    private void speakNext() {
+        if (speaking != null || queue.isEmpty()) {
+            return;
+        }
+        Utterance next = queue.poll();
+        speaking = next;
+        lastSpokenText = next.text;
+        lastSpokenAt = System.currentTimeMillis();
+        if (next.reply != null) {
+            sentences++;
+        }
+
+        next.watchdog = () -> {
+            if (speaking == next) {
+                Log.w(TAG, "음성 상태 응답 없음, 다음 문장으로: " + next.text);
+                finishSpeaking();
+            }
+        };
+        mainHandler.postDelayed(next.watchdog, WATCHDOG_BASE_MS + next.text.length() * WATCHDOG_PER_CHAR_MS);
+
+        if (robot == null) {
+            return;
+        }
+        next.request = TtsRequest.create(next.text, false);
+        robot.speak(next.request);
+    }
+
+    private void finishSpeaking() {
+        if (speaking != null) {
+            mainHandler.removeCallbacks(speaking.watchdog);
+            speaking = null;
+        }
+        speakNext();
+    }
+
+    @Override
+    public void onTtsStatusChanged(TtsRequest ttsRequest) {
+        mainHandler.post(() -> handleStatus(ttsRequest));
+    }
+
+    private void handleStatus(TtsRequest ttsRequest) {
+        Utterance current = speaking;
+        if (current == null || current.request == null
+                || !current.request.getId().equals(ttsRequest.getId())) {
+            // 이미 취소했거나 다른 앱/화면이 직접 보낸 요청
+            return;
+        }
+        switch (ttsRequest.getStatus()) {
+            case STARTED:
+                onAudible(current);
+                break;
+            case COMPLETED:
+                finishSpeaking();
+                break;
+            case ERROR:
+            case NOT_ALLOWED:
+            case CANCELED:
+                Log.w(TAG, "음성 출력 실패 (" + ttsRequest.getStatus() + "): " + current.text);
+                finishSpeaking();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 답변의 첫 문장이 실제로 들리기 시작한 시점 기록
+     */
+    private void onAudible(Utterance utterance) {
+        Reply reply = utterance.reply;
+        if (reply == null || reply.audible) {
+            return;
+        }
+        reply.audible = true;
+        long now = System.nanoTime();
+        long ttfaMs = (now - reply.startNanos) / 1_000_000;
+        long afterTokenMs = reply.firstTokenNanos > 0 ? (now - reply.firstTokenNanos) / 1_000_000 : -1;
+
+        ttfaSamples[ttfaNext] = ttfaMs;
+        ttfaNext = (ttfaNext + 1) % MAX_TTFA_SAMPLES;
+        ttfaCount = Math.min(ttfaCount + 1, MAX_TTFA_SAMPLES);
+        audibleReplies++;
+        ttfaTotal += ttfaMs;
+        ttfaMax = Math.max(ttfaMax, ttfaMs);
+        Log.d(TAG, "첫 음성까지 " + ttfaMs + "ms (첫 토큰 후 " + afterTokenMs + "ms): " + utterance.text);
+    }
+
+    /**
+     * 음성 통계 (답변 수, 말한 문장 수, 중복 생략, 첫 음성까지 시간)
+     */
+    public String getStatsSummary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("답변 ").append(replies)
+                .append(", 문장 ").append(sentences)
+                .append(", 중복 생략 ").append(deduped);
+        if (audibleReplies > 0) {
+            long[] recent = Arrays.copyOf(ttfaSamples, ttfaCount);
+            Arrays.sort(recent);
+            sb.append(", 첫 음성 평균 ").append(ttfaTotal / audibleReplies).append("ms")
+                    .append(", p50(최근 ").append(ttfaCount).append("개) ").append(recent[ttfaCount / 2]).append("ms")
+                    .append(", 최대 ").append(ttfaMax).append("ms");
+        }
+        return sb.toString();
+    }
+}
@@ -20,7 +20,6 @@ import okhttp3.Response;
 
 import org.json.JSONObject;
 
-import java.util.concurrent.TimeUnit;
 
 /**
  * OpenAI Whisper API를 사용한 음성 인식 서비스
@@ -45,11 +44,7 @@ public class SpeechToTextService {
     
     public SpeechToTextService(Context context) {
         this.context = context.getApplicationContext();
-        this.client = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .build();
+        this.client = HttpClientProvider.upload();
         this.mainHandler = new Handler(Looper.getMainLooper());
     }
     
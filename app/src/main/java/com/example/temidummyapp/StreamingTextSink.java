@@ -0,0 +1,118 @@
+package com.example.temidummyapp;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 스트리밍 텍스트 버퍼 (프레임 동기화)
+ * - 청크는 어느 스레드에서든 append (네트워크 스레드에서 바로 호출)
+ * - 화면 반영은 Choreographer 프레임 콜백으로 프레임당 최대 1회
+ * - 청크마다 문자열을 새로 이어붙이지 않으므로 긴 답변에서도 O(n)
+ *
+ * 메인 스레드에서 생성해야 함
+ */
+public class StreamingTextSink implements Choreographer.FrameCallback {
+
+    public interface Listener {
+        /**
+         * 프레임마다 (변경이 있을 때만) 메인 스레드에서 호출
+         *
+         * @param text 지금까지 누적된 전체 텍스트
+         */
+        void onFrame(String text);
+    }
+
+    private final StringBuilder buffer = new StringBuilder(512);
+    private final Choreographer choreographer;
+    private final Handler mainHandler;
+    private final Listener listener;
+    private final AtomicBoolean frameScheduled = new AtomicBoolean(false);
+
+    private boolean dirty = false;
+    private boolean closed = false;
+
+    private final Runnable scheduleFrame = new Runnable() {
+        @Override
+        public void run() {
+            choreographer.postFrameCallback(StreamingTextSink.this);
+        }
+    };
+
+    public StreamingTextSink(Listener listener) {
+        this.choreographer = Choreographer.getInstance();
+        this.mainHandler = new Handler(Looper.getMainLooper());
+        this.listener = listener;
+    }
+
+    /**
+     * 청크 추가 (스레드 안전)
+     */
+    public void append(String chunk) {
+        synchronized (buffer) {
+            if (closed) {
+                return;
+            }
+            buffer.append(chunk);
+            dirty = true;
+        }
+        if (frameScheduled.compareAndSet(false, true)) {
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                scheduleFrame.run();
+            } else {
+                mainHandler.post(scheduleFrame);
+            }
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled.set(false);
+        publish();
+    }
+
+    /**
+     * 남은 내용을 즉시 반영 (스트림 완료 시, 메인 스레드)
+     */
+    public void flush() {
+        choreographer.removeFrameCallback(this);
+        mainHandler.removeCallbacks(scheduleFrame);
+        frameScheduled.set(false);
+        publish();
+    }
+
+    /**
+     * 이후 들어오는 청크 무시 (취소/화면 종료 시, 메인 스레드)
+     */
+    public void close() {
+        synchronized (buffer) {
+            closed = true;
+            dirty = false;
+        }
+        choreographer.removeFrameCallback(this);
+        mainHandler.removeCallbacks(scheduleFrame);
+    }
+
+    /**
+     * 지금까지 누적된 텍스트
+     */
+    public String getText() {
+        synchronized (buffer) {
+            return buffer.toString();
+        }
+    }
+
+    private void publish() {
+        String text;
+        synchronized (buffer) {
+            if (!dirty) {
+                return;
+            }
+            text = buffer.toString();
+            dirty = false;
+        }
+        listener.onFrame(text);
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.temidummyapp.db;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import com.example.temidummyapp.utils.BM25Index;
+import com.example.temidummyapp.utils.KoreanBigramTokenizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * events 테이블 기반 온디바이스 부스 검색 (BM25)
+ * 챗봇 요청마다 전체 프로그램 목록 대신 관련 상위 k개 행만 프롬프트에 넣기 위해 사용
+ */
+public class BoothRetriever {
+    private static final String TAG = "BoothRetriever";
+
+    public static final int DEFAULT_TOP_K = 6;
+
+    // 필드 가중치 (토큰 반복 횟수)
+    private static final int WEIGHT_TITLE = 2;
+    private static final int WEIGHT_FIELD = 2;
+    private static final int WEIGHT_INTRO = 1;
+    private static final int WEIGHT_TARGET = 1;
+
+    // 제목 언급으로 부스를 찾을 때 최소 제목 길이 (공백/기호 제거 후)
+    private static final int MIN_TITLE_MATCH_LENGTH = 3;
+
+    /**
+     * 부스 한 행 (로컬 빠른 답변용)
+     */
+    public static class Booth {
+        public final String 분야;
+        public final String 대제목;
+        public final String 한줄소개;
+        public final String 사전모집여부;
+        public final String 참여대상;
+        public final String 소요시간;
+
+        Booth(String 분야, String 대제목, String 한줄소개, String 사전모집여부, String 참여대상, String 소요시간) {
+            this.분야 = 분야;
+            this.대제목 = 대제목;
+            this.한줄소개 = 한줄소개;
+            this.사전모집여부 = 사전모집여부;
+            this.참여대상 = 참여대상;
+            this.소요시간 = 소요시간;
+        }
+    }
+
+    private final Context context;
+
+    private volatile BM25Index index;
+    private volatile List<String> rows = new ArrayList<>();
+    private volatile String fieldSummary = "";
+    private volatile List<Booth> booths = new ArrayList<>();
+    private volatile List<String> normalizedTitles = new ArrayList<>();
+
+    public BoothRetriever(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * events 테이블을 읽어 색인 생성 (백그라운드 스레드에서 호출)
+     * 카탈로그가 아직 없거나 바뀌었으면 먼저 가져옴
+     */
+    public void buildIndex() {
+        EventDatabase.ensureCatalog(context);
+        EventDatabase dbHelper = new EventDatabase(context);
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        try {
+
+            List<List<String>> documents = new ArrayList<>();
+            List<String> newRows = new ArrayList<>();
+            List<Booth> newBooths = new ArrayList<>();
+            List<String> newTitles = new ArrayList<>();
+            Set<String> fields = new LinkedHashSet<>();
+
+            Cursor cursor = db.rawQuery(
+                    "SELECT 분야, 대제목, 한줄소개, 사전모집여부, 참여대상, 소요시간_원본, id FROM events", null);
+            try {
+                while (cursor.moveToNext()) {
+                    String 분야 = nonNull(cursor.getString(0));
+                    String 대제목 = nonNull(cursor.getString(1));
+                    String 한줄소개 = nonNull(cursor.getString(2));
+                    String 사전모집여부 = nonNull(cursor.getString(3));
+                    String 참여대상 = nonNull(cursor.getString(4));
+                    String 소요시간 = nonNull(cursor.getString(5));
+                    long id = cursor.getLong(6);
+
+                    List<String> tokens = new ArrayList<>();
+                    addWeighted(tokens, 대제목, WEIGHT_TITLE);
+                    addWeighted(tokens, 분야, WEIGHT_FIELD);
+                    addWeighted(tokens, 한줄소개, WEIGHT_INTRO);
+                    addWeighted(tokens, 참여대상, WEIGHT_TARGET);
+                    documents.add(tokens);
+
+                    // 프롬프트 행 형식: id / stage / tags / title / introduction / time_max / method
+                    newRows.add(id + "\t" + 참여대상 + "\t" + 분야 + "\t" + 대제목 + "\t" + 한줄소개 + "\t"
+                            + 소요시간 + "\t" + 사전모집여부);
+
+                    newBooths.add(new Booth(분야, 대제목, 한줄소개, 사전모집여부, 참여대상, 소요시간));
+                    newTitles.add(normalizeTitle(대제목));
+
+                    if (!분야.isEmpty()) {
+                        fields.add(분야);
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+
+            rows = newRows;
+            booths = newBooths;
+            normalizedTitles = newTitles;
+            fieldSummary = join(fields);
+            index = new BM25Index(documents);
+            Log.d(TAG, "부스 색인 완료: " + newRows.size() + "개");
+        } catch (Exception e) {
+            Log.e(TAG, "부스 색인 실패: " + e.getMessage(), e);
+        } finally {
+            if (db != null && db.isOpen()) {
+                db.close();
+            }
+        }
+    }
+
+    public boolean isReady() {
+        BM25Index current = index;
+        return current != null && current.size() > 0;
+    }
+
+    /**
+     * 최신 질문과 최근 대화로 관련 프로그램 행 검색
+     *
+     * @param latestQuery 가장 최근 사용자 메시지 (가중치 1.0)
+     * @param history     이전 대화 (가중치 0.5)
+     * @return 프롬프트에 넣을 행 목록 (탭 구분)
+     */
+    public List<String> retrieve(String latestQuery, List<String> history, int topK) {
+        BM25Index current = index;
+        List<String> currentRows = rows;
+        List<String> result = new ArrayList<>();
+        if (current == null) {
+            return result;
+        }
+
+        Map<String, Float> weights = new HashMap<>();
+        if (history != null) {
+            for (String text : history) {
+                addQueryTerms(weights, text, 0.5f);
+            }
+        }
+        addQueryTerms(weights, latestQuery, 1.0f);
+
+        for (BM25Index.Hit hit : current.search(weights, topK)) {
+            result.add(currentRows.get(hit.docId));
+        }
+        return result;
+    }
+
+    /**
+     * 전체 분야 목록 (검색 결과가 없을 때 관심 분야를 물어보기 위한 힌트)
+     */
+    public String getFieldSummary() {
+        return fieldSummary;
+    }
+
+    /**
+     * 질문에 프로그램 제목이 그대로 언급되어 있으면 해당 부스 반환 (가장 긴 제목 우선)
+     *
+     * @return 언급된 부스, 없으면 null
+     */
+    public Booth findMentionedBooth(String question) {
+        List<Booth> currentBooths = booths;
+        List<String> titles = normalizedTitles;
+        String normalized = normalizeTitle(question);
+
+        Booth best = null;
+        int bestLength = 0;
+        for (int i = 0; i < titles.size(); i++) {
+            String title = titles.get(i);
+            if (title.length() >= MIN_TITLE_MATCH_LENGTH && title.length() > bestLength
+                    && normalized.contains(title)) {
+                best = currentBooths.get(i);
+                bestLength = title.length();
+            }
+        }
+        return best;
+    }
+
+    private static String normalizeTitle(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void addQueryTerms(Map<String, Float> weights, String text, float weight) {
+        for (String token : KoreanBigramTokenizer.tokenize(text)) {
+            Float prev = weights.get(token);
+            weights.put(token, prev == null ? weight : Math.max(prev, weight));
+        }
+    }
+
+    private static void addWeighted(List<String> tokens, String text, int weight) {
+        List<String> fieldTokens = KoreanBigramTokenizer.tokenize(text);
+        for (int i = 0; i < weight; i++) {
+            tokens.addAll(fieldTokens);
+        }
+    }
+
+    private static String nonNull(String value) {
+        return value != null ? value.trim() : "";
+    }
+
+    private static String join(Set<String> values) {
+        StringBuilder sb = new StringBuilder();
+        for (String v : values) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(v);
+        }
+        return sb.toString();
+    }
+}
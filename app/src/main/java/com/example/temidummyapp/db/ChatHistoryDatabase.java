@@ -0,0 +1,52 @@
+package com.example.temidummyapp.db;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+/**
+ * 채팅 기록 DB (메시지 한 줄 = 행 하나, 추가만 함)
+ * id 순서 = 대화 순서 (페이지 조회 기준)
+ */
+public class ChatHistoryDatabase extends SQLiteOpenHelper {
+
+    private static final String DB_NAME = "chat_history_db";
+    private static final int DB_VERSION = 1;
+
+    public static final String TABLE_MESSAGES = "messages";
+
+    private static ChatHistoryDatabase instance;
+
+    public static synchronized ChatHistoryDatabase getInstance(Context context) {
+        if (instance == null) {
+            instance = new ChatHistoryDatabase(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private ChatHistoryDatabase(Context context) {
+        super(context, DB_NAME, null, DB_VERSION);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        // 쓰기 중에도 페이지 조회가 막히지 않도록 WAL 저널 사용
+        db.enableWriteAheadLogging();
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_MESSAGES + " (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "type INTEGER NOT NULL, " +
+                "message TEXT, " +
+                "timestamp INTEGER NOT NULL" +
+                ")");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // 버전 1이 첫 스키마
+    }
+}
@@ -1,18 +1,48 @@
 package com.example.temidummyapp.db;
 
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import com.example.temidummyapp.BuildConfig;
+import com.example.temidummyapp.utils.CSVLoader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 public class EventDatabase extends SQLiteOpenHelper {
+    private static final String TAG = "EventDatabase";
 
     private static final String DB_NAME = "event_db";
-    private static final int DB_VERSION = 3;
+    private static final int DB_VERSION = 4;
+
+    // 빌드 시 CSV로 만든 카탈로그 DB (app/build.gradle.kts generateCatalogDatabase)
+    private static final String CATALOG_ASSET = "catalog/events.db";
+    private static final String TABLE_CATALOG_META = "catalog_meta";
+    private static final String KEY_CATALOG_HASH = "catalog_hash";
+
+    // events 데이터 열 (id 제외) - 카탈로그 DB와 CSV 가져오기가 같은 순서로 바인딩
+    public static final String EVENT_COLUMNS = "분야, 대제목, 한줄소개, 사전모집여부, 참여대상, " +
+            "소요시간, 소요시간_원본, 체험기간, 체험시간, url, 이미지파일";
+    public static final int EVENT_COLUMN_COUNT = 11;
 
     public EventDatabase(Context context) {
         super(context, DB_NAME, null, DB_VERSION);
     }
 
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        // 카탈로그를 다시 가져오는 동안에도 다른 연결은 커밋 전 데이터를 그대로 조회
+        db.enableWriteAheadLogging();
+    }
+
     @Override
     public void onCreate(SQLiteDatabase db) {
         // 테이블 생성 (Excel 컬럼에 맞게)
@@ -31,6 +61,7 @@ public class EventDatabase extends SQLiteOpenHelper {
                 "이미지파일 TEXT" +
                 ")";
         db.execSQL(createTable);
+        createCatalogMeta(db);
     }
 
     @Override
@@ -43,5 +74,151 @@ public class EventDatabase extends SQLiteOpenHelper {
             // 이미지파일 컬럼 추가
             db.execSQL("ALTER TABLE events ADD COLUMN 이미지파일 TEXT");
         }
+        if (oldVersion < 4) {
+            // 가져온 카탈로그 해시 (같으면 다시 가져오지 않음)
+            createCatalogMeta(db);
+        }
+    }
+
+    private static void createCatalogMeta(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_CATALOG_META + " (" +
+                "key TEXT PRIMARY KEY, " +
+                "value TEXT" +
+                ")");
+    }
+
+    /**
+     * events 한 행 추가용 문장 (가져오기 한 번에 한 번만 컴파일해서 재사용)
+     * 1번 바인딩은 id (CSV 행 순서, 1부터) - 다시 가져와도 같은 프로그램은 같은 id
+     * (챗봇 답변의 부스 참조 [[booths:id,...]]가 저장된 대화에서도 같은 부스를 가리키도록)
+     * 데이터 열은 2번부터 EVENT_COLUMNS 순서
+     */
+    public static SQLiteStatement compileInsert(SQLiteDatabase db) {
+        StringBuilder sql = new StringBuilder("INSERT INTO events (id, ").append(EVENT_COLUMNS).append(") VALUES (?");
+        for (int i = 0; i < EVENT_COLUMN_COUNT; i++) {
+            sql.append(", ?");
+        }
+        return db.compileStatement(sql.append(')').toString());
+    }
+
+    /**
+     * 카탈로그 최신화 (백그라운드 스레드에서 호출, 앱 안에서는 한 번에 하나만 실행)
+     * - 저장된 해시가 BuildConfig.CATALOG_DB_HASH와 같으면 아무것도 하지 않음
+     * - 다르면 에셋 DB(assets/catalog/events.db)를 임시 파일로 복사해서 한 트랜잭션으로 교체
+     * - 에셋을 읽지 못하면 CSV를 한 트랜잭션으로 가져옴
+     *
+     * @return events 내용이 바뀌었으면 true
+     */
+    public static synchronized boolean ensureCatalog(Context context) {
+        String hash = BuildConfig.CATALOG_DB_HASH;
+        EventDatabase helper = new EventDatabase(context.getApplicationContext());
+        try {
+            SQLiteDatabase db = helper.getWritableDatabase();
+            if (hash.equals(readCatalogHash(db))) {
+                return false;
+            }
+
+            long start = System.currentTimeMillis();
+            int rows = importCatalogAsset(context, db, hash);
+            if (rows < 0) {
+                Log.w(TAG, "카탈로그 에셋을 읽지 못해 CSV로 가져옴");
+                rows = CSVLoader.importCSV(context, db, hash);
+            }
+            Log.d(TAG, "카탈로그 가져오기: " + rows + "행, " + (System.currentTimeMillis() - start) + "ms");
+            return rows >= 0;
+        } catch (Exception e) {
+            Log.e(TAG, "카탈로그 확인 실패", e);
+            return false;
+        } finally {
+            helper.close();
+        }
+    }
+
+    /**
+     * 가져오기 트랜잭션 안에서 호출 - 해시를 데이터와 같이 커밋
+     */
+    public static void writeCatalogHash(SQLiteDatabase db, String hash) {
+        db.execSQL("INSERT OR REPLACE INTO " + TABLE_CATALOG_META + " (key, value) VALUES (?, ?)",
+                new Object[]{KEY_CATALOG_HASH, hash});
+    }
+
+    private static String readCatalogHash(SQLiteDatabase db) {
+        Cursor cursor = db.rawQuery("SELECT value FROM " + TABLE_CATALOG_META + " WHERE key = ?",
+                new String[]{KEY_CATALOG_HASH});
+        try {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * 에셋 DB의 events 행을 그대로 옮김 (파싱/시간 변환은 빌드 시 완료)
+     *
+     * @return 가져온 행 수, 에셋이 없거나 열 수 없으면 -1
+     */
+    private static int importCatalogAsset(Context context, SQLiteDatabase db, String hash) {
+        File temp = new File(context.getCacheDir(), "catalog_import.db");
+        SQLiteDatabase catalog = null;
+        try {
+            copyAsset(context, CATALOG_ASSET, temp);
+            catalog = SQLiteDatabase.openDatabase(temp.getPath(), null, SQLiteDatabase.OPEN_READONLY);
+
+            Cursor cursor = catalog.rawQuery("SELECT id, " + EVENT_COLUMNS + " FROM events ORDER BY id", null);
+            SQLiteStatement insert = compileInsert(db);
+            int rows = 0;
+            db.beginTransaction();
+            try {
+                db.delete("events", null, null);
+                while (cursor.moveToNext()) {
+                    insert.clearBindings();
+                    insert.bindLong(1, cursor.getLong(0));
+                    for (int i = 1; i <= EVENT_COLUMN_COUNT; i++) {
+                        if (cursor.isNull(i)) {
+                            insert.bindNull(i + 1);
+                        } else {
+                            insert.bindString(i + 1, cursor.getString(i));
+                        }
+                    }
+                    insert.executeInsert();
+                    rows++;
+                }
+                writeCatalogHash(db, hash);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+                insert.close();
+                cursor.close();
+            }
+            return rows;
+        } catch (Exception e) {
+            Log.e(TAG, "카탈로그 에셋 가져오기 실패", e);
+            return -1;
+        } finally {
+            if (catalog != null) {
+                catalog.close();
+            }
+            if (!temp.delete()) {
+                temp.deleteOnExit();
+            }
+        }
+    }
+
+    private static void copyAsset(Context context, String asset, File target) throws IOException {
+        InputStream in = context.getAssets().open(asset);
+        try {
+            OutputStream out = new FileOutputStream(target);
+            try {
+                byte[] buffer = new byte[8192];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, n);
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
     }
-}
\ No newline at end of file
+}
@@ -2,99 +2,64 @@ package com.example.temidummyapp.db;
 
 import android.content.Context;
 import android.database.Cursor;
+import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.util.Log;
 
+import com.example.temidummyapp.core.EventQuery;
+
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
+/**
+ * events 조회
+ * - 앱 전체가 연결 하나(EventDatabase)를 열어 둔 채 공유 (WAL - 카탈로그를 가져오는 중에도 읽기 가능)
+ *   조회마다 닫으면 다른 스레드(요청 실행기, 카드 조회 스레드)에서 진행 중인 조회가 깨짐
+ */
 public class EventSearchHelper {
 
-    private EventDatabase dbHelper;
+    private static EventDatabase sharedDatabase;
+
+    private final EventDatabase dbHelper;
 
     public EventSearchHelper(Context context) {
-        dbHelper = new EventDatabase(context);
+        dbHelper = database(context);
     }
 
-    // 안전하게 null 체크된 버전 (다중 선택 지원)
-    public ArrayList<HashMap<String, String>> search(List<String> 분야목록, String 사전모집, List<String> 대상목록, List<Integer> 최대시간목록) {
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
-        ArrayList<HashMap<String, String>> results = new ArrayList<>();
-
-        String sql = "SELECT * FROM events WHERE 1=1 ";
-        
-        // 분야: OR 조건 (여러 분야 선택 가능)
-        if (분야목록 != null && !분야목록.isEmpty()) {
-            sql += "AND (";
-            for (int i = 0; i < 분야목록.size(); i++) {
-                if (i > 0) sql += " OR ";
-                String 분야 = 분야목록.get(i);
-                if (분야 != null) {
-                    // SQL 인젝션 방지: 작은따옴표 이스케이프
-                    분야 = 분야.replace("'", "''");
-                    sql += "분야='" + 분야 + "'";
-                }
-            }
-            sql += ") ";
+    private static synchronized EventDatabase database(Context context) {
+        if (sharedDatabase == null) {
+            sharedDatabase = new EventDatabase(context.getApplicationContext());
         }
-        
-        if (사전모집 != null && 사전모집.length() > 0) sql += "AND 사전모집여부='" + 사전모집 + "' ";
-        
-        // 참여대상: OR 조건 (여러 대상 선택 가능)
-        if (대상목록 != null && !대상목록.isEmpty()) {
-            sql += "AND (";
-            for (int i = 0; i < 대상목록.size(); i++) {
-                if (i > 0) sql += " OR ";
-                String 대상 = 대상목록.get(i);
-                
-                // 각 버튼에 해당하는 조건 처리
-                if (대상 != null) {
-                    if (대상.equals("초등학생 이상")) {
-                        // 초등학생 이상 선택 시: 초등학생 이상, 초등학생(고학년)이상, 중학생 이상, 고등학생 이상, 누구나
-                        sql += "(참여대상='초등학생 이상' OR 참여대상='초등학생(고학년)이상' OR 참여대상='중학생 이상' OR 참여대상='고등학생 이상' OR 참여대상='누구나')";
-                    } else if (대상.equals("초등학생(고학년)이상")) {
-                        // 초등학생(고학년)이상 선택 시: 초등학생(고학년)이상, 중학생 이상, 고등학생 이상, 누구나
-                        sql += "(참여대상='초등학생(고학년)이상' OR 참여대상='중학생 이상' OR 참여대상='고등학생 이상' OR 참여대상='누구나')";
-                    } else if (대상.equals("중학생 이상")) {
-                        // 중학생 이상 선택 시: 중학생 이상, 고등학생 이상, 누구나
-                        sql += "(참여대상='중학생 이상' OR 참여대상='고등학생 이상' OR 참여대상='누구나')";
-                    } else if (대상.equals("고등학생 이상")) {
-                        // 고등학생 이상 선택 시: 고등학생 이상, 누구나
-                        sql += "(참여대상='고등학생 이상' OR 참여대상='누구나')";
-                    } else if (대상.equals("누구나")) {
-                        // 누구나 선택 시: 누구나만
-                        sql += "참여대상='누구나'";
-                    } else {
-                        // 기타 경우 (호환성 유지, SQL 인젝션 방지)
-                        String safe대상 = 대상.replace("'", "''");
-                        sql += "참여대상='" + safe대상 + "'";
-                    }
-                }
-            }
-            sql += ") ";
-        }
-        
-        // 소요시간: OR 조건 (여러 시간 선택 가능)
-        if (최대시간목록 != null && !최대시간목록.isEmpty()) {
-            sql += "AND (";
-            for (int i = 0; i < 최대시간목록.size(); i++) {
-                if (i > 0) sql += " OR ";
-                sql += "소요시간<=" + 최대시간목록.get(i);
-            }
-            sql += ") ";
+        return sharedDatabase;
+    }
+
+    // 안전하게 null 체크된 버전 (다중 선택 지원) - 조회 실패 시 빈 목록
+    public ArrayList<HashMap<String, String>> search(List<String> 분야목록, String 사전모집, List<String> 대상목록, List<Integer> 최대시간목록) {
+        try {
+            return query(EventQuery.filter(분야목록, 사전모집, 대상목록, 최대시간목록));
+        } catch (SQLException | IllegalStateException e) {
+            Log.e("EventSearchHelper", "DB search error: " + e.getMessage(), e);
+            return new ArrayList<>();
         }
+    }
+
+    /**
+     * @throws SQLException 조회 실패 (결과 없음과 구분해야 하는 호출자용)
+     */
+    private ArrayList<HashMap<String, String>> query(EventQuery query) {
+        Log.d("EventSearchHelper", "SQL: " + query);
+        ArrayList<HashMap<String, String>> results = new ArrayList<>();
 
-        Log.d("EventSearchHelper", "SQL: " + sql);
-        
         Cursor cursor = null;
         try {
-            cursor = db.rawQuery(sql, null);
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+            cursor = db.rawQuery(query.sql, query.args);
             if (cursor == null) {
-                Log.e("EventSearchHelper", "Cursor is null");
-                return results;
+                throw new SQLException("Cursor is null");
             }
             
+            int idxId = cursor.getColumnIndex("id");
             int idx분야 = cursor.getColumnIndex("분야");
             int idx대제목 = cursor.getColumnIndex("대제목");
             int idx한줄소개 = cursor.getColumnIndex("한줄소개");
@@ -110,6 +75,7 @@ public class EventSearchHelper {
             while (cursor.moveToNext()) {
                 HashMap<String, String> item = new HashMap<>();
 
+                item.put("id", safeGet(cursor, idxId));
                 item.put("분야", safeGet(cursor, idx분야));
                 item.put("대제목", safeGet(cursor, idx대제목));
                 item.put("한줄소개", safeGet(cursor, idx한줄소개));
@@ -124,10 +90,8 @@ public class EventSearchHelper {
 
                 results.add(item);
             }
-        } catch (Exception e) {
-            Log.e("EventSearchHelper", "DB search error: " + e.getMessage(), e);
-            e.printStackTrace();
         } finally {
+            // 연결은 닫지 않음 (공유)
             if (cursor != null) {
                 try {
                     cursor.close();
@@ -135,18 +99,62 @@ public class EventSearchHelper {
                     Log.e("EventSearchHelper", "Error closing cursor", e);
                 }
             }
-            if (db != null && db.isOpen()) {
-                try {
-                    db.close();
-                } catch (Exception e) {
-                    Log.e("EventSearchHelper", "Error closing db", e);
-                }
-            }
         }
 
         return results;
     }
 
+    /**
+     * 챗봇 도구(search_booths)용 검색
+     * - 분야/대상은 정확히 일치하는 값 목록 (OR), 키워드는 제목·소개·분야 부분 일치
+     * - 짧은 체험부터 정렬, 최대 limit개
+     *
+     * @param 참여대상목록 허용할 참여대상 값 그대로 (계단식 확장 없음)
+     * @param 최대시간     0 이하면 제한 없음
+     * @throws SQLException 조회 실패 (검색 결과 없음과 구분)
+     */
+    public ArrayList<HashMap<String, String>> searchForChat(List<String> 분야목록, List<String> 참여대상목록,
+                                                           int 최대시간, String keyword, int limit) {
+        return query(EventQuery.forChat(분야목록, 참여대상목록, 최대시간, keyword, limit));
+    }
+
+    /**
+     * id로 조회 (챗봇 답변의 부스 카드용) - 없는 id는 빠짐, 순서는 DB 순서
+     *
+     * @throws SQLException 조회 실패 (없는 id와 구분)
+     */
+    public ArrayList<HashMap<String, String>> findByIds(long[] ids) {
+        if (ids == null || ids.length == 0) {
+            return new ArrayList<>();
+        }
+        return query(EventQuery.byIds(ids));
+    }
+
+    /**
+     * 등록된 분야 목록 (챗봇 도구 인자 검증/안내용)
+     */
+    public ArrayList<String> getFields() {
+        ArrayList<String> fields = new ArrayList<>();
+        Cursor cursor = null;
+        try {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+            cursor = db.rawQuery("SELECT DISTINCT 분야 FROM events ORDER BY 분야", null);
+            while (cursor.moveToNext()) {
+                String field = cursor.getString(0);
+                if (field != null && !field.isEmpty()) {
+                    fields.add(field);
+                }
+            }
+        } catch (Exception e) {
+            Log.e("EventSearchHelper", "분야 조회 실패: " + e.getMessage(), e);
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+        return fields;
+    }
+
     // 안전하게 인덱스 검사 후 값 반환
     private String safeGet(Cursor cursor, int columnIndex) {
         if (columnIndex >= 0) {
@@ -0,0 +1,125 @@
+package com.example.temidummyapp.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BM25 역색인 (메모리 내)
+ * 문서 수가 수십~수백 개 수준인 부스 카탈로그 검색용
+ */
+public class BM25Index {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final int[] docLengths;
+    private final float avgDocLength;
+
+    /**
+     * @param documents 문서별 토큰 목록 (리스트 인덱스가 문서 번호)
+     */
+    public BM25Index(List<List<String>> documents) {
+        docLengths = new int[documents.size()];
+        long totalLength = 0;
+
+        for (int docId = 0; docId < documents.size(); docId++) {
+            List<String> tokens = documents.get(docId);
+            docLengths[docId] = tokens.size();
+            totalLength += tokens.size();
+
+            Map<String, Integer> termFreqs = new HashMap<>();
+            for (String token : tokens) {
+                Integer tf = termFreqs.get(token);
+                termFreqs.put(token, tf == null ? 1 : tf + 1);
+            }
+            for (Map.Entry<String, Integer> e : termFreqs.entrySet()) {
+                Postings p = postings.get(e.getKey());
+                if (p == null) {
+                    p = new Postings();
+                    postings.put(e.getKey(), p);
+                }
+                p.add(docId, e.getValue());
+            }
+        }
+
+        avgDocLength = docLengths.length > 0 ? (float) totalLength / docLengths.length : 0f;
+    }
+
+    public int size() {
+        return docLengths.length;
+    }
+
+    /**
+     * 가중치가 있는 질의어로 상위 topK 문서 검색
+     *
+     * @param queryWeights 질의 토큰 -> 가중치 (최신 질문 1.0, 이전 대화 0.5 등)
+     */
+    public List<Hit> search(Map<String, Float> queryWeights, int topK) {
+        if (queryWeights.isEmpty() || docLengths.length == 0 || topK <= 0) {
+            return Collections.emptyList();
+        }
+
+        float[] scores = new float[docLengths.length];
+        int n = docLengths.length;
+
+        for (Map.Entry<String, Float> q : queryWeights.entrySet()) {
+            Postings p = postings.get(q.getKey());
+            if (p == null) {
+                continue;
+            }
+            double idf = Math.log(1.0 + (n - p.size + 0.5) / (p.size + 0.5));
+            for (int i = 0; i < p.size; i++) {
+                int docId = p.docIds[i];
+                int tf = p.freqs[i];
+                float norm = K1 * (1 - B + B * docLengths[docId] / avgDocLength);
+                scores[docId] += (float) (q.getValue() * idf * (tf * (K1 + 1)) / (tf + norm));
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (int docId = 0; docId < scores.length; docId++) {
+            if (scores[docId] > 0f) {
+                hits.add(new Hit(docId, scores[docId]));
+            }
+        }
+        Collections.sort(hits, (a, b) -> Float.compare(b.score, a.score));
+        return hits.size() > topK ? new ArrayList<>(hits.subList(0, topK)) : hits;
+    }
+
+    public static class Hit {
+        public final int docId;
+        public final float score;
+
+        Hit(int docId, float score) {
+            this.docId = docId;
+            this.score = score;
+        }
+    }
+
+    /**
+     * 토큰 하나의 포스팅 리스트 (문서 번호 / 출현 빈도)
+     */
+    private static class Postings {
+        int[] docIds = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int docId, int freq) {
+            if (size == docIds.length) {
+                int[] newIds = new int[size * 2];
+                int[] newFreqs = new int[size * 2];
+                System.arraycopy(docIds, 0, newIds, 0, size);
+                System.arraycopy(freqs, 0, newFreqs, 0, size);
+                docIds = newIds;
+                freqs = newFreqs;
+            }
+            docIds[size] = docId;
+            freqs[size] = freq;
+            size++;
+        }
+    }
+}
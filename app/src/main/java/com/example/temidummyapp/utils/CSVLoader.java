@@ -2,30 +2,41 @@ package com.example.temidummyapp.utils;
 
 import android.content.Context;
 import android.database.sqlite.SQLiteDatabase;
-import android.content.ContentValues;
+import android.database.sqlite.SQLiteStatement;
 import android.util.Log;
 
+import com.example.temidummyapp.core.CsvParser;
 import com.example.temidummyapp.db.EventDatabase;
 
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class CSVLoader {
 
-    public static void loadCSVToDB(Context context) {
-        EventDatabase dbHelper = new EventDatabase(context);
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
+    private static final String CSV_ASSET = "booth_program_image.csv";
+
+    /**
+     * CSV를 events 테이블로 가져오기 (카탈로그 에셋 DB를 쓸 수 없을 때의 대체 경로)
+     * - 미리 컴파일한 INSERT 문 하나를 재사용, 삭제부터 해시 기록까지 한 트랜잭션
+     *   (WAL이므로 다른 연결은 커밋 전까지 이전 데이터를 조회)
+     *
+     * @param hash 커밋과 함께 저장할 카탈로그 해시
+     * @return 가져온 행 수, 실패하면 -1
+     */
+    public static int importCSV(Context context, SQLiteDatabase db, String hash) {
         InputStream is = null;
         BufferedReader reader = null;
+        SQLiteStatement insert = null;
+        CsvParser parser = new CsvParser();
+        int rows = 0;
 
         try {
             // assets 폴더의 CSV 파일 읽기
-            is = context.getAssets().open("booth_program_image.csv");
+            is = context.getAssets().open(CSV_ASSET);
             reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+            insert = EventDatabase.compileInsert(db);
 
             db.beginTransaction();
             // 중복 삽입 방지를 위해 기존 데이터 삭제
@@ -41,51 +52,48 @@ public class CSVLoader {
                 }
 
                 // CSV 파싱: 큰따옴표로 감싸진 쉼표를 올바르게 처리
-                String[] tokens = parseCSVLine(line);
+                String[] tokens = parser.parseLine(line);
+
+                // 제목 없는 행은 건너뜀 (카탈로그 DB 생성과 같은 규칙 -> 같은 id)
+                if (safe(tokens, 1).trim().isEmpty()) {
+                    continue;
+                }
 
-                String 분야 = safe(tokens, 0);
-                String 대제목 = safe(tokens, 1);
-                String 한줄소개 = safe(tokens, 2);
-                String 사전모집여부 = safe(tokens, 3);
-                String 참여대상 = safe(tokens, 4);
                 String 소요시간 = safe(tokens, 5);
-                String 체험기간 = safe(tokens, 6);
-                String 체험시간 = safe(tokens, 7);
-                String 이미지파일 = safe(tokens, 8);
-                String url = safe(tokens, 9);
-
-                ContentValues values = new ContentValues();
-                values.put("분야", 분야);
-                values.put("대제목", 대제목);
-                values.put("한줄소개", 한줄소개);
-                values.put("사전모집여부", 사전모집여부);
-                values.put("참여대상", 참여대상);
-
-                Integer duration = parseMinutes(소요시간);
+                Integer duration = CsvParser.parseMinutes(소요시간);
+
+                // id(행 순서) + EventDatabase.EVENT_COLUMNS 순서
+                insert.clearBindings();
+                insert.bindLong(1, rows + 1);
+                insert.bindString(2, safe(tokens, 0));   // 분야
+                insert.bindString(3, safe(tokens, 1));   // 대제목
+                insert.bindString(4, safe(tokens, 2));   // 한줄소개
+                insert.bindString(5, safe(tokens, 3));   // 사전모집여부
+                insert.bindString(6, safe(tokens, 4));   // 참여대상
                 if (duration != null) {
-                    values.put("소요시간", duration);
+                    insert.bindLong(7, duration);
                 } else {
-                    values.putNull("소요시간");
+                    insert.bindNull(7);
                 }
-                
-                // 원본 소요시간 문자열 저장
-                values.put("소요시간_원본", 소요시간);
-
-                values.put("체험기간", 체험기간);
-                values.put("체험시간", 체험시간);
-                values.put("이미지파일", 이미지파일);
-                values.put("url", url);
-
-                db.insert("events", null, values);
+                insert.bindString(8, 소요시간);           // 원본 소요시간 문자열
+                insert.bindString(9, safe(tokens, 6));   // 체험기간
+                insert.bindString(10, safe(tokens, 7));  // 체험시간
+                insert.bindString(11, safe(tokens, 9));  // url
+                insert.bindString(12, safe(tokens, 8));  // 이미지파일
+                insert.executeInsert();
+                rows++;
             }
 
+            EventDatabase.writeCatalogHash(db, hash);
             db.setTransactionSuccessful();
 
             Log.d("CSVLoader", "✅ CSV data successfully inserted into DB");
+            return rows;
 
         } catch (Exception e) {
             Log.e("CSVLoader", "❌ CSV import failed: " + e.getMessage());
             e.printStackTrace();
+            return -1;
         } finally {
             if (reader != null) {
                 try {
@@ -99,53 +107,15 @@ public class CSVLoader {
                 } catch (Exception ignore) {
                 }
             }
-            if (db != null && db.inTransaction()) {
+            if (db.inTransaction()) {
                 db.endTransaction();
             }
-            if (db != null && db.isOpen()) {
-                db.close();
+            if (insert != null) {
+                insert.close();
             }
         }
     }
 
-    /**
-     * CSV 라인을 파싱하여 큰따옴표로 감싸진 쉼표를 올바르게 처리
-     * 예: "나의 왕자님, 공주님을 찾아라!" -> 하나의 필드로 인식
-     */
-    private static String[] parseCSVLine(String line) {
-        java.util.List<String> tokens = new java.util.ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder currentToken = new StringBuilder();
-
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-
-            if (c == '"') {
-                // 큰따옴표 시작/끝
-                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
-                    // 이스케이프된 큰따옴표 ("")
-                    currentToken.append('"');
-                    i++; // 다음 문자 건너뛰기
-                } else {
-                    // 큰따옴표 토글
-                    inQuotes = !inQuotes;
-                }
-            } else if (c == ',' && !inQuotes) {
-                // 큰따옴표 밖의 쉼표는 필드 구분자
-                tokens.add(currentToken.toString());
-                currentToken = new StringBuilder();
-            } else {
-                // 일반 문자
-                currentToken.append(c);
-            }
-        }
-
-        // 마지막 토큰 추가
-        tokens.add(currentToken.toString());
-
-        return tokens.toArray(new String[0]);
-    }
-
     private static String safe(String[] arr, int index) {
         if (arr.length > index && arr[index] != null) {
             String value = arr[index].trim();
@@ -153,37 +123,9 @@ public class CSVLoader {
             if (value.startsWith("\"") && value.endsWith("\"")) {
                 value = value.substring(1, value.length() - 1);
             }
-            // SQL 인젝션 방지
-            return value.replace("'", "''");
+            // 값은 바인딩하므로 작은따옴표 이스케이프 불필요
+            return value;
         }
         return "";
     }
-
-    private static Integer parseMinutes(String raw) {
-        if (raw == null) return null;
-        String trimmed = raw.trim();
-        if (trimmed.isEmpty()) return null;
-
-        // 범위 형식 처리 (예: "5~10분", "10~20분" → 뒷자리 숫자 추출)
-        Pattern rangePattern = Pattern.compile("(\\d+)\\s*~\\s*(\\d+)");
-        Matcher rangeMatcher = rangePattern.matcher(trimmed);
-        if (rangeMatcher.find()) {
-            try {
-                // 뒷자리 숫자(최대값) 추출
-                return Integer.parseInt(rangeMatcher.group(2));
-            } catch (NumberFormatException ignored) {
-            }
-        }
-
-        // 일반 숫자 추출 (예: "5분", "10분")
-        Pattern pattern = Pattern.compile("(\\d+)");
-        Matcher matcher = pattern.matcher(trimmed);
-        if (matcher.find()) {
-            try {
-                return Integer.parseInt(matcher.group(1));
-            } catch (NumberFormatException ignored) {
-            }
-        }
-        return null;
-    }
 }
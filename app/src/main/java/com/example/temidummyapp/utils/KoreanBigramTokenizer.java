@@ -0,0 +1,75 @@
+package com.example.temidummyapp.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 한국어 문자 바이그램 토크나이저
+ * - 한글 연속 구간: 2글자씩 겹쳐서 자름 (예: "반도체" -> "반도", "도체")
+ * - 영문/숫자 연속 구간: 단어 단위 (소문자 변환)
+ * - 조사/어미가 붙어도 앞쪽 바이그램이 그대로 남기 때문에 형태소 분석 없이 검색 가능
+ */
+public final class KoreanBigramTokenizer {
+
+    private static final int NONE = 0;
+    private static final int HANGUL = 1;
+    private static final int ALNUM = 2;
+
+    private KoreanBigramTokenizer() {}
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        StringBuilder run = new StringBuilder();
+        int runType = NONE;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int type = charType(c);
+
+            if (type != runType) {
+                flush(run, runType, tokens);
+                run.setLength(0);
+                runType = type;
+            }
+            if (type != NONE) {
+                run.append(c);
+            }
+        }
+        flush(run, runType, tokens);
+
+        return tokens;
+    }
+
+    private static void flush(StringBuilder run, int runType, List<String> tokens) {
+        int length = run.length();
+        if (length == 0) {
+            return;
+        }
+
+        if (runType == HANGUL) {
+            if (length == 1) {
+                tokens.add(run.toString());
+                return;
+            }
+            for (int i = 0; i < length - 1; i++) {
+                tokens.add(run.substring(i, i + 2));
+            }
+        } else if (runType == ALNUM) {
+            tokens.add(run.toString());
+        }
+    }
+
+    private static int charType(char c) {
+        if ((c >= 0xAC00 && c <= 0xD7A3) || (c >= 0x3131 && c <= 0x318E)) {
+            return HANGUL;
+        }
+        if (Character.isLetterOrDigit(c)) {
+            return ALNUM;
+        }
+        return NONE;
+    }
+}
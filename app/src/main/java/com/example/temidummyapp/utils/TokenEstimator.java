@@ -0,0 +1,48 @@
+package com.example.temidummyapp.utils;
+
+/**
+ * 토큰 수 추정기 (한국어 고려)
+ * 정확한 토크나이저 대신 문자 종류별 평균값 사용 (gpt-4o 계열 o200k 기준 근사치)
+ * - 한글 음절: 약 0.75 토큰
+ * - 영문/숫자/공백/기호 (ASCII): 약 4글자당 1 토큰
+ * - 그 외 (이모지, 한자 등): 1글자당 1 토큰
+ */
+public final class TokenEstimator {
+
+    private static final float HANGUL_TOKENS_PER_CHAR = 0.75f;
+    private static final float ASCII_TOKENS_PER_CHAR = 0.25f;
+    private static final float OTHER_TOKENS_PER_CHAR = 1.0f;
+
+    /** 메시지 하나당 role/구분자 오버헤드 */
+    public static final int MESSAGE_OVERHEAD_TOKENS = 4;
+
+    private TokenEstimator() {}
+
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        float tokens = 0f;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                tokens += ASCII_TOKENS_PER_CHAR;
+            } else if ((c >= 0xAC00 && c <= 0xD7A3) || (c >= 0x3131 && c <= 0x318E)) {
+                tokens += HANGUL_TOKENS_PER_CHAR;
+            } else if (Character.isLowSurrogate(c)) {
+                // 서로게이트 쌍은 상위 문자에서 이미 계산
+                continue;
+            } else {
+                tokens += OTHER_TOKENS_PER_CHAR;
+            }
+        }
+        return (int) Math.ceil(tokens);
+    }
+
+    /**
+     * 채팅 메시지 하나 (내용 + 오버헤드)
+     */
+    public static int estimateMessage(String content) {
+        return estimate(content) + MESSAGE_OVERHEAD_TOKENS;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.temidummyapp;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BoothReferencesTest {
+
+    private static final String ANSWER = "로봇 체험 부스를 추천해요.\n\n[[booths:12,45,7]]";
+
+    @Test
+    public void displayLengthStopsAtBlock() {
+        assertEquals("안녕하세요".length(), BoothReferences.displayLength("안녕하세요"));
+        assertEquals(ANSWER.indexOf("[[booths:"), BoothReferences.displayLength(ANSWER));
+        // 블록 뒤에 글이 더 있어도 블록 앞까지
+        assertEquals(2, BoothReferences.displayLength("추천[[booths:1]] 끝"));
+    }
+
+    @Test
+    public void displayLengthHidesPartialBlockWhileStreaming() {
+        assertEquals(3, BoothReferences.displayLength("추천 ["));
+        assertEquals(3, BoothReferences.displayLength("추천 [[boo"));
+        assertEquals(3, BoothReferences.displayLength("추천 [[booths:"));
+        assertEquals(3, BoothReferences.displayLength("추천 [[booths:12,4"));
+        // 블록이 될 수 없는 대괄호는 그대로 표시
+        assertEquals("배열[0] 값".length(), BoothReferences.displayLength("배열[0] 값"));
+        assertEquals("추천 [[x".length(), BoothReferences.displayLength("추천 [[x"));
+    }
+
+    @Test
+    public void displayLengthNeverShrinksAsChunksArrive() {
+        int previous = 0;
+        for (int end = 1; end <= ANSWER.length(); end++) {
+            int length = BoothReferences.displayLength(ANSWER.substring(0, end));
+            assertTrue("표시 길이가 줄어듦: " + end, length >= previous);
+            assertTrue(length <= end);
+            previous = length;
+        }
+        assertEquals(ANSWER.indexOf("[[booths:"), previous);
+    }
+
+    @Test
+    public void stripRemovesBlockAndTidiesWhitespace() {
+        assertEquals("로봇 체험 부스를 추천해요.", BoothReferences.strip(ANSWER));
+        assertEquals("앞\n뒤", BoothReferences.strip("앞 [[booths:1]] 뒤"));
+        assertEquals("블록 없음", BoothReferences.strip("블록 없음"));
+        // 닫히지 않은 블록은 끝까지 버림
+        assertEquals("앞", BoothReferences.strip("앞\n[[booths:1,2"));
+    }
+
+    @Test
+    public void parseIdsKeepsOrder() {
+        assertArrayEquals(new long[]{12, 45, 7}, BoothReferences.parseIds(ANSWER));
+        assertTrue(BoothReferences.contains(ANSWER));
+        assertFalse(BoothReferences.contains("블록 없음"));
+    }
+
+    @Test
+    public void parseIdsDropsDuplicatesAndLimitsCards() {
+        assertArrayEquals(new long[]{3, 4}, BoothReferences.parseIds("[[booths:3,3,4,3]]"));
+        assertArrayEquals(new long[]{1, 2, 3, 4, 5},
+                BoothReferences.parseIds("[[booths:1,2,3,4,5,6,7]]"));
+        assertEquals(BoothReferences.MAX_CARDS, BoothReferences.parseIds("[[booths:1,2,3,4,5,6,7]]").length);
+    }
+
+    @Test
+    public void parseIdsIgnoresJunkCharacters() {
+        assertArrayEquals(new long[]{12, 45}, BoothReferences.parseIds("[[booths: #12, id=45 ,x]]"));
+        assertArrayEquals(new long[]{9}, BoothReferences.parseIds("[[booths:0,9]]"));
+        assertArrayEquals(new long[0], BoothReferences.parseIds("[[booths:]]"));
+    }
+
+    @Test
+    public void parseIdsNeedsClosedBlock() {
+        assertArrayEquals(new long[0], BoothReferences.parseIds("추천 [[booths:1,2"));
+        assertArrayEquals(new long[0], BoothReferences.parseIds("블록 없음"));
+        assertArrayEquals(new long[0], BoothReferences.parseIds(null));
+    }
+
+    @Test
+    public void expandForHistoryAppendsTitles() {
+        Map<Long, String> titles = new HashMap<>();
+        titles.put(12L, "로봇 코딩");
+        titles.put(7L, "드론 조종");
+        long[] ids = BoothReferences.parseIds(ANSWER);
+
+        assertEquals("로봇 체험 부스를 추천해요.\n\n[[booths:12,45,7]] (12=로봇 코딩, 45, 7=드론 조종)",
+                BoothReferences.expandForHistory(ANSWER, ids, titles));
+        // 블록 뒤 텍스트는 그대로 이어짐
+        assertEquals("앞 [[booths:12]] (12=로봇 코딩) 뒤",
+                BoothReferences.expandForHistory("앞 [[booths:12]] 뒤", new long[]{12}, titles));
+    }
+
+    @Test
+    public void expandForHistoryLeavesTextWithoutIds() {
+        Map<Long, String> titles = new HashMap<>();
+        assertEquals("블록 없음", BoothReferences.expandForHistory("블록 없음", new long[]{1}, titles));
+        assertEquals(ANSWER, BoothReferences.expandForHistory(ANSWER, new long[0], titles));
+        assertEquals("앞 [[booths:1", BoothReferences.expandForHistory("앞 [[booths:1", new long[]{1}, titles));
+    }
+}
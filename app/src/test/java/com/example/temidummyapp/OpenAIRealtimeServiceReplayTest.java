@@ -0,0 +1,402 @@
+package com.example.temidummyapp;
+
+import com.example.temidummyapp.replay.Allocations;
+import com.example.temidummyapp.replay.RealtimeRecording;
+import com.example.temidummyapp.replay.RealtimeSession;
+import com.example.temidummyapp.replay.ReplayServer;
+import com.example.temidummyapp.replay.ReplayTiming;
+import com.google.gson.JsonObject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Realtime 음성 대화 녹화 재생 테스트 (가짜 마이크 -> WebSocket -> 가짜 스피커)
+ * 시간은 순서(서버 이벤트 -> 스피커, 말 시작 -> 끼어들기)와 넉넉한 상한 (LATENCY_SLACK_MS)만 확인
+ * 할당량은 오디오 경로가 청크/프레임마다 버퍼를 새로 만들지 않는지만 넉넉하게 확인 (HotSpot 이 아니면 건너뜀)
+ */
+public class OpenAIRealtimeServiceReplayTest {
+
+    private static final long LATENCY_SLACK_MS = 2000;
+    private static final long TIMEOUT_MS = 10_000;
+    private static final int SAMPLE_RATE = 24000;
+    private static final int FRAME_MS = 20;
+    private static final int FRAME_BYTES = 960; // 20ms
+    private static final int LOCAL_COMMIT_MS = 500;
+
+    private ReplayServer server;
+    private TestCallbackThread mainThread;
+    private PcmAudioInput mic;
+    private RecordingAudioOutput speaker;
+    private AudioPlayback playback;
+    private OpenAIRealtimeService service;
+    private Events events;
+    private RealtimeRecording voiceTurn;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new ReplayServer();
+        mainThread = new TestCallbackThread();
+        mic = new PcmAudioInput(PcmAudioInput.tone(2000, 440), SAMPLE_RATE);
+        speaker = new RecordingAudioOutput();
+        events = new Events();
+        newService();
+        voiceTurn = RealtimeRecording.load("realtime/voice_turn.jsonl");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        service.disconnect();
+        mainThread.close();
+        server.close();
+    }
+
+    @Test
+    public void replaysVoiceTurnToSpeaker() throws Exception {
+        RealtimeSession session = server.enqueueRealtime(voiceTurn, ReplayTiming.instant().withChunkInterval(20));
+        connectAndStream();
+
+        assertTrue("응답 완료 없음", events.complete.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertTrue(session.awaitFinished(TIMEOUT_MS));
+        mainThread.drain();
+        assertNull(session.failure());
+
+        assertEquals(voiceTurn.inputTranscript(), events.transcript);
+        assertEquals(voiceTurn.responseTranscript(), events.responseText());
+        assertTrue(speaker.awaitWritten(voiceTurn.audio().length, TIMEOUT_MS));
+        assertArrayEquals(voiceTurn.audio(), speaker.written());
+        assertEquals(0, events.errors.size());
+
+        // 첫 이벤트는 세션 설정 (음성 대화 프롬프트)
+        JsonObject first = session.clientEvents().get(0);
+        assertEquals("session.update", first.get("type").getAsString());
+        assertEquals(OpenAIService.AUDIO_SYSTEM_PROMPT,
+                first.getAsJsonObject("session").get("instructions").getAsString());
+
+        // 보낸 음성 = 마이크 데이터 순서 그대로, 프레임 길이 고정
+        for (JsonObject append : session.clientEvents("input_audio_buffer.append")) {
+            assertEquals(FRAME_BYTES, Base64.getDecoder().decode(append.get("audio").getAsString()).length);
+        }
+        byte[] sent = appendedAudio(session);
+        assertTrue(sent.length >= 9 * FRAME_BYTES);
+        assertArrayEquals(Arrays.copyOf(mic.pcm(), sent.length), sent);
+    }
+
+    @Test
+    public void firstAudioWithinBudgetAfterSpeechStopped() throws Exception {
+        ReplayTiming timing = ReplayTiming.instant().withFirstTokenDelay(250).withChunkInterval(30);
+        RealtimeSession session = server.enqueueRealtime(voiceTurn, timing);
+        connectAndStream();
+
+        assertTrue(events.complete.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        long stoppedNanos = session.sentAtNanos("input_audio_buffer.speech_stopped");
+        long firstAudioMs = TimeUnit.NANOSECONDS.toMillis(speaker.firstWriteNanos() - stoppedNanos);
+        long scheduledMs = voiceTurn.scheduledMs("response.audio.delta", timing);
+        // 응답 음성을 다 받을 때까지 모으지 않고 델타가 오는 대로 재생
+        assertTrue("응답 음성이 끝난 뒤에야 재생 시작",
+                speaker.firstWriteNanos() < session.sentAtNanos("response.audio.done"));
+        assertTrue("첫 음성 예산 초과: " + firstAudioMs, firstAudioMs <= scheduledMs + LATENCY_SLACK_MS);
+    }
+
+    @Test
+    public void audioPathAllocations() throws Exception {
+        assumeTrue("스레드 할당 측정 미지원", Allocations.supported());
+        RealtimeSession session = server.enqueueRealtime(voiceTurn, ReplayTiming.instant().withChunkInterval(20));
+        connectAndStream();
+        assertTrue(events.complete.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertTrue(session.awaitFinished(TIMEOUT_MS));
+        assertTrue(speaker.awaitWritten(voiceTurn.audio().length, TIMEOUT_MS));
+
+        long downlink = average(speaker.allocatedPerWrite());
+        long uplink = average(mic.allocatedPerFrame());
+        // 재생 스레드는 링 버퍼에서 고정 버퍼로 꺼내기만 함 (델타 크기만큼 할당하면 실패)
+        assertTrue("재생 경로 할당 초과: " + downlink + " (델타 " + voiceTurn.audioDeltaBytes() + " bytes)",
+                downlink <= 4096);
+        // 송신: 이벤트 문자열 1번 + OkHttp가 UTF-8로 바꾸며 1번 (이벤트 ~ 프레임의 4/3배), JIT/로깅 여유 포함
+        assertTrue("송신 경로 할당 초과: " + uplink, uplink <= 8L * FRAME_BYTES);
+    }
+
+    @Test
+    public void slowSpeakerDoesNotHoldBackEvents() throws Exception {
+        // AudioTrack 처럼 100ms 넘게 쌓이면 write 가 막히는 스피커
+        speaker = new RecordingAudioOutput(100);
+        newService();
+        RealtimeSession session = server.enqueueRealtime(voiceTurn, ReplayTiming.instant());
+        connectAndStream();
+
+        assertTrue(events.complete.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        // 응답 완료까지의 이벤트가 음성 재생(500ms)이 끝나기를 기다리지 않고 처리됨
+        long played = speaker.playbackPosition();
+        assertTrue("WebSocket 스레드가 재생을 기다림: " + played, played < voiceTurn.audio().length / 2);
+
+        assertTrue(session.awaitFinished(TIMEOUT_MS));
+        assertTrue(speaker.awaitWritten(voiceTurn.audio().length, TIMEOUT_MS));
+        assertArrayEquals(voiceTurn.audio(), speaker.written());
+        assertEquals(0, playback.underruns());
+        assertEquals(0, playback.overruns());
+    }
+
+    @Test
+    public void lateDeltasAreCountedAsUnderruns() throws Exception {
+        // 100ms 델타가 재생보다 느리게 도착 -> 중간에 스피커가 빔
+        speaker = new RecordingAudioOutput(100);
+        newService();
+        RealtimeSession session = server.enqueueRealtime(voiceTurn, ReplayTiming.instant().withChunkInterval(250));
+        connectAndStream();
+
+        assertTrue(events.complete.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertTrue(session.awaitFinished(TIMEOUT_MS));
+        assertTrue(speaker.awaitWritten(voiceTurn.audio().length, TIMEOUT_MS));
+        assertArrayEquals(voiceTurn.audio(), speaker.written());
+        assertTrue(playback.underruns() >= 1);
+        assertEquals(0, playback.overruns());
+    }
+
+    @Test
+    public void serverDisconnectReportsErrorAndReleasesAudio() throws Exception {
+        RealtimeSession session = server.enqueueRealtime(voiceTurn,
+                ReplayTiming.instant().withChunkInterval(20).withDisconnectAfter(3));
+        connectAndStream();
+
+        assertTrue("오류 콜백 없음", events.error.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertTrue(session.awaitFinished(TIMEOUT_MS));
+        mainThread.drain();
+        assertEquals(1, events.complete.getCount());
+
+        service.disconnect();
+        assertTrue(mic.isReleased());
+        assertTrue(speaker.isReleased());
+    }
+
+    @Test
+    public void disconnectClosesNormallyAndStopsMic() throws Exception {
+        RealtimeSession session = server.enqueueRealtime(voiceTurn, ReplayTiming.instant());
+        connectAndStream();
+        assertTrue(events.complete.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        service.disconnect();
+        assertTrue("close 프레임 없음", session.awaitClosed(TIMEOUT_MS));
+        assertEquals(1000, session.closeCode());
+        assertTrue(mic.isReleased());
+
+        int appends = session.clientEventCount("input_audio_buffer.append");
+        Thread.sleep(200);
+        assertEquals(appends, session.clientEventCount("input_audio_buffer.append"));
+        assertTrue("onDisconnected 없음", events.disconnected.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void localCommitSendsOnlySpeechThenEndsTurn() throws Exception {
+        RealtimeRecording localTurn = RealtimeRecording.load("realtime/voice_turn_local_commit.jsonl");
+        // 무음 300ms (= pre-roll) + 말소리 2초
+        mic = new PcmAudioInput(PcmAudioInput.afterSilence(300, PcmAudioInput.tone(2000, 440)), SAMPLE_RATE);
+        newService();
+        service.setLocalVad(true, LOCAL_COMMIT_MS);
+        RealtimeSession session = server.enqueueRealtime(localTurn, ReplayTiming.instant().withChunkInterval(20));
+        connectAndStream();
+
+        assertTrue("응답 완료 없음", events.complete.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertTrue(session.awaitFinished(TIMEOUT_MS));
+        mainThread.drain();
+        assertNull(session.failure());
+        assertEquals(localTurn.responseTranscript(), events.responseText());
+        assertTrue(speaker.awaitWritten(localTurn.audio().length, TIMEOUT_MS));
+        assertArrayEquals(localTurn.audio(), speaker.written());
+        assertEquals(0, events.errors.size());
+
+        // 서버 VAD 끔
+        JsonObject config = session.clientEvents().get(0).getAsJsonObject("session");
+        assertTrue(config.get("turn_detection").isJsonNull());
+
+        // 말소리 + 앞뒤 여유만 보낸 뒤 commit -> response.create
+        List<JsonObject> sentEvents = session.clientEvents();
+        int commit = indexOf(sentEvents, "input_audio_buffer.commit");
+        assertEquals("response.create", sentEvents.get(commit + 1).get("type").getAsString());
+        int appends = session.clientEventCount("input_audio_buffer.append");
+        assertEquals(commit - 1, appends);
+        int expected = (300 + 2000 + LOCAL_COMMIT_MS) / FRAME_MS;
+        assertTrue("보낸 프레임 " + appends + " (예상 " + expected + ")", Math.abs(appends - expected) <= 2);
+        byte[] sent = appendedAudio(session);
+        assertArrayEquals(Arrays.copyOf(mic.pcm(), sent.length), sent);
+
+        // 턴 종료 뒤 무음은 보내지 않음
+        Thread.sleep(300);
+        assertEquals(appends, session.clientEventCount("input_audio_buffer.append"));
+    }
+
+    @Test
+    public void bargeInCancelsResponseAndTruncatesAtPlayedPosition() throws Exception {
+        RealtimeRecording bargeIn = RealtimeRecording.load("realtime/voice_barge_in.jsonl");
+        // 질문 600ms -> (턴 종료 후 AI 음성 재생 중) 700ms 뒤 다시 말함
+        int speechAgainMs = 300 + 600 + 700;
+        byte[] pcm = PcmAudioInput.afterSilence(300, PcmAudioInput.tone(600, 440));
+        pcm = concat(pcm, PcmAudioInput.afterSilence(700, PcmAudioInput.tone(600, 330)));
+        mic = new PcmAudioInput(pcm, SAMPLE_RATE);
+        newService();
+        service.setLocalVad(true, 300);
+        RealtimeSession session = server.enqueueRealtime(bargeIn, ReplayTiming.instant().withChunkInterval(20));
+        connectAndStream();
+
+        assertTrue("끼어들기 없음", events.interrupted.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertTrue(session.awaitFinished(TIMEOUT_MS));
+        mainThread.drain();
+        assertNull(session.failure());
+        assertEquals(0, events.errors.size());
+
+        // 응답 취소 1번, 남은 음성은 한 번에 버림
+        assertEquals(1, session.clientEventCount("response.cancel"));
+        assertTrue(speaker.awaitFlush(TIMEOUT_MS));
+        assertEquals(1, speaker.flushes());
+        assertTrue("재생 중이 아니었음", speaker.playedAtFlush() > 0);
+
+        // 대화 기록은 실제로 들려준 곳까지만
+        JsonObject truncate = session.clientEvents("conversation.item.truncate").get(0);
+        assertEquals("item_AXzA1", truncate.get("item_id").getAsString());
+        assertEquals(0, truncate.get("content_index").getAsInt());
+        long playedMs = speaker.playedAtFlush() * 1000 / SAMPLE_RATE;
+        long audioEndMs = truncate.get("audio_end_ms").getAsLong();
+        assertTrue("audio_end_ms " + audioEndMs + " (재생 " + playedMs + "ms)", Math.abs(audioEndMs - playedMs) <= 20);
+        assertTrue(audioEndMs < bargeIn.audio().length / 2 * 1000L / SAMPLE_RATE);
+
+        // 다시 말하기 시작 뒤에 끼어듦 (로컬 VAD 시작 판단 - AI 음성 재생 중이라 에코 보호 80ms)
+        long speechAgainNanos = mic.positionTimeNanos((long) SAMPLE_RATE * speechAgainMs / 1000);
+        long bargeInMs = TimeUnit.NANOSECONDS.toMillis(events.interruptedNanos - speechAgainNanos);
+        assertTrue("말 시작 전에 끼어듦: " + bargeInMs, events.interruptedNanos >= speechAgainNanos);
+        assertTrue("끼어들기 지연: " + bargeInMs, bargeInMs <= LATENCY_SLACK_MS);
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] out = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, out, a.length, b.length);
+        return out;
+    }
+
+    private static int indexOf(List<JsonObject> sentEvents, String type) {
+        for (int i = 0; i < sentEvents.size(); i++) {
+            if (type.equals(sentEvents.get(i).get("type").getAsString())) {
+                return i;
+            }
+        }
+        throw new AssertionError(type + " 없음");
+    }
+
+    /**
+     * 지금의 가짜 마이크 / 스피커로 서비스 생성
+     */
+    private void newService() {
+        playback = new AudioPlayback(speaker, SAMPLE_RATE);
+        service = new OpenAIRealtimeService("sk-replay", HttpClientProvider.realtime(), server.realtimeUrl(),
+                mainThread, new AudioCapture(mic, SAMPLE_RATE, FRAME_MS), playback);
+        service.setCallback(events);
+    }
+
+    private void connectAndStream() throws InterruptedException {
+        service.connect();
+        assertTrue("연결 안 됨", events.connected.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        service.startAudioStreaming();
+    }
+
+    private static byte[] appendedAudio(RealtimeSession session) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (JsonObject append : session.clientEvents("input_audio_buffer.append")) {
+            byte[] pcm = Base64.getDecoder().decode(append.get("audio").getAsString());
+            out.write(pcm, 0, pcm.length);
+        }
+        return out.toByteArray();
+    }
+
+    private static long average(List<Long> values) {
+        assertTrue("측정값 없음", !values.isEmpty());
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum / values.size();
+    }
+
+    /**
+     * 메인 스레드 콜백 기록
+     */
+    private static final class Events implements OpenAIRealtimeService.RealtimeCallback {
+        final CountDownLatch connected = new CountDownLatch(1);
+        final CountDownLatch complete = new CountDownLatch(1);
+        final CountDownLatch error = new CountDownLatch(1);
+        final CountDownLatch disconnected = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final List<String> responseDeltas = Collections.synchronizedList(new ArrayList<>());
+        final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        volatile String transcript;
+        volatile long interruptedNanos;
+
+        @Override
+        public void onConnected() {
+            connected.countDown();
+        }
+
+        @Override
+        public void onAudioLevelChanged(float level) {
+        }
+
+        @Override
+        public void onTranscriptReceived(String transcript) {
+            this.transcript = transcript;
+        }
+
+        @Override
+        public void onResponseStarted() {
+        }
+
+        @Override
+        public void onResponseReceived(String response) {
+            responseDeltas.add(response);
+        }
+
+        @Override
+        public void onResponseComplete() {
+            complete.countDown();
+        }
+
+        @Override
+        public void onResponseInterrupted() {
+            interruptedNanos = System.nanoTime();
+            interrupted.countDown();
+        }
+
+        @Override
+        public void onError(String error) {
+            errors.add(error);
+            this.error.countDown();
+        }
+
+        @Override
+        public void onDisconnected() {
+            disconnected.countDown();
+        }
+
+        String responseText() {
+            StringBuilder text = new StringBuilder();
+            synchronized (responseDeltas) {
+                for (String delta : responseDeltas) {
+                    text.append(delta);
+                }
+            }
+            return text.toString();
+        }
+    }
+}
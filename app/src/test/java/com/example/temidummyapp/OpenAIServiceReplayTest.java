@@ -0,0 +1,317 @@
+package com.example.temidummyapp;
+
+import com.example.temidummyapp.replay.Allocations;
+import com.example.temidummyapp.replay.ReplayServer;
+import com.example.temidummyapp.replay.ReplayTiming;
+import com.example.temidummyapp.replay.SseRecording;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * 채팅 스트리밍 녹화 재생 테스트 (실제 OkHttp + SSE 파서 + 재시도/헤징 경로)
+ * 시간은 순서(요청 -> 첫 토큰 -> 완료)와 넉넉한 상한만 확인 (녹화 재생 시간 + LATENCY_SLACK_MS, 느린 CI 머신 포함)
+ * 정확한 지연/할당 측정은 benchmarks 모듈 (JMH)
+ */
+public class OpenAIServiceReplayTest {
+
+    private static final long LATENCY_SLACK_MS = 2000;
+    private static final long TIMEOUT_MS = 10_000;
+
+    private ReplayServer server;
+    private TestCallbackThread mainThread;
+    private ChatRequestPolicy policy;
+    private OpenAIService service;
+    private SseRecording shortAnswer;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new ReplayServer();
+        mainThread = new TestCallbackThread();
+        policy = new ChatRequestPolicy();
+        policy.setHedgeDelayMs(0);
+        policy.setBackoff(20, 100);
+        service = new OpenAIService(HttpClientProvider.chat(), server.chatUrl(), mainThread);
+        service.setApiKey("sk-replay");
+        service.setRequestPolicy(policy);
+        shortAnswer = SseRecording.load("sse/short_answer.txt");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        service.cancelActiveStream();
+        mainThread.close();
+        server.close();
+    }
+
+    @Test
+    public void streamsRecordedAnswerWithinLatencyBudget() throws Exception {
+        ReplayTiming timing = ReplayTiming.instant().withFirstTokenDelay(300).withChunkInterval(10);
+        server.enqueueChat(shortAnswer, timing);
+
+        Collector collector = new Collector();
+        long start = System.nanoTime();
+        service.sendMessageStreaming(question(), collector);
+
+        assertTrue("완료 콜백 없음", collector.awaitDone());
+        long firstTokenMs = toMs(collector.firstChunkNanos - start);
+        long totalMs = toMs(collector.doneNanos - start);
+
+        assertEquals(shortAnswer.content(), collector.text());
+        assertEquals(0, collector.errors.size());
+        // 답변을 다 받은 뒤 한꺼번에 넘기면 첫 토큰과 완료가 붙어 옴 (서버는 청크 간격대로 보냄)
+        long streamedMs = toMs(collector.doneNanos - collector.firstChunkNanos);
+        long sendMs = shortAnswer.replayMs(timing) - timing.firstTokenDelayMs;
+        assertTrue("스트리밍되지 않음: 첫 토큰 ~ 완료 " + streamedMs + "ms (서버 " + sendMs + "ms)",
+                streamedMs >= sendMs / 2);
+        assertTrue("첫 토큰 예산 초과: " + firstTokenMs,
+                firstTokenMs <= timing.firstTokenDelayMs + LATENCY_SLACK_MS);
+        assertTrue("전체 예산 초과: " + totalMs, totalMs <= shortAnswer.replayMs(timing) + LATENCY_SLACK_MS);
+        assertTrue("완료 콜백이 메인 스레드가 아님", collector.completedOnMain);
+
+        RecordedRequest request = server.takeRequest(TIMEOUT_MS);
+        assertNotNull(request);
+        assertEquals("Bearer sk-replay", request.getHeader("Authorization"));
+        JsonObject body = JsonParser.parseString(request.getBody().readUtf8()).getAsJsonObject();
+        assertTrue(body.get("stream").getAsBoolean());
+    }
+
+    @Test
+    public void jitteredStreamKeepsOrderAndText() throws Exception {
+        ReplayTiming timing = ReplayTiming.instant().withChunkInterval(5).withJitter(4, 42L);
+        server.enqueueChat(shortAnswer, timing);
+
+        Collector collector = new Collector();
+        service.sendMessageStreaming(question(), collector);
+
+        assertTrue(collector.awaitDone());
+        assertEquals(shortAnswer.content(), collector.text());
+        assertEquals(shortAnswer.contentChunks(), collector.chunks.size());
+    }
+
+    @Test
+    public void retriesWhenDisconnectedBeforeFirstToken() throws Exception {
+        server.enqueueChat(shortAnswer, ReplayTiming.instant().withDisconnectAfter(0));
+        server.enqueueChat(shortAnswer, ReplayTiming.instant());
+
+        Collector collector = new Collector();
+        service.sendMessageStreaming(question(), collector);
+
+        assertTrue(collector.awaitDone());
+        assertEquals(shortAnswer.content(), collector.text());
+        assertEquals(0, collector.errors.size());
+        assertEquals(2, server.requestCount());
+        assertEquals(1, policy.getRetries());
+    }
+
+    @Test
+    public void reportsErrorOnceWhenDisconnectedMidStream() throws Exception {
+        int sent = 5;
+        server.enqueueChat(shortAnswer, ReplayTiming.instant().withChunkInterval(5).withDisconnectAfter(sent));
+
+        Collector collector = new Collector();
+        service.sendMessageStreaming(question(), collector);
+
+        assertTrue(collector.awaitDone());
+        mainThread.drain();
+        // 답변이 이미 나가기 시작했으면 재시도하지 않음 (중복 출력 방지)
+        assertEquals(1, collector.errors.size());
+        assertEquals(0, collector.completes.get());
+        assertEquals(shortAnswer.content(sent), collector.text());
+        assertEquals(1, server.requestCount());
+    }
+
+    @Test
+    public void cancelStopsCallbacksAndReleasesConnection() throws Exception {
+        int idleCalls = HttpClientProvider.chat().dispatcher().runningCallsCount();
+        server.enqueueChat(shortAnswer, ReplayTiming.instant().withChunkInterval(50));
+
+        Collector collector = new Collector();
+        OpenAIService.RequestHandle handle = service.sendMessageStreaming(question(), collector);
+        assertTrue("첫 청크 없음", collector.firstChunk.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        long cancelNanos = System.nanoTime();
+        handle.cancel();
+        mainThread.drain();
+        int chunksAtCancel = collector.chunks.size();
+
+        // 취소 후 HTTP 호출까지 정리되는 시간
+        while (HttpClientProvider.chat().dispatcher().runningCallsCount() > idleCalls
+                && toMs(System.nanoTime() - cancelNanos) < LATENCY_SLACK_MS) {
+            Thread.sleep(5);
+        }
+        assertEquals(idleCalls, HttpClientProvider.chat().dispatcher().runningCallsCount());
+
+        Thread.sleep(200);
+        mainThread.drain();
+        assertEquals(chunksAtCancel, collector.chunks.size());
+        assertEquals(0, collector.completes.get());
+        assertEquals(0, collector.errors.size());
+    }
+
+    @Test
+    public void hedgeRequestWinsOverSlowPrimary() throws Exception {
+        policy.setHedgeDelayMs(200);
+        server.enqueueChat(shortAnswer, ReplayTiming.instant().withFirstTokenDelay(2000));
+        server.enqueueChat(shortAnswer, ReplayTiming.instant().withFirstTokenDelay(50));
+
+        Collector collector = new Collector();
+        long start = System.nanoTime();
+        service.sendMessageStreaming(question(), collector);
+
+        assertTrue(collector.awaitDone());
+        long firstTokenMs = toMs(collector.firstChunkNanos - start);
+        assertEquals(shortAnswer.content(), collector.text());
+        // 느린 첫 요청이 첫 토큰을 보내기 전에 헤지 응답이 도착
+        assertTrue("헤지 응답보다 늦음: " + firstTokenMs, firstTokenMs < 2000);
+        assertEquals(2, server.requestCount());
+        assertEquals(1, policy.getHedgesFired());
+        assertEquals(1, policy.getHedgeWins());
+    }
+
+    @Test
+    public void workerStreamDeliversAnswerOnNetworkThread() throws Exception {
+        SseRecording longAnswer = SseRecording.load("sse/long_recommendation.txt");
+        server.enqueueChat(longAnswer, ReplayTiming.instant());
+
+        WorkerCollector collector = new WorkerCollector();
+        service.sendMessageStreaming(question(), collector);
+
+        assertTrue(collector.done.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(longAnswer.content(), collector.text.toString());
+        assertEquals(longAnswer.contentChunks(), collector.chunks);
+        assertEquals("청크가 메인 스레드로 전달됨", 0, collector.chunksOnMain);
+    }
+
+    @Test
+    public void workerStreamAllocationsPerChunk() throws Exception {
+        assumeTrue("스레드 할당 측정 미지원", Allocations.supported());
+        SseRecording longAnswer = SseRecording.load("sse/long_recommendation.txt");
+        server.enqueueChat(longAnswer, ReplayTiming.instant());
+
+        WorkerCollector collector = new WorkerCollector();
+        service.sendMessageStreaming(question(), collector);
+
+        assertTrue(collector.done.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(longAnswer.content(), collector.text.toString());
+        // 파서가 청크마다 JSON 트리/줄 문자열을 만들면 청크당 수 KB - 넉넉하게 잡아도 그 아래
+        long perChunk = (collector.lastAllocated - collector.firstAllocated) / (collector.chunks - 1);
+        assertTrue("청크당 할당 초과: " + perChunk, perChunk <= 8192);
+    }
+
+    private static List<ChatMessage> question() {
+        List<ChatMessage> messages = new ArrayList<>();
+        messages.add(new ChatMessage("로봇 체험 부스 추천해줘", ChatMessage.TYPE_USER));
+        return messages;
+    }
+
+    private static long toMs(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * 메인 스레드 콜백 기록
+     */
+    private static final class Collector implements OpenAIService.StreamCallback {
+        final List<String> chunks = Collections.synchronizedList(new ArrayList<>());
+        final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger completes = new AtomicInteger();
+        final CountDownLatch firstChunk = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile long firstChunkNanos = -1;
+        volatile long doneNanos = -1;
+        volatile boolean completedOnMain = false;
+
+        @Override
+        public void onStream(String chunk) {
+            if (firstChunkNanos < 0) {
+                firstChunkNanos = System.nanoTime();
+            }
+            chunks.add(chunk);
+            firstChunk.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            doneNanos = System.nanoTime();
+            completedOnMain = TestCallbackThread.isCurrent();
+            completes.incrementAndGet();
+            done.countDown();
+        }
+
+        @Override
+        public void onError(String error) {
+            doneNanos = System.nanoTime();
+            errors.add(error);
+            done.countDown();
+        }
+
+        boolean awaitDone() throws InterruptedException {
+            return done.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        }
+
+        String text() {
+            StringBuilder text = new StringBuilder();
+            synchronized (chunks) {
+                for (String chunk : chunks) {
+                    text.append(chunk);
+                }
+            }
+            return text.toString();
+        }
+    }
+
+    /**
+     * 네트워크 스레드에서 청크를 받음 (메인 스레드로 넘기지 않는 경로)
+     * 첫 청크 ~ 마지막 청크 사이 네트워크 스레드 할당량 기록
+     */
+    private static final class WorkerCollector implements OpenAIService.WorkerStreamCallback {
+        final StringBuilder text = new StringBuilder(8192);
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile int chunks = 0;
+        volatile int chunksOnMain = 0;
+        volatile long firstAllocated = -1;
+        volatile long lastAllocated = -1;
+
+        @Override
+        public void onStream(String chunk) {
+            long allocated = Allocations.threadAllocatedBytes(Thread.currentThread());
+            if (firstAllocated < 0) {
+                firstAllocated = allocated;
+            }
+            lastAllocated = allocated;
+            if (TestCallbackThread.isCurrent()) {
+                chunksOnMain++;
+            }
+            text.append(chunk);
+            chunks++;
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+
+        @Override
+        public void onError(String error) {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.temidummyapp;
+
+import com.example.temidummyapp.replay.Allocations;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 가짜 마이크 - 녹음 데이터를 실시간 속도로 흘려보내고, 다 쓰면 무음
+ * 캡처 스레드의 읽기 사이 할당량(= 서비스가 프레임 하나를 보내는 데 쓴 양)을 기록
+ */
+final class PcmAudioInput implements AudioInput {
+
+    private final byte[] pcm;
+    private final int sampleRate;
+    private final double bytesPerMs;
+
+    private final List<Long> allocatedPerFrame = new ArrayList<>();
+    private volatile boolean started = false;
+    private volatile boolean released = false;
+    private volatile int reads = 0;
+    private long startNanos;
+    private long delivered;
+    private long allocatedAfterRead = -1;
+
+    PcmAudioInput(byte[] pcm, int sampleRate) {
+        this.pcm = pcm;
+        this.sampleRate = sampleRate;
+        this.bytesPerMs = sampleRate * 2 / 1000.0;
+    }
+
+    /**
+     * 사인파 PCM16 모노 24kHz
+     */
+    static byte[] tone(int ms, int hz) {
+        int samples = 24000 * ms / 1000;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(samples * 2);
+        for (int i = 0; i < samples; i++) {
+            short s = (short) (Math.sin(2 * Math.PI * hz * i / 24000.0) * 8000);
+            out.write(s & 0xff);
+            out.write((s >> 8) & 0xff);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 앞에 무음을 붙인 PCM (로컬 VAD가 잡음 바닥을 잡을 시간)
+     */
+    static byte[] afterSilence(int ms, byte[] pcm) {
+        byte[] out = new byte[24000 * ms / 1000 * 2 + pcm.length];
+        System.arraycopy(pcm, 0, out, out.length - pcm.length, pcm.length);
+        return out;
+    }
+
+    @Override
+    public synchronized boolean start() {
+        if (!started || released) {
+            started = true;
+            released = false;
+            startNanos = System.nanoTime();
+            delivered = 0;
+            allocatedAfterRead = -1;
+        }
+        return true;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        long allocated = Allocations.threadAllocatedBytes(Thread.currentThread());
+        if (allocatedAfterRead >= 0 && allocated >= 0) {
+            synchronized (allocatedPerFrame) {
+                allocatedPerFrame.add(allocated - allocatedAfterRead);
+            }
+        }
+        if (!started || released) {
+            return -1;
+        }
+
+        // 실시간 속도: 이번에 읽는 데이터의 끝 시각까지 대기
+        int n = length;
+        long dueNanos = startNanos + (long) ((delivered + n) / bytesPerMs * 1_000_000L);
+        long waitNanos = dueNanos - System.nanoTime();
+        if (waitNanos > 0) {
+            try {
+                Thread.sleep(waitNanos / 1_000_000L, (int) (waitNanos % 1_000_000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+        if (released) {
+            return -1;
+        }
+
+        for (int i = 0; i < n; i++) {
+            long pos = delivered + i;
+            buffer[offset + i] = pos < pcm.length ? pcm[(int) pos] : 0;
+        }
+        delivered += n;
+        reads++;
+        allocatedAfterRead = Allocations.threadAllocatedBytes(Thread.currentThread());
+        return n;
+    }
+
+    @Override
+    public long positionTimeNanos(long position) {
+        return startNanos + position * 1_000_000_000L / sampleRate;
+    }
+
+    @Override
+    public synchronized void release() {
+        released = true;
+    }
+
+    boolean isStarted() {
+        return started;
+    }
+
+    boolean isReleased() {
+        return released;
+    }
+
+    int reads() {
+        return reads;
+    }
+
+    /**
+     * 앞쪽 녹음 데이터 (보낸 프레임과 비교용)
+     */
+    byte[] pcm() {
+        return pcm;
+    }
+
+    /**
+     * 프레임당 할당 바이트 (HotSpot 이 아니면 빈 목록)
+     */
+    List<Long> allocatedPerFrame() {
+        synchronized (allocatedPerFrame) {
+            return new ArrayList<>(allocatedPerFrame);
+        }
+    }
+}
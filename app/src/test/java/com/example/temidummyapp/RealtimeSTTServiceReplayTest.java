@@ -0,0 +1,189 @@
+package com.example.temidummyapp;
+
+import com.example.temidummyapp.replay.RealtimeRecording;
+import com.example.temidummyapp.replay.RealtimeSession;
+import com.example.temidummyapp.replay.ReplayServer;
+import com.example.temidummyapp.replay.ReplayTiming;
+import com.google.gson.JsonObject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 실시간 STT 녹화 재생 테스트 (가짜 마이크 -> WebSocket -> 전사 콜백)
+ * 시간은 순서와 넉넉한 상한 (녹화 재생 시간 + LATENCY_SLACK_MS)만 확인
+ */
+public class RealtimeSTTServiceReplayTest {
+
+    private static final long LATENCY_SLACK_MS = 2000;
+    private static final long TIMEOUT_MS = 10_000;
+    private static final int SAMPLE_RATE = 24000;
+    private static final int FRAME_MS = 20;
+
+    private ReplayServer server;
+    private TestCallbackThread mainThread;
+    private PcmAudioInput mic;
+    private RealtimeSTTService service;
+    private Transcripts transcripts;
+    private RealtimeRecording sttTurn;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new ReplayServer();
+        mainThread = new TestCallbackThread();
+        mic = new PcmAudioInput(PcmAudioInput.tone(2000, 300), SAMPLE_RATE);
+        service = new RealtimeSTTService(null, HttpClientProvider.realtime(), server.realtimeUrl(), mainThread,
+                new AudioCapture(mic, SAMPLE_RATE, FRAME_MS));
+        service.setApiKey("sk-replay");
+        transcripts = new Transcripts();
+        sttTurn = RealtimeRecording.load("realtime/stt_turn.jsonl");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        service.release();
+        mainThread.close();
+        server.close();
+    }
+
+    @Test
+    public void streamsTranscriptionDeltasWithinBudget() throws Exception {
+        ReplayTiming timing = ReplayTiming.instant().withFirstTokenDelay(200).withChunkInterval(40);
+        RealtimeSession session = server.enqueueRealtime(sttTurn, timing);
+        service.startRealtimeSTT(transcripts);
+
+        assertTrue("전사 완료 없음", transcripts.complete.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertTrue(session.awaitFinished(TIMEOUT_MS));
+        mainThread.drain();
+        assertNull(session.failure());
+
+        assertEquals(sttTurn.transcriptionDeltas(), transcripts.deltas);
+        assertEquals(sttTurn.inputTranscript(), transcripts.fullText);
+        assertEquals(0, transcripts.errors.size());
+
+        long stoppedNanos = session.sentAtNanos("input_audio_buffer.speech_stopped");
+        long completeMs = TimeUnit.NANOSECONDS.toMillis(transcripts.completeNanos - stoppedNanos);
+        long scheduledMs = sttTurn.scheduledMs("conversation.item.input_audio_transcription.completed", timing);
+        // 델타가 완료 이벤트를 기다리지 않고 바로 전달됨
+        assertTrue("전사 델타가 완료 뒤에 전달됨",
+                transcripts.firstDeltaNanos < session.sentAtNanos("conversation.item.input_audio_transcription.completed"));
+        assertTrue("전사 완료 예산 초과: " + completeMs, completeMs <= scheduledMs + LATENCY_SLACK_MS);
+
+        JsonObject config = session.clientEvents().get(0);
+        assertEquals("session.update", config.get("type").getAsString());
+        assertEquals("server_vad", config.getAsJsonObject("session")
+                .getAsJsonObject("turn_detection").get("type").getAsString());
+    }
+
+    @Test
+    public void stopClosesNormallyAndReleasesMic() throws Exception {
+        RealtimeSession session = server.enqueueRealtime(sttTurn, ReplayTiming.instant());
+        service.startRealtimeSTT(transcripts);
+        assertTrue(transcripts.ready.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertTrue(transcripts.complete.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        service.stopRealtimeSTT();
+        assertTrue("close 프레임 없음", session.awaitClosed(TIMEOUT_MS));
+        assertEquals(1000, session.closeCode());
+        assertTrue(mic.isReleased());
+        assertFalse(service.isRecording());
+    }
+
+    @Test
+    public void serverDisconnectReportsConnectionFailure() throws Exception {
+        RealtimeSession session = server.enqueueRealtime(sttTurn,
+                ReplayTiming.instant().withChunkInterval(20).withDisconnectAfter(1));
+        service.startRealtimeSTT(transcripts);
+
+        assertTrue("오류 콜백 없음", transcripts.error.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertTrue(session.awaitFinished(TIMEOUT_MS));
+        mainThread.drain();
+        assertTrue(transcripts.errors.get(0), transcripts.errors.get(0).startsWith("연결 실패"));
+        assertEquals(1, transcripts.complete.getCount());
+        assertFalse(service.isRecording());
+        assertTrue(mic.isReleased());
+    }
+
+    @Test
+    public void localVadSendsOnlySpeechAndServerSilence() throws Exception {
+        // 무음 1초 + 말소리 1초 + 무음
+        mic = new PcmAudioInput(PcmAudioInput.afterSilence(1000, PcmAudioInput.tone(1000, 300)), SAMPLE_RATE);
+        service = new RealtimeSTTService(null, HttpClientProvider.realtime(), server.realtimeUrl(), mainThread,
+                new AudioCapture(mic, SAMPLE_RATE, FRAME_MS));
+        service.setApiKey("sk-replay");
+        service.setLocalVad(true, 0);
+        RealtimeSession session = server.enqueueRealtime(sttTurn, ReplayTiming.instant());
+        service.startRealtimeSTT(transcripts);
+
+        assertTrue("전사 완료 없음", transcripts.complete.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(sttTurn.inputTranscript(), transcripts.fullText);
+        JsonObject config = session.clientEvents().get(0);
+        assertEquals("server_vad", config.getAsJsonObject("session")
+                .getAsJsonObject("turn_detection").get("type").getAsString());
+
+        // 마이크 3.5초 분량이 지날 때까지
+        int frames = 3500 / FRAME_MS;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+        while (mic.reads() < frames && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(mic.reads() >= frames);
+
+        // pre-roll 300ms + 말소리 1초 + 서버 VAD 침묵(500ms) + 여유 200ms
+        int appends = session.clientEventCount("input_audio_buffer.append");
+        int expected = (300 + 1000 + 500 + 200) / FRAME_MS;
+        assertTrue("보낸 프레임 " + appends + " (예상 " + expected + ")", Math.abs(appends - expected) <= 2);
+    }
+
+    /**
+     * 메인 스레드 콜백 기록
+     */
+    private static final class Transcripts implements RealtimeSTTService.RealtimeCallback {
+        final CountDownLatch ready = new CountDownLatch(1);
+        final CountDownLatch complete = new CountDownLatch(1);
+        final CountDownLatch error = new CountDownLatch(1);
+        final List<String> deltas = Collections.synchronizedList(new ArrayList<>());
+        final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        volatile String fullText;
+        volatile long firstDeltaNanos = -1;
+        volatile long completeNanos = -1;
+
+        @Override
+        public void onTextDelta(String deltaText) {
+            if (firstDeltaNanos < 0) {
+                firstDeltaNanos = System.nanoTime();
+            }
+            deltas.add(deltaText);
+        }
+
+        @Override
+        public void onTextComplete(String fullText) {
+            this.fullText = fullText;
+            completeNanos = System.nanoTime();
+            complete.countDown();
+        }
+
+        @Override
+        public void onError(String error) {
+            errors.add(error);
+            this.error.countDown();
+        }
+
+        @Override
+        public void onConnectionReady() {
+            ready.countDown();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.temidummyapp;
+
+import com.example.temidummyapp.replay.Allocations;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 가짜 스피커 - 받은 PCM 을 모아 두고 첫 write 시각, write 사이 할당량을 기록
+ * (write 사이 할당량 = 재생 스레드가 청크 하나를 꺼내 넘기는 데 쓴 양)
+ * 재생 위치는 실제 스피커처럼 24kHz 실시간 속도로 진행
+ * bufferMs 를 주면 AudioTrack 처럼 그만큼 넘게 쌓였을 때 write 가 막힘 (0이면 막히지 않음)
+ */
+final class RecordingAudioOutput implements AudioOutput {
+
+    private static final int SAMPLE_RATE = 24000;
+
+    private final long bufferSamples;
+
+    private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+    private final List<Long> allocatedPerWrite = new ArrayList<>();
+    private volatile long firstWriteNanos = -1;
+    private volatile int writes = 0;
+    private volatile int mutes = 0;
+    private volatile boolean released = false;
+    private long allocatedAfterWrite = -1;
+
+    private long writtenSamples = 0;
+    private long playedSamples = 0;
+    private long clockSamples = 0; // 재생이 (다시) 시작된 위치와 시각
+    private long clockNanos = 0;
+    private volatile int flushes = 0;
+    private volatile long playedAtFlush = -1;
+
+    RecordingAudioOutput() {
+        this(0);
+    }
+
+    RecordingAudioOutput(int bufferMs) {
+        this.bufferSamples = (long) SAMPLE_RATE * bufferMs / 1000;
+    }
+
+    @Override
+    public synchronized void write(byte[] pcm, int offset, int length) {
+        long allocated = Allocations.threadAllocatedBytes(Thread.currentThread());
+        if (allocatedAfterWrite >= 0 && allocated >= 0) {
+            allocatedPerWrite.add(allocated - allocatedAfterWrite);
+        }
+        if (firstWriteNanos < 0) {
+            firstWriteNanos = System.nanoTime();
+        }
+        released = false;
+        advance();
+        if (playedSamples == writtenSamples) {
+            clockSamples = playedSamples;
+            clockNanos = System.nanoTime();
+        }
+        writtenSamples += length / 2;
+        written.write(pcm, offset, length);
+        writes++;
+        notifyAll();
+        while (bufferSamples > 0 && !released && writtenSamples - playedSamples > bufferSamples) {
+            try {
+                wait(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            advance();
+        }
+        allocatedAfterWrite = Allocations.threadAllocatedBytes(Thread.currentThread());
+    }
+
+    @Override
+    public synchronized long playbackPosition() {
+        advance();
+        return playedSamples;
+    }
+
+    @Override
+    public synchronized void flush() {
+        advance();
+        playedAtFlush = playedSamples;
+        // 버린 샘플은 재생된 것으로 (AudioTrackOutput 과 같은 위치 기준)
+        playedSamples = writtenSamples;
+        flushes++;
+        notifyAll();
+    }
+
+    private void advance() {
+        if (playedSamples < writtenSamples) {
+            long elapsed = (System.nanoTime() - clockNanos) * SAMPLE_RATE / 1_000_000_000L;
+            playedSamples = Math.min(writtenSamples, clockSamples + elapsed);
+        }
+    }
+
+    @Override
+    public synchronized void mute() {
+        advance();
+        playedSamples = writtenSamples;
+        mutes++;
+    }
+
+    @Override
+    public synchronized void release() {
+        released = true;
+        notifyAll();
+    }
+
+    synchronized byte[] written() {
+        return written.toByteArray();
+    }
+
+    long firstWriteNanos() {
+        return firstWriteNanos;
+    }
+
+    int writes() {
+        return writes;
+    }
+
+    int mutes() {
+        return mutes;
+    }
+
+    /**
+     * 재생 스레드가 bytes 만큼 넘길 때까지 대기
+     */
+    synchronized boolean awaitWritten(int bytes, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (written.size() < bytes) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    /**
+     * 재생 스레드가 flush 할 때까지 대기
+     */
+    synchronized boolean awaitFlush(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (flushes == 0) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    int flushes() {
+        return flushes;
+    }
+
+    /**
+     * 마지막 flush 때 재생 위치 (샘플, flush 가 없으면 -1)
+     */
+    long playedAtFlush() {
+        return playedAtFlush;
+    }
+
+    boolean isReleased() {
+        return released;
+    }
+
+    /**
+     * 두 번째 write 부터 write 사이 할당 바이트 (HotSpot 이 아니면 빈 목록)
+     */
+    synchronized List<Long> allocatedPerWrite() {
+        return new ArrayList<>(allocatedPerWrite);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.temidummyapp;
+
+import java.io.Closeable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메인 스레드 대신 쓰는 콜백 스레드 ("test-main" 하나)
+ */
+final class TestCallbackThread implements CallbackScheduler, Closeable {
+
+    static final String NAME = "test-main";
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, NAME);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public void post(Runnable action) {
+        executor.execute(action);
+    }
+
+    @Override
+    public void postDelayed(Runnable action, long delayMs) {
+        executor.schedule(action, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 지금까지 넣은 콜백이 모두 실행될 때까지
+     */
+    void drain() throws Exception {
+        executor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    static boolean isCurrent() {
+        return NAME.equals(Thread.currentThread().getName());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
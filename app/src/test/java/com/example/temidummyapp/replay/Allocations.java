@@ -0,0 +1,35 @@
+package com.example.temidummyapp.replay;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 스레드별 할당 바이트 (HotSpot 전용 - 지원하지 않으면 -1)
+ */
+public final class Allocations {
+
+    private Allocations() {
+    }
+
+    public static boolean supported() {
+        return threadAllocatedBytes(Thread.currentThread()) >= 0;
+    }
+
+    /**
+     * 스레드가 지금까지 할당한 바이트 수 (대상 스레드가 직접 부르면 가장 정확함)
+     */
+    public static long threadAllocatedBytes(Thread thread) {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+                return -1;
+            }
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) bean;
+            if (!hotspot.isThreadAllocatedMemorySupported() || !hotspot.isThreadAllocatedMemoryEnabled()) {
+                return -1;
+            }
+            return hotspot.getThreadAllocatedBytes(thread.getId());
+        } catch (LinkageError | UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.temidummyapp.replay;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 녹화된 Realtime 세션 한 턴 (test 리소스 realtime/*.jsonl)
+ *
+ * 줄 형식:
+ * - '#' 주석
+ * - '> 타입 [개수]' 앱이 보낸 이벤트를 기다림 (개수 = 세션 시작 후 누적, 기본 1)
+ * - 나머지는 서버 이벤트 JSON 한 줄
+ */
+public final class RealtimeRecording {
+
+    /**
+     * 서버 이벤트 보내기 또는 앱 이벤트 기다리기
+     */
+    static final class Step {
+        final String type;
+        final String json; // 기다리기면 null
+        final int count;
+
+        private Step(String type, String json, int count) {
+            this.type = type;
+            this.json = json;
+            this.count = count;
+        }
+
+        boolean isAwait() {
+            return json == null;
+        }
+    }
+
+    private final String name;
+    private final List<Step> steps;
+
+    private RealtimeRecording(String name, List<Step> steps) {
+        this.name = name;
+        this.steps = steps;
+    }
+
+    public static RealtimeRecording load(String resource) throws IOException {
+        String text = new String(Resources.read(resource), StandardCharsets.UTF_8);
+        List<Step> steps = new ArrayList<>();
+        for (String raw : text.split("\n")) {
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (line.startsWith(">")) {
+                String[] parts = line.substring(1).trim().split("\\s+");
+                int count = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+                steps.add(new Step(parts[0], null, count));
+            } else {
+                JsonObject event = JsonParser.parseString(line).getAsJsonObject();
+                steps.add(new Step(event.get("type").getAsString(), line, 0));
+            }
+        }
+        return new RealtimeRecording(resource, Collections.unmodifiableList(steps));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    List<Step> steps() {
+        return steps;
+    }
+
+    /**
+     * 재생 속도를 정하는 이벤트 (응답 / 입력 음성 전사)
+     */
+    public static boolean isModelOutput(String type) {
+        return type.startsWith("response.") || type.startsWith("conversation.item.input_audio_transcription.");
+    }
+
+    /**
+     * 응답 음성 델타 수
+     */
+    public int audioDeltaCount() {
+        return events("response.audio.delta").size();
+    }
+
+    /**
+     * 응답 음성 (response.audio.delta 를 이은 PCM16)
+     */
+    public byte[] audio() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (JsonObject event : events("response.audio.delta")) {
+            byte[] pcm = Base64.getDecoder().decode(event.get("delta").getAsString());
+            out.write(pcm, 0, pcm.length);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 응답 음성 델타 하나의 PCM 바이트 수 (델타마다 같다고 가정 - 녹화본이 그러함)
+     */
+    public int audioDeltaBytes() {
+        int count = audioDeltaCount();
+        return count > 0 ? audio().length / count : 0;
+    }
+
+    /**
+     * 응답 자막 (response.audio_transcript.delta 를 이은 것)
+     */
+    public String responseTranscript() {
+        return joinDeltas("response.audio_transcript.delta");
+    }
+
+    /**
+     * 사용자 발화 전사 (input_audio_transcription.completed)
+     */
+    public String inputTranscript() {
+        List<JsonObject> completed = events("conversation.item.input_audio_transcription.completed");
+        return completed.isEmpty() ? "" : completed.get(0).get("transcript").getAsString();
+    }
+
+    /**
+     * 사용자 발화 전사 델타 순서대로
+     */
+    public List<String> transcriptionDeltas() {
+        List<String> deltas = new ArrayList<>();
+        for (JsonObject event : events("conversation.item.input_audio_transcription.delta")) {
+            deltas.add(event.get("delta").getAsString());
+        }
+        return deltas;
+    }
+
+    /**
+     * 처음 나오는 type 이벤트가 나가는 시각 - 직전 기다리기가 끝난 때 기준 (재생 세션과 같은 계산)
+     */
+    public long scheduledMs(String type, ReplayTiming timing) {
+        Random jitter = timing.newJitter();
+        long ms = 0;
+        boolean outputInBlock = false;
+        for (Step step : steps) {
+            if (step.isAwait()) {
+                ms = 0;
+                outputInBlock = false;
+                continue;
+            }
+            if (isModelOutput(step.type)) {
+                ms += delayBefore(outputInBlock, timing, jitter);
+                outputInBlock = true;
+            }
+            if (step.type.equals(type)) {
+                return ms;
+            }
+        }
+        throw new IllegalArgumentException("녹화에 없는 이벤트: " + type);
+    }
+
+    /**
+     * 모델 출력 앞의 대기 시간 (구간의 첫 출력은 첫 토큰 지연, 이후는 간격 + 지터)
+     */
+    static long delayBefore(boolean outputInBlock, ReplayTiming timing, Random jitter) {
+        if (!outputInBlock) {
+            return timing.firstTokenDelayMs;
+        }
+        return timing.chunkIntervalMs * (1 + timing.jitterTicks(jitter));
+    }
+
+    private List<JsonObject> events(String type) {
+        List<JsonObject> events = new ArrayList<>();
+        for (Step step : steps) {
+            if (!step.isAwait() && step.type.equals(type)) {
+                events.add(JsonParser.parseString(step.json).getAsJsonObject());
+            }
+        }
+        return events;
+    }
+
+    private String joinDeltas(String type) {
+        StringBuilder text = new StringBuilder();
+        for (JsonObject event : events(type)) {
+            text.append(event.get("delta").getAsString());
+        }
+        return text.toString();
+    }
+}
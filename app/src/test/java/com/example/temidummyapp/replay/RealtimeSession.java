@@ -0,0 +1,223 @@
+package com.example.temidummyapp.replay;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+/**
+ * 서버 쪽 Realtime 세션 하나 - 녹화본을 재생하면서 앱이 보낸 이벤트를 모음
+ *
+ * 재생 스레드가 단계를 차례로 실행:
+ * 기다리기는 앱 이벤트가 누적 개수에 이를 때까지 (AWAIT_TIMEOUT_MS 넘으면 실패로 기록하고 멈춤),
+ * 모델 출력은 ReplayTiming 대로 쉬었다가 보냄, 끊김 설정이면 출력 n개 뒤 disconnect 를 부름
+ */
+public final class RealtimeSession extends WebSocketListener {
+
+    private static final long AWAIT_TIMEOUT_MS = 5000;
+
+    private final RealtimeRecording recording;
+    private final ReplayTiming timing;
+    private final Runnable disconnect; // 연결 강제 종료 (서버 종료)
+
+    private final Object lock = new Object();
+    private final List<JsonObject> clientEvents = new ArrayList<>();
+    private final Map<String, Integer> clientCounts = new HashMap<>();
+    private final Map<String, Long> sentAtNanos = new HashMap<>();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final CountDownLatch closed = new CountDownLatch(1);
+
+    private volatile WebSocket webSocket;
+    private volatile boolean open = false;
+    private volatile int closeCode = -1;
+    private volatile String failure;
+
+    RealtimeSession(RealtimeRecording recording, ReplayTiming timing, Runnable disconnect) {
+        this.recording = recording;
+        this.timing = timing;
+        this.disconnect = disconnect;
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket, Response response) {
+        this.webSocket = webSocket;
+        open = true;
+        Thread player = new Thread(this::play, "replay-" + recording.name());
+        player.setDaemon(true);
+        player.start();
+    }
+
+    @Override
+    public void onMessage(WebSocket webSocket, String text) {
+        JsonObject event = JsonParser.parseString(text).getAsJsonObject();
+        String type = event.has("type") ? event.get("type").getAsString() : "";
+        synchronized (lock) {
+            clientEvents.add(event);
+            Integer count = clientCounts.get(type);
+            clientCounts.put(type, count == null ? 1 : count + 1);
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public void onClosing(WebSocket webSocket, int code, String reason) {
+        closeCode = code;
+        webSocket.close(code, null);
+        markClosed();
+    }
+
+    @Override
+    public void onClosed(WebSocket webSocket, int code, String reason) {
+        markClosed();
+    }
+
+    @Override
+    public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+        markClosed();
+    }
+
+    private void markClosed() {
+        open = false;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        closed.countDown();
+    }
+
+    private void play() {
+        try {
+            Random jitter = timing.newJitter();
+            boolean outputInBlock = false;
+            int outputs = 0;
+            for (RealtimeRecording.Step step : recording.steps()) {
+                if (step.isAwait()) {
+                    if (!awaitClient(step.type, step.count)) {
+                        return;
+                    }
+                    outputInBlock = false;
+                    continue;
+                }
+                if (RealtimeRecording.isModelOutput(step.type)) {
+                    if (timing.disconnects() && outputs == timing.disconnectAfter) {
+                        disconnect.run();
+                        return;
+                    }
+                    long delay = RealtimeRecording.delayBefore(outputInBlock, timing, jitter);
+                    if (delay > 0) {
+                        Thread.sleep(delay);
+                    }
+                    outputInBlock = true;
+                    outputs++;
+                }
+                if (!open || !webSocket.send(step.json)) {
+                    return;
+                }
+                synchronized (lock) {
+                    if (!sentAtNanos.containsKey(step.type)) {
+                        sentAtNanos.put(step.type, System.nanoTime());
+                    }
+                }
+            }
+            if (timing.disconnects() && outputs == timing.disconnectAfter) {
+                disconnect.run();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            finished.countDown();
+        }
+    }
+
+    private boolean awaitClient(String type, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + AWAIT_TIMEOUT_MS;
+        synchronized (lock) {
+            while (clientCount(type) < count) {
+                long left = deadline - System.currentTimeMillis();
+                if (!open || left <= 0) {
+                    failure = "앱 이벤트 대기 실패: " + type + " " + clientCount(type) + "/" + count;
+                    return false;
+                }
+                lock.wait(left);
+            }
+        }
+        return true;
+    }
+
+    private int clientCount(String type) {
+        Integer count = clientCounts.get(type);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * 녹화본 재생이 끝날 때까지 (기다리기 실패나 끊김 포함)
+     */
+    public boolean awaitFinished(long timeoutMs) throws InterruptedException {
+        return finished.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 연결이 닫힐 때까지
+     */
+    public boolean awaitClosed(long timeoutMs) throws InterruptedException {
+        return closed.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 재생이 멈춘 이유 (정상이면 null)
+     */
+    public String failure() {
+        return failure;
+    }
+
+    /**
+     * 앱이 보낸 close 코드 (-1 = 받지 않음)
+     */
+    public int closeCode() {
+        return closeCode;
+    }
+
+    /**
+     * 앱이 보낸 이벤트 (받은 순서)
+     */
+    public List<JsonObject> clientEvents() {
+        synchronized (lock) {
+            return new ArrayList<>(clientEvents);
+        }
+    }
+
+    public List<JsonObject> clientEvents(String type) {
+        List<JsonObject> events = new ArrayList<>();
+        for (JsonObject event : clientEvents()) {
+            if (event.has("type") && event.get("type").getAsString().equals(type)) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    public int clientEventCount(String type) {
+        synchronized (lock) {
+            return clientCount(type);
+        }
+    }
+
+    /**
+     * 처음 나오는 type 서버 이벤트를 보낸 시각 (System.nanoTime, 보내지 않았으면 -1)
+     */
+    public long sentAtNanos(String type) {
+        synchronized (lock) {
+            Long nanos = sentAtNanos.get(type);
+            return nanos == null ? -1 : nanos;
+        }
+    }
+}
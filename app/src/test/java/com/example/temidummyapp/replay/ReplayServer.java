@@ -0,0 +1,104 @@
+package com.example.temidummyapp.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * 녹화 재생 서버 (MockWebServer)
+ * - CHAT_PATH: 넣어 둔 SSE 녹화본을 요청 순서대로 응답 (남은 게 없으면 500)
+ * - REALTIME_PATH: 넣어 둔 Realtime 세션으로 WebSocket 업그레이드
+ *
+ * Realtime 중간 끊김은 서버를 내려서 흉내 냄 (열린 소켓이 모두 닫힘 - 테스트 하나에 세션 하나)
+ */
+public final class ReplayServer implements Closeable {
+
+    public static final String CHAT_PATH = "/v1/chat/completions";
+    public static final String REALTIME_PATH = "/v1/realtime";
+
+    private final MockWebServer server = new MockWebServer();
+    private final ConcurrentLinkedQueue<MockResponse> chatResponses = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<RealtimeSession> realtimeSessions = new ConcurrentLinkedQueue<>();
+
+    public ReplayServer() throws IOException {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath() != null ? request.getPath() : "";
+                if (path.startsWith(CHAT_PATH)) {
+                    MockResponse response = chatResponses.poll();
+                    return response != null ? response : error("재생할 채팅 응답 없음");
+                }
+                if (path.startsWith(REALTIME_PATH)) {
+                    RealtimeSession session = realtimeSessions.poll();
+                    return session != null
+                            ? new MockResponse().withWebSocketUpgrade(session)
+                            : error("재생할 Realtime 세션 없음");
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+        server.start();
+    }
+
+    private static MockResponse error(String message) {
+        return new MockResponse()
+                .setResponseCode(500)
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"error\":{\"message\":\"" + message + "\"}}");
+    }
+
+    public String chatUrl() {
+        return server.url(CHAT_PATH).toString();
+    }
+
+    /**
+     * OkHttp 는 ws:// 대신 http:// 로 업그레이드 요청을 보내도 됨
+     */
+    public String realtimeUrl() {
+        return server.url(REALTIME_PATH).newBuilder()
+                .addQueryParameter("model", "gpt-4o-realtime-preview-2024-10-01")
+                .build()
+                .toString();
+    }
+
+    public void enqueueChat(SseRecording recording, ReplayTiming timing) {
+        chatResponses.add(recording.toResponse(timing));
+    }
+
+    public RealtimeSession enqueueRealtime(RealtimeRecording recording, ReplayTiming timing) {
+        RealtimeSession session = new RealtimeSession(recording, timing, this::shutdownQuietly);
+        realtimeSessions.add(session);
+        return session;
+    }
+
+    /**
+     * 받은 요청 수 (재시도 / 헤징 확인용)
+     */
+    public int requestCount() {
+        return server.getRequestCount();
+    }
+
+    public RecordedRequest takeRequest(long timeoutMs) throws InterruptedException {
+        return server.takeRequest(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void shutdownQuietly() {
+        try {
+            server.shutdown();
+        } catch (IOException ignored) {
+            // 이미 닫힘
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+}
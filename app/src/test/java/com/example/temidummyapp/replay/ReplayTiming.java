@@ -0,0 +1,79 @@
+package com.example.temidummyapp.replay;
+
+import java.util.Random;
+
+/**
+ * 녹화 재생 시간 설정 (불변 - with* 는 바뀐 복사본을 돌려줌)
+ * - 첫 토큰 지연: 요청(또는 발화 종료) 후 첫 모델 출력까지
+ * - 청크 간격 + 지터: 모델 출력 사이 기본 간격, 간격마다 0 ~ maxJitterTicks 번 더 쉼 (시드 고정)
+ * - 중간 끊김: 모델 출력 n개를 보낸 뒤 연결을 끊음 (0이면 첫 출력 전)
+ *
+ * 모델 출력 = 채팅은 SSE data: 이벤트, Realtime은 response.* / 입력 음성 전사 이벤트
+ */
+public final class ReplayTiming {
+
+    public static final int NO_DISCONNECT = -1;
+
+    public final long firstTokenDelayMs;
+    public final long chunkIntervalMs;
+    public final int maxJitterTicks;
+    public final long jitterSeed;
+    public final int disconnectAfter;
+
+    private ReplayTiming(long firstTokenDelayMs, long chunkIntervalMs, int maxJitterTicks, long jitterSeed,
+                         int disconnectAfter) {
+        this.firstTokenDelayMs = firstTokenDelayMs;
+        this.chunkIntervalMs = chunkIntervalMs;
+        this.maxJitterTicks = maxJitterTicks;
+        this.jitterSeed = jitterSeed;
+        this.disconnectAfter = disconnectAfter;
+    }
+
+    /**
+     * 지연 없이 한 번에 재생
+     */
+    public static ReplayTiming instant() {
+        return new ReplayTiming(0, 0, 0, 0, NO_DISCONNECT);
+    }
+
+    public ReplayTiming withFirstTokenDelay(long ms) {
+        return new ReplayTiming(ms, chunkIntervalMs, maxJitterTicks, jitterSeed, disconnectAfter);
+    }
+
+    public ReplayTiming withChunkInterval(long ms) {
+        return new ReplayTiming(firstTokenDelayMs, ms, maxJitterTicks, jitterSeed, disconnectAfter);
+    }
+
+    /**
+     * 간격마다 0 ~ maxTicks 번의 추가 간격 (같은 시드면 같은 순서)
+     */
+    public ReplayTiming withJitter(int maxTicks, long seed) {
+        return new ReplayTiming(firstTokenDelayMs, chunkIntervalMs, maxTicks, seed, disconnectAfter);
+    }
+
+    public ReplayTiming withDisconnectAfter(int outputs) {
+        return new ReplayTiming(firstTokenDelayMs, chunkIntervalMs, maxJitterTicks, jitterSeed, outputs);
+    }
+
+    public boolean disconnects() {
+        return disconnectAfter != NO_DISCONNECT;
+    }
+
+    /**
+     * 재생 한 번에 하나씩 (지터 순서 재현용)
+     */
+    Random newJitter() {
+        return new Random(jitterSeed);
+    }
+
+    int jitterTicks(Random jitter) {
+        return maxJitterTicks > 0 ? jitter.nextInt(maxJitterTicks + 1) : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "첫 토큰 " + firstTokenDelayMs + "ms, 간격 " + chunkIntervalMs + "ms"
+                + (maxJitterTicks > 0 ? " (+0~" + maxJitterTicks + "칸)" : "")
+                + (disconnects() ? ", 출력 " + disconnectAfter + "개 후 끊김" : "");
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.temidummyapp.replay;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 테스트 리소스 읽기 (app/src/test/resources + core/src/test/resources)
+ */
+final class Resources {
+
+    private Resources() {
+    }
+
+    static byte[] read(String name) throws IOException {
+        InputStream is = Resources.class.getClassLoader().getResourceAsStream(name);
+        if (is == null) {
+            throw new FileNotFoundException("테스트 리소스 없음: " + name);
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = is.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            is.close();
+        }
+    }
+}
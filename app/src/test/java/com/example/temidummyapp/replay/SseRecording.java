@@ -0,0 +1,195 @@
+package com.example.temidummyapp.replay;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.Buffer;
+
+/**
+ * 녹화된 채팅 완료 SSE 스트림 (core 테스트 리소스 sse/*.txt - 실제 응답을 그대로 저장한 것)
+ *
+ * 재생 방식: MockWebServer의 throttleBody로 한 주기에 이벤트 하나씩 보냄
+ * 이벤트마다 SSE 주석 줄(':')을 붙여 길이를 맞추고, 지터는 주석만 있는 주기를 끼워 넣음
+ * (앱의 ChatStreamParser는 data: 가 아닌 줄을 건너뜀 - 실제 서버의 keep-alive 주석과 같음)
+ */
+public final class SseRecording {
+
+    private final String name;
+    // "data: ...\n\n" 원문
+    private final List<String> events;
+
+    private SseRecording(String name, List<String> events) {
+        this.name = name;
+        this.events = events;
+    }
+
+    public static SseRecording load(String resource) throws IOException {
+        String text = new String(Resources.read(resource), StandardCharsets.UTF_8);
+        List<String> events = new ArrayList<>();
+        for (String block : text.split("\n\n")) {
+            String event = block.trim();
+            if (event.startsWith("data:")) {
+                events.add(event + "\n\n");
+            }
+        }
+        if (events.isEmpty()) {
+            throw new IOException("SSE 이벤트 없음: " + resource);
+        }
+        return new SseRecording(resource, Collections.unmodifiableList(events));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * data: 이벤트 수 ([DONE] 포함)
+     */
+    public int eventCount() {
+        return events.size();
+    }
+
+    /**
+     * 녹화된 답변 전체 (content 델타를 이은 것)
+     */
+    public String content() {
+        return content(events.size());
+    }
+
+    /**
+     * 앞에서 count개 이벤트까지의 답변 (중간에 끊긴 스트림의 기대값)
+     */
+    public String content(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count && i < events.size(); i++) {
+            String delta = deltaContent(events.get(i));
+            if (delta != null) {
+                text.append(delta);
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * 내용이 있는 청크 수 (앱의 onStream 호출 수)
+     */
+    public int contentChunks() {
+        int chunks = 0;
+        for (String event : events) {
+            String delta = deltaContent(event);
+            if (delta != null && !delta.isEmpty()) {
+                chunks++;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * 재생 시간 (첫 이벤트 ~ 마지막으로 보내는 이벤트, 지터 포함)
+     */
+    public long replayMs(ReplayTiming timing) {
+        int sent = timing.disconnects() ? Math.min(timing.disconnectAfter, events.size()) : events.size();
+        Random jitter = timing.newJitter();
+        long ms = timing.firstTokenDelayMs;
+        for (int i = 1; i < sent; i++) {
+            ms += timing.chunkIntervalMs * (1 + timing.jitterTicks(jitter));
+        }
+        return ms;
+    }
+
+    /**
+     * 재생 응답 (채팅 완료 요청 하나에 대한 응답)
+     */
+    MockResponse toResponse(ReplayTiming timing) {
+        MockResponse response = new MockResponse()
+                .setHeader("Content-Type", "text/event-stream; charset=utf-8")
+                .setHeader("Cache-Control", "no-cache");
+        if (timing.disconnects() && timing.disconnectAfter == 0) {
+            // 요청만 읽고 응답 없이 끊음
+            return response.setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST);
+        }
+
+        // 주기 하나 = 가장 긴 이벤트 + 주석 줄 최소 길이(":\n")
+        int tick = 0;
+        for (String event : events) {
+            tick = Math.max(tick, utf8Length(event));
+        }
+        tick += 2;
+
+        Buffer body = new Buffer();
+        Random jitter = timing.newJitter();
+        int sent = 0;
+        for (String event : events) {
+            if (timing.disconnects() && sent == timing.disconnectAfter) {
+                break;
+            }
+            if (sent > 0) {
+                for (int i = timing.jitterTicks(jitter); i > 0; i--) {
+                    writeTick(body, "", tick);
+                }
+            }
+            writeTick(body, event, tick);
+            sent++;
+        }
+        if (timing.disconnects() && sent < events.size()) {
+            // 보낸 만큼과 같은 길이를 더 붙이면 절반 지점(= 보낸 이벤트 끝)에서 소켓이 닫힘
+            long ticks = body.size() / tick;
+            for (long i = 0; i < ticks; i++) {
+                writeTick(body, "", tick);
+            }
+            response.setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY);
+        }
+
+        return response
+                .setBody(body)
+                .throttleBody(tick, timing.chunkIntervalMs, TimeUnit.MILLISECONDS)
+                .setBodyDelay(timing.firstTokenDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 이벤트 + 주석 줄로 정확히 tick 바이트
+     */
+    private static void writeTick(Buffer body, String event, int tick) {
+        body.writeUtf8(event);
+        int pad = tick - utf8Length(event);
+        body.writeByte(':');
+        for (int i = 0; i < pad - 2; i++) {
+            body.writeByte(' ');
+        }
+        body.writeByte('\n');
+    }
+
+    private static int utf8Length(String s) {
+        return s.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * choices[0].delta.content (없으면 null)
+     */
+    private static String deltaContent(String event) {
+        String data = event.substring("data:".length()).trim();
+        if (data.equals("[DONE]")) {
+            return null;
+        }
+        JsonObject chunk = JsonParser.parseString(data).getAsJsonObject();
+        JsonArray choices = chunk.has("choices") ? chunk.getAsJsonArray("choices") : null;
+        if (choices == null || choices.size() == 0) {
+            return null;
+        }
+        JsonObject delta = choices.get(0).getAsJsonObject().getAsJsonObject("delta");
+        JsonElement content = delta != null ? delta.get("content") : null;
+        return content != null && !content.isJsonNull() ? content.getAsString() : null;
+    }
+}
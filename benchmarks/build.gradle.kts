@@ -0,0 +1,46 @@
+// core 모듈 JMH 벤치마크 (기기 없이 리눅스 PC에서 처리량/할당량 측정)
+//   ./gradlew :benchmarks:jmh
+//   결과: benchmarks/build/results/jmh/results.json
+//   일부만: ./gradlew :benchmarks:jmh -PjmhIncludes=CsvParse
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    jmh(project(":core"))
+    // 기존 Gson 방식과 비교 (AudioAppendEncoderBenchmark, ChatStreamParserBenchmark)
+    jmh(libs.gson)
+}
+
+// 입력 데이터: core 테스트의 녹화 스트림/마크다운 답변 + 실제 프로그램 CSV
+sourceSets.named("jmh") {
+    resources.srcDir(rootProject.file("core/src/test/resources"))
+}
+tasks.named<ProcessResources>("processJmhResources") {
+    from(rootProject.file("app/src/main/assets/booth_program_image.csv"))
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    // 처리량(ops/s) + 할당량(gc.alloc.rate.norm = 호출당 바이트)
+    benchmarkMode.set(listOf("thrpt"))
+    timeUnit.set("s")
+    profilers.add("gc")
+    fork.set(1)
+    warmupIterations.set(3)
+    warmup.set("2s")
+    iterations.set(5)
+    timeOnIteration.set("2s")
+    resultFormat.set("JSON")
+    (findProperty("jmhIncludes") as String?)?.let { includes.add(it) }
+}
@@ -0,0 +1,63 @@
+package com.example.temidummyapp.benchmarks;
+
+import com.example.temidummyapp.core.AudioAppendEncoder;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+import okio.ByteString;
+
+/**
+ * 마이크 프레임 -> input_audio_buffer.append 이벤트 (Realtime 음성 대화 / 실시간 STT, 프레임마다 호출)
+ * gson: 기존 방식 (base64 문자열 + JsonObject + gson.toJson)
+ * encode: 재사용 버퍼에 쓰기만 (gc.alloc.rate.norm ~ 0)
+ * encodeToString: WebSocket.send(String)에 넘기는 문자열까지
+ */
+@State(Scope.Thread)
+public class AudioAppendEncoderBenchmark {
+
+    @Param({"1920", "3840"})
+    public int frameBytes;
+
+    private final Gson gson = new Gson();
+    private byte[] frame;
+    private AudioAppendEncoder encoder;
+
+    @Setup
+    public void generate() {
+        // 말소리 크기 정도의 잡음 (고정 시드)
+        Random random = new Random(42);
+        frame = new byte[frameBytes];
+        for (int i = 0; i < frameBytes; i += 2) {
+            short sample = (short) (random.nextGaussian() * 3000);
+            frame[i] = (byte) sample;
+            frame[i + 1] = (byte) (sample >> 8);
+        }
+        encoder = new AudioAppendEncoder(frameBytes);
+    }
+
+    @Benchmark
+    public String gson() {
+        JsonObject audioAppend = new JsonObject();
+        audioAppend.addProperty("type", "input_audio_buffer.append");
+        audioAppend.addProperty("audio", ByteString.of(frame, 0, frame.length).base64());
+        return gson.toJson(audioAppend);
+    }
+
+    @Benchmark
+    public int encode() {
+        return encoder.encode(frame, 0, frame.length);
+    }
+
+    @Benchmark
+    public String encodeToString() {
+        return encoder.encodeToString(frame, 0, frame.length);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.temidummyapp.benchmarks;
+
+import com.example.temidummyapp.core.AudioRingBuffer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 수신 음성 링 버퍼 (WebSocket 스레드 offer -> 재생 스레드 poll)
+ * 24kHz PCM16 모노 - 델타 4800바이트 = 100ms를 넣고 960바이트(20ms)씩 꺼냄 (gc.alloc.rate.norm = 0)
+ */
+@State(Scope.Thread)
+public class AudioRingBufferBenchmark {
+
+    @Param({"4800", "48000"})
+    public int deltaBytes;
+
+    private byte[] delta;
+    private byte[] chunk;
+    private AudioRingBuffer ring;
+
+    @Setup
+    public void generate() {
+        delta = new byte[deltaBytes];
+        for (int i = 0; i < deltaBytes; i++) {
+            delta[i] = (byte) i;
+        }
+        chunk = new byte[960];
+        // 60초 분량 (재생 스레드에서 쓰는 크기)
+        ring = new AudioRingBuffer(24000 * 2 * 60);
+    }
+
+    @Benchmark
+    public int offerThenDrain() {
+        ring.offer(delta, 0, delta.length);
+        int drained = 0;
+        int n;
+        while ((n = ring.poll(chunk, 0, chunk.length)) > 0) {
+            drained += n;
+        }
+        return drained;
+    }
+}
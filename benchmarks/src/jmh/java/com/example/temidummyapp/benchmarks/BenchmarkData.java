@@ -0,0 +1,36 @@
+package com.example.temidummyapp.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 벤치마크 입력 파일 읽기 (benchmarks/build.gradle.kts에서 jmh 리소스로 넣은 파일)
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static byte[] bytes(String name) throws IOException {
+        InputStream is = BenchmarkData.class.getClassLoader().getResourceAsStream(name);
+        if (is == null) {
+            throw new IOException("리소스 없음: " + name);
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = is.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            is.close();
+        }
+    }
+
+    static String text(String name) throws IOException {
+        return new String(bytes(name), "UTF-8");
+    }
+}
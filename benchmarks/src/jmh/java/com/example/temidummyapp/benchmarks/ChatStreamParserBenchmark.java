@@ -0,0 +1,77 @@
+package com.example.temidummyapp.benchmarks;
+
+import com.example.temidummyapp.core.ChatStreamParser;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import okio.Buffer;
+
+/**
+ * SSE 스트림 한 개 전체 파싱 (OpenAIService.streamOnce의 응답 본문 읽기)
+ * gson: 기존 방식 (readLine + substring + JsonObject 트리)
+ * parse: ChatStreamParser - 입력 Buffer 복사도 포함 (실제로도 소켓에서 읽은 바이트가 okio 세그먼트에 들어감)
+ */
+@State(Scope.Thread)
+public class ChatStreamParserBenchmark {
+
+    @Param({"sse/short_answer.txt", "sse/long_recommendation.txt"})
+    public String stream;
+
+    private final Gson gson = new Gson();
+    private byte[] data;
+
+    @Setup
+    public void load() throws IOException {
+        data = BenchmarkData.bytes(stream);
+    }
+
+    @Benchmark
+    public void gson(Blackhole bh) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.startsWith("data: ")) {
+                continue;
+            }
+            String chunkData = line.substring(6);
+            if (chunkData.equals("[DONE]")) {
+                break;
+            }
+            JsonObject json = gson.fromJson(chunkData, JsonObject.class);
+            if (json.has("choices") && json.getAsJsonArray("choices").size() > 0) {
+                JsonArray choices = json.getAsJsonArray("choices");
+                JsonObject choice = choices.get(0).getAsJsonObject();
+                if (choice.has("delta")) {
+                    JsonObject delta = choice.getAsJsonObject("delta");
+                    if (delta.has("content")) {
+                        bh.consume(delta.get("content").getAsString());
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) throws IOException {
+        ChatStreamParser parser = new ChatStreamParser(new Buffer().write(data));
+        while (parser.next() == ChatStreamParser.EVENT_CHUNK) {
+            bh.consume(parser.content());
+        }
+        bh.consume(parser.completionTokens());
+    }
+}
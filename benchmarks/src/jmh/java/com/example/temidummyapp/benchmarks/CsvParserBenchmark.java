@@ -0,0 +1,42 @@
+package com.example.temidummyapp.benchmarks;
+
+import com.example.temidummyapp.core.CsvParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+
+/**
+ * 프로그램 CSV 전체 파싱 (CSVLoader.importCSV의 줄 파싱 + 소요시간 변환, DB 쓰기 제외)
+ */
+@State(Scope.Thread)
+public class CsvParserBenchmark {
+
+    private String[] lines;
+    private final CsvParser parser = new CsvParser();
+
+    @Setup
+    public void load() throws IOException {
+        lines = BenchmarkData.text("booth_program_image.csv").split("\r?\n");
+    }
+
+    @Benchmark
+    public void parseCatalog(Blackhole bh) {
+        for (int i = 1; i < lines.length; i++) {
+            String[] tokens = parser.parseLine(lines[i]);
+            bh.consume(tokens);
+            if (tokens.length > 5) {
+                bh.consume(CsvParser.parseMinutes(tokens[5]));
+            }
+        }
+    }
+
+    @Benchmark
+    public Integer parseMinutesRange() {
+        return CsvParser.parseMinutes("10~20분");
+    }
+}
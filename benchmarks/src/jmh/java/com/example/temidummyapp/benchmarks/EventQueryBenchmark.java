@@ -0,0 +1,38 @@
+package com.example.temidummyapp.benchmarks;
+
+import com.example.temidummyapp.core.EventQuery;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 부스 검색 SQL 만들기 (EventSearchHelper - 필터 화면, 챗봇 search_booths, 카드 id 조회)
+ */
+@State(Scope.Thread)
+public class EventQueryBenchmark {
+
+    private final List<String> fields = Arrays.asList("인공지능", "미래자동차", "에너지신산업");
+    private final List<String> targets = Collections.singletonList("중학생 이상");
+    private final List<Integer> minutes = Arrays.asList(10, 30);
+    private final long[] ids = {12, 45, 7};
+
+    @Benchmark
+    public EventQuery filter() {
+        return EventQuery.filter(fields, "현장접수", targets, minutes);
+    }
+
+    @Benchmark
+    public EventQuery forChat() {
+        return EventQuery.forChat(fields, targets, 30, "로봇", 8);
+    }
+
+    @Benchmark
+    public EventQuery byIds() {
+        return EventQuery.byIds(ids);
+    }
+}
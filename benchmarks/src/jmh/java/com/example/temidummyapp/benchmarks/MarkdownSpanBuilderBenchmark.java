@@ -0,0 +1,110 @@
+package com.example.temidummyapp.benchmarks;
+
+import com.example.temidummyapp.core.MarkdownSpanBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 채팅 말풍선 마크다운 변환 (ChatAdapter.format / formatStreaming)
+ * - build: 완성된 답변 한 번 변환
+ * - stream: 청크(6자)가 붙을 때마다 누적 텍스트로 update() - 답변 하나 전체
+ * - regex / regexStream: 기존 방식 (ChatAdapter.applyMarkdownFormatting - 패턴 3개를 매번 컴파일해 텍스트를 3번 다시 씀)
+ */
+@State(Scope.Thread)
+public class MarkdownSpanBuilderBenchmark {
+
+    private static final int CHUNK_CHARS = 6;
+
+    @Param({"markdown/booth_recommendation.md", "markdown/event_guide.md"})
+    public String reply;
+
+    private String text;
+    private String[] prefixes;
+    private final MarkdownSpanBuilder builder = new MarkdownSpanBuilder();
+
+    @Setup
+    public void load() throws IOException {
+        text = BenchmarkData.text(reply);
+        int count = (text.length() + CHUNK_CHARS - 1) / CHUNK_CHARS;
+        prefixes = new String[count];
+        for (int i = 0; i < count; i++) {
+            prefixes[i] = text.substring(0, Math.min((i + 1) * CHUNK_CHARS, text.length()));
+        }
+    }
+
+    @Benchmark
+    public int build() {
+        return builder.build(text).spanCount();
+    }
+
+    @Benchmark
+    public void stream(Blackhole bh) {
+        builder.reset();
+        for (String prefix : prefixes) {
+            bh.consume(builder.update(prefix));
+        }
+        bh.consume(builder.spanCount());
+    }
+
+    @Benchmark
+    public void regex(Blackhole bh) {
+        formatWithRegex(text, bh);
+    }
+
+    @Benchmark
+    public void regexStream(Blackhole bh) {
+        for (String prefix : prefixes) {
+            formatWithRegex(prefix, bh);
+        }
+    }
+
+    /**
+     * 기존 ChatAdapter.applyMarkdownFormatting (SpannableString 생성 직전까지)
+     */
+    private static void formatWithRegex(String text, Blackhole bh) {
+        String[] patterns = {
+            "\\*\\*(.+?)\\*\\*",
+            "~~(.+?)~~",
+            "(?<!\\*)\\*(?!\\*)(.+?)(?<!\\*)\\*(?!\\*)"
+        };
+
+        String workingText = text;
+        List<int[]> formatSpans = new ArrayList<>();
+
+        for (int patternType = 0; patternType < patterns.length; patternType++) {
+            Pattern pattern = Pattern.compile(patterns[patternType]);
+            Matcher matcher = pattern.matcher(workingText);
+
+            StringBuilder newText = new StringBuilder();
+            int lastEnd = 0;
+            List<int[]> currentSpans = new ArrayList<>();
+
+            while (matcher.find()) {
+                newText.append(workingText.substring(lastEnd, matcher.start()));
+                int spanStart = newText.length();
+                newText.append(matcher.group(1));
+                currentSpans.add(new int[]{spanStart, newText.length(), patternType});
+                lastEnd = matcher.end();
+            }
+
+            if (!currentSpans.isEmpty()) {
+                newText.append(workingText.substring(lastEnd));
+                workingText = newText.toString();
+                formatSpans.addAll(currentSpans);
+            }
+        }
+        bh.consume(workingText);
+        bh.consume(formatSpans);
+    }
+}
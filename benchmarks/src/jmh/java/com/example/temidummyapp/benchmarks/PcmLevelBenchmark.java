@@ -0,0 +1,41 @@
+package com.example.temidummyapp.benchmarks;
+
+import com.example.temidummyapp.core.PcmLevel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * 마이크 프레임 음압 계산 (OpenAIRealtimeService.calculateAudioLevel, 프레임마다 호출)
+ * 24kHz PCM16 모노 - 1920바이트 = 40ms, 3840바이트 = 80ms (AudioRecord 최소 버퍼 근처)
+ */
+@State(Scope.Thread)
+public class PcmLevelBenchmark {
+
+    @Param({"1920", "3840"})
+    public int frameBytes;
+
+    private byte[] frame;
+
+    @Setup
+    public void generate() {
+        // 말소리 크기 정도의 잡음 (고정 시드)
+        Random random = new Random(42);
+        frame = new byte[frameBytes];
+        for (int i = 0; i < frameBytes; i += 2) {
+            short sample = (short) (random.nextGaussian() * 3000);
+            frame[i] = (byte) sample;
+            frame[i + 1] = (byte) (sample >> 8);
+        }
+    }
+
+    @Benchmark
+    public float level() {
+        return PcmLevel.level(frame, frame.length);
+    }
+}
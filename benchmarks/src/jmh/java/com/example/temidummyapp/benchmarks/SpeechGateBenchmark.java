@@ -0,0 +1,74 @@
+package com.example.temidummyapp.benchmarks;
+
+import com.example.temidummyapp.core.AudioFrame;
+import com.example.temidummyapp.core.AudioFramePool;
+import com.example.temidummyapp.core.SpeechGate;
+import com.example.temidummyapp.core.VoiceActivityDetector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * 로컬 VAD 프레임 판단 (Realtime 음성 대화 / 실시간 STT 녹음 스레드, 프레임마다 호출)
+ * 24kHz PCM16 모노 - 960바이트 = 20ms, 1920바이트 = 40ms
+ * isSpeech: 특징 계산 + 잡음 바닥 갱신, offer: 게이트까지 (둘 다 gc.alloc.rate.norm ~ 0)
+ */
+@State(Scope.Thread)
+public class SpeechGateBenchmark {
+
+    @Param({"960", "1920"})
+    public int frameBytes;
+
+    private byte[] frame;
+    private VoiceActivityDetector detector;
+    private SpeechGate gate;
+    private AudioFramePool pool;
+    private final SpeechGate.Listener discard = new SpeechGate.Listener() {
+        @Override
+        public void onSpeechStart() {
+        }
+
+        @Override
+        public void onSpeechFrame(AudioFrame frame) {
+        }
+
+        @Override
+        public void onSpeechEnd() {
+        }
+    };
+
+    @Setup
+    public void generate() {
+        // 말소리 크기 정도의 잡음 (고정 시드)
+        Random random = new Random(42);
+        frame = new byte[frameBytes];
+        for (int i = 0; i < frameBytes; i += 2) {
+            short sample = (short) (random.nextGaussian() * 3000);
+            frame[i] = (byte) sample;
+            frame[i + 1] = (byte) (sample >> 8);
+        }
+        int frameMs = frameBytes / 2 * 1000 / 24000;
+        detector = new VoiceActivityDetector(24000);
+        gate = new SpeechGate(new VoiceActivityDetector(24000), frameMs, 300, 500, 40);
+        pool = new AudioFramePool(frameBytes, 64);
+    }
+
+    @Benchmark
+    public boolean isSpeech() {
+        return detector.isSpeech(frame, frame.length);
+    }
+
+    @Benchmark
+    public long offer() {
+        AudioFrame pooled = pool.acquire();
+        System.arraycopy(frame, 0, pooled.data, 0, frameBytes);
+        pooled.set(frameBytes, 0, 0);
+        gate.offer(pooled, discard);
+        return gate.framesSent();
+    }
+}
@@ -0,0 +1,23 @@
+// 안드로이드에 의존하지 않는 파서/계산 모듈 (app이 사용, benchmarks에서 JMH로 측정)
+plugins {
+    `java-library`
+}
+
+java {
+    // app 모듈과 같은 Java 8 (minSdk 23에서 그대로 사용)
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    // ChatStreamParser가 OkHttp 응답 본문(BufferedSource)을 직접 읽음 - OkHttp 4.9.3과 같은 버전
+    api(libs.okio)
+
+    testImplementation(libs.junit)
+    // 기존 Gson 파서와 결과 비교용 (ChatStreamParserTest) - 속도 비교는 benchmarks 모듈
+    testImplementation(libs.gson)
+}
@@ -0,0 +1,99 @@
+package com.example.temidummyapp.core;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Realtime API 마이크 이벤트 인코더
+ * {"type":"input_audio_buffer.append","audio":"<PCM16 base64>"} 를 재사용 버퍼에 바로 씀
+ * - 고정된 JSON 앞뒤 부분은 상수, base64는 표를 보고 직접 변환 (Base64 문자열 / JsonObject / Gson 버퍼 없음)
+ * - 버퍼는 캡처 스레드 하나가 계속 씀 (스레드 간 공유 금지)
+ */
+public final class AudioAppendEncoder {
+
+    private static final byte[] PREFIX = ascii("{\"type\":\"input_audio_buffer.append\",\"audio\":\"");
+    private static final byte[] SUFFIX = ascii("\"}");
+    private static final byte[] ALPHABET =
+            ascii("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/");
+
+    private byte[] frame;
+    private int length;
+
+    /**
+     * @param maxPcmBytes 한 번에 보낼 최대 PCM 크기 (마이크 읽기 버퍼 크기, 넘으면 버퍼를 늘림)
+     */
+    public AudioAppendEncoder(int maxPcmBytes) {
+        frame = new byte[frameLength(maxPcmBytes)];
+    }
+
+    /**
+     * PCM count 바이트를 담은 이벤트의 길이
+     */
+    public static int frameLength(int count) {
+        return PREFIX.length + (count + 2) / 3 * 4 + SUFFIX.length;
+    }
+
+    /**
+     * 이벤트를 버퍼에 씀
+     *
+     * @return 이벤트 길이 (frame()의 앞부분)
+     */
+    public int encode(byte[] pcm, int offset, int count) {
+        int size = frameLength(count);
+        if (frame.length < size) {
+            frame = new byte[size];
+        }
+        byte[] out = frame;
+        System.arraycopy(PREFIX, 0, out, 0, PREFIX.length);
+        int o = PREFIX.length;
+
+        int i = offset;
+        int end = offset + count - count % 3;
+        while (i < end) {
+            int bits = (pcm[i] & 0xFF) << 16 | (pcm[i + 1] & 0xFF) << 8 | (pcm[i + 2] & 0xFF);
+            out[o] = ALPHABET[bits >>> 18];
+            out[o + 1] = ALPHABET[(bits >>> 12) & 0x3F];
+            out[o + 2] = ALPHABET[(bits >>> 6) & 0x3F];
+            out[o + 3] = ALPHABET[bits & 0x3F];
+            i += 3;
+            o += 4;
+        }
+        int rest = offset + count - end;
+        if (rest > 0) {
+            int bits = (pcm[i] & 0xFF) << 16 | (rest == 2 ? (pcm[i + 1] & 0xFF) << 8 : 0);
+            out[o] = ALPHABET[bits >>> 18];
+            out[o + 1] = ALPHABET[(bits >>> 12) & 0x3F];
+            out[o + 2] = rest == 2 ? ALPHABET[(bits >>> 6) & 0x3F] : (byte) '=';
+            out[o + 3] = '=';
+            o += 4;
+        }
+
+        System.arraycopy(SUFFIX, 0, out, o, SUFFIX.length);
+        length = o + SUFFIX.length;
+        return length;
+    }
+
+    /**
+     * 마지막으로 쓴 이벤트 (ASCII = UTF-8), 다음 encode 때 덮어씀
+     */
+    public byte[] frame() {
+        return frame;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * 이벤트를 써서 텍스트 프레임용 문자열로 (할당은 이 문자열 하나)
+     * OkHttp WebSocket은 텍스트 프레임을 String으로만 받음
+     */
+    public String encodeToString(byte[] pcm, int offset, int count) {
+        int n = encode(pcm, offset, count);
+        // ASCII만 있으므로 ISO-8859-1 = 바이트 그대로 (디코딩 없는 빠른 경로)
+        return new String(frame, 0, n, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
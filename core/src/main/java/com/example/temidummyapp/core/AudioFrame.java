@@ -0,0 +1,55 @@
+package com.example.temidummyapp.core;
+
+/**
+ * 고정 길이 PCM16 모노 오디오 프레임 (AudioFramePool에서 빌려 씀)
+ * 받은 쪽이 다 쓰고 recycle() 해야 함 - 이후에는 data를 읽으면 안 됨
+ */
+public final class AudioFrame {
+
+    public final byte[] data;
+
+    private final AudioFramePool pool;
+    private int length;
+    private long position;
+    private long timeNanos;
+    boolean pooled = false;
+
+    AudioFrame(AudioFramePool pool, int frameBytes) {
+        this.pool = pool;
+        this.data = new byte[frameBytes];
+    }
+
+    /**
+     * 채운 바이트 수 (마지막 프레임이 아니면 항상 frameBytes)
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * 첫 샘플의 위치 (녹음 시작부터 샘플 수)
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * 첫 샘플을 녹음한 시각 (System.nanoTime 기준)
+     */
+    public long timeNanos() {
+        return timeNanos;
+    }
+
+    public void set(int length, long position, long timeNanos) {
+        this.length = length;
+        this.position = position;
+        this.timeNanos = timeNanos;
+    }
+
+    /**
+     * 풀에 돌려줌 (두 번 불러도 한 번만 반납)
+     */
+    public void recycle() {
+        pool.release(this);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.temidummyapp.core;
+
+/**
+ * 오디오 프레임 재사용 풀 (녹음 스레드가 빌리고, 보낸 뒤 / 보관이 끝난 뒤 반납)
+ * - 비어 있으면 새로 만들어 줌 (녹음을 막지 않음) - created()로 확인
+ * - 반납이 가득 찬 풀을 넘으면 버림
+ */
+public final class AudioFramePool {
+
+    private final int frameBytes;
+    private final AudioFrame[] free;
+    private int freeCount = 0;
+    private int created = 0;
+
+    public AudioFramePool(int frameBytes, int capacity) {
+        this.frameBytes = frameBytes;
+        this.free = new AudioFrame[capacity];
+    }
+
+    /**
+     * 프레임 길이 (바이트) - 24kHz 20ms = 480샘플 = 960바이트
+     */
+    public static int frameBytes(int sampleRate, int frameMs) {
+        return sampleRate * frameMs / 1000 * 2;
+    }
+
+    public int frameBytes() {
+        return frameBytes;
+    }
+
+    public synchronized AudioFrame acquire() {
+        if (freeCount > 0) {
+            AudioFrame frame = free[--freeCount];
+            free[freeCount] = null;
+            frame.pooled = false;
+            return frame;
+        }
+        created++;
+        return new AudioFrame(this, frameBytes);
+    }
+
+    synchronized void release(AudioFrame frame) {
+        if (frame.pooled) {
+            return;
+        }
+        frame.pooled = true;
+        if (freeCount < free.length) {
+            free[freeCount++] = frame;
+        }
+    }
+
+    /**
+     * 지금까지 새로 만든 프레임 수 (풀이 충분하면 처음 몇 개에서 멈춤)
+     */
+    public synchronized int created() {
+        return created;
+    }
+
+    public synchronized int available() {
+        return freeCount;
+    }
+}
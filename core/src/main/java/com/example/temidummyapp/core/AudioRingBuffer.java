@@ -0,0 +1,103 @@
+package com.example.temidummyapp.core;
+
+/**
+ * 단일 생산자 / 단일 소비자 바이트 링 버퍼 (락 없음, 수신 음성 -> 재생 스레드)
+ * - offer는 생산자 스레드 하나만, poll / skipTo는 소비자 스레드 하나만 호출
+ * - 위치는 누적 바이트 수(long) - 배열 위치 = 누적 % capacity
+ * - offer는 전부 들어가거나 하나도 안 들어감 (PCM 샘플이 중간에 잘리지 않게)
+ */
+public final class AudioRingBuffer {
+
+    private final byte[] buffer;
+    private final int capacity;
+
+    // volatile 쓰기로 복사한 데이터를 상대 스레드에 공개
+    private volatile long writeIndex = 0; // 생산자만 변경
+    private volatile long readIndex = 0;  // 소비자만 변경
+
+    // 상대 위치 캐시 (공간/데이터가 모자랄 때만 volatile 다시 읽음)
+    private long cachedRead = 0;  // 생산자 전용
+    private long cachedWrite = 0; // 소비자 전용
+
+    public AudioRingBuffer(int capacity) {
+        this.capacity = capacity;
+        this.buffer = new byte[capacity];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 쌓여 있는 바이트 수 (아무 스레드)
+     */
+    public int size() {
+        long read = readIndex;
+        return (int) (writeIndex - read);
+    }
+
+    /**
+     * 지금까지 넣은 바이트 누적 (flush 기준 위치)
+     */
+    public long writeIndex() {
+        return writeIndex;
+    }
+
+    /**
+     * 생산자: 전부 들어갈 공간이 있을 때만 복사
+     *
+     * @return false면 가득 참 (아무것도 넣지 않음)
+     */
+    public boolean offer(byte[] src, int offset, int length) {
+        long write = writeIndex;
+        if (write + length - cachedRead > capacity) {
+            cachedRead = readIndex;
+            if (write + length - cachedRead > capacity) {
+                return false;
+            }
+        }
+        int pos = (int) (write % capacity);
+        int first = Math.min(length, capacity - pos);
+        System.arraycopy(src, offset, buffer, pos, first);
+        System.arraycopy(src, offset + first, buffer, 0, length - first);
+        writeIndex = write + length;
+        return true;
+    }
+
+    /**
+     * 소비자: 최대 length 바이트 꺼냄
+     *
+     * @return 꺼낸 바이트 수 (비어 있으면 0)
+     */
+    public int poll(byte[] dst, int offset, int length) {
+        long read = readIndex;
+        if (cachedWrite - read < length) {
+            cachedWrite = writeIndex;
+        }
+        int n = (int) Math.min(length, cachedWrite - read);
+        if (n <= 0) {
+            return 0;
+        }
+        int pos = (int) (read % capacity);
+        int first = Math.min(n, capacity - pos);
+        System.arraycopy(buffer, pos, dst, offset, first);
+        System.arraycopy(buffer, 0, dst, offset + first, n - first);
+        readIndex = read + n;
+        return n;
+    }
+
+    /**
+     * 소비자: index(writeIndex 값)까지 버림 - 그 뒤에 들어온 데이터는 남김
+     *
+     * @return 버린 바이트 수
+     */
+    public int skipTo(long index) {
+        long read = readIndex;
+        long target = Math.min(index, writeIndex);
+        if (target <= read) {
+            return 0;
+        }
+        readIndex = target;
+        return (int) (target - read);
+    }
+}
@@ -0,0 +1,587 @@
+package com.example.temidummyapp.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okio.BufferedSource;
+
+/**
+ * Chat Completions SSE 스트림 파서 (증분, 상태 머신 방식)
+ * - okio BufferedSource에서 바이트를 직접 읽어 줄 단위로 처리
+ * - JSON 트리를 만들지 않고 필요한 값만 추출:
+ *   choices[0].delta.content, choices[0].finish_reason,
+ *   choices[0].delta.tool_calls[] (index별로 id/name/arguments 조각을 이어 붙임),
+ *   usage.prompt_tokens / completion_tokens / prompt_tokens_details.cached_tokens
+ * - 줄 버퍼(byte[])와 문자열 디코딩 버퍼(char[])를 재사용하므로
+ *   청크마다 새로 만드는 객체는 전달용 content 문자열뿐
+ */
+public class ChatStreamParser {
+
+    /** 스트림 끝 (연결 종료) */
+    public static final int EVENT_EOF = 0;
+    /** data: 청크 하나를 처리함 (content()/finishReason() 확인) */
+    public static final int EVENT_CHUNK = 1;
+    /** data: [DONE] */
+    public static final int EVENT_DONE = 2;
+
+    private static final byte[] DATA_PREFIX = ascii("data:");
+    private static final byte[] DONE = ascii("[DONE]");
+
+    private static final byte[] KEY_CHOICES = ascii("choices");
+    private static final byte[] KEY_DELTA = ascii("delta");
+    private static final byte[] KEY_CONTENT = ascii("content");
+    private static final byte[] KEY_FINISH_REASON = ascii("finish_reason");
+    private static final byte[] KEY_USAGE = ascii("usage");
+    private static final byte[] KEY_PROMPT_TOKENS = ascii("prompt_tokens");
+    private static final byte[] KEY_COMPLETION_TOKENS = ascii("completion_tokens");
+    private static final byte[] KEY_PROMPT_DETAILS = ascii("prompt_tokens_details");
+    private static final byte[] KEY_CACHED_TOKENS = ascii("cached_tokens");
+    private static final byte[] KEY_TOOL_CALLS = ascii("tool_calls");
+    private static final byte[] KEY_INDEX = ascii("index");
+    private static final byte[] KEY_ID = ascii("id");
+    private static final byte[] KEY_FUNCTION = ascii("function");
+    private static final byte[] KEY_NAME = ascii("name");
+    private static final byte[] KEY_ARGUMENTS = ascii("arguments");
+
+    // JSON 경로 문맥
+    private static final int CTX_OTHER = 0;
+    private static final int CTX_ROOT = 1;
+    private static final int CTX_CHOICE = 2;
+    private static final int CTX_DELTA = 3;
+    private static final int CTX_USAGE = 4;
+    private static final int CTX_PROMPT_DETAILS = 5;
+    private static final int CTX_TOOL_CALL = 6;
+    private static final int CTX_FUNCTION = 7;
+
+    /**
+     * 함수 호출 하나 (청크마다 나뉘어 오는 arguments 조각을 모은 결과)
+     */
+    public static final class ToolCall {
+        private final int index;
+        private String id;
+        private String name;
+        private final StringBuilder arguments = new StringBuilder();
+
+        ToolCall(int index) {
+            this.index = index;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /** 인자 JSON 문자열 (스트림이 끝난 뒤에 완성됨) */
+        public String arguments() {
+            return arguments.toString();
+        }
+    }
+
+    private final BufferedSource source;
+
+    private byte[] line = new byte[1024];
+    private int lineLength;
+    private int pos;
+
+    private char[] chars = new char[256];
+    private int charLength;
+
+    // 마지막 청크 결과
+    private String content;
+    private String finishReason;
+    private int promptTokens = -1;
+    private int completionTokens = -1;
+    private int cachedTokens = -1;
+    private int malformedChunks = 0;
+
+    // 스트림 전체에서 모은 함수 호출 (index 순서)
+    private final List<ToolCall> toolCalls = new ArrayList<>(2);
+    private ToolCall currentToolCall;
+    private int currentToolIndex;
+
+    public ChatStreamParser(BufferedSource source) {
+        this.source = source;
+    }
+
+    /**
+     * 다음 data: 이벤트까지 읽음
+     *
+     * @return EVENT_CHUNK / EVENT_DONE / EVENT_EOF
+     */
+    public int next() throws IOException {
+        content = null;
+        finishReason = null;
+
+        while (readLine()) {
+            if (!startsWith(DATA_PREFIX, 0)) {
+                continue; // 빈 줄, 주석(:), event: 등은 무시
+            }
+            pos = DATA_PREFIX.length;
+            if (pos < lineLength && line[pos] == ' ') {
+                pos++;
+            }
+            if (startsWith(DONE, pos)) {
+                return EVENT_DONE;
+            }
+            try {
+                skipWhitespace();
+                parseValue(CTX_ROOT);
+            } catch (IndexOutOfBoundsException | IOException e) {
+                // 잘못된 청크는 건너뜀 (기존 Gson 방식과 동일)
+                malformedChunks++;
+                content = null;
+                finishReason = null;
+                continue;
+            }
+            return EVENT_CHUNK;
+        }
+        return EVENT_EOF;
+    }
+
+    /** 마지막 청크의 delta.content (없으면 null) */
+    public String content() {
+        return content;
+    }
+
+    /** 마지막 청크의 finish_reason (없으면 null) */
+    public String finishReason() {
+        return finishReason;
+    }
+
+    /** 지금까지 받은 함수 호출 (없으면 빈 목록) */
+    public List<ToolCall> toolCalls() {
+        return toolCalls;
+    }
+
+    public boolean hasToolCalls() {
+        return !toolCalls.isEmpty();
+    }
+
+    /** usage.prompt_tokens (받지 못했으면 -1) */
+    public int promptTokens() {
+        return promptTokens;
+    }
+
+    /** usage.completion_tokens (받지 못했으면 -1) */
+    public int completionTokens() {
+        return completionTokens;
+    }
+
+    /** usage.prompt_tokens_details.cached_tokens (받지 못했으면 -1) */
+    public int cachedTokens() {
+        return cachedTokens;
+    }
+
+    /** 파싱하지 못하고 건너뛴 청크 수 */
+    public int malformedChunks() {
+        return malformedChunks;
+    }
+
+    // ========== 줄 읽기 ==========
+
+    private boolean readLine() throws IOException {
+        long newline = source.indexOf((byte) '\n');
+        int length;
+        if (newline == -1) {
+            if (source.exhausted()) {
+                return false;
+            }
+            // 마지막 줄 (개행 없이 종료)
+            length = (int) source.getBuffer().size();
+        } else {
+            length = (int) newline;
+        }
+
+        if (line.length < length) {
+            line = new byte[Math.max(length, line.length * 2)];
+        }
+        int read = 0;
+        while (read < length) {
+            int n = source.read(line, read, length - read);
+            if (n == -1) {
+                break;
+            }
+            read += n;
+        }
+        if (newline != -1) {
+            source.readByte(); // '\n'
+        }
+
+        lineLength = read;
+        if (lineLength > 0 && line[lineLength - 1] == '\r') {
+            lineLength--;
+        }
+        return true;
+    }
+
+    private boolean startsWith(byte[] prefix, int offset) {
+        if (lineLength - offset < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (line[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ========== JSON 상태 머신 ==========
+
+    private void parseValue(int ctx) throws IOException {
+        byte b = at(pos);
+        if (b == '{') {
+            parseObject(ctx);
+        } else if (b == '[') {
+            skipArray();
+        } else {
+            skipScalar();
+        }
+    }
+
+    private void parseObject(int ctx) throws IOException {
+        pos++; // '{'
+        skipWhitespace();
+        if (at(pos) == '}') {
+            pos++;
+            return;
+        }
+
+        while (true) {
+            skipWhitespace();
+            // 키 위치만 기록 (이스케이프 없는 ASCII 키 가정)
+            int keyStart = pos + 1;
+            skipString();
+            int keyEnd = pos - 1;
+            skipWhitespace();
+            pos++; // ':'
+            skipWhitespace();
+
+            handleMember(ctx, keyStart, keyEnd);
+
+            skipWhitespace();
+            if (at(pos) == ',') {
+                pos++;
+                continue;
+            }
+            pos++; // '}'
+            return;
+        }
+    }
+
+    private void handleMember(int ctx, int keyStart, int keyEnd) throws IOException {
+        switch (ctx) {
+            case CTX_ROOT:
+                if (keyEquals(keyStart, keyEnd, KEY_CHOICES) && at(pos) == '[') {
+                    parseChoices();
+                    return;
+                }
+                if (keyEquals(keyStart, keyEnd, KEY_USAGE) && at(pos) == '{') {
+                    parseObject(CTX_USAGE);
+                    return;
+                }
+                break;
+            case CTX_CHOICE:
+                if (keyEquals(keyStart, keyEnd, KEY_DELTA) && at(pos) == '{') {
+                    parseObject(CTX_DELTA);
+                    return;
+                }
+                if (keyEquals(keyStart, keyEnd, KEY_FINISH_REASON) && at(pos) == '"') {
+                    finishReason = readString();
+                    return;
+                }
+                break;
+            case CTX_DELTA:
+                if (keyEquals(keyStart, keyEnd, KEY_CONTENT) && at(pos) == '"') {
+                    content = readString();
+                    return;
+                }
+                if (keyEquals(keyStart, keyEnd, KEY_TOOL_CALLS) && at(pos) == '[') {
+                    parseToolCalls();
+                    return;
+                }
+                break;
+            case CTX_TOOL_CALL:
+                if (keyEquals(keyStart, keyEnd, KEY_INDEX)) {
+                    int index = readInt();
+                    if (index >= 0) {
+                        currentToolIndex = index;
+                        currentToolCall = null;
+                    }
+                    return;
+                }
+                if (keyEquals(keyStart, keyEnd, KEY_ID) && at(pos) == '"') {
+                    currentToolCall().id = readString();
+                    return;
+                }
+                if (keyEquals(keyStart, keyEnd, KEY_FUNCTION) && at(pos) == '{') {
+                    parseObject(CTX_FUNCTION);
+                    return;
+                }
+                break;
+            case CTX_FUNCTION:
+                if (keyEquals(keyStart, keyEnd, KEY_NAME) && at(pos) == '"') {
+                    currentToolCall().name = readString();
+                    return;
+                }
+                if (keyEquals(keyStart, keyEnd, KEY_ARGUMENTS) && at(pos) == '"') {
+                    decodeString();
+                    currentToolCall().arguments.append(chars, 0, charLength);
+                    return;
+                }
+                break;
+            case CTX_USAGE:
+                if (keyEquals(keyStart, keyEnd, KEY_PROMPT_TOKENS)) {
+                    promptTokens = readInt();
+                    return;
+                }
+                if (keyEquals(keyStart, keyEnd, KEY_COMPLETION_TOKENS)) {
+                    completionTokens = readInt();
+                    return;
+                }
+                if (keyEquals(keyStart, keyEnd, KEY_PROMPT_DETAILS) && at(pos) == '{') {
+                    parseObject(CTX_PROMPT_DETAILS);
+                    return;
+                }
+                break;
+            case CTX_PROMPT_DETAILS:
+                if (keyEquals(keyStart, keyEnd, KEY_CACHED_TOKENS)) {
+                    cachedTokens = readInt();
+                    return;
+                }
+                break;
+            default:
+                break;
+        }
+        parseValue(CTX_OTHER);
+    }
+
+    private void parseChoices() throws IOException {
+        pos++; // '['
+        skipWhitespace();
+        int index = 0;
+        while (at(pos) != ']') {
+            // 첫 번째 choice만 사용
+            parseValue(index == 0 ? CTX_CHOICE : CTX_OTHER);
+            index++;
+            skipWhitespace();
+            if (at(pos) == ',') {
+                pos++;
+                skipWhitespace();
+            }
+        }
+        pos++; // ']'
+    }
+
+    /**
+     * delta.tool_calls 배열 - 원소마다 index로 기존 호출을 찾아 이어 붙임
+     * (index가 없으면 배열 안 순서를 index로 사용)
+     */
+    private void parseToolCalls() throws IOException {
+        pos++; // '['
+        skipWhitespace();
+        int position = 0;
+        while (at(pos) != ']') {
+            currentToolIndex = position;
+            currentToolCall = null;
+            parseValue(CTX_TOOL_CALL);
+            position++;
+            skipWhitespace();
+            if (at(pos) == ',') {
+                pos++;
+                skipWhitespace();
+            }
+        }
+        pos++; // ']'
+    }
+
+    private ToolCall currentToolCall() {
+        if (currentToolCall == null) {
+            currentToolCall = toolCall(currentToolIndex);
+        }
+        return currentToolCall;
+    }
+
+    private ToolCall toolCall(int index) {
+        for (int i = 0; i < toolCalls.size(); i++) {
+            if (toolCalls.get(i).index == index) {
+                return toolCalls.get(i);
+            }
+        }
+        ToolCall call = new ToolCall(index);
+        toolCalls.add(call);
+        return call;
+    }
+
+    private void skipArray() throws IOException {
+        pos++; // '['
+        skipWhitespace();
+        while (at(pos) != ']') {
+            parseValue(CTX_OTHER);
+            skipWhitespace();
+            if (at(pos) == ',') {
+                pos++;
+                skipWhitespace();
+            }
+        }
+        pos++; // ']'
+    }
+
+    private boolean keyEquals(int start, int end, byte[] key) {
+        if (end - start != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (line[start + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void skipWhitespace() {
+        while (pos < lineLength) {
+            byte b = line[pos];
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private void skipString() throws IOException {
+        pos++; // 여는 '"'
+        while (true) {
+            byte b = at(pos++);
+            if (b == '\\') {
+                pos++;
+            } else if (b == '"') {
+                return;
+            }
+        }
+    }
+
+    /** 숫자, true/false/null (문자열이면 문자열 전체) 건너뛰기 */
+    private void skipScalar() throws IOException {
+        if (at(pos) == '"') {
+            skipString();
+            return;
+        }
+        while (pos < lineLength) {
+            byte b = line[pos];
+            if (b == ',' || b == '}' || b == ']' || b == ' ') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private int readInt() throws IOException {
+        if (at(pos) < '0' || at(pos) > '9') {
+            skipScalar();
+            return -1;
+        }
+        int value = 0;
+        while (pos < lineLength && line[pos] >= '0' && line[pos] <= '9') {
+            value = value * 10 + (line[pos] - '0');
+            pos++;
+        }
+        return value;
+    }
+
+    /**
+     * JSON 문자열을 재사용 char 버퍼로 디코딩 (UTF-8 + 이스케이프)
+     */
+    private String readString() throws IOException {
+        decodeString();
+        return new String(chars, 0, charLength);
+    }
+
+    /**
+     * chars[0, charLength)에 디코딩만 함 (arguments 조각은 String 없이 바로 이어 붙임)
+     */
+    private void decodeString() throws IOException {
+        pos++; // 여는 '"'
+        charLength = 0;
+
+        while (true) {
+            int b = at(pos++) & 0xFF;
+            if (b == '"') {
+                break;
+            }
+            if (b == '\\') {
+                byte esc = at(pos++);
+                switch (esc) {
+                    case 'n': appendChar('\n'); break;
+                    case 't': appendChar('\t'); break;
+                    case 'r': appendChar('\r'); break;
+                    case 'b': appendChar('\b'); break;
+                    case 'f': appendChar('\f'); break;
+                    case 'u':
+                        appendChar(readHex4());
+                        break;
+                    default: appendChar((char) esc); break; // \" \\ \/
+                }
+            } else if (b < 0x80) {
+                appendChar((char) b);
+            } else if (b < 0xE0) {
+                appendChar((char) (((b & 0x1F) << 6) | (at(pos++) & 0x3F)));
+            } else if (b < 0xF0) {
+                appendChar((char) (((b & 0x0F) << 12) | ((at(pos) & 0x3F) << 6) | (at(pos + 1) & 0x3F)));
+                pos += 2;
+            } else {
+                int cp = ((b & 0x07) << 18) | ((at(pos) & 0x3F) << 12)
+                        | ((at(pos + 1) & 0x3F) << 6) | (at(pos + 2) & 0x3F);
+                pos += 3;
+                appendChar(Character.highSurrogate(cp));
+                appendChar(Character.lowSurrogate(cp));
+            }
+        }
+    }
+
+    /**
+     * 줄 안의 바이트 (줄 버퍼는 이전 줄과 공유하므로 lineLength 밖은 지난 줄의 찌꺼기)
+     * 스트림이 줄 중간에서 끊기면 예외 -> 잘못된 청크로 셈
+     */
+    private byte at(int index) throws IOException {
+        if (index >= lineLength) {
+            throw new IOException("줄이 중간에 끊김");
+        }
+        return line[index];
+    }
+
+    private void appendChar(char c) {
+        if (charLength == chars.length) {
+            char[] bigger = new char[chars.length * 2];
+            System.arraycopy(chars, 0, bigger, 0, charLength);
+            chars = bigger;
+        }
+        chars[charLength++] = c;
+    }
+
+    /** \\uXXXX 의 16진수 4자리 */
+    private char readHex4() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int b = at(pos++);
+            int digit = Character.digit(b, 16);
+            if (digit < 0) {
+                throw new IOException("잘못된 유니코드 이스케이프");
+            }
+            value = (value << 4) | digit;
+        }
+        return (char) value;
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+    }
+}
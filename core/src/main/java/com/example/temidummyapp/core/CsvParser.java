@@ -0,0 +1,123 @@
+package com.example.temidummyapp.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 프로그램 CSV 한 줄 파싱 (CSVLoader가 카탈로그 에셋 DB 대신 CSV를 가져올 때 사용)
+ * - 큰따옴표로 감싼 필드 안의 쉼표, 이스케이프된 큰따옴표("") 처리
+ * - 소요시간 문자열 -> 분 (빌드 스크립트의 CatalogCsv.minutes와 같은 규칙)
+ *
+ * 줄마다 필드 버퍼를 재사용 (인스턴스는 스레드 안전하지 않음)
+ */
+public class CsvParser {
+
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder(64);
+
+    /**
+     * CSV 한 줄 -> 필드 배열
+     * 예: "나의 왕자님, 공주님을 찾아라!" -> 하나의 필드로 인식
+     */
+    public String[] parseLine(String line) {
+        fields.clear();
+        field.setLength(0);
+        boolean inQuotes = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (c == '"') {
+                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    // 이스케이프된 큰따옴표 ("")
+                    field.append('"');
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else if (c == ',' && !inQuotes) {
+                // 큰따옴표 밖의 쉼표는 필드 구분자
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * "5분" -> 5, "10~20분" -> 20 (범위는 큰 값), 숫자가 없으면 null
+     * 정규식 없이 숫자 묶음을 한 번 훑음 (첫 범위의 뒤 숫자, 범위가 없으면 첫 숫자)
+     */
+    public static Integer parseMinutes(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        int length = raw.length();
+        long first = -1;
+        int i = 0;
+        while (i < length) {
+            if (!isDigit(raw.charAt(i))) {
+                i++;
+                continue;
+            }
+            int end = digitsEnd(raw, i);
+            long value = digitsValue(raw, i, end);
+            if (first < 0) {
+                first = value;
+            }
+
+            // "숫자 ~ 숫자" (물결표 앞뒤 공백 허용)
+            int p = skipSpaces(raw, end);
+            if (p < length && raw.charAt(p) == '~') {
+                int start = skipSpaces(raw, p + 1);
+                if (start < length && isDigit(raw.charAt(start))) {
+                    long upper = digitsValue(raw, start, digitsEnd(raw, start));
+                    if (upper <= Integer.MAX_VALUE) {
+                        return (int) upper;
+                    }
+                    // 범위 끝이 너무 크면 첫 숫자 (뒤의 다른 범위는 보지 않음)
+                    break;
+                }
+            }
+            i = end;
+        }
+        return first >= 0 && first <= Integer.MAX_VALUE ? Integer.valueOf((int) first) : null;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int digitsEnd(String s, int start) {
+        int end = start;
+        while (end < s.length() && isDigit(s.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * 숫자 묶음 값 (int 범위를 넘으면 Long.MAX_VALUE)
+     */
+    private static long digitsValue(String s, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (s.charAt(i) - '0');
+            if (value > Integer.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+        }
+        return value;
+    }
+
+    private static int skipSpaces(String s, int from) {
+        while (from < s.length() && Character.isWhitespace(s.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+}
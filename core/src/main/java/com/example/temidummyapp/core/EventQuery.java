@@ -0,0 +1,158 @@
+package com.example.temidummyapp.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * events 테이블 조회문 + 바인딩 값 (EventSearchHelper가 rawQuery로 실행)
+ * - 값은 모두 ? 로 바인딩 (문자열 이어 붙이기/따옴표 이스케이프 없음)
+ * - 같은 조건이면 같은 SQL 문자열 -> SQLite 문장 캐시 재사용
+ */
+public final class EventQuery {
+
+    // 부스 찾기 화면의 참여대상 버튼 -> 포함할 참여대상 값 (선택한 대상 이상 + 누구나)
+    private static final String[] TARGET_STEPS = {"초등학생 이상", "초등학생(고학년)이상", "중학생 이상", "고등학생 이상"};
+    private static final String TARGET_ANYONE = "누구나";
+
+    public final String sql;
+    public final String[] args;
+
+    private EventQuery(String sql, String[] args) {
+        this.sql = sql;
+        this.args = args;
+    }
+
+    /**
+     * 부스 찾기 화면 필터 (분야/대상/시간은 각각 여러 개 선택 가능, 조건끼리는 AND)
+     *
+     * @param 사전모집     비어 있으면 조건 없음
+     * @param 대상목록     버튼 값 - 계단식으로 상위 대상과 누구나까지 포함
+     * @param 최대시간목록 여러 개면 가장 긴 시간 기준
+     */
+    public static EventQuery filter(List<String> 분야목록, String 사전모집, List<String> 대상목록,
+                                    List<Integer> 최대시간목록) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM events WHERE 1=1 ");
+        List<String> args = new ArrayList<>();
+        appendIn(sql, args, "분야", 분야목록);
+        if (사전모집 != null && 사전모집.length() > 0) {
+            sql.append("AND 사전모집여부=? ");
+            args.add(사전모집);
+        }
+        if (대상목록 != null && !대상목록.isEmpty()) {
+            Set<String> targets = new LinkedHashSet<>();
+            for (String 대상 : 대상목록) {
+                expandTarget(대상, targets);
+            }
+            appendIn(sql, args, "참여대상", targets);
+        }
+        if (최대시간목록 != null) {
+            int max = -1;
+            for (Integer minutes : 최대시간목록) {
+                if (minutes != null && minutes > max) {
+                    max = minutes;
+                }
+            }
+            if (max >= 0) {
+                sql.append("AND 소요시간<=? ");
+                args.add(String.valueOf(max));
+            }
+        }
+        return new EventQuery(sql.toString(), args.toArray(new String[0]));
+    }
+
+    /**
+     * 챗봇 도구(search_booths)용 검색
+     * - 분야/대상은 정확히 일치하는 값 목록 (OR), 키워드는 제목·소개·분야 부분 일치
+     * - 짧은 체험부터 정렬, 최대 limit개
+     *
+     * @param 참여대상목록 허용할 참여대상 값 그대로 (계단식 확장 없음)
+     * @param 최대시간     0 이하면 제한 없음
+     */
+    public static EventQuery forChat(List<String> 분야목록, List<String> 참여대상목록,
+                                     int 최대시간, String keyword, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM events WHERE 1=1 ");
+        List<String> args = new ArrayList<>();
+        appendIn(sql, args, "분야", 분야목록);
+        appendIn(sql, args, "참여대상", 참여대상목록);
+        if (최대시간 > 0) {
+            sql.append("AND 소요시간<=? ");
+            args.add(String.valueOf(최대시간));
+        }
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            String like = "%" + keyword.trim() + "%";
+            sql.append("AND (대제목 LIKE ? OR 한줄소개 LIKE ? OR 분야 LIKE ?) ");
+            args.add(like);
+            args.add(like);
+            args.add(like);
+        }
+        sql.append("ORDER BY 소요시간 ASC LIMIT ").append(limit);
+        return new EventQuery(sql.toString(), args.toArray(new String[0]));
+    }
+
+    /**
+     * id로 조회 (챗봇 답변의 부스 카드용) - 없는 id는 빠짐, 순서는 DB 순서
+     */
+    public static EventQuery byIds(long[] ids) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM events WHERE id IN (");
+        String[] args = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            sql.append(i > 0 ? ",?" : "?");
+            args[i] = String.valueOf(ids[i]);
+        }
+        return new EventQuery(sql.append(')').toString(), args);
+    }
+
+    /**
+     * 버튼 값 -> 참여대상 값들 ("중학생 이상" -> 중학생 이상, 고등학생 이상, 누구나)
+     * 목록에 없는 값은 그대로 (호환성 유지)
+     */
+    private static void expandTarget(String 대상, Set<String> out) {
+        if (대상 == null) {
+            return;
+        }
+        for (int i = 0; i < TARGET_STEPS.length; i++) {
+            if (TARGET_STEPS[i].equals(대상)) {
+                for (int j = i; j < TARGET_STEPS.length; j++) {
+                    out.add(TARGET_STEPS[j]);
+                }
+                out.add(TARGET_ANYONE);
+                return;
+            }
+        }
+        out.add(대상);
+    }
+
+    private static void appendIn(StringBuilder sql, List<String> args, String column, Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        int start = sql.length();
+        sql.append("AND ").append(column).append(" IN (");
+        int count = 0;
+        for (String value : values) {
+            if (value == null) {
+                continue;
+            }
+            sql.append(count++ > 0 ? ",?" : "?");
+            args.add(value);
+        }
+        if (count == 0) {
+            sql.setLength(start);
+            return;
+        }
+        sql.append(") ");
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(sql);
+        sb.append(" [");
+        for (int i = 0; i < args.length; i++) {
+            sb.append(i > 0 ? ", " : "").append(args[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.temidummyapp.core;
+
+/**
+ * 채팅 답변용 마크다운 토크나이저 (한 번 훑기, 증분)
+ * - 인라인: **볼드**, *이탤릭*, ~~취소선~~ (줄 단위, 닫히지 않은 기호는 그대로 표시)
+ * - 줄 시작: # ~ ###### 제목, -, *, + 글머리표 (• 로 바꿈), 번호 목록은 그대로
+ * - 결과는 표시용 텍스트 + 스팬 범위(int 배열)만 만들고, Spannable 변환은 ChatAdapter가 담당
+ *   (안드로이드 클래스에 의존하지 않으므로 JVM 테스트/벤치마크 가능)
+ *
+ * 스트리밍: update()에 누적 텍스트를 넘기면 이미 끝난 줄('\n'까지)은 확정하고
+ * 마지막 미완성 줄만 다시 처리 -> 청크마다 전체 메시지를 다시 훑지 않음
+ */
+public class MarkdownSpanBuilder {
+
+    public static final int TYPE_BOLD = 0;
+    public static final int TYPE_STRIKE = 1;
+    public static final int TYPE_ITALIC = 2;
+    public static final int TYPE_HEADING_1 = 3;
+    public static final int TYPE_HEADING_2 = 4;
+    public static final int TYPE_HEADING_3 = 5; // ### 이하
+
+    private static final String BULLET = "• ";
+
+    // 표시용 텍스트 (마크다운 기호 제거됨)
+    private final StringBuilder text = new StringBuilder(512);
+
+    // 스팬: [start, end, type] 반복
+    private int[] spans = new int[3 * 16];
+    private int spanCount;
+
+    // 확정된 부분 (완성된 줄까지)
+    private int committedSource;
+    private int committedText;
+    private int committedSpans;
+    private int sourceLength;
+
+    // 한 줄 처리용 구분자 버퍼 (재사용) - 원문 위치, 종류, 짝 (-1 = 짝 없음)
+    private int[] delimPos = new int[16];
+    private int[] delimType = new int[16];
+    private int[] delimPair = new int[16];
+    private final int[] openDelim = new int[3];
+
+    /**
+     * 처음부터 다시 (다른 메시지에 재사용할 때)
+     */
+    public void reset() {
+        text.setLength(0);
+        spanCount = 0;
+        committedSource = 0;
+        committedText = 0;
+        committedSpans = 0;
+        sourceLength = 0;
+    }
+
+    /**
+     * 완성된 메시지 전체 처리
+     */
+    public MarkdownSpanBuilder build(CharSequence source) {
+        reset();
+        update(source);
+        return this;
+    }
+
+    /**
+     * 스트리밍 중인 누적 텍스트 반영
+     * 이전 입력 뒤에 이어 붙은 텍스트여야 함 (줄어들었으면 처음부터 다시 처리)
+     *
+     * @return 이어서 처리했으면 true, 처음부터 다시 처리했으면 false
+     */
+    public boolean update(CharSequence source) {
+        int length = source.length();
+        boolean continued = true;
+        if (length < sourceLength
+                || (committedSource > 0 && source.charAt(committedSource - 1) != '\n')) {
+            reset();
+            continued = false;
+        }
+        sourceLength = length;
+
+        // 지난번 미완성 줄 결과 버림
+        text.setLength(committedText);
+        spanCount = committedSpans;
+
+        int lineStart = committedSource;
+        while (lineStart < length) {
+            int lineEnd = indexOfNewline(source, lineStart, length);
+            if (lineEnd < 0) {
+                processLine(source, lineStart, length);
+                break;
+            }
+            processLine(source, lineStart, lineEnd);
+            text.append('\n');
+            lineStart = lineEnd + 1;
+
+            committedSource = lineStart;
+            committedText = text.length();
+            committedSpans = spanCount;
+        }
+        return continued;
+    }
+
+    public CharSequence text() {
+        return text;
+    }
+
+    public int spanCount() {
+        return spanCount;
+    }
+
+    public int spanStart(int index) {
+        return spans[index * 3];
+    }
+
+    public int spanEnd(int index) {
+        return spans[index * 3 + 1];
+    }
+
+    public int spanType(int index) {
+        return spans[index * 3 + 2];
+    }
+
+    /**
+     * 다음 update()에서도 바뀌지 않는 텍스트 길이 (완성된 줄까지)
+     */
+    public int committedTextLength() {
+        return committedText;
+    }
+
+    /**
+     * 다음 update()에서도 바뀌지 않는 스팬 개수
+     */
+    public int committedSpanCount() {
+        return committedSpans;
+    }
+
+    // ===== 줄 단위 처리 =====
+
+    private void processLine(CharSequence src, int start, int end) {
+        int lineTextStart = text.length();
+        int headingType = -1;
+
+        // 들여쓰기
+        int p = start;
+        while (p < end && (src.charAt(p) == ' ' || src.charAt(p) == '\t')) {
+            p++;
+        }
+
+        if (p < end && src.charAt(p) == '#') {
+            int level = 0;
+            while (p + level < end && src.charAt(p + level) == '#') {
+                level++;
+            }
+            if (level <= 6 && p + level < end && src.charAt(p + level) == ' ') {
+                headingType = level == 1 ? TYPE_HEADING_1 : level == 2 ? TYPE_HEADING_2 : TYPE_HEADING_3;
+                start = p + level + 1;
+            }
+        } else if (p + 1 < end && isBulletMarker(src.charAt(p)) && src.charAt(p + 1) == ' ') {
+            text.append(src, start, p).append(BULLET);
+            start = p + 2;
+        }
+
+        processInline(src, start, end);
+
+        if (headingType >= 0 && text.length() > lineTextStart) {
+            addSpan(lineTextStart, text.length(), headingType);
+        }
+    }
+
+    /**
+     * 인라인 강조 처리
+     * 1) 구분자(**, ~~, *) 위치를 모으면서 종류별로 가장 가까운 여는 기호와 짝지음
+     * 2) 짝지어진 구분자는 빼고 복사하면서 스팬 위치 계산
+     */
+    private void processInline(CharSequence src, int start, int end) {
+        int count = 0;
+        openDelim[TYPE_BOLD] = -1;
+        openDelim[TYPE_STRIKE] = -1;
+        openDelim[TYPE_ITALIC] = -1;
+
+        int i = start;
+        while (i < end) {
+            char c = src.charAt(i);
+            int type;
+            int length;
+            if (c == '*') {
+                int run = 1;
+                while (i + run < end && src.charAt(i + run) == '*') {
+                    run++;
+                }
+                if (run == 1) {
+                    type = TYPE_ITALIC;
+                    length = 1;
+                } else if (run == 2) {
+                    type = TYPE_BOLD;
+                    length = 2;
+                } else {
+                    // *** 이상은 기호 그대로
+                    i += run;
+                    continue;
+                }
+            } else if (c == '~' && i + 1 < end && src.charAt(i + 1) == '~') {
+                type = TYPE_STRIKE;
+                length = 2;
+            } else {
+                i++;
+                continue;
+            }
+
+            int open = openDelim[type];
+            boolean canClose = open >= 0 && i > delimPos[open] + length && !isSpace(src.charAt(i - 1));
+            if (canClose) {
+                if (count == delimPos.length) {
+                    growDelims();
+                }
+                delimPos[count] = i;
+                delimType[count] = type;
+                delimPair[count] = open;
+                delimPair[open] = count;
+                openDelim[type] = -1;
+                count++;
+            } else if (i + length < end && !isSpace(src.charAt(i + length))) {
+                if (count == delimPos.length) {
+                    growDelims();
+                }
+                delimPos[count] = i;
+                delimType[count] = type;
+                delimPair[count] = -1;
+                openDelim[type] = count;
+                count++;
+            }
+            i += length;
+        }
+
+        if (count == 0) {
+            text.append(src, start, end);
+            return;
+        }
+
+        // 여는 기호 위치의 스팬은 닫는 기호에서 끝 위치가 정해지므로 먼저 자리 잡아 둠
+        int copied = start;
+        for (int d = 0; d < count; d++) {
+            int pair = delimPair[d];
+            if (pair < 0) {
+                continue;
+            }
+            int pos = delimPos[d];
+            int length = delimType[d] == TYPE_ITALIC ? 1 : 2;
+            text.append(src, copied, pos);
+            copied = pos + length;
+            if (pair > d) {
+                delimPair[d] = addSpan(text.length(), -1, delimType[d]);
+            } else {
+                spans[delimPair[pair] * 3 + 1] = text.length();
+            }
+        }
+        text.append(src, copied, end);
+    }
+
+    private int addSpan(int start, int end, int type) {
+        if ((spanCount + 1) * 3 > spans.length) {
+            int[] grown = new int[spans.length * 2];
+            System.arraycopy(spans, 0, grown, 0, spanCount * 3);
+            spans = grown;
+        }
+        spans[spanCount * 3] = start;
+        spans[spanCount * 3 + 1] = end;
+        spans[spanCount * 3 + 2] = type;
+        return spanCount++;
+    }
+
+    private void growDelims() {
+        int size = delimPos.length * 2;
+        int[] pos = new int[size];
+        int[] type = new int[size];
+        int[] pair = new int[size];
+        System.arraycopy(delimPos, 0, pos, 0, delimPos.length);
+        System.arraycopy(delimType, 0, type, 0, delimType.length);
+        System.arraycopy(delimPair, 0, pair, 0, delimPair.length);
+        delimPos = pos;
+        delimType = type;
+        delimPair = pair;
+    }
+
+    private static int indexOfNewline(CharSequence s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBulletMarker(char c) {
+        return c == '-' || c == '*' || c == '+';
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t';
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.temidummyapp.core;
+
+/**
+ * PCM16(little-endian) 음압 계산 (실시간 음성 대화의 마이크 레벨 표시)
+ * - RMS -> dBFS -> -60dB ~ 0dB 를 0.0 ~ 1.0 으로 정규화
+ * - 오디오 프레임마다 호출되므로 객체를 만들지 않음
+ */
+public final class PcmLevel {
+
+    // 이보다 작은 소리는 0.0
+    private static final double FLOOR_DB = -60.0;
+
+    private PcmLevel() {
+    }
+
+    /**
+     * 샘플 RMS (0 ~ 32768), 샘플이 없으면 0
+     */
+    public static double rms(byte[] pcm, int length) {
+        int sampleCount = length / 2;
+        if (sampleCount == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 0; i < length - 1; i += 2) {
+            int sample = (short) ((pcm[i + 1] << 8) | (pcm[i] & 0xFF));
+            sum += sample * sample;
+        }
+        return Math.sqrt((double) sum / sampleCount);
+    }
+
+    /**
+     * RMS -> 0.0 ~ 1.0 (-60dB ~ 0dB)
+     */
+    public static float normalize(double rms) {
+        if (rms <= 0) {
+            return 0f;
+        }
+        double db = 20 * Math.log10(rms / 32768.0);
+        return (float) Math.max(0.0, Math.min(1.0, (db - FLOOR_DB) / -FLOOR_DB));
+    }
+
+    /**
+     * 프레임 하나의 음압 (0.0 ~ 1.0)
+     */
+    public static float level(byte[] pcm, int length) {
+        return normalize(rms(pcm, length));
+    }
+}
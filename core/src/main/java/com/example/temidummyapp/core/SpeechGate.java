@@ -0,0 +1,201 @@
+package com.example.temidummyapp.core;
+
+/**
+ * 말소리 구간만 통과시키는 마이크 게이트 (Realtime 업링크에서 소음/침묵 프레임 제거)
+ * - 시작: 말소리 프레임이 onsetMs 동안 이어지면 열림, 직전 preRollMs 프레임부터 함께 내보냄 (말 첫소리 보호)
+ * - 끝: 말소리가 아닌 프레임이 hangoverMs 넘게 이어지면 닫힘 (그 사이 프레임은 내보냄 = 뒤쪽 여유)
+ * - 에코 보호(setEchoGuard): 스피커 소리가 날 때는 echoOnsetMs 동안 + echoMarginDb 더 큰 소리여야 열림
+ * - 프레임 소유권을 넘겨받음: 내보낸 프레임은 콜백이 끝나면, 버린 프레임은 바로 recycle
+ * - 녹음 스레드 하나에서만 호출
+ */
+public final class SpeechGate {
+
+    public interface Listener {
+        /**
+         * 말소리 구간 시작 (이어서 pre-roll 프레임부터 onSpeechFrame)
+         */
+        void onSpeechStart();
+
+        /**
+         * 보낼 프레임 - 콜백 안에서만 사용 (끝나면 게이트가 recycle)
+         */
+        void onSpeechFrame(AudioFrame frame);
+
+        /**
+         * 말소리 구간 끝 (hangover 이후)
+         */
+        void onSpeechEnd();
+    }
+
+    private final VoiceActivityDetector detector;
+    private final int frameMs;
+    private final int onsetFrames;
+    private final int echoOnsetFrames;
+    private final double echoMarginDb;
+    private final int hangoverFrames;
+    private boolean echoGuard = false;
+
+    // 게이트가 닫혀 있을 때 최근 프레임 (pre-roll + 시작 판단 중인 프레임), 원형
+    private final AudioFrame[] held;
+    private int heldStart = 0;
+    private int heldCount = 0;
+
+    private boolean inSpeech = false;
+    private int speechRun = 0;
+    private int silentRun = 0;
+
+    // 업링크 통계 (프레임 수 / input_audio_buffer.append 이벤트 바이트)
+    private long framesIn = 0;
+    private long framesSent = 0;
+    private long eventBytesIn = 0;
+    private long eventBytesSent = 0;
+    private int segments = 0;
+
+    public SpeechGate(VoiceActivityDetector detector, int frameMs, int preRollMs, int hangoverMs, int onsetMs) {
+        this(detector, frameMs, preRollMs, hangoverMs, onsetMs, onsetMs, 0);
+    }
+
+    /**
+     * @param echoOnsetMs  에코 보호 중 시작 판단 시간 (onsetMs 이상)
+     * @param echoMarginDb 에코 보호 중 잡음 바닥 대비 추가 여유
+     */
+    public SpeechGate(VoiceActivityDetector detector, int frameMs, int preRollMs, int hangoverMs, int onsetMs,
+                      int echoOnsetMs, double echoMarginDb) {
+        this.detector = detector;
+        this.frameMs = frameMs;
+        this.onsetFrames = Math.max(1, frames(onsetMs, frameMs));
+        this.echoOnsetFrames = Math.max(onsetFrames, frames(echoOnsetMs, frameMs));
+        this.echoMarginDb = echoMarginDb;
+        this.hangoverFrames = frames(hangoverMs, frameMs);
+        this.held = new AudioFrame[frames(preRollMs, frameMs) + echoOnsetFrames];
+    }
+
+    /**
+     * 에코 보호 켜기/끄기 (녹음 스레드, 프레임마다 호출해도 됨) - 이미 열린 구간에는 영향 없음
+     */
+    public void setEchoGuard(boolean on) {
+        if (echoGuard != on) {
+            echoGuard = on;
+            detector.setExtraMarginDb(on ? echoMarginDb : 0);
+        }
+    }
+
+    private static int frames(int ms, int frameMs) {
+        return (ms + frameMs - 1) / frameMs;
+    }
+
+    /**
+     * 프레임 하나 처리 (소유권 이전)
+     */
+    public void offer(AudioFrame frame, Listener listener) {
+        boolean speech = detector.isSpeech(frame.data, frame.length());
+        framesIn++;
+        eventBytesIn += AudioAppendEncoder.frameLength(frame.length());
+
+        if (inSpeech) {
+            silentRun = speech ? 0 : silentRun + 1;
+            if (silentRun <= hangoverFrames) {
+                send(frame, listener);
+                return;
+            }
+            inSpeech = false;
+            speechRun = 0;
+            listener.onSpeechEnd();
+            hold(frame);
+            return;
+        }
+
+        speechRun = speech ? speechRun + 1 : 0;
+        hold(frame);
+        if (speechRun >= (echoGuard ? echoOnsetFrames : onsetFrames)) {
+            inSpeech = true;
+            silentRun = 0;
+            segments++;
+            listener.onSpeechStart();
+            while (heldCount > 0) {
+                AudioFrame oldest = held[heldStart];
+                held[heldStart] = null;
+                heldStart = (heldStart + 1) % held.length;
+                heldCount--;
+                send(oldest, listener);
+            }
+        }
+    }
+
+    private void send(AudioFrame frame, Listener listener) {
+        framesSent++;
+        eventBytesSent += AudioAppendEncoder.frameLength(frame.length());
+        try {
+            listener.onSpeechFrame(frame);
+        } finally {
+            frame.recycle();
+        }
+    }
+
+    private void hold(AudioFrame frame) {
+        if (heldCount == held.length) {
+            // 가장 오래된 프레임은 pre-roll 밖 - 버림
+            held[heldStart].recycle();
+            held[heldStart] = null;
+            heldStart = (heldStart + 1) % held.length;
+            heldCount--;
+        }
+        held[(heldStart + heldCount) % held.length] = frame;
+        heldCount++;
+    }
+
+    /**
+     * 보관 중인 프레임 반납 + 처음 상태로 (통계는 유지)
+     */
+    public void reset() {
+        while (heldCount > 0) {
+            held[heldStart].recycle();
+            held[heldStart] = null;
+            heldStart = (heldStart + 1) % held.length;
+            heldCount--;
+        }
+        heldStart = 0;
+        inSpeech = false;
+        speechRun = 0;
+        silentRun = 0;
+        detector.reset();
+    }
+
+    public boolean inSpeech() {
+        return inSpeech;
+    }
+
+    public long framesIn() {
+        return framesIn;
+    }
+
+    public long framesSent() {
+        return framesSent;
+    }
+
+    /**
+     * 말소리 구간 수
+     */
+    public int segments() {
+        return segments;
+    }
+
+    /**
+     * 게이트가 없을 때(모든 프레임 전송)의 업링크 bytes/분
+     */
+    public long inputBytesPerMinute() {
+        return perMinute(eventBytesIn);
+    }
+
+    /**
+     * 게이트를 통과해 실제 보낸 업링크 bytes/분
+     */
+    public long sentBytesPerMinute() {
+        return perMinute(eventBytesSent);
+    }
+
+    private long perMinute(long bytes) {
+        long elapsedMs = framesIn * frameMs;
+        return elapsedMs > 0 ? bytes * 60_000L / elapsedMs : 0;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.temidummyapp.core;
+
+/**
+ * 프레임 단위 음성 감지 (PCM16 모노, 프레임마다 호출되므로 객체를 만들지 않음)
+ * - 에너지: 잡음 바닥보다 MARGIN_DB 이상 커야 함
+ *   잡음 바닥 = 최근 BLOCKS x BLOCK_MS 동안의 최소 에너지 (말소리는 음절 사이에 잠깐씩 조용해지므로 최솟값 = 소음)
+ * - 대역 비율: 300~3400Hz(말소리 대역) 에너지가 전체의 MIN_BAND_RATIO 이상 (공조기 같은 낮은 웅웅 소리 제외)
+ * - 영교차율: MAX_ZERO_CROSSING 이하 (쉬익 하는 넓은 대역 잡음 제외)
+ * 발화 앞뒤 여유(pre-roll / hangover)는 SpeechGate에서 처리
+ */
+public final class VoiceActivityDetector {
+
+    private static final double MARGIN_DB = 9.0;
+    // 이보다 작은 소리는 잡음 바닥과 상관없이 무음
+    private static final double MIN_SPEECH_DB = -50.0;
+    // 첫 프레임의 잡음 바닥 (이후에는 지금까지의 최솟값)
+    private static final double INITIAL_FLOOR_DB = -50.0;
+    private static final double SILENCE_DB = -100.0;
+    private static final double MIN_BAND_RATIO = 0.3;
+    private static final double MAX_ZERO_CROSSING = 0.3;
+    private static final int BLOCK_MS = 500;
+    private static final int BLOCKS = 5;
+
+    // 추가 여유 (AI 음성 재생 중: 스피커 소리가 에코 제거 후에도 남을 수 있음)
+    private double extraMarginDb = 0;
+
+    private final int samplesPerBlock;
+    private final double highPassA;
+    private final double lowPassB;
+
+    // 대역 필터 상태 (프레임 사이에 이어짐)
+    private int lastSample = 0;
+    private double highPass = 0;
+    private double lowPass = 0;
+
+    // 블록별 최소 에너지 (원형)
+    private final double[] blockMinDb = new double[BLOCKS];
+    private int blockIndex = 0;
+    private int blocksFilled = 0;
+    private double currentMinDb = Double.POSITIVE_INFINITY;
+    private int currentSamples = 0;
+
+    // 마지막 프레임 특징 (로그/테스트용)
+    private double energyDb = SILENCE_DB;
+    private double noiseFloorDb = INITIAL_FLOOR_DB;
+    private double bandRatio = 0;
+    private double zeroCrossing = 0;
+
+    public VoiceActivityDetector(int sampleRate) {
+        this.samplesPerBlock = sampleRate * BLOCK_MS / 1000;
+        // 1차 고역(300Hz) -> 1차 저역(3400Hz) 필터 계수
+        double dt = 1.0 / sampleRate;
+        double highPassRc = 1.0 / (2 * Math.PI * 300);
+        double lowPassRc = 1.0 / (2 * Math.PI * 3400);
+        this.highPassA = highPassRc / (highPassRc + dt);
+        this.lowPassB = dt / (lowPassRc + dt);
+    }
+
+    /**
+     * 프레임 하나가 말소리인지 판단하고 잡음 바닥을 갱신
+     */
+    public boolean isSpeech(byte[] pcm, int length) {
+        int samples = length / 2;
+        if (samples == 0) {
+            return false;
+        }
+
+        long sum = 0;
+        double bandSum = 0;
+        int crossings = 0;
+        int prev = lastSample;
+        double hp = highPass;
+        double lp = lowPass;
+        for (int i = 0; i + 1 < length; i += 2) {
+            int sample = (short) ((pcm[i + 1] << 8) | (pcm[i] & 0xFF));
+            sum += (long) sample * sample;
+            hp = highPassA * (hp + sample - prev);
+            lp += lowPassB * (hp - lp);
+            bandSum += lp * lp;
+            if ((sample ^ prev) < 0) {
+                crossings++;
+            }
+            prev = sample;
+        }
+        lastSample = prev;
+        highPass = hp;
+        lowPass = lp;
+
+        energyDb = sum > 0 ? 10 * Math.log10((double) sum / samples / (32768.0 * 32768.0)) : SILENCE_DB;
+        bandRatio = sum > 0 ? bandSum / sum : 0;
+        zeroCrossing = (double) crossings / samples;
+
+        // 이번 프레임을 넣기 전의 잡음 바닥으로 판단
+        noiseFloorDb = floorDb();
+        boolean speech = energyDb >= MIN_SPEECH_DB
+                && energyDb >= noiseFloorDb + MARGIN_DB + extraMarginDb
+                && bandRatio >= MIN_BAND_RATIO
+                && zeroCrossing <= MAX_ZERO_CROSSING;
+
+        trackMinimum(samples);
+        return speech;
+    }
+
+    private double floorDb() {
+        double floor = currentMinDb;
+        for (int i = 0; i < blocksFilled; i++) {
+            floor = Math.min(floor, blockMinDb[i]);
+        }
+        // 시작하자마자 말하면 첫 음절은 바닥으로 잡히지만, 음절 사이 조용한 순간에 바로 내려감 (앞부분은 pre-roll로 보냄)
+        return floor == Double.POSITIVE_INFINITY ? INITIAL_FLOOR_DB : floor;
+    }
+
+    private void trackMinimum(int samples) {
+        currentMinDb = Math.min(currentMinDb, energyDb);
+        currentSamples += samples;
+        if (currentSamples >= samplesPerBlock) {
+            blockMinDb[blockIndex] = currentMinDb;
+            blockIndex = (blockIndex + 1) % BLOCKS;
+            blocksFilled = Math.min(blocksFilled + 1, BLOCKS);
+            currentMinDb = Double.POSITIVE_INFINITY;
+            currentSamples = 0;
+        }
+    }
+
+    /**
+     * 잡음 바닥 대비 여유를 extraDb만큼 높임 (0이면 기본)
+     */
+    public void setExtraMarginDb(double extraDb) {
+        this.extraMarginDb = extraDb;
+    }
+
+    /**
+     * 처음 상태로 (새 녹음 시작)
+     */
+    public void reset() {
+        lastSample = 0;
+        highPass = 0;
+        lowPass = 0;
+        blockIndex = 0;
+        blocksFilled = 0;
+        currentMinDb = Double.POSITIVE_INFINITY;
+        currentSamples = 0;
+        energyDb = SILENCE_DB;
+        noiseFloorDb = INITIAL_FLOOR_DB;
+        bandRatio = 0;
+        zeroCrossing = 0;
+    }
+
+    public double energyDb() {
+        return energyDb;
+    }
+
+    public double noiseFloorDb() {
+        return noiseFloorDb;
+    }
+
+    public double bandRatio() {
+        return bandRatio;
+    }
+
+    public double zeroCrossing() {
+        return zeroCrossing;
+    }
+}
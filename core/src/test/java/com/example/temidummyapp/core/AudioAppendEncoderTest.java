@@ -0,0 +1,75 @@
+package com.example.temidummyapp.core;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * AudioAppendEncoder 결과가 기존 방식 (Base64 문자열 + JsonObject + gson.toJson)과 같은 이벤트인지
+ * 속도/할당 비교는 benchmarks 모듈의 AudioAppendEncoderBenchmark (-prof gc)
+ */
+public class AudioAppendEncoderTest {
+
+    private static final int FRAME_BYTES = 1920;
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void encoderMatchesGsonEnvelope() {
+        AudioAppendEncoder encoder = new AudioAppendEncoder(16);
+        Random random = new Random(7);
+        // 나머지 0/1/2 바이트, 버퍼보다 큰 프레임, 홀수 길이
+        int[] sizes = {0, 1, 2, 3, 4, 5, 6, 7, 16, 17, 1920, 3841};
+        for (int size : sizes) {
+            byte[] pcm = new byte[size + 5];
+            random.nextBytes(pcm);
+            int n = encoder.encode(pcm, 5, size);
+            assertEquals(AudioAppendEncoder.frameLength(size), n);
+            // Gson은 '='를 \u003d로 이스케이프하므로 파싱한 값으로 비교
+            assertEquals("size " + size, JsonParser.parseString(withGson(pcm, 5, size)),
+                    JsonParser.parseString(new String(encoder.frame(), 0, n, StandardCharsets.US_ASCII)));
+        }
+    }
+
+    @Test
+    public void shorterFrameDoesNotKeepOldBytes() {
+        AudioAppendEncoder encoder = new AudioAppendEncoder(FRAME_BYTES);
+        byte[] pcm = frame(FRAME_BYTES);
+        encoder.encode(pcm, 0, pcm.length);
+        String text = encoder.encodeToString(pcm, 0, 10);
+        assertEquals(JsonParser.parseString(withGson(pcm, 0, 10)), JsonParser.parseString(text));
+        assertEquals(text.length(), encoder.length());
+    }
+
+    /**
+     * 기존 OpenAIRealtimeService 방식
+     */
+    private String withGson(byte[] pcm, int offset, int count) {
+        byte[] copy = new byte[count];
+        System.arraycopy(pcm, offset, copy, 0, count);
+        JsonObject audioAppend = new JsonObject();
+        audioAppend.addProperty("type", "input_audio_buffer.append");
+        audioAppend.addProperty("audio", Base64.getEncoder().encodeToString(copy));
+        return gson.toJson(audioAppend);
+    }
+
+    private static byte[] frame(int bytes) {
+        // 말소리 크기 정도의 잡음 (고정 시드)
+        Random random = new Random(42);
+        byte[] pcm = new byte[bytes];
+        for (int i = 0; i + 1 < bytes; i += 2) {
+            short sample = (short) (random.nextGaussian() * 3000);
+            pcm[i] = (byte) sample;
+            pcm[i + 1] = (byte) (sample >> 8);
+        }
+        return pcm;
+    }
+}
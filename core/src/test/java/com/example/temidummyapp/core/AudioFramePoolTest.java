@@ -0,0 +1,66 @@
+package com.example.temidummyapp.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class AudioFramePoolTest {
+
+    @Test
+    public void frameBytesFollowsDuration() {
+        // 24kHz PCM16 모노: 20ms = 480샘플 = 960바이트
+        assertEquals(960, AudioFramePool.frameBytes(24000, 20));
+        assertEquals(1920, AudioFramePool.frameBytes(24000, 40));
+        assertEquals(320, AudioFramePool.frameBytes(16000, 10));
+    }
+
+    @Test
+    public void recycledFrameIsReused() {
+        AudioFramePool pool = new AudioFramePool(960, 4);
+        AudioFrame frame = pool.acquire();
+        assertEquals(960, frame.data.length);
+        frame.recycle();
+        assertSame(frame, pool.acquire());
+        assertEquals(1, pool.created());
+    }
+
+    @Test
+    public void steadyStreamStopsAllocating() {
+        AudioFramePool pool = new AudioFramePool(960, 4);
+        AudioFrame[] held = new AudioFrame[3];
+        for (int i = 0; i < 1000; i++) {
+            // 프레임 3개를 잡고 있다가 가장 오래된 것을 반납
+            if (held[i % 3] != null) {
+                held[i % 3].recycle();
+            }
+            held[i % 3] = pool.acquire();
+        }
+        assertEquals(3, pool.created());
+    }
+
+    @Test
+    public void doubleRecycleReturnsOnce() {
+        AudioFramePool pool = new AudioFramePool(960, 4);
+        AudioFrame frame = pool.acquire();
+        frame.recycle();
+        frame.recycle();
+        assertEquals(1, pool.available());
+        assertSame(frame, pool.acquire());
+        assertNotSame(frame, pool.acquire());
+    }
+
+    @Test
+    public void fullPoolDropsExtraFrames() {
+        AudioFramePool pool = new AudioFramePool(960, 2);
+        AudioFrame a = pool.acquire();
+        AudioFrame b = pool.acquire();
+        AudioFrame c = pool.acquire();
+        a.recycle();
+        b.recycle();
+        c.recycle();
+        assertEquals(2, pool.available());
+        assertEquals(3, pool.created());
+    }
+}
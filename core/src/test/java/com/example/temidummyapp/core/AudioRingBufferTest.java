@@ -0,0 +1,116 @@
+package com.example.temidummyapp.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AudioRingBufferTest {
+
+    @Test
+    public void pollReturnsBytesInOrderAcrossWrap() {
+        AudioRingBuffer ring = new AudioRingBuffer(10);
+        byte[] out = new byte[10];
+        assertTrue(ring.offer(bytes(0, 6), 0, 6));
+        assertEquals(4, ring.poll(out, 0, 4));
+        // 배열 끝을 넘어 앞으로 이어짐
+        assertTrue(ring.offer(bytes(6, 7), 0, 7));
+        assertEquals(9, ring.size());
+        assertEquals(9, ring.poll(out, 0, 10));
+        assertArrayEquals(bytes(4, 9), Arrays.copyOf(out, 9));
+        assertEquals(0, ring.poll(out, 0, 10));
+    }
+
+    @Test
+    public void offerIsAllOrNothing() {
+        AudioRingBuffer ring = new AudioRingBuffer(8);
+        assertTrue(ring.offer(bytes(0, 6), 0, 6));
+        assertFalse(ring.offer(bytes(6, 4), 0, 4));
+        assertEquals(6, ring.size());
+        assertEquals(6, ring.writeIndex());
+        assertTrue(ring.offer(bytes(6, 2), 0, 2));
+        assertEquals(8, ring.size());
+    }
+
+    @Test
+    public void skipToKeepsLaterData() {
+        AudioRingBuffer ring = new AudioRingBuffer(16);
+        ring.offer(bytes(0, 6), 0, 6);
+        long flushAt = ring.writeIndex();
+        ring.offer(bytes(6, 4), 0, 4);
+
+        assertEquals(6, ring.skipTo(flushAt));
+        assertEquals(0, ring.skipTo(flushAt));
+        byte[] out = new byte[4];
+        assertEquals(4, ring.poll(out, 0, 4));
+        assertArrayEquals(bytes(6, 4), out);
+        // 아직 들어오지 않은 위치까지는 버리지 않음
+        assertEquals(0, ring.skipTo(ring.writeIndex() + 100));
+    }
+
+    @Test
+    public void producerAndConsumerThreadsKeepEveryByte() throws Exception {
+        final int total = 4 * 1024 * 1024;
+        final AudioRingBuffer ring = new AudioRingBuffer(4800 * 4);
+        final AtomicReference<String> failure = new AtomicReference<>();
+
+        // 수신 델타처럼 크기가 제각각인 청크를 넣음
+        Thread producer = new Thread(() -> {
+            Random random = new Random(1);
+            byte[] chunk = new byte[4800];
+            int sent = 0;
+            while (sent < total) {
+                int n = Math.min(total - sent, 2 + random.nextInt(chunk.length - 2));
+                for (int i = 0; i < n; i++) {
+                    chunk[i] = (byte) (sent + i);
+                }
+                while (!ring.offer(chunk, 0, n)) {
+                    Thread.yield();
+                }
+                sent += n;
+            }
+        });
+        // 재생 스레드처럼 20ms 단위로 꺼냄
+        Thread consumer = new Thread(() -> {
+            byte[] chunk = new byte[960];
+            int received = 0;
+            while (received < total) {
+                int n = ring.poll(chunk, 0, chunk.length);
+                for (int i = 0; i < n; i++) {
+                    if (chunk[i] != (byte) (received + i)) {
+                        failure.compareAndSet(null, "바이트 " + (received + i) + " 불일치");
+                        return;
+                    }
+                }
+                received += n;
+                if (n == 0) {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+        consumer.start();
+        producer.join(30_000);
+        consumer.join(30_000);
+
+        assertNull(failure.get());
+        assertFalse("생산자/소비자가 끝나지 않음", producer.isAlive() || consumer.isAlive());
+        assertEquals(0, ring.size());
+        assertEquals(total, ring.writeIndex());
+    }
+
+    private static byte[] bytes(int start, int length) {
+        byte[] out = new byte[length];
+        for (int i = 0; i < length; i++) {
+            out[i] = (byte) (start + i);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.temidummyapp.core;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import okio.Buffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * ChatStreamParser 결과가 기존 Gson 방식 (readLine + substring + JsonObject 트리)과 같은지
+ * src/test/resources/sse 의 녹화된 스트림 사용 - 속도/할당 비교는 benchmarks 모듈의 ChatStreamParserBenchmark
+ */
+public class ChatStreamParserTest {
+
+    private static final String[] STREAMS = {"sse/short_answer.txt", "sse/long_recommendation.txt"};
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void parsersProduceSameText() throws IOException {
+        for (String name : STREAMS) {
+            byte[] data = load(name);
+            assertEquals(name, parseWithGson(data), parseWithStreamParser(data));
+        }
+    }
+
+    @Test
+    public void usageIsParsed() throws IOException {
+        ChatStreamParser parser = new ChatStreamParser(new Buffer().write(load("sse/short_answer.txt")));
+        String finishReason = null;
+        int event;
+        while ((event = parser.next()) == ChatStreamParser.EVENT_CHUNK) {
+            if (parser.finishReason() != null) {
+                finishReason = parser.finishReason();
+            }
+        }
+        assertEquals(ChatStreamParser.EVENT_DONE, event);
+        assertEquals("stop", finishReason);
+        assertEquals(3120, parser.promptTokens());
+        assertEquals(29, parser.completionTokens());
+        assertEquals(2944, parser.cachedTokens());
+    }
+
+    @Test
+    public void truncatedLastLineIsMalformed() throws IOException {
+        // 긴 줄 다음에 연결이 줄 중간에서 끊김 - 줄 버퍼에 남은 앞 줄 바이트를 읽으면 안 됨
+        String stream = "data: {\"choices\":[{\"delta\":{\"content\":\"AAAAAAAAAAAAAAAAAAAA\"}}]}\n\n"
+                + "data: {\"choices\":[{\"delta\":{\"content\":\"B";
+        ChatStreamParser parser = new ChatStreamParser(new Buffer().writeUtf8(stream));
+
+        assertEquals(ChatStreamParser.EVENT_CHUNK, parser.next());
+        assertEquals("AAAAAAAAAAAAAAAAAAAA", parser.content());
+        assertEquals(ChatStreamParser.EVENT_EOF, parser.next());
+        assertNull(parser.content());
+        assertEquals(1, parser.malformedChunks());
+    }
+
+    @Test
+    public void truncatedMultiByteCharacterIsMalformed() throws IOException {
+        // 한글(3바이트) 중간에서 끊김
+        byte[] full = "data: {\"choices\":[{\"delta\":{\"content\":\"안녕하세요\"}}]}\n".getBytes(StandardCharsets.UTF_8);
+        byte[] cut = "data: {\"choices\":[{\"delta\":{\"content\":\"안".getBytes(StandardCharsets.UTF_8);
+        Buffer buffer = new Buffer().write(full).write(cut, 0, cut.length - 1);
+        ChatStreamParser parser = new ChatStreamParser(buffer);
+
+        assertEquals(ChatStreamParser.EVENT_CHUNK, parser.next());
+        assertEquals(ChatStreamParser.EVENT_EOF, parser.next());
+        assertEquals(1, parser.malformedChunks());
+    }
+
+    /**
+     * 기존 OpenAIService 방식
+     */
+    private String parseWithGson(byte[] data) throws IOException {
+        StringBuilder text = new StringBuilder();
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.startsWith("data: ")) {
+                continue;
+            }
+            String chunkData = line.substring(6);
+            if (chunkData.equals("[DONE]")) {
+                break;
+            }
+            JsonObject json = gson.fromJson(chunkData, JsonObject.class);
+            if (json.has("choices") && json.getAsJsonArray("choices").size() > 0) {
+                JsonArray choices = json.getAsJsonArray("choices");
+                JsonObject choice = choices.get(0).getAsJsonObject();
+                if (choice.has("delta")) {
+                    JsonObject delta = choice.getAsJsonObject("delta");
+                    if (delta.has("content")) {
+                        text.append(delta.get("content").getAsString());
+                    }
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    private String parseWithStreamParser(byte[] data) throws IOException {
+        StringBuilder text = new StringBuilder();
+        ChatStreamParser parser = new ChatStreamParser(new Buffer().write(data));
+        while (parser.next() == ChatStreamParser.EVENT_CHUNK) {
+            if (parser.content() != null) {
+                text.append(parser.content());
+            }
+        }
+        return text.toString();
+    }
+
+    private static byte[] load(String name) throws IOException {
+        InputStream is = ChatStreamParserTest.class.getClassLoader().getResourceAsStream(name);
+        if (is == null) {
+            throw new IOException("리소스 없음: " + name);
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = is.read(buf)) != -1) {
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            is.close();
+        }
+    }
+}
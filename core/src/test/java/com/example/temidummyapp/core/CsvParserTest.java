@@ -0,0 +1,58 @@
+package com.example.temidummyapp.core;
+
+import org.junit.Test;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CsvParserTest {
+
+    @Test
+    public void quotedCommasAndEscapedQuotes() {
+        CsvParser parser = new CsvParser();
+        assertArrayEquals(new String[]{"AI", "나의 왕자님, 공주님을 찾아라!", "누구나", ""},
+                parser.parseLine("AI,\"나의 왕자님, 공주님을 찾아라!\",누구나,"));
+        assertArrayEquals(new String[]{"say \"hi\"", "x"}, parser.parseLine("\"say \"\"hi\"\"\",x"));
+        // 버퍼를 재사용해도 이전 줄이 남지 않음
+        assertArrayEquals(new String[]{"a"}, parser.parseLine("a"));
+    }
+
+    @Test
+    public void minutesMatchRegexVersion() {
+        String[] samples = {"5분", "10~20분", "15 ~ 30분", "약 3개 5~10분", "상시", "", "  ", "60분 이상",
+                "1~", "~5분", "99999999999분", "10~99999999999분"};
+        for (String sample : samples) {
+            assertEquals(sample, parseMinutesWithRegex(sample), CsvParser.parseMinutes(sample));
+        }
+        assertNull(CsvParser.parseMinutes(null));
+    }
+
+    /**
+     * 기존 CSVLoader.parseMinutes (정규식 두 번)
+     */
+    private static Integer parseMinutesWithRegex(String raw) {
+        String trimmed = raw.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        Matcher range = Pattern.compile("(\\d+)\\s*~\\s*(\\d+)").matcher(trimmed);
+        if (range.find()) {
+            try {
+                return Integer.parseInt(range.group(2));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        Matcher number = Pattern.compile("(\\d+)").matcher(trimmed);
+        if (number.find()) {
+            try {
+                return Integer.parseInt(number.group(1));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return null;
+    }
+}
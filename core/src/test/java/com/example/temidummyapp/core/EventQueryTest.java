@@ -0,0 +1,47 @@
+package com.example.temidummyapp.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class EventQueryTest {
+
+    @Test
+    public void filterBindsValuesAndExpandsTargets() {
+        EventQuery query = EventQuery.filter(Arrays.asList("인공지능", "O'Reilly"), "현장접수",
+                Arrays.asList("고등학생 이상", "중학생 이상"), Arrays.asList(10, 30));
+        assertEquals("SELECT * FROM events WHERE 1=1 AND 분야 IN (?,?) AND 사전모집여부=? "
+                + "AND 참여대상 IN (?,?,?) AND 소요시간<=? ", query.sql);
+        assertArrayEquals(new String[]{"인공지능", "O'Reilly", "현장접수",
+                "고등학생 이상", "누구나", "중학생 이상", "30"}, query.args);
+    }
+
+    @Test
+    public void emptyFilterSelectsAll() {
+        EventQuery query = EventQuery.filter(null, "", Collections.<String>emptyList(), null);
+        assertEquals("SELECT * FROM events WHERE 1=1 ", query.sql);
+        assertEquals(0, query.args.length);
+    }
+
+    @Test
+    public void unknownTargetIsKept() {
+        EventQuery query = EventQuery.filter(null, null, Collections.singletonList("전국민대상"), null);
+        assertArrayEquals(new String[]{"전국민대상"}, query.args);
+    }
+
+    @Test
+    public void chatSearchAndIds() {
+        EventQuery chat = EventQuery.forChat(null, Collections.singletonList("누구나"), 20, " 로봇 ", 8);
+        assertEquals("SELECT * FROM events WHERE 1=1 AND 참여대상 IN (?) AND 소요시간<=? "
+                + "AND (대제목 LIKE ? OR 한줄소개 LIKE ? OR 분야 LIKE ?) ORDER BY 소요시간 ASC LIMIT 8", chat.sql);
+        assertArrayEquals(new String[]{"누구나", "20", "%로봇%", "%로봇%", "%로봇%"}, chat.args);
+
+        EventQuery ids = EventQuery.byIds(new long[]{12, 7});
+        assertEquals("SELECT * FROM events WHERE id IN (?,?)", ids.sql);
+        assertArrayEquals(new String[]{"12", "7"}, ids.args);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.temidummyapp.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * MarkdownSpanBuilder 결과가 기존 ChatAdapter 정규식 방식과 같은지, 증분 update()가 전체 변환과 같은지
+ * src/test/resources/markdown 의 긴 한국어 답변 사용 - 속도/할당 비교는 benchmarks 모듈의 MarkdownSpanBuilderBenchmark
+ */
+public class MarkdownSpanBuilderTest {
+
+    private static final String[] REPLIES = {"markdown/booth_recommendation.md", "markdown/event_guide.md"};
+    private static final int CHUNK_CHARS = 6; // 스트리밍 청크 하나 (토큰 2~3개 정도)
+
+    private static final Pattern LINE_MARKER = Pattern.compile("^\\s*([-*+] |#)");
+
+    @Test
+    public void inlineTextMatchesRegexVersion() throws IOException {
+        // 기존 방식은 목록/제목을 처리하지 않으므로 인라인 강조만 있는 줄끼리 비교
+        // (기존 방식은 뒤 패스에서 기호를 지울 때 앞서 구한 스팬 위치를 보정하지 않으므로 텍스트만 비교)
+        MarkdownSpanBuilder builder = new MarkdownSpanBuilder();
+        for (String name : REPLIES) {
+            StringBuilder inline = new StringBuilder();
+            for (String line : load(name).split("\n")) {
+                if (!LINE_MARKER.matcher(line).find()) {
+                    inline.append(line).append('\n');
+                }
+            }
+            String source = inline.toString();
+            assertEquals(name, formatWithRegex(source), builder.build(source).text().toString());
+        }
+    }
+
+    @Test
+    public void listsAndHeadings() {
+        MarkdownSpanBuilder builder = new MarkdownSpanBuilder().build("## 추천 **체험**\n- 로봇 *코딩*\n1. 드론");
+        assertEquals("추천 체험\n• 로봇 코딩\n1. 드론", builder.text().toString());
+        assertEquals(3, builder.spanCount());
+        assertSpan(builder, 0, "체험", MarkdownSpanBuilder.TYPE_BOLD);
+        assertSpan(builder, 1, "추천 체험", MarkdownSpanBuilder.TYPE_HEADING_2);
+        assertSpan(builder, 2, "코딩", MarkdownSpanBuilder.TYPE_ITALIC);
+    }
+
+    @Test
+    public void unclosedMarkersStayLiteral() {
+        MarkdownSpanBuilder builder = new MarkdownSpanBuilder().build("**닫히지 않음\n2 * 3 = 6, ~~a~~");
+        assertEquals("**닫히지 않음\n2 * 3 = 6, a", builder.text().toString());
+        assertEquals(1, builder.spanCount());
+        assertSpan(builder, 0, "a", MarkdownSpanBuilder.TYPE_STRIKE);
+    }
+
+    @Test
+    public void streamingMatchesFullBuild() throws IOException {
+        for (String name : REPLIES) {
+            String reply = load(name);
+            MarkdownSpanBuilder full = new MarkdownSpanBuilder().build(reply);
+            MarkdownSpanBuilder incremental = new MarkdownSpanBuilder();
+            for (int end = CHUNK_CHARS; end < reply.length() + CHUNK_CHARS; end += CHUNK_CHARS) {
+                incremental.update(reply.substring(0, Math.min(end, reply.length())));
+            }
+
+            assertEquals(name, full.text().toString(), incremental.text().toString());
+            assertEquals(name, full.spanCount(), incremental.spanCount());
+            for (int i = 0; i < full.spanCount(); i++) {
+                assertEquals(full.spanStart(i), incremental.spanStart(i));
+                assertEquals(full.spanEnd(i), incremental.spanEnd(i));
+                assertEquals(full.spanType(i), incremental.spanType(i));
+            }
+        }
+    }
+
+    private static void assertSpan(MarkdownSpanBuilder builder, int index, String expected, int type) {
+        CharSequence text = builder.text();
+        assertEquals(expected, text.subSequence(builder.spanStart(index), builder.spanEnd(index)).toString());
+        assertEquals(type, builder.spanType(index));
+    }
+
+    /**
+     * 기존 ChatAdapter.applyMarkdownFormatting (SpannableString 생성 직전까지)
+     */
+    private static String formatWithRegex(String text) {
+        String[] patterns = {
+            "\\*\\*(.+?)\\*\\*",
+            "~~(.+?)~~",
+            "(?<!\\*)\\*(?!\\*)(.+?)(?<!\\*)\\*(?!\\*)"
+        };
+
+        String workingText = text;
+        List<int[]> formatSpans = new ArrayList<>();
+
+        for (int patternType = 0; patternType < patterns.length; patternType++) {
+            Pattern pattern = Pattern.compile(patterns[patternType]);
+            Matcher matcher = pattern.matcher(workingText);
+
+            StringBuilder newText = new StringBuilder();
+            int lastEnd = 0;
+            List<int[]> currentSpans = new ArrayList<>();
+
+            while (matcher.find()) {
+                newText.append(workingText.substring(lastEnd, matcher.start()));
+                int spanStart = newText.length();
+                newText.append(matcher.group(1));
+                currentSpans.add(new int[]{spanStart, newText.length(), patternType});
+                lastEnd = matcher.end();
+            }
+
+            if (!currentSpans.isEmpty()) {
+                newText.append(workingText.substring(lastEnd));
+                workingText = newText.toString();
+                formatSpans.addAll(currentSpans);
+            }
+        }
+        return workingText;
+    }
+
+    private static String load(String name) throws IOException {
+        InputStream is = MarkdownSpanBuilderTest.class.getClassLoader().getResourceAsStream(name);
+        if (is == null) {
+            throw new IOException("리소스 없음: " + name);
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = is.read(buf)) != -1) {
+                out.write(buf, 0, n);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } finally {
+            is.close();
+        }
+    }
+}
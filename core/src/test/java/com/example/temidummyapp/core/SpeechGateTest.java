@@ -0,0 +1,200 @@
+package com.example.temidummyapp.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SpeechGateTest {
+
+    private static final int FRAME_MS = 20;
+    private static final int FRAME_SAMPLES = SyntheticAudio.SAMPLE_RATE * FRAME_MS / 1000;
+    private static final int PRE_ROLL_MS = 300;
+    private static final int HANGOVER_MS = 500;
+    private static final int ONSET_MS = 40;
+    private static final int ECHO_ONSET_MS = 80;
+    private static final double ECHO_MARGIN_DB = 6;
+    private static final int RESIDUE_AMP = 1500;
+
+    @Test
+    public void quietHallNeverOpens() {
+        Recorder recorder = run(new SyntheticAudio(5000, 1).hall(5000, 300));
+        assertEquals(0, recorder.starts);
+        assertEquals(0, recorder.positions.size());
+    }
+
+    @Test
+    public void hissAndHumAreNotSpeech() {
+        // 말소리보다 큰 소리지만 대역/영교차율이 다름
+        Recorder recorder = run(new SyntheticAudio(4000, 2)
+                .hall(1000, 300).hiss(1000, 6000).hum(1000, 8000).hall(1000, 300));
+        assertEquals(0, recorder.starts);
+    }
+
+    @Test
+    public void speechOpensWithPreRollAndClosesAfterHangover() {
+        Recorder recorder = run(new SyntheticAudio(4000, 3)
+                .hall(1000, 300).speech(1500, 3000, 300).hall(1500, 300));
+
+        assertEquals(1, recorder.starts);
+        assertEquals(1, recorder.ends);
+        long speechStart = samples(1000);
+        long speechEnd = samples(2500);
+        long first = recorder.positions.get(0);
+        long last = recorder.positions.get(recorder.positions.size() - 1);
+        // 말 시작 전 pre-roll부터, 끝난 뒤 hangover까지
+        assertTrue("pre-roll 없음: " + first, first <= speechStart - samples(PRE_ROLL_MS) + FRAME_SAMPLES * 2);
+        assertTrue("너무 이른 시작: " + first, first >= speechStart - samples(PRE_ROLL_MS + ONSET_MS + 100));
+        assertTrue("hangover 없음: " + last, last >= speechEnd + samples(HANGOVER_MS) - FRAME_SAMPLES * 8);
+        assertTrue("늦게 닫힘: " + last, last <= speechEnd + samples(HANGOVER_MS) + FRAME_SAMPLES * 2);
+        for (int i = 1; i < recorder.positions.size(); i++) {
+            assertEquals("프레임 순서/누락", recorder.positions.get(i - 1) + FRAME_SAMPLES,
+                    (long) recorder.positions.get(i));
+        }
+    }
+
+    @Test
+    public void syllableGapsStayInsideOneSegment() {
+        Recorder recorder = run(new SyntheticAudio(6000, 4)
+                .hall(1000, 300).speech(4000, 3000, 300).hall(1000, 300));
+        assertEquals(1, recorder.starts);
+    }
+
+    @Test
+    public void loudHallRaisesNoiseFloor() {
+        // 큰 웅성거림은 통과시키지 않고, 그 위로 커진 말만 통과
+        Recorder recorder = run(new SyntheticAudio(9000, 5)
+                .hall(5000, 2000).speech(2000, 12000, 2000).hall(2000, 2000));
+        assertEquals(1, recorder.starts);
+        assertFalse("말소리 구간을 놓침", recorder.positions.isEmpty());
+        long first = recorder.positions.get(0);
+        long last = recorder.positions.get(recorder.positions.size() - 1);
+        assertTrue(first >= samples(5000 - PRE_ROLL_MS - ONSET_MS - 100));
+        assertTrue(last >= samples(7000));
+        assertTrue(last <= samples(7000 + HANGOVER_MS) + FRAME_SAMPLES * 2);
+    }
+
+    @Test
+    public void speechFromFirstFrameKeepsFirstSyllable() {
+        // 첫 음절은 잡음 바닥으로 잡히지만 다음 음절에서 열리고 pre-roll로 앞부분을 보냄
+        Recorder recorder = run(new SyntheticAudio(3000, 8).speech(2000, 3000, 300).hall(1000, 300));
+        assertEquals(1, recorder.starts);
+        assertTrue("첫 음절 누락: " + recorder.positions.get(0), recorder.positions.get(0) <= samples(100));
+    }
+
+    @Test
+    public void echoGuardIgnoresSpeakerResidue() {
+        // 에코 제거 후 남은 AI 음성 (기본 설정이면 열림)
+        SyntheticAudio residue = new SyntheticAudio(5000, 9).hall(1000, 300).speech(3000, RESIDUE_AMP, 300).hall(1000, 300);
+        assertEquals(1, run(residue).starts);
+
+        SpeechGate gate = newGate();
+        gate.setEchoGuard(true);
+        Recorder recorder = new Recorder();
+        feed(residue, gate, new AudioFramePool(FRAME_SAMPLES * 2, 64), recorder);
+        assertEquals(0, recorder.starts);
+    }
+
+    @Test
+    public void echoGuardStillLetsVisitorInterrupt() {
+        SpeechGate gate = newGate();
+        gate.setEchoGuard(true);
+        Recorder recorder = new Recorder();
+        feed(new SyntheticAudio(4000, 10).hall(1000, 300).speech(2000, 6000, 300).hall(1000, 300),
+                gate, new AudioFramePool(FRAME_SAMPLES * 2, 64), recorder);
+        assertEquals(1, recorder.starts);
+        // 더 긴 시작 판단만큼 늦지만 pre-roll로 말 시작 부분은 보냄
+        assertTrue("pre-roll 없음: " + recorder.positions.get(0),
+                recorder.positions.get(0) <= samples(1000 - PRE_ROLL_MS + ECHO_ONSET_MS) + FRAME_SAMPLES * 2);
+    }
+
+    @Test
+    public void framesReturnToPool() {
+        AudioFramePool pool = new AudioFramePool(FRAME_SAMPLES * 2, 64);
+        SpeechGate gate = newGate();
+        Recorder recorder = new Recorder();
+        feed(new SyntheticAudio(3000, 6).hall(1000, 300).speech(1000, 3000, 300).hall(1000, 300),
+                gate, pool, recorder);
+        gate.reset();
+        assertEquals(pool.created(), pool.available());
+        assertTrue(pool.created() <= 32);
+    }
+
+    @Test
+    public void reportsBytesPerMinute() {
+        SpeechGate gate = newGate();
+        feed(new SyntheticAudio(60000, 7).hall(20000, 300).speech(3000, 3000, 300).hall(37000, 300),
+                gate, new AudioFramePool(FRAME_SAMPLES * 2, 64), new Recorder());
+        assertEquals(3000, gate.framesIn());
+        assertEquals(3000L * AudioAppendEncoder.frameLength(FRAME_SAMPLES * 2), gate.inputBytesPerMinute());
+        long sentFrames = gate.framesSent();
+        assertEquals(sentFrames * AudioAppendEncoder.frameLength(FRAME_SAMPLES * 2), gate.sentBytesPerMinute());
+        assertTrue(sentFrames < 250);
+    }
+
+    @Test
+    public void eventHallMinuteSendsOnlyQuestions() {
+        // 행사장 1분 (웅성거림 + 질문 3개, 각 3초)
+        SpeechGate gate = newGate();
+        feed(new SyntheticAudio(60000, 11)
+                        .hall(8000, 600).speech(3000, 4000, 600)
+                        .hall(15000, 600).speech(3000, 4000, 600)
+                        .hall(20000, 600).speech(3000, 4000, 600)
+                        .hall(8000, 600),
+                gate, new AudioFramePool(FRAME_SAMPLES * 2, 64), new Recorder());
+        assertEquals(3, gate.segments());
+        // 9초 말소리 + 구간마다 pre-roll/hangover 0.8초 정도만 보냄
+        assertTrue("업링크가 충분히 줄지 않음: " + gate.sentBytesPerMinute(),
+                gate.sentBytesPerMinute() < gate.inputBytesPerMinute() / 4);
+    }
+
+    private static SpeechGate newGate() {
+        return new SpeechGate(new VoiceActivityDetector(SyntheticAudio.SAMPLE_RATE), FRAME_MS, PRE_ROLL_MS,
+                HANGOVER_MS, ONSET_MS, ECHO_ONSET_MS, ECHO_MARGIN_DB);
+    }
+
+    private static Recorder run(SyntheticAudio audio) {
+        Recorder recorder = new Recorder();
+        feed(audio, newGate(), new AudioFramePool(FRAME_SAMPLES * 2, 64), recorder);
+        return recorder;
+    }
+
+    private static void feed(SyntheticAudio audio, SpeechGate gate, AudioFramePool pool, Recorder recorder) {
+        int frames = audio.samples() / FRAME_SAMPLES;
+        for (int i = 0; i < frames; i++) {
+            AudioFrame frame = pool.acquire();
+            audio.fill(frame.data, i, FRAME_SAMPLES);
+            frame.set(FRAME_SAMPLES * 2, (long) i * FRAME_SAMPLES, 0);
+            gate.offer(frame, recorder);
+        }
+    }
+
+    private static long samples(int ms) {
+        return (long) SyntheticAudio.SAMPLE_RATE * ms / 1000;
+    }
+
+    private static final class Recorder implements SpeechGate.Listener {
+        final List<Long> positions = new ArrayList<>();
+        int starts = 0;
+        int ends = 0;
+
+        @Override
+        public void onSpeechStart() {
+            starts++;
+        }
+
+        @Override
+        public void onSpeechFrame(AudioFrame frame) {
+            positions.add(frame.position());
+        }
+
+        @Override
+        public void onSpeechEnd() {
+            ends++;
+        }
+    }
+}
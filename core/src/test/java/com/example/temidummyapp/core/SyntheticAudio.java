@@ -0,0 +1,100 @@
+package com.example.temidummyapp.core;
+
+import java.util.Random;
+
+/**
+ * VAD 테스트용 합성 신호 (24kHz PCM16 모노, 고정 시드)
+ */
+final class SyntheticAudio {
+
+    static final int SAMPLE_RATE = 24000;
+
+    private final Random random;
+    private final short[] samples;
+    private int length = 0;
+    private double lowPass = 0;
+
+    SyntheticAudio(int maxMs, long seed) {
+        this.random = new Random(seed);
+        this.samples = new short[SAMPLE_RATE * maxMs / 1000];
+    }
+
+    /**
+     * 행사장 웅성거림 - 1kHz 아래로 깎은 잡음 (말소리 대역이라 에너지로만 구분됨)
+     */
+    SyntheticAudio hall(int ms, double amplitude) {
+        int n = SAMPLE_RATE * ms / 1000;
+        double b = 1 - Math.exp(-2 * Math.PI * 1000.0 / SAMPLE_RATE);
+        for (int i = 0; i < n; i++) {
+            lowPass += b * (random.nextGaussian() - lowPass);
+            add(lowPass * amplitude * 3);
+        }
+        return this;
+    }
+
+    /**
+     * 쉬익 잡음 (넓은 대역)
+     */
+    SyntheticAudio hiss(int ms, double amplitude) {
+        int n = SAMPLE_RATE * ms / 1000;
+        for (int i = 0; i < n; i++) {
+            add(random.nextGaussian() * amplitude);
+        }
+        return this;
+    }
+
+    /**
+     * 낮은 웅웅 소리
+     */
+    SyntheticAudio hum(int ms, double amplitude) {
+        int n = SAMPLE_RATE * ms / 1000;
+        for (int i = 0; i < n; i++) {
+            add(Math.sin(2 * Math.PI * 60 * i / SAMPLE_RATE) * amplitude);
+        }
+        return this;
+    }
+
+    /**
+     * 유성음 흉내 - 140Hz 기본음 + 배음, 초당 4음절 (음절 사이는 조용해짐), 위에 배경 잡음
+     */
+    SyntheticAudio speech(int ms, double amplitude, double hallAmplitude) {
+        int n = SAMPLE_RATE * ms / 1000;
+        int start = length;
+        hall(ms, hallAmplitude);
+        for (int i = 0; i < n; i++) {
+            double t = (double) i / SAMPLE_RATE;
+            double voiced = 0;
+            for (int k = 1; k * 140 < 3000; k++) {
+                voiced += Math.sin(2 * Math.PI * 140 * k * t) / k;
+            }
+            double syllable = Math.abs(Math.sin(Math.PI * 4 * t));
+            int index = start + i;
+            samples[index] = clip(samples[index] + voiced * syllable * amplitude);
+        }
+        return this;
+    }
+
+    private void add(double value) {
+        samples[length++] = clip(value);
+    }
+
+    private static short clip(double value) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(value)));
+    }
+
+    int samples() {
+        return length;
+    }
+
+    /**
+     * frameSamples 단위로 PCM16 little-endian 프레임 채우기
+     */
+    void fill(byte[] frame, int frameIndex, int frameSamples) {
+        int offset = frameIndex * frameSamples;
+        for (int i = 0; i < frameSamples; i++) {
+            short sample = samples[offset + i];
+            frame[i * 2] = (byte) sample;
+            frame[i * 2 + 1] = (byte) (sample >> 8);
+        }
+    }
+}
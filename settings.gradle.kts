@@ -21,3 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "TemiDummyApp"
 include(":app")
+include(":core")
+include(":benchmarks")